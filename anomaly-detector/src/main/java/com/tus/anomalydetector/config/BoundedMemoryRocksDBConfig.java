@@ -0,0 +1,79 @@
+package com.tus.anomalydetector.config;
+
+import java.util.Map;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+/**
+ * RocksDB configuration that bounds the off-heap memory used by all state stores of the application.
+ *
+ * <p>
+ * All RocksDB instances share a single LRU block cache, and their memtables are charged against that
+ * same cache through a shared {@link WriteBufferManager}. Index and filter blocks are cached in the
+ * block cache too, so the total off-heap memory used by the state stores stays within the configured
+ * budget regardless of the number of stores or tasks.
+ * </p>
+ */
+public class BoundedMemoryRocksDBConfig implements RocksDBConfigSetter {
+
+    public static final String TOTAL_OFF_HEAP_MEMORY_CONFIG = "anomaly.detector.rocksdb.total.off.heap.memory.bytes";
+
+    public static final String TOTAL_MEMTABLE_MEMORY_CONFIG = "anomaly.detector.rocksdb.total.memtable.memory.bytes";
+
+    private static final double INDEX_FILTER_BLOCK_RATIO = 0.1;
+
+    private static Cache cache;
+
+    private static WriteBufferManager writeBufferManager;
+
+    /**
+     * Configures a RocksDB instance to use the shared block cache and write buffer manager.
+     *
+     * @param storeName the name of the state store
+     * @param options   the RocksDB options to configure
+     * @param configs   the Kafka Streams configuration
+     */
+    @Override
+    public void setConfig(final String storeName, final Options options, final Map<String, Object> configs) {
+        initSharedMemory(configs);
+
+        final BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+        tableConfig.setBlockCache(cache);
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        tableConfig.setCacheIndexAndFilterBlocksWithHighPriority(true);
+        tableConfig.setPinTopLevelIndexAndFilter(true);
+        options.setWriteBufferManager(writeBufferManager);
+        options.setTableFormatConfig(tableConfig);
+    }
+
+    /**
+     * Releases the resources of a RocksDB instance.
+     * <p>
+     * The shared block cache and write buffer manager are not closed, as they are used by every store.
+     * </p>
+     *
+     * @param storeName the name of the state store
+     * @param options   the RocksDB options of the store
+     */
+    @Override
+    public void close(final String storeName, final Options options) {
+        // The shared cache and write buffer manager outlive individual stores.
+    }
+
+    private static synchronized void initSharedMemory(final Map<String, Object> configs) {
+        if (cache != null) {
+            return;
+        }
+
+        final long totalOffHeapMemory = Long.parseLong(String.valueOf(configs.get(TOTAL_OFF_HEAP_MEMORY_CONFIG)));
+        final long totalMemtableMemory = Long.parseLong(String.valueOf(configs.get(TOTAL_MEMTABLE_MEMORY_CONFIG)));
+        cache = new LRUCache(totalOffHeapMemory, -1, false, INDEX_FILTER_BLOCK_RATIO);
+        writeBufferManager = new WriteBufferManager(totalMemtableMemory, cache);
+    }
+}
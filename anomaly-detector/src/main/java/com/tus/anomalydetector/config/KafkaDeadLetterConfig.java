@@ -0,0 +1,90 @@
+package com.tus.anomalydetector.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Configures the dead-letter topics of the network messages and the network anomalies.
+ * <p>
+ * Defines the {@value AnomalyDetectorConstants#NETWORK_MESSAGES_DLQ_TOPIC} and
+ * {@value AnomalyDetectorConstants#NETWORK_ANOMALIES_DLQ_TOPIC} topics, the KafkaAdmin
+ * that creates them on the Kafka Streams bootstrap servers, and a byte array
+ * KafkaTemplate that publishes records which cannot be deserialized with their
+ * original bytes and network anomalies which cannot be written to MongoDB.
+ * </p>
+ */
+@Configuration
+public class KafkaDeadLetterConfig {
+
+    @Value("${spring.kafka.streams.bootstrap-servers}")
+    private String bootstrapAddress;
+
+    @Value("${anomaly-detector.network-messages-dlq.partitions}")
+    private int partitions;
+
+    @Value("${anomaly-detector.network-anomalies-dlq.partitions}")
+    private int networkAnomaliesPartitions;
+
+    @Value("${spring.kafka.streams.replication-factor}")
+    private short replicationFactor;
+
+    /**
+     * Configures the KafkaAdmin bean.
+     *
+     * @return a KafkaAdmin instance configured with the bootstrap servers address.
+     */
+    @Bean
+    public KafkaAdmin kafkaAdmin() {
+        final Map<String, Object> configs = new HashMap<>();
+        configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapAddress);
+        return new KafkaAdmin(configs);
+    }
+
+    /**
+     * Defines the dead-letter topic of the network messages.
+     *
+     * @return a NewTopic instance with the configured partitions and replication factor.
+     */
+    @Bean
+    public NewTopic networkMessagesDlqTopic() {
+        return new NewTopic(AnomalyDetectorConstants.NETWORK_MESSAGES_DLQ_TOPIC, this.partitions, this.replicationFactor);
+    }
+
+    /**
+     * Defines the dead-letter topic of the network anomalies.
+     *
+     * @return a NewTopic instance with the configured partitions and replication factor.
+     */
+    @Bean
+    public NewTopic networkAnomaliesDlqTopic() {
+        return new NewTopic(AnomalyDetectorConstants.NETWORK_ANOMALIES_DLQ_TOPIC, this.networkAnomaliesPartitions, this.replicationFactor);
+    }
+
+    /**
+     * Configures the KafkaTemplate used to publish dead letters.
+     *
+     * @return a KafkaTemplate that writes keys and values as raw bytes.
+     */
+    @Bean
+    public KafkaTemplate<byte[], byte[]> deadLetterKafkaTemplate() {
+        final Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapAddress);
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configs));
+    }
+}
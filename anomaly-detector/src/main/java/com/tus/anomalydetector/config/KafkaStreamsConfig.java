@@ -3,6 +3,7 @@ package com.tus.anomalydetector.config;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsConfig;
 
@@ -10,8 +11,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.streams.RecoveringDeserializationExceptionHandler;
 
-import com.tus.anomalydetector.utils.NetworkMessageSerde;
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+import com.tus.anomalydetector.streams.NetworkMessageDeadLetterRecoverer;
+import com.tus.anomalydetector.streams.NetworkMessageProductionExceptionHandler;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+import com.tus.networkmessage.utils.NetworkMessageSerde;
 
 /**
  * Configuration class for setting up Kafka Streams.
@@ -22,6 +28,25 @@ import com.tus.anomalydetector.utils.NetworkMessageSerde;
  * the default key and value serializers/deserializers (Serdes) used
  * by Kafka Streams.
  * </p>
+ * <p>
+ * State is kept in RocksDB under a persistent state directory with a
+ * bounded memory budget (see {@link BoundedMemoryRocksDBConfig}) and
+ * replicated to standby tasks. When a group instance ID is configured,
+ * static group membership lets an instance restart within the session
+ * timeout without triggering a rebalance or a state restore.
+ * </p>
+ * <p>
+ * The application server is the host and port at which this instance serves
+ * its REST API, so that other instances can forward interactive queries for
+ * state stores they do not own.
+ * </p>
+ * <p>
+ * Network messages that cannot be deserialized are sent to a dead-letter
+ * topic by the {@link NetworkMessageDeadLetterRecoverer} instead of killing
+ * the stream thread, and malformed detector configurations are skipped.
+ * Records too large to produce are skipped by the
+ * {@link NetworkMessageProductionExceptionHandler}.
+ * </p>
  */
 @Configuration
 public class KafkaStreamsConfig {
@@ -32,28 +57,72 @@ public class KafkaStreamsConfig {
     @Value("${spring.kafka.streams.bootstrap-servers}")
     private String bootstrapAddress;
 
+    @Value("${spring.kafka.streams.application-server}")
+    private String applicationServer;
+
     @Value("${spring.kafka.streams.num-stream-threads}")
     private int streamThreads;
 
     @Value("${spring.kafka.streams.replication-factor}")
     private int replicationFactor;
 
+    @Value("${spring.kafka.streams.state-dir}")
+    private String stateDir;
+
+    @Value("${spring.kafka.streams.num-standby-replicas}")
+    private int standbyReplicas;
+
+    @Value("${spring.kafka.streams.group-instance-id:}")
+    private String groupInstanceId;
+
+    @Value("${spring.kafka.streams.session-timeout-ms}")
+    private int sessionTimeoutMs;
+
+    @Value("${spring.kafka.streams.commit-interval-ms}")
+    private long commitIntervalMs;
+
+    @Value("${spring.kafka.streams.rocksdb.total-off-heap-memory-bytes}")
+    private long rocksDbTotalOffHeapMemory;
+
+    @Value("${spring.kafka.streams.rocksdb.total-memtable-memory-bytes}")
+    private long rocksDbTotalMemtableMemory;
+
     /**
      * Creates a KafkaStreamsConfiguration bean with the necessary
      * properties to configure Kafka Streams.
      *
+     * @param networkMessageDeadLetterRecoverer the recoverer that sends records which cannot be deserialized to the dead-letter topic
+     * @param anomalyDetectionMetrics           the metrics in which production errors are counted
+     *
      * @return the KafkaStreamsConfiguration bean
      */
     @Bean
-    public KafkaStreamsConfiguration kafkaStreamsConfiguration() {
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration(final NetworkMessageDeadLetterRecoverer networkMessageDeadLetterRecoverer,
+                                                               final AnomalyDetectionMetrics anomalyDetectionMetrics) {
         final Map<String, Object> configs = new HashMap<>();
 
         configs.put(StreamsConfig.APPLICATION_ID_CONFIG, this.applicationId);
         configs.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapAddress);
+        configs.put(StreamsConfig.APPLICATION_SERVER_CONFIG, this.applicationServer);
         configs.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class.getName());
         configs.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, NetworkMessageSerde.class.getName());
         configs.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, this.streamThreads);
         configs.put(StreamsConfig.REPLICATION_FACTOR_CONFIG, this.replicationFactor);
+        configs.put(StreamsConfig.STATE_DIR_CONFIG, this.stateDir);
+        configs.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, this.standbyReplicas);
+        configs.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, this.commitIntervalMs);
+        configs.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, BoundedMemoryRocksDBConfig.class.getName());
+        configs.put(BoundedMemoryRocksDBConfig.TOTAL_OFF_HEAP_MEMORY_CONFIG, this.rocksDbTotalOffHeapMemory);
+        configs.put(BoundedMemoryRocksDBConfig.TOTAL_MEMTABLE_MEMORY_CONFIG, this.rocksDbTotalMemtableMemory);
+        configs.put(StreamsConfig.consumerPrefix(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG), this.sessionTimeoutMs);
+        configs.put(StreamsConfig.DEFAULT_DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG, RecoveringDeserializationExceptionHandler.class);
+        configs.put(RecoveringDeserializationExceptionHandler.KSTREAM_DESERIALIZATION_RECOVERER, networkMessageDeadLetterRecoverer);
+        configs.put(StreamsConfig.DEFAULT_PRODUCTION_EXCEPTION_HANDLER_CLASS_CONFIG, NetworkMessageProductionExceptionHandler.class);
+        configs.put(AnomalyDetectorConstants.ANOMALY_DETECTION_METRICS_CONFIG, anomalyDetectionMetrics);
+
+        if (!this.groupInstanceId.isBlank()) {
+            configs.put(StreamsConfig.consumerPrefix(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG), this.groupInstanceId);
+        }
 
         return new KafkaStreamsConfiguration(configs);
     }
@@ -0,0 +1,65 @@
+package com.tus.anomalydetector.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.tus.anomalydetector.models.NetworkDetectorConfig;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+import com.tus.anomalydetector.utils.NetworkDetectorConfigSerde;
+
+/**
+ * Configures the topic of the per-network detector configurations.
+ * <p>
+ * Defines the compacted {@value AnomalyDetectorConstants#NETWORK_DETECTOR_CONFIG_TOPIC} topic, which
+ * keeps the latest configuration of every network, and the KafkaTemplate that the REST API writes
+ * configurations to it with. The topic is created by the KafkaAdmin of {@link KafkaDeadLetterConfig}.
+ * </p>
+ */
+@Configuration
+public class NetworkDetectorConfigTopicConfig {
+
+    @Value("${spring.kafka.streams.bootstrap-servers}")
+    private String bootstrapAddress;
+
+    @Value("${spring.kafka.streams.replication-factor}")
+    private int replicationFactor;
+
+    /**
+     * Defines the compacted topic of the network detector configurations.
+     *
+     * @return a NewTopic instance with a single partition and the configured replication factor.
+     */
+    @Bean
+    public NewTopic networkDetectorConfigTopic() {
+        return TopicBuilder.name(AnomalyDetectorConstants.NETWORK_DETECTOR_CONFIG_TOPIC)
+                .partitions(1)
+                .replicas(this.replicationFactor)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Configures the KafkaTemplate used to publish network detector configurations.
+     *
+     * @return a KafkaTemplate that writes network IDs as keys and configurations as JSON values.
+     */
+    @Bean
+    public KafkaTemplate<String, NetworkDetectorConfig> networkDetectorConfigKafkaTemplate() {
+        final Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapAddress);
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, NetworkDetectorConfigSerde.NetworkDetectorConfigSerializer.class);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configs));
+    }
+}
@@ -0,0 +1,35 @@
+package com.tus.anomalydetector.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+
+import com.tus.anomalydetector.streams.NetworkMessageTracing;
+
+/**
+ * Configures the tracing of network messages through the detector.
+ * <p>
+ * The tracer, the propagator, the sampling probability and the OTLP exporter are auto-configured from
+ * the {@code management.tracing} and {@code management.otlp.tracing} properties. Defining a
+ * {@code SpanExporter} bean, such as an in-memory exporter, replaces the OTLP export. When tracing is
+ * disabled, network messages are traced with the no-op tracer and propagator.
+ * </p>
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Configures the tracing of network messages.
+     *
+     * @param tracer     the auto-configured tracer, if tracing is enabled
+     * @param propagator the auto-configured propagator, if tracing is enabled
+     * @return a NetworkMessageTracing instance backed by the tracer and propagator.
+     */
+    @Bean
+    public NetworkMessageTracing networkMessageTracing(final ObjectProvider<Tracer> tracer, final ObjectProvider<Propagator> propagator) {
+        return new NetworkMessageTracing(tracer.getIfAvailable(() -> Tracer.NOOP), propagator.getIfAvailable(() -> Propagator.NOOP));
+    }
+}
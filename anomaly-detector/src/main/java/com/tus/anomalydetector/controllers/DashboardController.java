@@ -0,0 +1,59 @@
+package com.tus.anomalydetector.controllers;
+
+import java.time.Instant;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tus.anomalydetector.models.DashboardSnapshot;
+import com.tus.anomalydetector.services.DashboardService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Controller responsible for handling requests related to the dashboard, such as retrieving
+ * the network summaries together with the latest anomalies of every network.
+ * <p>
+ * The controller interacts with the {@link DashboardService} to perform the necessary
+ * actions and returns appropriate HTTP responses.
+ * </p>
+ */
+@Slf4j
+@RestController
+@RequestMapping(AnomalyDetectorConstants.DASHBOARD_CONTROLLER_URL)
+@CrossOrigin
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    /**
+     * Constructs a new DashboardController with the provided DashboardService.
+     *
+     * @param dashboardService The service to use for dashboard operations.
+     */
+    public DashboardController(final DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * Retrieves the network summaries and the latest anomalies of every network.
+     *
+     * @param anomalyLimit the number of latest anomalies to return per network.
+     * @param since        the ISO-8601 version of a previous snapshot, to return only what changed after it.
+     * @return The dashboard snapshot.
+     */
+    @GetMapping
+    public ResponseEntity<DashboardSnapshot> getDashboard(
+            @RequestParam(defaultValue = "${anomaly-detector.dashboard.anomaly-limit}") final int anomalyLimit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant since) {
+        log.info("getDashboard() Retrieving the dashboard since: {}.", since);
+        final DashboardSnapshot dashboardSnapshot = this.dashboardService.getDashboard(anomalyLimit, since);
+        return ResponseEntity.ok(dashboardSnapshot);
+    }
+}
@@ -1,17 +1,25 @@
 package com.tus.anomalydetector.controllers;
 
-import java.util.List;
+import java.time.Instant;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.tus.anomalydetector.models.NetworkAnomalyExportFormat;
+import com.tus.anomalydetector.models.NetworkAnomalyFilter;
+import com.tus.anomalydetector.models.NetworkAnomalyPage;
 import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
 import com.tus.anomalydetector.services.NetworkAnomalyService;
 import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
@@ -30,6 +38,8 @@ import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
 @CrossOrigin
 public class NetworkAnomalyController {
 
+    private static final String EXPORT_FILE_NAME = "network-anomalies";
+
     private final NetworkAnomalyService networkAnomalyService;
 
     /**
@@ -55,28 +65,81 @@ public class NetworkAnomalyController {
     }
 
     /**
-     * Retrieves network anomalies for a given network ID.
+     * Retrieves a page of the network anomalies for a given network ID, newest first.
      *
-     * @param networkId the ID of the network.
-     * @return A list of the latest network anomalies for the specified network.
+     * @param networkId      the ID of the network.
+     * @param from           the ISO-8601 inclusive start of the time range.
+     * @param to             the ISO-8601 inclusive end of the time range.
+     * @param minSizeInBytes the minimum size of the anomalies in bytes.
+     * @param pageSize       the maximum number of anomalies in the page.
+     * @param pageToken      the token of the page to retrieve, as returned with the previous page.
+     * @return A page of the network anomalies for the specified network.
      */
     @GetMapping("/network/{networkId}")
-    public ResponseEntity<List<NetworkAnomaly>> getNetworkAnomaliesByNetworkId(@PathVariable final long networkId) {
+    public ResponseEntity<NetworkAnomalyPage> getNetworkAnomaliesByNetworkId(
+            @PathVariable final long networkId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to,
+            @RequestParam(required = false) final Double minSizeInBytes,
+            @RequestParam(defaultValue = "${anomaly-detector.network-anomalies.page-size}") final int pageSize,
+            @RequestParam(required = false) final String pageToken) {
         log.info("getNetworkAnomaliesByNetworkId() Retrieving network anomalies for network with ID: {}.", networkId);
-        final List<NetworkAnomaly> networkAnomalies = this.networkAnomalyService.getNetworkAnomaliesByNetworkId(networkId);
-        return ResponseEntity.ok(networkAnomalies);
+        final NetworkAnomalyPage networkAnomalyPage = this.networkAnomalyService.getNetworkAnomalies(
+                new NetworkAnomalyFilter(networkId, from, to, minSizeInBytes), pageSize, pageToken);
+        return ResponseEntity.ok(networkAnomalyPage);
     }
 
     /**
-     * Retrieves network anomalies.
+     * Retrieves a page of the network anomalies, newest first.
      *
-     * @return A list of network anomalies.
+     * @param from           the ISO-8601 inclusive start of the time range.
+     * @param to             the ISO-8601 inclusive end of the time range.
+     * @param minSizeInBytes the minimum size of the anomalies in bytes.
+     * @param pageSize       the maximum number of anomalies in the page.
+     * @param pageToken      the token of the page to retrieve, as returned with the previous page.
+     * @return A page of the network anomalies.
      */
     @GetMapping
-    public ResponseEntity<List<NetworkAnomaly>> getNetworkAnomalies() {
+    public ResponseEntity<NetworkAnomalyPage> getNetworkAnomalies(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to,
+            @RequestParam(required = false) final Double minSizeInBytes,
+            @RequestParam(defaultValue = "${anomaly-detector.network-anomalies.page-size}") final int pageSize,
+            @RequestParam(required = false) final String pageToken) {
         log.info("getNetworkAnomalies() Retrieving network anomalies.");
-        final List<NetworkAnomaly> networkAnomalies = this.networkAnomalyService.getNetworkAnomalies();
-        return ResponseEntity.ok(networkAnomalies);
+        final NetworkAnomalyPage networkAnomalyPage = this.networkAnomalyService.getNetworkAnomalies(
+                new NetworkAnomalyFilter(null, from, to, minSizeInBytes), pageSize, pageToken);
+        return ResponseEntity.ok(networkAnomalyPage);
+    }
+
+    /**
+     * Exports every network anomaly matching the filters, oldest first, as a file download.
+     *
+     * @param networkId      the ID of the network, defaults to every network.
+     * @param from           the ISO-8601 inclusive start of the time range.
+     * @param to             the ISO-8601 inclusive end of the time range.
+     * @param minSizeInBytes the minimum size of the anomalies in bytes.
+     * @param format         the export format, ndjson or csv.
+     * @return A response entity streaming the network anomalies.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNetworkAnomalies(
+            @RequestParam(required = false) final Long networkId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to,
+            @RequestParam(required = false) final Double minSizeInBytes,
+            @RequestParam(defaultValue = "ndjson") final String format) {
+        log.info("exportNetworkAnomalies() Exporting network anomalies as: {}.", format);
+        final NetworkAnomalyExportFormat exportFormat = this.networkAnomalyService.getExportFormat(format);
+        final StreamingResponseBody networkAnomalies = this.networkAnomalyService.exportNetworkAnomalies(
+                new NetworkAnomalyFilter(networkId, from, to, minSizeInBytes), exportFormat);
+        final ContentDisposition contentDisposition = ContentDisposition.attachment()
+                .filename(EXPORT_FILE_NAME + "." + exportFormat.getName())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+                .body(networkAnomalies);
     }
 
     /**
@@ -0,0 +1,53 @@
+package com.tus.anomalydetector.controllers;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tus.anomalydetector.persistence.documents.NetworkAnomalyStorm;
+import com.tus.anomalydetector.services.NetworkAnomalyStormService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Controller responsible for handling requests related to network anomaly storms,
+ * such as retrieving the latest anomaly storms.
+ * <p>
+ * The controller interacts with the {@link NetworkAnomalyStormService} to perform the necessary
+ * actions and returns appropriate HTTP responses.
+ * </p>
+ */
+@Slf4j
+@RestController
+@RequestMapping(AnomalyDetectorConstants.NETWORK_ANOMALY_STORM_CONTROLLER_URL)
+@CrossOrigin
+public class NetworkAnomalyStormController {
+
+    private final NetworkAnomalyStormService networkAnomalyStormService;
+
+    /**
+     * Constructs a new NetworkAnomalyStormController with the provided NetworkAnomalyStormService.
+     *
+     * @param networkAnomalyStormService The service to use for network anomaly storm operations.
+     */
+    public NetworkAnomalyStormController(final NetworkAnomalyStormService networkAnomalyStormService) {
+        this.networkAnomalyStormService = networkAnomalyStormService;
+    }
+
+    /**
+     * Retrieves the latest network anomaly storms.
+     *
+     * @return A list of the latest network anomaly storms.
+     */
+    @GetMapping
+    public ResponseEntity<List<NetworkAnomalyStorm>> getNetworkAnomalyStorms() {
+        log.info("getNetworkAnomalyStorms() Retrieving network anomaly storms.");
+        final List<NetworkAnomalyStorm> networkAnomalyStorms = this.networkAnomalyStormService.getNetworkAnomalyStorms();
+        return ResponseEntity.ok(networkAnomalyStorms);
+    }
+}
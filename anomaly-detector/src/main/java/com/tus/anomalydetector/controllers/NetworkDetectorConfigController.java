@@ -0,0 +1,100 @@
+package com.tus.anomalydetector.controllers;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tus.anomalydetector.models.NetworkDetectorConfig;
+import com.tus.anomalydetector.services.NetworkDetectorConfigService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Controller responsible for handling requests related to the per-network detector configurations,
+ * such as retrieving, saving and deleting the thresholds of a network.
+ * <p>
+ * Saving and deleting are accepted once the change is written to the configuration topic, and the
+ * change applies to every instance shortly after. The controller interacts with the
+ * {@link NetworkDetectorConfigService} to perform the necessary actions and returns appropriate HTTP
+ * responses.
+ * </p>
+ */
+@Slf4j
+@RestController
+@RequestMapping(AnomalyDetectorConstants.NETWORK_DETECTOR_CONFIG_CONTROLLER_URL)
+@CrossOrigin
+public class NetworkDetectorConfigController {
+
+    private final NetworkDetectorConfigService networkDetectorConfigService;
+
+    /**
+     * Constructs a new NetworkDetectorConfigController with the provided NetworkDetectorConfigService.
+     *
+     * @param networkDetectorConfigService The service to use for network detector configuration operations.
+     */
+    public NetworkDetectorConfigController(final NetworkDetectorConfigService networkDetectorConfigService) {
+        this.networkDetectorConfigService = networkDetectorConfigService;
+    }
+
+    /**
+     * Retrieves the detector configurations of all networks that override the defaults.
+     *
+     * @return A list of network detector configurations.
+     */
+    @GetMapping
+    public ResponseEntity<List<NetworkDetectorConfig>> getNetworkDetectorConfigs() {
+        log.info("getNetworkDetectorConfigs() Retrieving network detector configurations.");
+        final List<NetworkDetectorConfig> networkDetectorConfigs = this.networkDetectorConfigService.getNetworkDetectorConfigs();
+        return ResponseEntity.ok(networkDetectorConfigs);
+    }
+
+    /**
+     * Retrieves the detector configuration of a network.
+     *
+     * @param networkId The ID of the network.
+     * @return The detector configuration of the network.
+     */
+    @GetMapping("/network/{networkId}")
+    public ResponseEntity<NetworkDetectorConfig> getNetworkDetectorConfigByNetworkId(@PathVariable final long networkId) {
+        log.info("getNetworkDetectorConfigByNetworkId() Retrieving the detector configuration of network with ID: {}.", networkId);
+        final NetworkDetectorConfig networkDetectorConfig = this.networkDetectorConfigService.getNetworkDetectorConfigByNetworkId(networkId);
+        return ResponseEntity.ok(networkDetectorConfig);
+    }
+
+    /**
+     * Saves the detector configuration of a network.
+     *
+     * @param networkId             The ID of the network.
+     * @param networkDetectorConfig The detector configuration to save.
+     * @return The accepted detector configuration.
+     */
+    @PutMapping("/network/{networkId}")
+    public ResponseEntity<NetworkDetectorConfig> saveNetworkDetectorConfig(@PathVariable final long networkId,
+                                                                           @RequestBody final NetworkDetectorConfig networkDetectorConfig) {
+        log.info("saveNetworkDetectorConfig() Saving the detector configuration of network with ID: {}.", networkId);
+        final NetworkDetectorConfig savedNetworkDetectorConfig = this.networkDetectorConfigService.saveNetworkDetectorConfig(networkId, networkDetectorConfig);
+        return ResponseEntity.accepted().body(savedNetworkDetectorConfig);
+    }
+
+    /**
+     * Deletes the detector configuration of a network, so that the network falls back to the defaults.
+     *
+     * @param networkId The ID of the network.
+     * @return A response entity with no content.
+     */
+    @DeleteMapping("/network/{networkId}")
+    public ResponseEntity<Void> deleteNetworkDetectorConfigByNetworkId(@PathVariable final long networkId) {
+        log.info("deleteNetworkDetectorConfigByNetworkId() Deleting the detector configuration of network with ID: {}.", networkId);
+        this.networkDetectorConfigService.deleteNetworkDetectorConfigByNetworkId(networkId);
+        return ResponseEntity.accepted().build();
+    }
+}
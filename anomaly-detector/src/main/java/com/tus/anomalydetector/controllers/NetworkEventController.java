@@ -0,0 +1,69 @@
+package com.tus.anomalydetector.controllers;
+
+import java.util.List;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tus.anomalydetector.services.NetworkEventService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Controller responsible for streaming live network anomalies and network summary changes
+ * to clients as Server-Sent Events.
+ * <p>
+ * The controller interacts with the {@link NetworkEventService} to subscribe clients and returns
+ * the event stream of the subscription.
+ * </p>
+ */
+@Slf4j
+@RestController
+@RequestMapping(AnomalyDetectorConstants.NETWORK_EVENT_CONTROLLER_URL)
+@CrossOrigin
+public class NetworkEventController {
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final NetworkEventService networkEventService;
+
+    /**
+     * Constructs a new NetworkEventController with the provided NetworkEventService.
+     *
+     * @param networkEventService The service to use for network event subscriptions.
+     */
+    public NetworkEventController(final NetworkEventService networkEventService) {
+        this.networkEventService = networkEventService;
+    }
+
+    /**
+     * Subscribes to the events of the given networks.
+     *
+     * <p>
+     * Browsers send the ID of the last event they received in the {@code Last-Event-ID} header when they
+     * reconnect, so the events missed in between are sent first. Clients that cannot set the header pass
+     * it as the {@code lastEventId} parameter instead.
+     * </p>
+     *
+     * @param networkIds           the IDs of the networks to subscribe to, defaults to every network.
+     * @param lastEventIdHeader    the ID of the last event received before reconnecting.
+     * @param lastEventIdParameter the ID of the last event received before reconnecting, if the header is not set.
+     * @return The event stream of the subscription.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(name = "networkId", required = false) final List<Long> networkIds,
+                                @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) final String lastEventIdHeader,
+                                @RequestParam(name = "lastEventId", required = false) final String lastEventIdParameter) {
+        log.info("subscribe() Subscribing to network events for networks: {}.", networkIds);
+        final String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParameter;
+        return this.networkEventService.subscribe(networkIds == null ? Set.of() : Set.copyOf(networkIds), lastEventId);
+    }
+}
@@ -0,0 +1,83 @@
+package com.tus.anomalydetector.controllers;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tus.anomalydetector.models.NetworkIncidentStatus;
+import com.tus.anomalydetector.persistence.documents.NetworkIncident;
+import com.tus.anomalydetector.services.NetworkIncidentService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Controller responsible for handling requests related to network incidents,
+ * such as retrieving the open and closed incidents of the networks.
+ * <p>
+ * The controller interacts with the {@link NetworkIncidentService} to perform the necessary
+ * actions and returns appropriate HTTP responses.
+ * </p>
+ */
+@Slf4j
+@RestController
+@RequestMapping(AnomalyDetectorConstants.NETWORK_INCIDENT_CONTROLLER_URL)
+@CrossOrigin
+public class NetworkIncidentController {
+
+    private final NetworkIncidentService networkIncidentService;
+
+    /**
+     * Constructs a new NetworkIncidentController with the provided NetworkIncidentService.
+     *
+     * @param networkIncidentService The service to use for network incident operations.
+     */
+    public NetworkIncidentController(final NetworkIncidentService networkIncidentService) {
+        this.networkIncidentService = networkIncidentService;
+    }
+
+    /**
+     * Retrieves a network incident by its ID.
+     *
+     * @param id The ID of the network incident to retrieve.
+     * @return The network incident with the provided ID.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<NetworkIncident> getNetworkIncidentById(@PathVariable final String id) {
+        log.info("getNetworkIncidentById() Retrieving network incident with ID: {}.", id);
+        final NetworkIncident networkIncident = this.networkIncidentService.getNetworkIncidentById(id);
+        return ResponseEntity.ok(networkIncident);
+    }
+
+    /**
+     * Retrieves network incidents for a given network ID.
+     *
+     * @param networkId the ID of the network.
+     * @return A list of the latest network incidents for the specified network.
+     */
+    @GetMapping("/network/{networkId}")
+    public ResponseEntity<List<NetworkIncident>> getNetworkIncidentsByNetworkId(@PathVariable final long networkId) {
+        log.info("getNetworkIncidentsByNetworkId() Retrieving network incidents for network with ID: {}.", networkId);
+        final List<NetworkIncident> networkIncidents = this.networkIncidentService.getNetworkIncidentsByNetworkId(networkId);
+        return ResponseEntity.ok(networkIncidents);
+    }
+
+    /**
+     * Retrieves network incidents, optionally only those with a given status.
+     *
+     * @param status The status of the incidents to retrieve, or all incidents if not given.
+     * @return A list of network incidents.
+     */
+    @GetMapping
+    public ResponseEntity<List<NetworkIncident>> getNetworkIncidents(@RequestParam(required = false) final NetworkIncidentStatus status) {
+        log.info("getNetworkIncidents() Retrieving network incidents. Status: {}.", status);
+        final List<NetworkIncident> networkIncidents = this.networkIncidentService.getNetworkIncidents(status);
+        return ResponseEntity.ok(networkIncidents);
+    }
+}
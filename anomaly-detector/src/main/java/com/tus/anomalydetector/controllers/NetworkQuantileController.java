@@ -0,0 +1,98 @@
+package com.tus.anomalydetector.controllers;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tus.anomalydetector.models.NetworkQuantiles;
+import com.tus.anomalydetector.services.NetworkQuantileService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Controller responsible for handling requests related to the percentiles of the message sizes of
+ * the networks, such as retrieving the p50, p95 and p99 of a network.
+ * <p>
+ * The {@value AnomalyDetectorConstants#STATE_STORE_LOCAL_URL} endpoints return the serialized quantile
+ * sketches held by this instance only and are called by the other instances when they forward or fan out
+ * a query.
+ * </p>
+ * <p>
+ * The controller interacts with the {@link NetworkQuantileService} to perform the necessary
+ * actions and returns appropriate HTTP responses.
+ * </p>
+ */
+@Slf4j
+@RestController
+@RequestMapping(AnomalyDetectorConstants.NETWORK_QUANTILE_CONTROLLER_URL)
+@CrossOrigin
+public class NetworkQuantileController {
+
+    private final NetworkQuantileService networkQuantileService;
+
+    /**
+     * Constructs a new NetworkQuantileController with the provided NetworkQuantileService.
+     *
+     * @param networkQuantileService The service to use for network quantile operations.
+     */
+    public NetworkQuantileController(final NetworkQuantileService networkQuantileService) {
+        this.networkQuantileService = networkQuantileService;
+    }
+
+    /**
+     * Retrieves the percentiles of the message sizes of a given network ID.
+     *
+     * @param networkId the ID of the network.
+     * @return The percentiles of the specified network.
+     */
+    @GetMapping("/network/{networkId}")
+    public ResponseEntity<NetworkQuantiles> getNetworkQuantilesByNetworkId(@PathVariable final long networkId) {
+        log.info("getNetworkQuantilesByNetworkId() Retrieving network quantiles for network with ID: {}.", networkId);
+        final NetworkQuantiles networkQuantiles = this.networkQuantileService.getNetworkQuantilesByNetworkId(networkId);
+        return ResponseEntity.ok(networkQuantiles);
+    }
+
+    /**
+     * Retrieves the percentiles of the message sizes of all networks.
+     *
+     * @return A list of the percentiles of the networks.
+     */
+    @GetMapping
+    public ResponseEntity<List<NetworkQuantiles>> getNetworkQuantiles() {
+        log.info("getNetworkQuantiles() Retrieving network quantiles.");
+        final List<NetworkQuantiles> networkQuantiles = this.networkQuantileService.getNetworkQuantiles();
+        return ResponseEntity.ok(networkQuantiles);
+    }
+
+    /**
+     * Retrieves the serialized quantile sketch of a given network ID from the state stores of this instance only.
+     *
+     * @param networkId the ID of the network.
+     * @return The serialized quantile sketch of the specified network keyed by its ID, if this instance holds it.
+     */
+    @GetMapping(AnomalyDetectorConstants.STATE_STORE_LOCAL_URL + "/network/{networkId}")
+    public ResponseEntity<Map<Long, byte[]>> getLocalQuantileSketchesByNetworkId(@PathVariable final long networkId) {
+        log.info("getLocalQuantileSketchesByNetworkId() Retrieving local quantile sketches for network with ID: {}.", networkId);
+        final Map<Long, byte[]> quantileSketches = this.networkQuantileService.getLocalQuantileSketchesByNetworkId(networkId);
+        return ResponseEntity.ok(quantileSketches);
+    }
+
+    /**
+     * Retrieves the serialized quantile sketches from the state stores of this instance only.
+     *
+     * @return The serialized quantile sketches held by this instance keyed by network ID.
+     */
+    @GetMapping(AnomalyDetectorConstants.STATE_STORE_LOCAL_URL)
+    public ResponseEntity<Map<Long, byte[]>> getLocalQuantileSketches() {
+        log.info("getLocalQuantileSketches() Retrieving local quantile sketches.");
+        final Map<Long, byte[]> quantileSketches = this.networkQuantileService.getLocalQuantileSketches();
+        return ResponseEntity.ok(quantileSketches);
+    }
+}
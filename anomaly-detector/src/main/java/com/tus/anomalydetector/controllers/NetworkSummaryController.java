@@ -12,14 +12,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.tus.anomalydetector.persistence.documents.NetworkSummary;
-import com.tus.anomalydetector.services.NetworkSummaryService;
+import com.tus.anomalydetector.services.NetworkSummaryQueryService;
 import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
 
 /**
  * Controller responsible for handling requests related to network summary operations,
  * such as retrieving network summaries.
  * <p>
- * The controller interacts with the {@link NetworkSummaryService} to perform the necessary
+ * The summaries are served from the Kafka Streams state stores of the anomaly detector instances.
+ * The {@value AnomalyDetectorConstants#STATE_STORE_LOCAL_URL} endpoints only read the stores of
+ * this instance and are called by the other instances when they forward or fan out a query.
+ * </p>
+ * <p>
+ * The controller interacts with the {@link NetworkSummaryQueryService} to perform the necessary
  * actions and returns appropriate HTTP responses.
  * </p>
  */
@@ -29,15 +34,15 @@ import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
 @CrossOrigin
 public class NetworkSummaryController {
 
-    private final NetworkSummaryService networkSummaryService;
+    private final NetworkSummaryQueryService networkSummaryQueryService;
 
     /**
-     * Constructs a new NetworkSummaryController with the provided NetworkSummaryService.
+     * Constructs a new NetworkSummaryController with the provided NetworkSummaryQueryService.
      *
-     * @param networkSummaryService The service to use for network summary operations.
+     * @param networkSummaryQueryService The service to use for network summary queries.
      */
-    public NetworkSummaryController(final NetworkSummaryService networkSummaryService) {
-        this.networkSummaryService = networkSummaryService;
+    public NetworkSummaryController(final NetworkSummaryQueryService networkSummaryQueryService) {
+        this.networkSummaryQueryService = networkSummaryQueryService;
     }
 
     /**
@@ -49,7 +54,7 @@ public class NetworkSummaryController {
     @GetMapping("/network/{networkId}")
     public ResponseEntity<List<NetworkSummary>> getNetworkSummariesByNetworkId(@PathVariable final long networkId) {
         log.info("getNetworkSummariesByNetworkId() Retrieving network summaries for network with ID: {}.", networkId);
-        final List<NetworkSummary> networkSummaries = this.networkSummaryService.getNetworkSummariesByNetworkId(networkId);
+        final List<NetworkSummary> networkSummaries = this.networkSummaryQueryService.getNetworkSummariesByNetworkId(networkId);
         return ResponseEntity.ok(networkSummaries);
     }
 
@@ -61,7 +66,32 @@ public class NetworkSummaryController {
     @GetMapping
     public ResponseEntity<List<NetworkSummary>> getNetworkSummaries() {
         log.info("getNetworkSummaries() Retrieving network summaries.");
-        final List<NetworkSummary> networkSummaries = this.networkSummaryService.getNetworkSummaries();
+        final List<NetworkSummary> networkSummaries = this.networkSummaryQueryService.getNetworkSummaries();
+        return ResponseEntity.ok(networkSummaries);
+    }
+
+    /**
+     * Retrieves the network summaries for a given network ID from the state stores of this instance only.
+     *
+     * @param networkId the ID of the network.
+     * @return A list of the network summaries for the specified network held by this instance.
+     */
+    @GetMapping(AnomalyDetectorConstants.STATE_STORE_LOCAL_URL + "/network/{networkId}")
+    public ResponseEntity<List<NetworkSummary>> getLocalNetworkSummariesByNetworkId(@PathVariable final long networkId) {
+        log.info("getLocalNetworkSummariesByNetworkId() Retrieving local network summaries for network with ID: {}.", networkId);
+        final List<NetworkSummary> networkSummaries = this.networkSummaryQueryService.getLocalNetworkSummariesByNetworkId(networkId);
+        return ResponseEntity.ok(networkSummaries);
+    }
+
+    /**
+     * Retrieves the network summaries from the state stores of this instance only.
+     *
+     * @return A list of the network summaries held by this instance.
+     */
+    @GetMapping(AnomalyDetectorConstants.STATE_STORE_LOCAL_URL)
+    public ResponseEntity<List<NetworkSummary>> getLocalNetworkSummaries() {
+        log.info("getLocalNetworkSummaries() Retrieving local network summaries.");
+        final List<NetworkSummary> networkSummaries = this.networkSummaryQueryService.getLocalNetworkSummaries();
         return ResponseEntity.ok(networkSummaries);
     }
 }
@@ -0,0 +1,88 @@
+package com.tus.anomalydetector.controllers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tus.anomalydetector.models.NetworkTrafficAggregate;
+import com.tus.anomalydetector.models.NetworkTrafficWindow;
+import com.tus.anomalydetector.services.NetworkTrafficService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Controller responsible for handling requests related to the windowed traffic of the networks,
+ * such as retrieving the per-minute traffic series of a network for a time range.
+ * <p>
+ * The {@value AnomalyDetectorConstants#STATE_STORE_LOCAL_URL} endpoint only reads the window stores of
+ * this instance and is called by the other instances when they forward a query.
+ * </p>
+ * <p>
+ * The controller interacts with the {@link NetworkTrafficService} to perform the necessary
+ * actions and returns appropriate HTTP responses.
+ * </p>
+ */
+@Slf4j
+@RestController
+@RequestMapping(AnomalyDetectorConstants.NETWORK_TRAFFIC_CONTROLLER_URL)
+@CrossOrigin
+public class NetworkTrafficController {
+
+    private final NetworkTrafficService networkTrafficService;
+
+    /**
+     * Constructs a new NetworkTrafficController with the provided NetworkTrafficService.
+     *
+     * @param networkTrafficService The service to use for network traffic operations.
+     */
+    public NetworkTrafficController(final NetworkTrafficService networkTrafficService) {
+        this.networkTrafficService = networkTrafficService;
+    }
+
+    /**
+     * Retrieves the traffic windows of a given network ID that start within a time range.
+     *
+     * @param networkId the ID of the network.
+     * @param from      the ISO-8601 start of the time range, defaults to one hour before its end.
+     * @param to        the ISO-8601 end of the time range, defaults to now.
+     * @return The traffic windows of the specified network, ordered by their start.
+     */
+    @GetMapping("/network/{networkId}")
+    public ResponseEntity<List<NetworkTrafficWindow>> getNetworkTrafficByNetworkId(
+            @PathVariable final long networkId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to) {
+        log.info("getNetworkTrafficByNetworkId() Retrieving network traffic for network with ID: {}.", networkId);
+        final List<NetworkTrafficWindow> networkTrafficWindows = this.networkTrafficService.getNetworkTrafficByNetworkId(networkId, from, to);
+        return ResponseEntity.ok(networkTrafficWindows);
+    }
+
+    /**
+     * Retrieves the traffic aggregates of a given network ID that start within a time range from the state
+     * stores of this instance only.
+     *
+     * @param networkId the ID of the network.
+     * @param from      the ISO-8601 start of the time range.
+     * @param to        the ISO-8601 end of the time range.
+     * @return The traffic aggregates of the specified network held by this instance, keyed by the start of their window.
+     */
+    @GetMapping(AnomalyDetectorConstants.STATE_STORE_LOCAL_URL + "/network/{networkId}")
+    public ResponseEntity<Map<Long, NetworkTrafficAggregate>> getLocalTrafficAggregatesByNetworkId(
+            @PathVariable final long networkId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to) {
+        log.info("getLocalTrafficAggregatesByNetworkId() Retrieving local traffic aggregates for network with ID: {}.", networkId);
+        final Map<Long, NetworkTrafficAggregate> aggregates = this.networkTrafficService.getLocalTrafficAggregatesByNetworkId(networkId, from, to);
+        return ResponseEntity.ok(aggregates);
+    }
+}
@@ -0,0 +1,108 @@
+package com.tus.anomalydetector.detectors;
+
+import com.tus.anomalydetector.models.NetworkDetectorConfig;
+import com.tus.anomalydetector.models.NetworkStatistics;
+import com.tus.anomalydetector.models.QuantileSketch;
+import com.tus.anomalydetector.persistence.repositories.NetworkDetectorConfigRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkStatisticsShard;
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * The network message being evaluated and the state of its network, as seen by the detectors.
+ *
+ * <p>
+ * One context is owned by each stream task and reused for every record, so it is intentionally not
+ * synchronized. State is looked up lazily and at most once per record, so detectors that are not
+ * reached by the {@link DetectorChain} cost nothing. Per-network thresholds are resolved from the
+ * {@link NetworkDetectorConfigRepository}, an in-memory map, falling back to the default of the detector.
+ * </p>
+ */
+public class DetectionContext {
+
+    private final NetworkStatisticsShard networkStatisticsShard;
+
+    private final NetworkDetectorConfigRepository networkDetectorConfigRepository;
+
+    private NetworkMessage networkMessage;
+
+    private NetworkStatistics networkStatistics;
+
+    /**
+     * Constructs a DetectionContext reading the state of the given shard.
+     *
+     * @param networkStatisticsShard          the shard holding the network statistics of the task
+     * @param networkDetectorConfigRepository the repository of the per-network detector thresholds
+     */
+    public DetectionContext(final NetworkStatisticsShard networkStatisticsShard,
+                            final NetworkDetectorConfigRepository networkDetectorConfigRepository) {
+        this.networkStatisticsShard = networkStatisticsShard;
+        this.networkDetectorConfigRepository = networkDetectorConfigRepository;
+    }
+
+    /**
+     * Points the context at the next network message, discarding the state looked up for the previous one.
+     *
+     * @param networkMessage the network message to evaluate
+     */
+    public void reset(final NetworkMessage networkMessage) {
+        this.networkMessage = networkMessage;
+        this.networkStatistics = null;
+    }
+
+    /**
+     * Returns the network message being evaluated.
+     *
+     * @return the network message
+     */
+    public NetworkMessage getNetworkMessage() {
+        return this.networkMessage;
+    }
+
+    /**
+     * Returns the volume threshold of the network of the message being evaluated.
+     *
+     * @param defaultThresholdBytes the threshold to use if the network does not override it
+     * @return the message size in bytes above which a message of the network is an anomaly
+     */
+    public double getVolumeThresholdBytes(final double defaultThresholdBytes) {
+        final NetworkDetectorConfig networkDetectorConfig = this.networkDetectorConfigRepository.find(this.networkMessage.getNetworkId());
+        return networkDetectorConfig == null || networkDetectorConfig.getVolumeThresholdBytes() == null
+                ? defaultThresholdBytes : networkDetectorConfig.getVolumeThresholdBytes();
+    }
+
+    /**
+     * Returns the standard deviation multiplier of the network of the message being evaluated.
+     *
+     * @param defaultMultiplier the multiplier to use if the network does not override it
+     * @return the number of standard deviations from the mean beyond which a message of the network is an anomaly
+     */
+    public double getStdDevMultiplier(final double defaultMultiplier) {
+        final NetworkDetectorConfig networkDetectorConfig = this.networkDetectorConfigRepository.find(this.networkMessage.getNetworkId());
+        return networkDetectorConfig == null || networkDetectorConfig.getStdDevMultiplier() == null
+                ? defaultMultiplier : networkDetectorConfig.getStdDevMultiplier();
+    }
+
+    /**
+     * Returns the statistics of the network of the message being evaluated.
+     * Requires {@link DetectorState#NETWORK_STATISTICS}.
+     *
+     * @return the statistics of the network
+     */
+    public NetworkStatistics getNetworkStatistics() {
+        if (this.networkStatistics == null) {
+            this.networkStatistics = this.networkStatisticsShard.findStatistics(this.networkMessage.getNetworkId());
+        }
+
+        return this.networkStatistics;
+    }
+
+    /**
+     * Returns the quantile sketch of the message sizes of the network of the message being evaluated.
+     * Requires {@link DetectorState#NETWORK_QUANTILES}.
+     *
+     * @return the quantile sketch of the network, or {@code null} if the network has no samples
+     */
+    public QuantileSketch getQuantileSketch() {
+        return this.networkStatisticsShard.findQuantiles(this.networkMessage.getNetworkId());
+    }
+}
@@ -0,0 +1,53 @@
+package com.tus.anomalydetector.detectors;
+
+import java.util.Set;
+
+/**
+ * A streaming anomaly detector evaluated for every network message.
+ *
+ * <p>
+ * Detectors are registered as Spring beans and composed by the {@link DetectorChain}, which runs them
+ * in order of their declared {@link #cost()} and stops at the first detector that flags the message.
+ * A detector declares the per-network state it reads through {@link #requiredState()}, and reads that
+ * state only through the {@link DetectionContext}, so state that no enabled detector needs is never
+ * maintained.
+ * </p>
+ *
+ * <p>
+ * Implementations are called concurrently by all stream threads and must therefore be stateless or
+ * thread-safe.
+ * </p>
+ */
+public interface Detector {
+
+    /**
+     * Returns the name of the detector, used as the tag of its metrics and as its verdict.
+     *
+     * @return the name of the detector
+     */
+    String name();
+
+    /**
+     * Returns the relative per-record cost of the detector. Cheaper detectors are evaluated first.
+     *
+     * @return the cost of the detector
+     */
+    int cost();
+
+    /**
+     * Returns the per-network state the detector reads from the {@link DetectionContext}.
+     *
+     * @return the state required by the detector
+     */
+    default Set<DetectorState> requiredState() {
+        return Set.of();
+    }
+
+    /**
+     * Evaluates a network message.
+     *
+     * @param context the context holding the network message and the state of its network
+     * @return {@code true} if the message is an anomaly, {@code false} otherwise
+     */
+    boolean isAnomaly(DetectionContext context);
+}
@@ -0,0 +1,103 @@
+package com.tus.anomalydetector.detectors;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+
+/**
+ * Chain of the enabled {@link Detector} beans, ordered by cost.
+ *
+ * <p>
+ * The chain evaluates the detectors cheapest first and stops at the first one that flags a message,
+ * so the per-record cost is bounded by the sum of the costs of the enabled detectors and expensive
+ * detectors only run for messages that the cheap ones let through. Each detector is timed and its
+ * verdicts are counted in the {@link AnomalyDetectionMetrics}, tagged with its name.
+ * </p>
+ */
+@Slf4j
+@Component
+public class DetectorChain {
+
+    public static final String NORMAL_VERDICT = "normal";
+
+    private final Link[] links;
+
+    private final Set<DetectorState> requiredState;
+
+    private final Counter normalCounter;
+
+    /**
+     * Constructs a DetectorChain of the given detectors.
+     *
+     * @param detectors               the enabled detectors
+     * @param anomalyDetectionMetrics the metrics in which the evaluations and verdicts are recorded
+     */
+    public DetectorChain(final List<Detector> detectors, final AnomalyDetectionMetrics anomalyDetectionMetrics) {
+        this.links = detectors.stream()
+                .sorted(Comparator.comparingInt(Detector::cost))
+                .map(detector -> new Link(detector, anomalyDetectionMetrics.detectorTimer(detector.name()),
+                        anomalyDetectionMetrics.verdictCounter(detector.name())))
+                .toArray(Link[]::new);
+        this.requiredState = EnumSet.noneOf(DetectorState.class);
+        detectors.forEach(detector -> this.requiredState.addAll(detector.requiredState()));
+        this.normalCounter = anomalyDetectionMetrics.verdictCounter(NORMAL_VERDICT);
+
+        log.info("DetectorChain() Detectors in evaluation order: {}. Required state: {}.", this.getDetectors().stream()
+                .map(detector -> detector.name() + "(cost " + detector.cost() + ")").toList(), this.requiredState);
+    }
+
+    /**
+     * Evaluates the detectors against the message of the context until one of them flags it.
+     *
+     * @param context the context holding the network message and the state of its network
+     * @return the detector that flagged the message, or {@code null} if the message is normal
+     */
+    public Detector detect(final DetectionContext context) {
+        for (final Link link : this.links) {
+            final long start = System.nanoTime();
+            final boolean anomaly = link.detector().isAnomaly(context);
+            link.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (anomaly) {
+                link.verdictCounter().increment();
+                return link.detector();
+            }
+        }
+
+        this.normalCounter.increment();
+        return null;
+    }
+
+    /**
+     * Returns whether any enabled detector requires the given state.
+     *
+     * @param state the state
+     * @return {@code true} if the state must be maintained, {@code false} otherwise
+     */
+    public boolean requires(final DetectorState state) {
+        return this.requiredState.contains(state);
+    }
+
+    /**
+     * Returns the enabled detectors in evaluation order.
+     *
+     * @return the detectors
+     */
+    public List<Detector> getDetectors() {
+        return Arrays.stream(this.links).map(Link::detector).toList();
+    }
+
+    private record Link(Detector detector, Timer timer, Counter verdictCounter) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.tus.anomalydetector.detectors;
+
+/**
+ * Per-network state that a {@link Detector} may require.
+ */
+public enum DetectorState {
+
+    /**
+     * The mean and standard deviation of the recent message sizes of the network.
+     */
+    NETWORK_STATISTICS,
+
+    /**
+     * The quantile sketch of the message sizes of the network.
+     */
+    NETWORK_QUANTILES
+}
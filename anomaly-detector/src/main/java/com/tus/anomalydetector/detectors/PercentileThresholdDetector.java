@@ -0,0 +1,87 @@
+package com.tus.anomalydetector.detectors;
+
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.tus.anomalydetector.models.QuantileSketch;
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Detector that flags network messages larger than a configured percentile of the message sizes of
+ * their network.
+ *
+ * <p>
+ * Unlike the standard deviation check, the percentile makes no assumption about the shape of the
+ * distribution, so it suits the skewed message sizes of real networks. The percentile is read from the
+ * quantile sketch of the network and only applied once the network has sent enough messages for it to
+ * be meaningful. It is disabled unless {@code anomaly-detector.detectors.percentile-threshold.enabled}
+ * is {@code true}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "anomaly-detector.detectors.percentile-threshold.enabled", havingValue = "true")
+public class PercentileThresholdDetector implements Detector {
+
+    public static final String NAME = "percentile_threshold";
+
+    private static final int COST = 20;
+
+    private final double percentile;
+
+    private final long minSamples;
+
+    /**
+     * Constructs a PercentileThresholdDetector.
+     *
+     * @param percentile the normalized rank, between 0 and 1, above which a message is an anomaly
+     * @param minSamples the number of messages a network must have sent before it is checked
+     */
+    public PercentileThresholdDetector(@Value("${anomaly-detector.detectors.percentile-threshold.percentile}") final double percentile,
+                                       @Value("${anomaly-detector.detectors.percentile-threshold.min-samples}") final long minSamples) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1 exclusive, was: " + percentile + ".");
+        }
+
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int cost() {
+        return COST;
+    }
+
+    @Override
+    public Set<DetectorState> requiredState() {
+        return Set.of(DetectorState.NETWORK_QUANTILES);
+    }
+
+    @Override
+    public boolean isAnomaly(final DetectionContext context) {
+        final QuantileSketch quantileSketch = context.getQuantileSketch();
+        if (quantileSketch == null || quantileSketch.count() < this.minSamples) {
+            return false;
+        }
+
+        final NetworkMessage networkMessage = context.getNetworkMessage();
+        final double threshold = quantileSketch.quantile(this.percentile);
+        if (networkMessage.getSizeInBytes() <= threshold) {
+            return false;
+        }
+
+        log.info("isAnomaly() Percentile threshold check - Message size: {} bytes exceeds percentile: {} of {} bytes. Message: {}.",
+                networkMessage.getSizeInBytes(), this.percentile, threshold, networkMessage);
+        return true;
+    }
+}
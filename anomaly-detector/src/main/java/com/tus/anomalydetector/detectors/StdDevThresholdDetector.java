@@ -0,0 +1,75 @@
+package com.tus.anomalydetector.detectors;
+
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.tus.anomalydetector.models.NetworkStatistics;
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Detector that flags network messages whose size deviates from the recent mean of their network by
+ * more than a multiple of the standard deviation.
+ *
+ * <p>
+ * The check reads the rolling statistics of the network, so it runs after the stateless detectors.
+ * The multiplier can be overridden per network.
+ * It is enabled unless {@code anomaly-detector.detectors.std-dev-threshold.enabled} is {@code false}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "anomaly-detector.detectors.std-dev-threshold.enabled", havingValue = "true", matchIfMissing = true)
+public class StdDevThresholdDetector implements Detector {
+
+    public static final String NAME = "std_dev_threshold";
+
+    private static final int COST = 10;
+
+    private final double multiplier;
+
+    /**
+     * Constructs a StdDevThresholdDetector.
+     *
+     * @param multiplier the number of standard deviations from the mean beyond which a message is an anomaly, unless its network overrides it
+     */
+    public StdDevThresholdDetector(@Value("${anomaly-detector.detectors.std-dev-threshold.multiplier}") final double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int cost() {
+        return COST;
+    }
+
+    @Override
+    public Set<DetectorState> requiredState() {
+        return Set.of(DetectorState.NETWORK_STATISTICS);
+    }
+
+    @Override
+    public boolean isAnomaly(final DetectionContext context) {
+        final NetworkMessage networkMessage = context.getNetworkMessage();
+        final NetworkStatistics networkStatistics = context.getNetworkStatistics();
+        final double mean = networkStatistics.mean();
+        final double standardDeviation = networkStatistics.standardDeviation();
+        final double networkMultiplier = context.getStdDevMultiplier(this.multiplier);
+
+        if (Math.abs(networkMessage.getSizeInBytes() - mean) <= standardDeviation * networkMultiplier) {
+            return false;
+        }
+
+        log.info("isAnomaly() Std dev threshold check - Message size: {} bytes, Mean: {}, Std Dev: {}, Threshold Multiplier: {}, Message: {}.",
+                networkMessage.getSizeInBytes(), mean, standardDeviation, networkMultiplier, networkMessage);
+        return true;
+    }
+}
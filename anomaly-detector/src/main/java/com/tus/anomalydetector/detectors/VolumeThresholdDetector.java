@@ -0,0 +1,62 @@
+package com.tus.anomalydetector.detectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Detector that flags network messages larger than a fixed size.
+ *
+ * <p>
+ * The check needs no per-network state, so it is the cheapest detector and runs first. The threshold
+ * can be overridden per network.
+ * It is enabled unless {@code anomaly-detector.detectors.volume-threshold.enabled} is {@code false}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "anomaly-detector.detectors.volume-threshold.enabled", havingValue = "true", matchIfMissing = true)
+public class VolumeThresholdDetector implements Detector {
+
+    public static final String NAME = "volume_threshold";
+
+    private static final int COST = 1;
+
+    private final double thresholdBytes;
+
+    /**
+     * Constructs a VolumeThresholdDetector.
+     *
+     * @param thresholdBytes the message size in bytes above which a message is an anomaly, unless its network overrides it
+     */
+    public VolumeThresholdDetector(@Value("${anomaly-detector.detectors.volume-threshold.threshold-bytes}") final double thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int cost() {
+        return COST;
+    }
+
+    @Override
+    public boolean isAnomaly(final DetectionContext context) {
+        final NetworkMessage networkMessage = context.getNetworkMessage();
+        final double threshold = context.getVolumeThresholdBytes(this.thresholdBytes);
+        if (networkMessage.getSizeInBytes() <= threshold) {
+            return false;
+        }
+
+        log.info("isAnomaly() Volume threshold check - Message size: {} bytes exceeds threshold: {} bytes. Message: {}.",
+                networkMessage.getSizeInBytes(), threshold, networkMessage);
+        return true;
+    }
+}
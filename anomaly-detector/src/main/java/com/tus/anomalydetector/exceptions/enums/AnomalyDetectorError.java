@@ -14,7 +14,25 @@ public enum AnomalyDetectorError {
     NETWORK_ANOMALY_NOT_FOUND_ERROR("Network Anomaly Not Found", "The network anomaly with ID: %s was not found."),
     GET_NETWORK_ANOMALY_ERROR("Get Network Anomaly Error", "An error occurred while getting the network anomaly with ID: %s."),
     GET_NETWORK_ANOMALIES_ERROR("Get Network Anomalies Error", "An error occurred while getting the network anomalies."),
+    INVALID_PAGE_SIZE_ERROR("Invalid Page Size", "The page size must be between 1 and %s, was: %s."),
+    INVALID_PAGE_TOKEN_ERROR("Invalid Page Token", "The page token: %s is not valid."),
+    INVALID_EXPORT_FORMAT_ERROR("Invalid Export Format", "The export format must be one of: %s, was: %s."),
+    NETWORK_INCIDENT_NOT_FOUND_ERROR("Network Incident Not Found", "The network incident with ID: %s was not found."),
+    GET_NETWORK_INCIDENT_ERROR("Get Network Incident Error", "An error occurred while getting the network incident with ID: %s."),
+    GET_NETWORK_INCIDENTS_ERROR("Get Network Incidents Error", "An error occurred while getting the network incidents."),
+    GET_NETWORK_ANOMALY_STORMS_ERROR("Get Network Anomaly Storms Error", "An error occurred while getting the network anomaly storms."),
     GET_NETWORK_SUMMARIES_ERROR("Get Network Summaries Error", "An error occurred while getting the network summaries."),
+    GET_DASHBOARD_ERROR("Get Dashboard Error", "An error occurred while getting the dashboard."),
+    INVALID_ANOMALY_LIMIT_ERROR("Invalid Anomaly Limit", "The anomaly limit must be between 1 and %s, was: %s."),
+    NETWORK_QUANTILES_NOT_FOUND_ERROR("Network Quantiles Not Found", "No quantiles were found for the network with ID: %s."),
+    GET_NETWORK_QUANTILES_ERROR("Get Network Quantiles Error", "An error occurred while getting the network quantiles."),
+    GET_NETWORK_TRAFFIC_ERROR("Get Network Traffic Error", "An error occurred while getting the traffic of the network with ID: %s."),
+    NETWORK_DETECTOR_CONFIG_NOT_FOUND_ERROR("Network Detector Config Not Found", "No detector configuration was found for the network with ID: %s."),
+    INVALID_NETWORK_DETECTOR_CONFIG_ERROR("Invalid Network Detector Config", "The %s of the detector configuration must be positive, was: %s."),
+    SAVE_NETWORK_DETECTOR_CONFIG_ERROR("Save Network Detector Config Error", "An error occurred while saving the detector configuration of the network with ID: %s."),
+    DELETE_NETWORK_DETECTOR_CONFIG_ERROR("Delete Network Detector Config Error", "An error occurred while deleting the detector configuration of the network with ID: %s."),
+    INVALID_TIME_RANGE_ERROR("Invalid Time Range", "The start of the time range: %s is after its end: %s."),
+    SAVE_NETWORK_INCIDENTS_ERROR("Save Network Incidents Error", "An error occurred while saving the network incidents."),
     SAVE_NETWORK_SUMMARY_ERROR("Save Network Summary Error", "An error occurred while saving the network summary."),
     DELETE_NETWORK_ANOMALY_ERROR("Delete Network Anomaly Error", "An error occurred while deleting the network anomaly with ID: %s."),
     DELETE_NETWORK_ANOMALIES_ERROR("Delete Network Anomalies Error", "An error occurred while deleting the network anomalies.");
@@ -0,0 +1,50 @@
+package com.tus.anomalydetector.health;
+
+import org.apache.kafka.streams.KafkaStreams;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.tus.anomalydetector.services.AnomalyDetectionService;
+
+/**
+ * Health indicator that reports the state of the anomaly detection Kafka Streams application.
+ *
+ * <p>
+ * Kafka Streams only transitions to {@link KafkaStreams.State#RUNNING} once all active tasks have
+ * restored their state stores. The indicator is part of the readiness group, so the detector is
+ * only reported as ready once state restoration has finished.
+ * </p>
+ */
+@Component
+public class KafkaStreamsHealthIndicator implements HealthIndicator {
+
+    private final AnomalyDetectionService anomalyDetectionService;
+
+    /**
+     * Constructs a new KafkaStreamsHealthIndicator.
+     *
+     * @param anomalyDetectionService the service running the Kafka Streams application
+     */
+    public KafkaStreamsHealthIndicator(final AnomalyDetectionService anomalyDetectionService) {
+        this.anomalyDetectionService = anomalyDetectionService;
+    }
+
+    /**
+     * Returns the health of the Kafka Streams application.
+     *
+     * @return {@code UP} if Kafka Streams is running, {@code DOWN} otherwise
+     */
+    @Override
+    public Health health() {
+        final KafkaStreams kafkaStreams = this.anomalyDetectionService.getKafkaStreams();
+        if (kafkaStreams == null) {
+            return Health.down().withDetail("state", "NOT_STARTED").build();
+        }
+
+        final KafkaStreams.State state = kafkaStreams.state();
+        final Health.Builder builder = state == KafkaStreams.State.RUNNING ? Health.up() : Health.down();
+        return builder.withDetail("state", state.name()).build();
+    }
+}
@@ -0,0 +1,329 @@
+package com.tus.anomalydetector.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Micrometer meters of the anomaly detection pipeline.
+ *
+ * <p>
+ * Every stage of the per-record pipeline is timed under {@value #STAGE_TIMER} with a {@code stage} tag,
+ * messages that miss their window are counted under {@value #LATE_RECORDS_COUNTER} with a {@code window} tag,
+ * messages that arrive without a key are counted under {@value #UNKEYED_RECORDS_COUNTER}, records the
+ * stream failed to produce are counted under {@value #PRODUCTION_ERROR_COUNTER} with an {@code exception} tag,
+ * the delay between a message's timestamp and its verdict is recorded under {@value #END_TO_END_LATENCY_TIMER},
+ * every verdict is counted under {@value #VERDICT_COUNTER} with a {@code verdict} tag, and every detector
+ * is timed under {@value #DETECTOR_TIMER} with a {@code detector} tag. The bulk writes
+ * of the anomaly sink and the summary aggregation are timed under {@value #BULK_WRITE_TIMER} with a
+ * {@code collection} tag. All timers publish percentile histograms, so latency quantiles and SLOs can be
+ * computed from the Prometheus endpoint.
+ * </p>
+ *
+ * <p>
+ * Network messages are processed in event time. How far out-of-order messages are behind the event time
+ * of their partition is recorded under {@value #OUT_OF_ORDER_LATENESS_SUMMARY}, and how far the Kafka
+ * record timestamp is from the event time of a message under {@value #TIMESTAMP_SKEW_SUMMARY}, both in
+ * milliseconds.
+ * </p>
+ *
+ * <p>
+ * The meters of the features around the detection path live in their own beans: {@link NetworkIncidentMetrics},
+ * {@link NetworkAnomalyStormMetrics}, {@link StreamThreadScalingMetrics}, {@link NetworkEventMetrics} and
+ * {@link DeadLetterMetrics}.
+ * </p>
+ *
+ * <p>
+ * The meters are registered once and shared by all stream threads. Callers pass durations measured
+ * with {@link System#nanoTime()}, which keeps the overhead on the hot path to a few nanoseconds.
+ * </p>
+ */
+@Component
+public class AnomalyDetectionMetrics {
+
+    public static final String STAGE_TIMER = "anomaly.detector.stage";
+
+    public static final String END_TO_END_LATENCY_TIMER = "anomaly.detector.end.to.end.latency";
+
+    public static final String VERDICT_COUNTER = "anomaly.detector.verdicts";
+
+    public static final String DETECTOR_TIMER = "anomaly.detector.detector";
+
+    public static final String BULK_WRITE_TIMER = "anomaly.detector.bulk.write";
+
+    public static final String UNKEYED_RECORDS_COUNTER = "anomaly.detector.unkeyed.records";
+
+    public static final String PRODUCTION_ERROR_COUNTER = "anomaly.detector.production.errors";
+
+    public static final String LATE_RECORDS_COUNTER = "anomaly.detector.window.late.records";
+
+    public static final String OUT_OF_ORDER_LATENESS_SUMMARY = "anomaly.detector.event.time.lateness";
+
+    public static final String TIMESTAMP_SKEW_SUMMARY = "anomaly.detector.event.time.skew";
+
+    private static final Duration MIN_EXPECTED_STAGE_DURATION = Duration.ofNanos(100);
+
+    private static final Duration MAX_EXPECTED_STAGE_DURATION = Duration.ofSeconds(10);
+
+    private static final Duration MIN_EXPECTED_END_TO_END_LATENCY = Duration.ofMillis(1);
+
+    private static final Duration MAX_EXPECTED_END_TO_END_LATENCY = Duration.ofMinutes(5);
+
+    private final Timer deserializeTimer;
+
+    private final Timer statisticsUpdateTimer;
+
+    private final Timer thresholdEvaluationTimer;
+
+    private final Timer anomalyPersistTimer;
+
+    private final Timer summaryPersistTimer;
+
+    private final Timer trafficAggregateTimer;
+
+    private final Counter lateTrafficRecordsCounter;
+
+    private final DistributionSummary outOfOrderLatenessSummary;
+
+    private final DistributionSummary timestampSkewSummary;
+
+    private final Counter unkeyedRecordsCounter;
+
+    private final Timer endToEndLatencyTimer;
+
+    private final Timer anomalyBulkWriteTimer;
+
+    private final Timer summaryBulkWriteTimer;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs an AnomalyDetectionMetrics and registers its meters.
+     *
+     * @param meterRegistry the registry in which the meters are registered
+     */
+    public AnomalyDetectionMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.deserializeTimer = stageTimer(meterRegistry, "deserialize");
+        this.statisticsUpdateTimer = stageTimer(meterRegistry, "statistics_update");
+        this.thresholdEvaluationTimer = stageTimer(meterRegistry, "threshold_evaluation");
+        this.anomalyPersistTimer = stageTimer(meterRegistry, "anomaly_persist");
+        this.summaryPersistTimer = stageTimer(meterRegistry, "summary_persist");
+        this.trafficAggregateTimer = stageTimer(meterRegistry, "traffic_aggregate");
+        this.lateTrafficRecordsCounter = lateRecordsCounter(meterRegistry, "traffic");
+        this.outOfOrderLatenessSummary = DistributionSummary.builder(OUT_OF_ORDER_LATENESS_SUMMARY)
+                .description("How far the event time of an out-of-order network message is behind the event time of its partition")
+                .baseUnit("milliseconds")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.timestampSkewSummary = DistributionSummary.builder(TIMESTAMP_SKEW_SUMMARY)
+                .description("How far the Kafka record timestamp of a network message is from its event time")
+                .baseUnit("milliseconds")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.unkeyedRecordsCounter = Counter.builder(UNKEYED_RECORDS_COUNTER)
+                .description("Number of network messages without a key that were repartitioned by network ID")
+                .register(meterRegistry);
+
+        this.endToEndLatencyTimer = Timer.builder(END_TO_END_LATENCY_TIMER)
+                .description("Time from the timestamp of a network message to the verdict on it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_END_TO_END_LATENCY)
+                .maximumExpectedValue(MAX_EXPECTED_END_TO_END_LATENCY)
+                .register(meterRegistry);
+
+        this.anomalyBulkWriteTimer = bulkWriteTimer(meterRegistry, AnomalyDetectorConstants.NETWORK_ANOMALIES_COLLECTION);
+        this.summaryBulkWriteTimer = bulkWriteTimer(meterRegistry, AnomalyDetectorConstants.NETWORK_SUMMARIES_COLLECTION);
+    }
+
+    /**
+     * Records the time spent deserializing a network message.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordDeserialize(final long nanos) {
+        this.deserializeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time spent updating the rolling statistics of a network.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordStatisticsUpdate(final long nanos) {
+        this.statisticsUpdateTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time spent evaluating the detector chain.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordThresholdEvaluation(final long nanos) {
+        this.thresholdEvaluationTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time spent handing a network anomaly to the anomaly sink.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordAnomalyPersist(final long nanos) {
+        this.anomalyPersistTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time spent recording a network message in the network summaries.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordSummaryPersist(final long nanos) {
+        this.summaryPersistTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time spent adding a network message to its traffic window.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordTrafficAggregate(final long nanos) {
+        this.trafficAggregateTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a network message that arrived after its traffic window had closed.
+     */
+    public void recordLateTrafficRecord() {
+        this.lateTrafficRecordsCounter.increment();
+    }
+
+    /**
+     * Records a network message whose event time is behind the event time of its partition.
+     *
+     * @param latenessMs how far the message is behind, in milliseconds
+     */
+    public void recordOutOfOrderRecord(final long latenessMs) {
+        this.outOfOrderLatenessSummary.record(latenessMs);
+    }
+
+    /**
+     * Records the difference between the Kafka record timestamp of a network message and its event time.
+     *
+     * @param skewMs the absolute difference in milliseconds
+     */
+    public void recordTimestampSkew(final long skewMs) {
+        this.timestampSkewSummary.record(skewMs);
+    }
+
+    /**
+     * Records a network message that arrived without a key and was repartitioned by network ID.
+     */
+    public void recordUnkeyedRecord() {
+        this.unkeyedRecordsCounter.increment();
+    }
+
+    /**
+     * Records the latency from the timestamp of a message to the verdict on it.
+     *
+     * @param timestamp the timestamp of the message, or {@code null} if it has none
+     */
+    public void recordEndToEndLatency(final Instant timestamp) {
+        if (timestamp != null) {
+            this.endToEndLatencyTimer.record(Duration.between(timestamp, Instant.now()));
+        }
+    }
+
+    /**
+     * Returns the counter of the messages that received the given verdict.
+     *
+     * @param verdict the name of the detector that flagged the messages, or {@code normal}
+     * @return the counter of the verdict
+     */
+    public Counter verdictCounter(final String verdict) {
+        return Counter.builder(VERDICT_COUNTER)
+                .description("Number of network messages by detection verdict")
+                .tag("verdict", verdict)
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Returns the timer of the evaluations of the given detector.
+     *
+     * @param detector the name of the detector
+     * @return the timer of the detector
+     */
+    public Timer detectorTimer(final String detector) {
+        return Timer.builder(DETECTOR_TIMER)
+                .description("Time spent evaluating a detector")
+                .tag("detector", detector)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_STAGE_DURATION)
+                .maximumExpectedValue(MAX_EXPECTED_STAGE_DURATION)
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Records the duration of a bulk write of network anomalies.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordAnomalyBulkWrite(final long nanos) {
+        this.anomalyBulkWriteTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the duration of a bulk write of network summaries.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordSummaryBulkWrite(final long nanos) {
+        this.summaryBulkWriteTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a record the stream failed to produce to an internal or changelog topic.
+     *
+     * @param exception the simple class name of the exception that failed the production
+     */
+    public void recordProductionError(final String exception) {
+        Counter.builder(PRODUCTION_ERROR_COUNTER)
+                .description("Number of records the stream failed to produce")
+                .tag("exception", exception)
+                .register(this.meterRegistry)
+                .increment();
+    }
+
+    private static Timer stageTimer(final MeterRegistry meterRegistry, final String stage) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Time spent in a stage of the anomaly detection pipeline")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_STAGE_DURATION)
+                .maximumExpectedValue(MAX_EXPECTED_STAGE_DURATION)
+                .register(meterRegistry);
+    }
+
+    static Counter lateRecordsCounter(final MeterRegistry meterRegistry, final String window) {
+        return Counter.builder(LATE_RECORDS_COUNTER)
+                .description("Number of network messages left out of a window because the window had closed")
+                .tag("window", window)
+                .register(meterRegistry);
+    }
+
+    static Timer bulkWriteTimer(final MeterRegistry meterRegistry, final String collection) {
+        return Timer.builder(BULK_WRITE_TIMER)
+                .description("Time spent writing a batch to MongoDB")
+                .tag("collection", collection)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.tus.anomalydetector.metrics;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Micrometer meters of the dead-letter topics.
+ *
+ * <p>
+ * Network messages sent to the dead-letter topic because they could not be deserialized are counted
+ * under {@value #DEAD_LETTER_COUNTER} with an {@code exception} tag. Network anomalies sent to the
+ * dead-letter topic because they could not be written to MongoDB are counted under
+ * {@value #NETWORK_ANOMALY_DEAD_LETTER_COUNTER} with a {@code reason} tag. Detector configurations that
+ * could not be deserialized are skipped rather than dead-lettered, and counted under
+ * {@value #SKIPPED_DETECTOR_CONFIG_COUNTER} with an {@code exception} tag.
+ * </p>
+ */
+@Component
+public class DeadLetterMetrics {
+
+    public static final String DEAD_LETTER_COUNTER = "anomaly.detector.dead.letters";
+
+    public static final String NETWORK_ANOMALY_DEAD_LETTER_COUNTER = "anomaly.detector.network.anomaly.dead.letters";
+
+    public static final String SKIPPED_DETECTOR_CONFIG_COUNTER = "anomaly.detector.skipped.detector.configs";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs a DeadLetterMetrics.
+     *
+     * @param meterRegistry the registry in which the meters are registered
+     */
+    public DeadLetterMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records a network message that could not be deserialized and was sent to the dead-letter topic.
+     *
+     * @param exception the simple class name of the exception that failed the deserialization
+     */
+    public void recordDeadLetter(final String exception) {
+        Counter.builder(DEAD_LETTER_COUNTER)
+                .description("Number of network messages sent to the dead-letter topic")
+                .tag("exception", exception)
+                .register(this.meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records a detector configuration that could not be deserialized and was skipped.
+     *
+     * @param exception the simple class name of the exception that failed the deserialization
+     */
+    public void recordSkippedDetectorConfig(final String exception) {
+        Counter.builder(SKIPPED_DETECTOR_CONFIG_COUNTER)
+                .description("Number of detector configurations skipped because they could not be deserialized")
+                .tag("exception", exception)
+                .register(this.meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records network anomalies that could not be written to MongoDB and were sent to the dead-letter topic.
+     *
+     * @param reason the reason the anomalies were not written
+     * @param count  the number of dead-lettered anomalies
+     */
+    public void recordNetworkAnomalyDeadLetters(final String reason, final int count) {
+        Counter.builder(NETWORK_ANOMALY_DEAD_LETTER_COUNTER)
+                .description("Number of network anomalies sent to the dead-letter topic")
+                .tag("reason", reason)
+                .register(this.meterRegistry)
+                .increment(count);
+    }
+}
@@ -0,0 +1,51 @@
+package com.tus.anomalydetector.metrics;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Micrometer meters of the anomaly storm correlation.
+ *
+ * <p>
+ * Detected anomaly storms are counted under {@value #ANOMALY_STORMS_COUNTER}, and anomalies that miss
+ * their storm window under {@value AnomalyDetectionMetrics#LATE_RECORDS_COUNTER} with the
+ * {@code anomaly_storm} window tag.
+ * </p>
+ */
+@Component
+public class NetworkAnomalyStormMetrics {
+
+    public static final String ANOMALY_STORMS_COUNTER = "anomaly.detector.anomaly.storms";
+
+    private final Counter anomalyStormsCounter;
+
+    private final Counter lateAnomalyStormRecordsCounter;
+
+    /**
+     * Constructs a NetworkAnomalyStormMetrics and registers its meters.
+     *
+     * @param meterRegistry the registry in which the meters are registered
+     */
+    public NetworkAnomalyStormMetrics(final MeterRegistry meterRegistry) {
+        this.anomalyStormsCounter = Counter.builder(ANOMALY_STORMS_COUNTER)
+                .description("Number of time windows in which the anomalous networks of a location reached the storm minimum")
+                .register(meterRegistry);
+        this.lateAnomalyStormRecordsCounter = AnomalyDetectionMetrics.lateRecordsCounter(meterRegistry, "anomaly_storm");
+    }
+
+    /**
+     * Records an anomaly storm detected in a time window.
+     */
+    public void recordAnomalyStorm() {
+        this.anomalyStormsCounter.increment();
+    }
+
+    /**
+     * Records an anomaly that arrived after its anomaly storm window had closed.
+     */
+    public void recordLateAnomalyStormRecord() {
+        this.lateAnomalyStormRecordsCounter.increment();
+    }
+}
@@ -0,0 +1,61 @@
+package com.tus.anomalydetector.metrics;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Micrometer meters of the network event stream.
+ *
+ * <p>
+ * The stream exposes its number of subscribers under {@value #NETWORK_EVENT_SUBSCRIBERS_GAUGE} and counts
+ * the events dropped for subscribers that did not keep up under {@value #DROPPED_NETWORK_EVENTS_COUNTER}.
+ * </p>
+ */
+@Component
+public class NetworkEventMetrics {
+
+    public static final String NETWORK_EVENT_SUBSCRIBERS_GAUGE = "anomaly.detector.network.events.subscribers";
+
+    public static final String DROPPED_NETWORK_EVENTS_COUNTER = "anomaly.detector.network.events.dropped";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter droppedNetworkEventsCounter;
+
+    /**
+     * Constructs a NetworkEventMetrics and registers its meters.
+     *
+     * @param meterRegistry the registry in which the meters are registered
+     */
+    public NetworkEventMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.droppedNetworkEventsCounter = Counter.builder(DROPPED_NETWORK_EVENTS_COUNTER)
+                .description("Number of network events dropped because a subscriber did not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauge of the number of network event subscribers.
+     *
+     * @param subscribers the number of subscribers of the network event stream
+     */
+    public void registerNetworkEventSubscribersGauge(final Supplier<Number> subscribers) {
+        Gauge.builder(NETWORK_EVENT_SUBSCRIBERS_GAUGE, subscribers)
+                .description("Number of subscribers of the network event stream")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Records network events dropped because a subscriber did not keep up.
+     *
+     * @param count the number of dropped events
+     */
+    public void recordDroppedNetworkEvents(final int count) {
+        this.droppedNetworkEventsCounter.increment(count);
+    }
+}
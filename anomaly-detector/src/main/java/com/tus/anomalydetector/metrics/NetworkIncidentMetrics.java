@@ -0,0 +1,69 @@
+package com.tus.anomalydetector.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import com.tus.anomalydetector.models.NetworkIncidentStatus;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Micrometer meters of the network incidents.
+ *
+ * <p>
+ * Opened and closed incidents are counted under {@value #NETWORK_INCIDENTS_COUNTER} with a {@code status}
+ * tag, and the bulk writes of the incidents are timed under {@value AnomalyDetectionMetrics#BULK_WRITE_TIMER}
+ * with the {@code collection} tag of the incidents collection.
+ * </p>
+ */
+@Component
+public class NetworkIncidentMetrics {
+
+    public static final String NETWORK_INCIDENTS_COUNTER = "anomaly.detector.network.incidents";
+
+    private final Counter openedIncidentsCounter;
+
+    private final Counter closedIncidentsCounter;
+
+    private final Timer incidentBulkWriteTimer;
+
+    /**
+     * Constructs a NetworkIncidentMetrics and registers its meters.
+     *
+     * @param meterRegistry the registry in which the meters are registered
+     */
+    public NetworkIncidentMetrics(final MeterRegistry meterRegistry) {
+        this.openedIncidentsCounter = incidentCounter(meterRegistry, NetworkIncidentStatus.OPEN);
+        this.closedIncidentsCounter = incidentCounter(meterRegistry, NetworkIncidentStatus.CLOSED);
+        this.incidentBulkWriteTimer = AnomalyDetectionMetrics.bulkWriteTimer(meterRegistry, AnomalyDetectorConstants.NETWORK_INCIDENTS_COLLECTION);
+    }
+
+    /**
+     * Records a network incident that was opened or closed.
+     *
+     * @param status the status the incident changed to
+     */
+    public void recordNetworkIncident(final NetworkIncidentStatus status) {
+        (status == NetworkIncidentStatus.OPEN ? this.openedIncidentsCounter : this.closedIncidentsCounter).increment();
+    }
+
+    /**
+     * Records the duration of a bulk write of network incidents.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordIncidentBulkWrite(final long nanos) {
+        this.incidentBulkWriteTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Counter incidentCounter(final MeterRegistry meterRegistry, final NetworkIncidentStatus status) {
+        return Counter.builder(NETWORK_INCIDENTS_COUNTER)
+                .description("Number of network incidents that changed to a status")
+                .tag("status", status.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.tus.anomalydetector.metrics;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Micrometer meters of the stream thread scaling.
+ *
+ * <p>
+ * The scaling exposes the consumer lag under {@value #CONSUMER_LAG_GAUGE}, the records processed per
+ * second under {@value #PROCESS_RATE_GAUGE} and the number of stream threads under
+ * {@value #STREAM_THREADS_GAUGE}, and counts its decisions under {@value #STREAM_THREAD_SCALING_COUNTER}
+ * with a {@code direction} tag.
+ * </p>
+ */
+@Component
+public class StreamThreadScalingMetrics {
+
+    public static final String CONSUMER_LAG_GAUGE = "anomaly.detector.consumer.lag";
+
+    public static final String PROCESS_RATE_GAUGE = "anomaly.detector.process.rate";
+
+    public static final String STREAM_THREADS_GAUGE = "anomaly.detector.stream.threads";
+
+    public static final String STREAM_THREAD_SCALING_COUNTER = "anomaly.detector.stream.thread.scaling";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs a StreamThreadScalingMetrics.
+     *
+     * @param meterRegistry the registry in which the meters are registered
+     */
+    public StreamThreadScalingMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registers the gauges of the stream thread scaling.
+     *
+     * @param consumerLag   the total consumer lag of the stream threads, in records
+     * @param processRate   the records processed per second by all stream threads
+     * @param streamThreads the number of stream threads
+     */
+    public void registerStreamThreadScalingGauges(final Supplier<Number> consumerLag, final Supplier<Number> processRate,
+                                                  final Supplier<Number> streamThreads) {
+        Gauge.builder(CONSUMER_LAG_GAUGE, consumerLag)
+                .description("Total consumer lag of the stream threads in records")
+                .register(this.meterRegistry);
+        Gauge.builder(PROCESS_RATE_GAUGE, processRate)
+                .description("Records processed per second by all stream threads")
+                .register(this.meterRegistry);
+        Gauge.builder(STREAM_THREADS_GAUGE, streamThreads)
+                .description("Number of stream threads")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Records a stream thread being added or removed by the stream thread scaling.
+     *
+     * @param direction {@code up} if a thread was added, {@code down} if one was removed
+     */
+    public void recordStreamThreadScaling(final String direction) {
+        Counter.builder(STREAM_THREAD_SCALING_COUNTER)
+                .description("Number of stream threads added or removed by the stream thread scaling")
+                .tag("direction", direction)
+                .register(this.meterRegistry)
+                .increment();
+    }
+}
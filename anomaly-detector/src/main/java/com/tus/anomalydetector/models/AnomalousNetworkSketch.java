@@ -0,0 +1,109 @@
+package com.tus.anomalydetector.models;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.datasketches.hll.Union;
+
+/**
+ * A bounded-memory count of the distinct networks that went anomalous in one time window.
+ *
+ * <p>
+ * The count is kept in an HLL sketch with {@code 2^}{@value #LG_K} buckets, so it is accurate to about
+ * 1.6% and its serialized form stays below a few KB whether ten or a hundred thousand networks are
+ * anomalous. Sketches of the same window can be merged into their union, which counts the distinct
+ * networks of all of them. The sketch also remembers whether a storm has already been reported for its
+ * window, so that a window produces at most one storm. The sketch is not thread-safe.
+ * </p>
+ */
+public class AnomalousNetworkSketch {
+
+    public static final int LG_K = 12;
+
+    private HllSketch sketch;
+
+    private boolean stormReported;
+
+    /**
+     * Constructs an empty AnomalousNetworkSketch.
+     */
+    public AnomalousNetworkSketch() {
+        this(new HllSketch(LG_K), false);
+    }
+
+    private AnomalousNetworkSketch(final HllSketch sketch, final boolean stormReported) {
+        this.sketch = sketch;
+        this.stormReported = stormReported;
+    }
+
+    /**
+     * Restores a sketch from its serialized form.
+     *
+     * @param bytes the bytes produced by {@link #toByteArray()}
+     * @return the restored sketch
+     */
+    public static AnomalousNetworkSketch fromByteArray(final byte[] bytes) {
+        return new AnomalousNetworkSketch(HllSketch.heapify(Arrays.copyOfRange(bytes, 1, bytes.length)), bytes[0] != 0);
+    }
+
+    /**
+     * Adds an anomalous network to the sketch.
+     *
+     * @param networkId the ID of the network
+     */
+    public void update(final long networkId) {
+        this.sketch.update(networkId);
+    }
+
+    /**
+     * Merges another sketch of the same window into this sketch. Merging a sketch more than once, or a
+     * sketch that is already part of this sketch, does not change the count.
+     *
+     * @param other the sketch to merge
+     */
+    public void merge(final AnomalousNetworkSketch other) {
+        final Union union = new Union(LG_K);
+        union.update(this.sketch);
+        union.update(other.sketch);
+        this.sketch = union.getResult();
+    }
+
+    /**
+     * Returns the estimated number of distinct anomalous networks.
+     *
+     * @return the estimated count
+     */
+    public long count() {
+        return Math.round(this.sketch.getEstimate());
+    }
+
+    /**
+     * Returns whether a storm has already been reported for the window of this sketch.
+     *
+     * @return {@code true} if a storm has been reported
+     */
+    public boolean isStormReported() {
+        return this.stormReported;
+    }
+
+    /**
+     * Marks the window of this sketch as having reported its storm.
+     */
+    public void markStormReported() {
+        this.stormReported = true;
+    }
+
+    /**
+     * Serializes the sketch.
+     *
+     * @return the serialized sketch
+     */
+    public byte[] toByteArray() {
+        final byte[] sketchBytes = this.sketch.toCompactByteArray();
+        return ByteBuffer.allocate(1 + sketchBytes.length)
+                .put((byte) (this.stormReported ? 1 : 0))
+                .put(sketchBytes)
+                .array();
+    }
+}
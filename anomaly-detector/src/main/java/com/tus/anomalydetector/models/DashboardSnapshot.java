@@ -0,0 +1,19 @@
+package com.tus.anomalydetector.models;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
+import com.tus.anomalydetector.persistence.documents.NetworkSummary;
+
+/**
+ * Represents the data of the dashboard, as returned by the dashboard API.
+ *
+ * @param version          the version of the snapshot, passed as {@code since} to receive only what changed after it
+ * @param networkSummaries the summaries of the networks that changed since the requested version, or of every network
+ * @param networkAnomalies the latest anomalies of each of these networks, newest first, keyed by network ID
+ */
+public record DashboardSnapshot(Instant version, List<NetworkSummary> networkSummaries,
+                                Map<Long, List<NetworkAnomaly>> networkAnomalies) {
+}
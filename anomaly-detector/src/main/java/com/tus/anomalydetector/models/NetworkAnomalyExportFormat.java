@@ -0,0 +1,46 @@
+package com.tus.anomalydetector.models;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import lombok.Getter;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Format in which network anomalies are exported.
+ */
+@Getter
+public enum NetworkAnomalyExportFormat {
+
+    /**
+     * Newline-delimited JSON: one network anomaly per line, as returned by the network anomaly API.
+     */
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON),
+
+    /**
+     * Comma-separated values with a header line, one network anomaly per line.
+     */
+    CSV("csv", new MediaType("text", "csv"));
+
+    private final String name;
+
+    private final MediaType mediaType;
+
+    NetworkAnomalyExportFormat(final String name, final MediaType mediaType) {
+        this.name = name;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Finds the export format with the given name, ignoring case.
+     *
+     * @param name the name of the export format
+     * @return the export format, or empty if there is none with this name
+     */
+    public static Optional<NetworkAnomalyExportFormat> fromName(final String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.name.equalsIgnoreCase(name))
+                .findFirst();
+    }
+}
@@ -0,0 +1,14 @@
+package com.tus.anomalydetector.models;
+
+import java.time.Instant;
+
+/**
+ * Represents the optional filters applied when retrieving network anomalies.
+ *
+ * @param networkId      the ID of the network, or null for every network
+ * @param from           the inclusive start of the time range, or null for no start
+ * @param to             the inclusive end of the time range, or null for no end
+ * @param minSizeInBytes the minimum size of the anomalies in bytes, or null for any size
+ */
+public record NetworkAnomalyFilter(Long networkId, Instant from, Instant to, Double minSizeInBytes) {
+}
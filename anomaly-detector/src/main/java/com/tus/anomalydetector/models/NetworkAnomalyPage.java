@@ -0,0 +1,14 @@
+package com.tus.anomalydetector.models;
+
+import java.util.List;
+
+import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
+
+/**
+ * Represents a page of network anomalies, as returned by the network anomaly API.
+ *
+ * @param networkAnomalies the network anomalies of the page, newest first
+ * @param nextPageToken    the opaque token to pass as {@code pageToken} to retrieve the next page, or null on the last page
+ */
+public record NetworkAnomalyPage(List<NetworkAnomaly> networkAnomalies, String nextPageToken) {
+}
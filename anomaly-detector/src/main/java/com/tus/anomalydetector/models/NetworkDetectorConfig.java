@@ -0,0 +1,36 @@
+package com.tus.anomalydetector.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the detector thresholds of a network that override the configured defaults.
+ *
+ * <p>
+ * A threshold that is {@code null} is not overridden, so the detector falls back to its configured
+ * default for it.
+ * </p>
+ *
+ * <p>
+ * Fields:
+ * </p>
+ * <ul>
+ * <li>{@code networkId} - ID of the network the thresholds apply to.</li>
+ * <li>{@code volumeThresholdBytes} - Message size in bytes above which a message is an anomaly.</li>
+ * <li>{@code stdDevMultiplier} - Number of standard deviations from the mean beyond which a message is an anomaly.</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkDetectorConfig {
+
+    private long networkId;
+
+    private Double volumeThresholdBytes;
+
+    private Double stdDevMultiplier;
+}
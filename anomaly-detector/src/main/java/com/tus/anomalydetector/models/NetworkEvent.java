@@ -0,0 +1,25 @@
+package com.tus.anomalydetector.models;
+
+import java.util.Set;
+
+/**
+ * Represents an event of the network event stream.
+ *
+ * @param id        the resume token of the event, unique within the running detector
+ * @param sequence  the position of the event in the stream
+ * @param type      the type of the event
+ * @param networkId the ID of the network the event belongs to, or {@code null} if it belongs to every network
+ * @param data      the payload of the event
+ */
+public record NetworkEvent(String id, long sequence, NetworkEventType type, Long networkId, Object data) {
+
+    /**
+     * Returns whether the event is delivered to a subscriber of the given networks.
+     *
+     * @param networkIds the IDs of the networks subscribed to, or an empty set for every network
+     * @return {@code true} if the event belongs to every network or to one of the given networks
+     */
+    public boolean isFor(final Set<Long> networkIds) {
+        return this.networkId == null || networkIds.isEmpty() || networkIds.contains(this.networkId);
+    }
+}
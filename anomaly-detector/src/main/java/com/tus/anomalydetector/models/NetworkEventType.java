@@ -0,0 +1,38 @@
+package com.tus.anomalydetector.models;
+
+import lombok.Getter;
+
+/**
+ * Type of an event pushed to the subscribers of the network event stream.
+ */
+@Getter
+public enum NetworkEventType {
+
+    /**
+     * A network anomaly was written to MongoDB. The data is the network anomaly.
+     */
+    NETWORK_ANOMALY("network-anomaly"),
+
+    /**
+     * The summary of a network changed. The data is the latest summary of the network, so a newer summary
+     * event replaces any older one.
+     */
+    NETWORK_SUMMARY("network-summary"),
+
+    /**
+     * Events were dropped because the subscriber did not keep up. The data is the number of dropped events.
+     */
+    DROPPED("dropped"),
+
+    /**
+     * The events since the resume token of the subscriber are no longer available, so it has to reload
+     * the current state before applying further events.
+     */
+    RESET("reset");
+
+    private final String eventName;
+
+    NetworkEventType(final String eventName) {
+        this.eventName = eventName;
+    }
+}
@@ -0,0 +1,17 @@
+package com.tus.anomalydetector.models;
+
+/**
+ * Status of a network incident.
+ */
+public enum NetworkIncidentStatus {
+
+    /**
+     * The network is still producing anomalies, or has not been quiet for long enough to close the incident.
+     */
+    OPEN,
+
+    /**
+     * The network has been quiet for the configured period, and later anomalies open a new incident.
+     */
+    CLOSED
+}
@@ -0,0 +1,27 @@
+package com.tus.anomalydetector.models;
+
+/**
+ * Represents the approximate percentiles of the message sizes of a network.
+ *
+ * @param networkId the ID of the network
+ * @param count     the number of messages the percentiles are computed from
+ * @param p50       the median message size in bytes
+ * @param p95       the 95th percentile of the message sizes in bytes
+ * @param p99       the 99th percentile of the message sizes in bytes
+ */
+public record NetworkQuantiles(long networkId, long count, double p50, double p95, double p99) {
+
+    private static final double[] RANKS = {0.5, 0.95, 0.99};
+
+    /**
+     * Computes the percentiles of a network from its quantile sketch.
+     *
+     * @param networkId      the ID of the network
+     * @param quantileSketch the quantile sketch of the network
+     * @return the percentiles of the network
+     */
+    public static NetworkQuantiles of(final long networkId, final QuantileSketch quantileSketch) {
+        final double[] quantiles = quantileSketch.quantiles(RANKS);
+        return new NetworkQuantiles(networkId, quantileSketch.count(), quantiles[0], quantiles[1], quantiles[2]);
+    }
+}
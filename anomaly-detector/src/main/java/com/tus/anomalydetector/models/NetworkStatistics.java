@@ -0,0 +1,15 @@
+package com.tus.anomalydetector.models;
+
+/**
+ * Represents the rolling statistics of the message sizes of a network.
+ *
+ * @param mean              the mean message size in bytes
+ * @param standardDeviation the standard deviation of the message sizes in bytes
+ */
+public record NetworkStatistics(double mean, double standardDeviation) {
+
+    /**
+     * Statistics of a network for which no messages have been received.
+     */
+    public static final NetworkStatistics EMPTY = new NetworkStatistics(0.0, 0.0);
+}
@@ -0,0 +1,86 @@
+package com.tus.anomalydetector.models;
+
+import lombok.Getter;
+
+/**
+ * Represents the traffic of a network aggregated over one time window.
+ *
+ * <p>
+ * Fields:
+ * </p>
+ * <ul>
+ * <li>{@code trafficSizeInBytes} - Total size in bytes of the messages in the window.</li>
+ * <li>{@code messageCount} - Number of messages in the window.</li>
+ * <li>{@code anomalyCount} - Number of anomalies detected in the window.</li>
+ * <li>{@code minSizeInBytes} - Size in bytes of the smallest message in the window.</li>
+ * <li>{@code maxSizeInBytes} - Size in bytes of the largest message in the window.</li>
+ * </ul>
+ */
+@Getter
+public class NetworkTrafficAggregate {
+
+    private double trafficSizeInBytes;
+
+    private long messageCount;
+
+    private long anomalyCount;
+
+    private double minSizeInBytes;
+
+    private double maxSizeInBytes;
+
+    /**
+     * Constructs an empty NetworkTrafficAggregate.
+     */
+    public NetworkTrafficAggregate() {
+        this(0, 0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Constructs a NetworkTrafficAggregate with the given values.
+     *
+     * @param trafficSizeInBytes the total size in bytes of the messages
+     * @param messageCount       the number of messages
+     * @param anomalyCount       the number of anomalies
+     * @param minSizeInBytes     the size in bytes of the smallest message
+     * @param maxSizeInBytes     the size in bytes of the largest message
+     */
+    public NetworkTrafficAggregate(final double trafficSizeInBytes, final long messageCount, final long anomalyCount,
+                                   final double minSizeInBytes, final double maxSizeInBytes) {
+        this.trafficSizeInBytes = trafficSizeInBytes;
+        this.messageCount = messageCount;
+        this.anomalyCount = anomalyCount;
+        this.minSizeInBytes = minSizeInBytes;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * Adds a single network message to the aggregate.
+     *
+     * @param sizeInBytes the size of the message in bytes
+     * @param isAnomaly   whether the message was detected as an anomaly
+     */
+    public void add(final double sizeInBytes, final boolean isAnomaly) {
+        this.trafficSizeInBytes += sizeInBytes;
+        this.messageCount++;
+        if (isAnomaly) {
+            this.anomalyCount++;
+        }
+
+        this.minSizeInBytes = Math.min(this.minSizeInBytes, sizeInBytes);
+        this.maxSizeInBytes = Math.max(this.maxSizeInBytes, sizeInBytes);
+    }
+
+    /**
+     * Merges another aggregate of the same network and window into this aggregate.
+     *
+     * @param other the aggregate to merge
+     */
+    public void merge(final NetworkTrafficAggregate other) {
+        this.trafficSizeInBytes += other.trafficSizeInBytes;
+        this.messageCount += other.messageCount;
+        this.anomalyCount += other.anomalyCount;
+        this.minSizeInBytes = Math.min(this.minSizeInBytes, other.minSizeInBytes);
+        this.maxSizeInBytes = Math.max(this.maxSizeInBytes, other.maxSizeInBytes);
+    }
+}
@@ -0,0 +1,32 @@
+package com.tus.anomalydetector.models;
+
+import java.time.Instant;
+
+/**
+ * Represents the traffic of a network in one tumbling time window, as returned by the query API.
+ *
+ * @param windowStart        the inclusive start of the window
+ * @param windowEnd          the exclusive end of the window
+ * @param trafficSizeInBytes the total size in bytes of the messages in the window
+ * @param messageCount       the number of messages in the window
+ * @param anomalyCount       the number of anomalies detected in the window
+ * @param minSizeInBytes     the size in bytes of the smallest message in the window
+ * @param maxSizeInBytes     the size in bytes of the largest message in the window
+ */
+public record NetworkTrafficWindow(Instant windowStart, Instant windowEnd, double trafficSizeInBytes, long messageCount,
+                                   long anomalyCount, double minSizeInBytes, double maxSizeInBytes) {
+
+    /**
+     * Creates a NetworkTrafficWindow from the aggregate of a window.
+     *
+     * @param windowStart the start of the window
+     * @param windowSize  the size of the window in milliseconds
+     * @param aggregate   the aggregate of the window
+     * @return the traffic window
+     */
+    public static NetworkTrafficWindow of(final long windowStart, final long windowSize, final NetworkTrafficAggregate aggregate) {
+        return new NetworkTrafficWindow(Instant.ofEpochMilli(windowStart), Instant.ofEpochMilli(windowStart + windowSize),
+                aggregate.getTrafficSizeInBytes(), aggregate.getMessageCount(), aggregate.getAnomalyCount(),
+                aggregate.getMinSizeInBytes(), aggregate.getMaxSizeInBytes());
+    }
+}
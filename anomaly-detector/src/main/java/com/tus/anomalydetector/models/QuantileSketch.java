@@ -0,0 +1,133 @@
+package com.tus.anomalydetector.models;
+
+import java.util.Arrays;
+
+import org.apache.datasketches.kll.KllDoublesSketch;
+import org.apache.datasketches.memory.Memory;
+
+/**
+ * A mergeable, bounded-memory sketch of the distribution of the message sizes of a network.
+ *
+ * <p>
+ * The sketch is a KLL sketch with a fixed accuracy parameter, so it answers quantile queries within a
+ * normalized rank error of about 1.65% and never holds more than a few KB, however many messages it has
+ * seen. Sketches of the same network built on different partitions or instances can be merged into
+ * one, which is what lets them survive repartitioning.
+ * </p>
+ *
+ * <p>
+ * Computing a quantile sorts the retained samples, so the value of the most recently queried rank is
+ * cached and only recomputed every {@value #QUANTILE_REFRESH_INTERVAL} updates. This bounds the per-record
+ * cost of a detector that queries the same rank for every message. The sketch is not thread-safe.
+ * </p>
+ */
+public class QuantileSketch {
+
+    public static final int K = 200;
+
+    private static final int QUANTILE_REFRESH_INTERVAL = 32;
+
+    private final KllDoublesSketch sketch;
+
+    private double cachedRank = Double.NaN;
+
+    private double cachedQuantile;
+
+    private int updatesSinceCached;
+
+    /**
+     * Constructs an empty QuantileSketch.
+     */
+    public QuantileSketch() {
+        this(KllDoublesSketch.newHeapInstance(K));
+    }
+
+    private QuantileSketch(final KllDoublesSketch sketch) {
+        this.sketch = sketch;
+    }
+
+    /**
+     * Restores a sketch from its serialized form.
+     *
+     * @param bytes the bytes produced by {@link #toByteArray()}
+     * @return the restored sketch
+     */
+    public static QuantileSketch fromByteArray(final byte[] bytes) {
+        return new QuantileSketch(KllDoublesSketch.heapify(Memory.wrap(bytes)));
+    }
+
+    /**
+     * Adds a sample to the sketch.
+     *
+     * @param sample the sample
+     */
+    public void update(final double sample) {
+        this.sketch.update(sample);
+        this.updatesSinceCached++;
+    }
+
+    /**
+     * Merges another sketch into this sketch.
+     *
+     * @param other the sketch to merge
+     */
+    public void merge(final QuantileSketch other) {
+        this.sketch.merge(other.sketch);
+        this.cachedRank = Double.NaN;
+    }
+
+    /**
+     * Returns the number of samples added to the sketch.
+     *
+     * @return the number of samples
+     */
+    public long count() {
+        return this.sketch.getN();
+    }
+
+    /**
+     * Returns the approximate value at the given normalized rank, refreshed at most every
+     * {@value #QUANTILE_REFRESH_INTERVAL} updates while the same rank is queried.
+     *
+     * @param rank the normalized rank, between 0 and 1
+     * @return the approximate quantile, or {@code NaN} if the sketch is empty
+     */
+    public double quantile(final double rank) {
+        if (this.sketch.isEmpty()) {
+            return Double.NaN;
+        }
+
+        if (rank != this.cachedRank || this.updatesSinceCached >= QUANTILE_REFRESH_INTERVAL) {
+            this.cachedQuantile = this.sketch.getQuantile(rank);
+            this.cachedRank = rank;
+            this.updatesSinceCached = 0;
+        }
+
+        return this.cachedQuantile;
+    }
+
+    /**
+     * Returns the approximate values at the given normalized ranks, computed from the current samples.
+     *
+     * @param ranks the normalized ranks, between 0 and 1
+     * @return the approximate quantiles, or {@code NaN} for every rank if the sketch is empty
+     */
+    public double[] quantiles(final double... ranks) {
+        if (this.sketch.isEmpty()) {
+            final double[] quantiles = new double[ranks.length];
+            Arrays.fill(quantiles, Double.NaN);
+            return quantiles;
+        }
+
+        return this.sketch.getQuantiles(ranks);
+    }
+
+    /**
+     * Serializes the sketch.
+     *
+     * @return the compact serialized form of the sketch
+     */
+    public byte[] toByteArray() {
+        return this.sketch.toByteArray();
+    }
+}
@@ -0,0 +1,150 @@
+package com.tus.anomalydetector.models;
+
+/**
+ * A fixed-size rolling window of numeric samples backed by a primitive ring buffer.
+ * <p>
+ * The window keeps its running mean and sum of squared deviations up to date as samples are pushed,
+ * using Welford's update when the window is growing and its sliding-window variant once the window
+ * is full. Pushing a sample and reading the mean, variance or standard deviation are therefore O(1)
+ * and allocation-free. To bound floating-point drift, the moments are recomputed exactly each time
+ * the ring buffer wraps around, which keeps the amortized cost of a push O(1).
+ * </p>
+ */
+public class RollingStatisticsWindow {
+
+    private final double[] samples;
+
+    private int head;
+
+    private int size;
+
+    private double mean;
+
+    private double sumOfSquaredDeviations;
+
+    /**
+     * Constructs a RollingStatisticsWindow with the specified capacity.
+     *
+     * @param capacity the maximum number of samples kept in the window
+     */
+    public RollingStatisticsWindow(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        this.samples = new double[capacity];
+    }
+
+    /**
+     * Adds a sample to the window.
+     * If the window is full, the oldest sample is evicted to make space.
+     *
+     * @param sample the sample to add
+     */
+    public void push(final double sample) {
+        if (this.size < this.samples.length) {
+            this.size++;
+            final double delta = sample - this.mean;
+            this.mean += delta / this.size;
+            this.sumOfSquaredDeviations += delta * (sample - this.mean);
+        } else {
+            final double evicted = this.samples[this.head];
+            final double previousMean = this.mean;
+            this.mean += (sample - evicted) / this.size;
+            this.sumOfSquaredDeviations += (sample - evicted) * (sample - this.mean + evicted - previousMean);
+        }
+
+        this.samples[this.head] = sample;
+        this.head = (this.head + 1) % this.samples.length;
+
+        if (this.head == 0 && this.size == this.samples.length) {
+            this.recompute();
+        }
+    }
+
+    /**
+     * Returns the maximum number of samples kept in the window.
+     *
+     * @return the capacity of the window
+     */
+    public int capacity() {
+        return this.samples.length;
+    }
+
+    /**
+     * Returns the current number of samples in the window.
+     *
+     * @return the size of the window
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a copy of the samples in the window, ordered from oldest to newest.
+     *
+     * @return the samples in the window
+     */
+    public double[] toArray() {
+        final double[] copy = new double[this.size];
+        final int oldest = this.size < this.samples.length ? 0 : this.head;
+        for (int i = 0; i < this.size; i++) {
+            copy[i] = this.samples[(oldest + i) % this.samples.length];
+        }
+
+        return copy;
+    }
+
+    /**
+     * Returns the mean (average) of the samples in the window.
+     *
+     * @return the mean of the samples, or 0 if the window is empty
+     */
+    public double mean() {
+        return this.size == 0 ? 0 : this.mean;
+    }
+
+    /**
+     * Returns the population variance of the samples in the window.
+     *
+     * @return the variance, or 0 if the window is empty
+     */
+    public double variance() {
+        return this.size == 0 ? 0 : Math.max(0, this.sumOfSquaredDeviations / this.size);
+    }
+
+    /**
+     * Returns the population standard deviation of the samples in the window.
+     *
+     * @return the standard deviation, or 0 if the window is empty
+     */
+    public double standardDeviation() {
+        return Math.sqrt(this.variance());
+    }
+
+    /**
+     * Returns the mean and standard deviation of the samples in the window.
+     *
+     * @return the statistics of the window
+     */
+    public NetworkStatistics statistics() {
+        return new NetworkStatistics(this.mean(), this.standardDeviation());
+    }
+
+    private void recompute() {
+        double sum = 0;
+        for (int i = 0; i < this.size; i++) {
+            sum += this.samples[i];
+        }
+
+        final double exactMean = sum / this.size;
+        double exactSumOfSquaredDeviations = 0;
+        for (int i = 0; i < this.size; i++) {
+            final double deviation = this.samples[i] - exactMean;
+            exactSumOfSquaredDeviations += deviation * deviation;
+        }
+
+        this.mean = exactMean;
+        this.sumOfSquaredDeviations = exactSumOfSquaredDeviations;
+    }
+}
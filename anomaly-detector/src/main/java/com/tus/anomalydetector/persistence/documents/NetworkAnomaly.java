@@ -20,6 +20,13 @@ import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
  *   <li><b>sizeInBytes</b> - Size of the anomalous data in bytes.</li>
  *   <li><b>timestamp</b> - Time when the anomaly was detected.</li>
  * </ul>
+ *
+ * <p>
+ * Anomalies are read newest first, for one network or for every network, and paged by their timestamp
+ * and ID. The collection, which may be a time-series collection, and its indexes are managed by the
+ * {@code NetworkAnomalyCollectionService} rather than declared here, so that they exist before the first
+ * anomaly is written.
+ * </p>
  */
 @Document(collection = AnomalyDetectorConstants.NETWORK_ANOMALIES_COLLECTION)
 @Data
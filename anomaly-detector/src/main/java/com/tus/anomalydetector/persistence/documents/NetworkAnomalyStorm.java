@@ -0,0 +1,49 @@
+package com.tus.anomalydetector.persistence.documents;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Represents an anomaly storm, a time window in which many networks went anomalous at once.
+ *
+ * <p>Fields:</p>
+ * <ul>
+ *   <li><b>id</b> - Identifier of the storm, derived from its location and window start so that a storm is stored once.</li>
+ *   <li><b>location</b> - Location of the anomalous networks, or {@value AnomalyDetectorConstants#ALL_LOCATIONS} for networks in all locations.</li>
+ *   <li><b>windowStart</b> - Start of the time window of the storm.</li>
+ *   <li><b>windowEnd</b> - End of the time window of the storm.</li>
+ *   <li><b>anomalousNetworkCount</b> - Estimated number of anomalous networks when the storm was detected.</li>
+ *   <li><b>detectedAt</b> - Time when the storm was detected.</li>
+ * </ul>
+ */
+@Document(collection = AnomalyDetectorConstants.NETWORK_ANOMALY_STORMS_COLLECTION)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkAnomalyStorm {
+
+    @Id
+    private String id;
+
+    private String location;
+
+    @Indexed
+    private Instant windowStart;
+
+    private Instant windowEnd;
+
+    private long anomalousNetworkCount;
+
+    private Instant detectedAt;
+}
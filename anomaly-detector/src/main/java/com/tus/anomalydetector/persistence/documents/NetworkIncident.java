@@ -0,0 +1,82 @@
+package com.tus.anomalydetector.persistence.documents;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.tus.anomalydetector.models.NetworkIncidentStatus;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Represents an incident, a run of anomalies in a network without a quiet period between them.
+ *
+ * <p>Fields:</p>
+ * <ul>
+ *   <li><b>id</b> - Unique identifier for the incident.</li>
+ *   <li><b>networkId</b> - ID of the network where the incident occurred.</li>
+ *   <li><b>status</b> - Whether the incident is open or closed.</li>
+ *   <li><b>startTime</b> - Timestamp of the first anomaly of the incident.</li>
+ *   <li><b>endTime</b> - Timestamp of the latest anomaly of the incident.</li>
+ *   <li><b>anomalyCount</b> - Number of anomalies in the incident.</li>
+ *   <li><b>minSizeInBytes</b> - Size in bytes of the smallest anomalous message of the incident.</li>
+ *   <li><b>maxSizeInBytes</b> - Size in bytes of the largest anomalous message of the incident.</li>
+ *   <li><b>closedAt</b> - Time when the incident was closed, or {@code null} while it is open.</li>
+ * </ul>
+ */
+@Document(collection = AnomalyDetectorConstants.NETWORK_INCIDENTS_COLLECTION)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkIncident {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private long networkId;
+
+    private NetworkIncidentStatus status;
+
+    @Indexed
+    private Instant startTime;
+
+    private Instant endTime;
+
+    private long anomalyCount;
+
+    private double minSizeInBytes;
+
+    private double maxSizeInBytes;
+
+    private Instant closedAt;
+
+    /**
+     * Adds an anomalous network message to the incident.
+     *
+     * @param sizeInBytes the size of the message in bytes
+     * @param timestamp   the timestamp of the message
+     */
+    public void add(final double sizeInBytes, final Instant timestamp) {
+        if (this.anomalyCount == 0) {
+            this.startTime = timestamp;
+            this.endTime = timestamp;
+            this.minSizeInBytes = sizeInBytes;
+            this.maxSizeInBytes = sizeInBytes;
+        } else {
+            this.startTime = timestamp.isBefore(this.startTime) ? timestamp : this.startTime;
+            this.endTime = timestamp.isAfter(this.endTime) ? timestamp : this.endTime;
+            this.minSizeInBytes = Math.min(this.minSizeInBytes, sizeInBytes);
+            this.maxSizeInBytes = Math.max(this.maxSizeInBytes, sizeInBytes);
+        }
+
+        this.anomalyCount++;
+    }
+}
@@ -2,8 +2,10 @@ package com.tus.anomalydetector.persistence.documents;
 
 import java.time.Instant;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -16,7 +18,8 @@ import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
  * <p>Fields:</p>
  * <ul>
  *   <li><b>id</b> - Unique identifier for the summary record.</li>
- *   <li><b>networkId</b> - ID of the network.</li>
+ *   <li><b>networkId</b> - ID of the network, unique across summaries through the index created by the
+ *   {@code NetworkSummaryCollectionService}.</li>
  *   <li><b>trafficSizeInBytes</b> - Total traffic size in bytes.</li>
  *   <li><b>anomalyCount</b> - Number of detected anomalies.</li>
  *   <li><b>nonAnomalyCount</b> - Number of normal (non-anomalous) events.</li>
@@ -26,6 +29,8 @@ import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
 @Document(collection = AnomalyDetectorConstants.NETWORK_SUMMARIES_COLLECTION)
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class NetworkSummary {
 
     @Id
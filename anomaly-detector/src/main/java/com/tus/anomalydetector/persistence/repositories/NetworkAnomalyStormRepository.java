@@ -0,0 +1,14 @@
+package com.tus.anomalydetector.persistence.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.tus.anomalydetector.persistence.documents.NetworkAnomalyStorm;
+
+/**
+ * Repository interface for Network Anomaly Storms.
+ * Extends MongoRepository for CRUD operations.
+ */
+@Repository
+public interface NetworkAnomalyStormRepository extends MongoRepository<NetworkAnomalyStorm, String> {
+}
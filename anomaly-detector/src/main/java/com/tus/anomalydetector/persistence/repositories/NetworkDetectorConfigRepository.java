@@ -0,0 +1,74 @@
+package com.tus.anomalydetector.persistence.repositories;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Repository;
+
+import com.tus.anomalydetector.models.NetworkDetectorConfig;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Repository class for the per-network detector configurations.
+ *
+ * <p>The configurations are replicated to every instance from the compacted
+ * {@value AnomalyDetectorConstants#NETWORK_DETECTOR_CONFIG_TOPIC} topic by the global Kafka Streams thread,
+ * which is the only writer. The detectors read them on the stream threads for every record, so lookups
+ * go to a concurrent map keyed by network ID and involve no I/O or deserialization.</p>
+ */
+@Slf4j
+@Repository
+public class NetworkDetectorConfigRepository {
+
+    private final Map<Long, NetworkDetectorConfig> networkDetectorConfigs;
+
+    /**
+     * Constructs a new {@code NetworkDetectorConfigRepository} with no configurations.
+     */
+    public NetworkDetectorConfigRepository() {
+        this.networkDetectorConfigs = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Finds the detector configuration of a network.
+     *
+     * @param networkId the ID of the network
+     * @return the detector configuration of the network, or {@code null} if it uses the defaults
+     */
+    public NetworkDetectorConfig find(final long networkId) {
+        return this.networkDetectorConfigs.get(networkId);
+    }
+
+    /**
+     * Finds the detector configurations of all networks that override the defaults.
+     *
+     * @return the detector configurations, sorted by network ID
+     */
+    public List<NetworkDetectorConfig> findAll() {
+        final List<NetworkDetectorConfig> configs = new ArrayList<>(this.networkDetectorConfigs.values());
+        configs.sort(Comparator.comparingLong(NetworkDetectorConfig::getNetworkId));
+        return configs;
+    }
+
+    /**
+     * Saves the detector configuration of a network, or removes it if the configuration is {@code null}.
+     *
+     * @param networkId             the ID of the network
+     * @param networkDetectorConfig the detector configuration of the network, or {@code null} to fall back to the defaults
+     */
+    public void save(final long networkId, final NetworkDetectorConfig networkDetectorConfig) {
+        if (networkDetectorConfig == null) {
+            log.info("save() Removed the detector configuration of network: {}.", networkId);
+            this.networkDetectorConfigs.remove(networkId);
+            return;
+        }
+
+        log.info("save() Saved the detector configuration of network: {}. Configuration: {}.", networkId, networkDetectorConfig);
+        this.networkDetectorConfigs.put(networkId, networkDetectorConfig);
+    }
+}
@@ -0,0 +1,35 @@
+package com.tus.anomalydetector.persistence.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.tus.anomalydetector.models.NetworkIncidentStatus;
+import com.tus.anomalydetector.persistence.documents.NetworkIncident;
+
+/**
+ * Repository interface for Network Incidents.
+ * Extends MongoRepository for CRUD operations and custom queries.
+ */
+@Repository
+public interface NetworkIncidentRepository extends MongoRepository<NetworkIncident, String> {
+
+    /**
+     * Finds network incidents by network ID with pagination and sorting.
+     *
+     * @param networkId the ID of the network.
+     * @param pageable  the pagination and sorting information.
+     * @return a page of network incidents for the specified network.
+     */
+    Page<NetworkIncident> findByNetworkId(final long networkId, final Pageable pageable);
+
+    /**
+     * Finds network incidents by status with pagination and sorting.
+     *
+     * @param status   the status of the incidents.
+     * @param pageable the pagination and sorting information.
+     * @return a page of network incidents with the specified status.
+     */
+    Page<NetworkIncident> findByStatus(final NetworkIncidentStatus status, final Pageable pageable);
+}
@@ -1,63 +1,67 @@
 package com.tus.anomalydetector.persistence.repositories;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.streams.processor.TaskId;
+import org.apache.kafka.streams.state.KeyValueStore;
 
 import org.springframework.stereotype.Repository;
 
-import com.tus.anomalydetector.models.FixedSizeDeque;
-import com.tus.anomalydetector.models.NetworkMessage;
+import com.tus.anomalydetector.models.QuantileSketch;
+import com.tus.anomalydetector.models.RollingStatisticsWindow;
 
 /**
- * Repository class for storing and analyzing network statistics.
+ * Repository class for the network statistics shards of the Kafka Streams tasks.
+ *
+ * <p>Each stream task owns one {@link NetworkStatisticsShard} holding a fixed-size rolling window and a
+ * quantile sketch of message sizes for every network ID on its partition. A task opens its shard when it is assigned
+ * and closes it when it is revoked, so the hot path never shares state across stream threads and
+ * needs no locking. Only opening and closing shards goes through this concurrent registry.</p>
  *
- * <p>This class maintains a fixed-size history of message sizes for each network ID
- * and provides methods to compute statistical measures such as mean and standard deviation.</p>
+ * <p>The shards are backed by a persistent, changelogged state store, so the statistics survive
+ * restarts and follow their task to whichever instance it is assigned to.</p>
  */
+@Slf4j
 @Repository
 public class NetworkStatisticsRepository {
 
-    private final Map<Long, FixedSizeDeque<Double>> map;
+    private final Map<TaskId, NetworkStatisticsShard> shards;
 
     /**
-     * Constructs a new {@code NetworkStatisticsRepository} with an empty storage map.
+     * Constructs a new {@code NetworkStatisticsRepository} with no shards.
      */
     public NetworkStatisticsRepository() {
-        this.map = new HashMap<>();
-    }
-
-    /**
-     * Saves a network message's size into the repository.
-     *
-     * <p>If no previous entries exist for the given network ID, a new fixed-size deque is created.</p>
-     *
-     * @param networkMessage the network message containing the network ID and size information
-     */
-    public void save(final NetworkMessage networkMessage) {
-        if (!this.map.containsKey(networkMessage.getNetworkId())) {
-            this.map.put(networkMessage.getNetworkId(), new FixedSizeDeque<>(500));
-        }
-
-        this.map.get(networkMessage.getNetworkId()).addFirst(networkMessage.getSizeInBytes());
+        this.shards = new ConcurrentHashMap<>();
     }
 
     /**
-     * Computes the mean (average) size of network messages for a given network ID.
+     * Opens the shard owned by the given task, replacing any shard previously opened for it.
      *
-     * @param networkId the ID of the network
-     * @return the mean size of the messages; returns {@code 0.0} if no data is available
+     * @param taskId              the ID of the task
+     * @param store               the state store of the task in which the rolling windows are persisted
+     * @param quantileSketchStore the state store of the task in which the quantile sketches are persisted
+     * @return the shard owned by the task
      */
-    public double findMean(final long networkId) {
-        return this.map.containsKey(networkId) ? this.map.get(networkId).mean() : 0.0;
+    public NetworkStatisticsShard openShard(final TaskId taskId, final KeyValueStore<Long, RollingStatisticsWindow> store,
+                                            final KeyValueStore<Long, QuantileSketch> quantileSketchStore) {
+        log.info("openShard() Opening network statistics shard for task: {}.", taskId);
+        final NetworkStatisticsShard shard = new NetworkStatisticsShard(taskId, store, quantileSketchStore);
+        this.shards.put(taskId, shard);
+        return shard;
     }
 
     /**
-     * Computes the standard deviation of network message sizes for a given network ID.
+     * Closes the shard owned by the given task, releasing its statistics.
      *
-     * @param networkId the ID of the network
-     * @return the standard deviation of the message sizes; returns {@code 0.0} if no data is available
+     * @param taskId the ID of the task
      */
-    public double findStandardDeviation(final long networkId) {
-        return this.map.containsKey(networkId) ? this.map.get(networkId).standardDeviation() : 0.0;
+    public void closeShard(final TaskId taskId) {
+        final NetworkStatisticsShard shard = this.shards.remove(taskId);
+        if (shard != null) {
+            log.info("closeShard() Closed network statistics shard for task: {} with {} networks.", taskId, shard.size());
+        }
     }
 }
@@ -0,0 +1,167 @@
+package com.tus.anomalydetector.persistence.repositories;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.Getter;
+
+import org.apache.kafka.streams.processor.TaskId;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import com.tus.anomalydetector.models.NetworkStatistics;
+import com.tus.anomalydetector.models.QuantileSketch;
+import com.tus.anomalydetector.models.RollingStatisticsWindow;
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * A shard of network statistics owned by a single Kafka Streams task.
+ *
+ * <p>A shard is only ever accessed by the stream thread that runs its task, so it is intentionally
+ * not synchronized. Ownership of a shard moves with its task on rebalance, see
+ * {@link NetworkStatisticsRepository}.</p>
+ *
+ * <p>The shard holds two kinds of statistics per network: a fixed-size rolling window of message sizes
+ * and a {@link QuantileSketch} of all message sizes. Each is persisted in its own changelog-backed state
+ * store of the task. They are kept on the heap for the hot path, loaded from their store the first time
+ * a network is seen, and written back to the store for every network that changed when the shard is
+ * checkpointed.</p>
+ */
+public class NetworkStatisticsShard {
+
+    private static final int WINDOW_SIZE = 500;
+
+    @Getter
+    private final TaskId taskId;
+
+    private final KeyValueStore<Long, RollingStatisticsWindow> store;
+
+    private final KeyValueStore<Long, QuantileSketch> quantileSketchStore;
+
+    private final Map<Long, RollingStatisticsWindow> map;
+
+    private final Map<Long, QuantileSketch> quantileSketches;
+
+    private final Set<Long> dirtyNetworkIds;
+
+    private final Set<Long> dirtyQuantileSketchNetworkIds;
+
+    /**
+     * Constructs a new {@code NetworkStatisticsShard} for the specified task backed by the given stores.
+     *
+     * @param taskId              the ID of the task that owns the shard
+     * @param store               the state store in which the rolling windows are persisted
+     * @param quantileSketchStore the state store in which the quantile sketches are persisted
+     */
+    NetworkStatisticsShard(final TaskId taskId, final KeyValueStore<Long, RollingStatisticsWindow> store,
+                           final KeyValueStore<Long, QuantileSketch> quantileSketchStore) {
+        this.taskId = taskId;
+        this.store = store;
+        this.quantileSketchStore = quantileSketchStore;
+        this.map = new HashMap<>();
+        this.quantileSketches = new HashMap<>();
+        this.dirtyNetworkIds = new HashSet<>();
+        this.dirtyQuantileSketchNetworkIds = new HashSet<>();
+    }
+
+    /**
+     * Saves a network message's size into the shard.
+     *
+     * <p>If no previous entries exist for the given network ID in memory or in the state store,
+     * a new rolling window is created.</p>
+     *
+     * @param networkMessage the network message containing the network ID and size information
+     */
+    public void save(final NetworkMessage networkMessage) {
+        this.findWindow(networkMessage.getNetworkId()).push(networkMessage.getSizeInBytes());
+        this.dirtyNetworkIds.add(networkMessage.getNetworkId());
+    }
+
+    /**
+     * Saves a network message's size into the quantile sketch of its network.
+     *
+     * <p>If no sketch exists for the given network ID in memory or in the state store, a new sketch is created.</p>
+     *
+     * @param networkMessage the network message containing the network ID and size information
+     */
+    public void saveQuantiles(final NetworkMessage networkMessage) {
+        this.findQuantileSketch(networkMessage.getNetworkId()).update(networkMessage.getSizeInBytes());
+        this.dirtyQuantileSketchNetworkIds.add(networkMessage.getNetworkId());
+    }
+
+    /**
+     * Returns the mean and standard deviation of the network message sizes for a given network ID.
+     *
+     * @param networkId the ID of the network
+     * @return the statistics of the message sizes; returns {@link NetworkStatistics#EMPTY} if no data is available
+     */
+    public NetworkStatistics findStatistics(final long networkId) {
+        final RollingStatisticsWindow window = this.map.get(networkId);
+        return window == null ? NetworkStatistics.EMPTY : window.statistics();
+    }
+
+    /**
+     * Returns the quantile sketch of the message sizes for a given network ID.
+     *
+     * @param networkId the ID of the network
+     * @return the quantile sketch of the network; returns {@code null} if no data is available
+     */
+    public QuantileSketch findQuantiles(final long networkId) {
+        return this.quantileSketches.get(networkId);
+    }
+
+    /**
+     * Writes the rolling windows and quantile sketches that changed since the last checkpoint to their state stores.
+     */
+    public void checkpoint() {
+        for (final Long networkId : this.dirtyNetworkIds) {
+            this.store.put(networkId, this.map.get(networkId));
+        }
+
+        this.dirtyNetworkIds.clear();
+
+        for (final Long networkId : this.dirtyQuantileSketchNetworkIds) {
+            this.quantileSketchStore.put(networkId, this.quantileSketches.get(networkId));
+        }
+
+        this.dirtyQuantileSketchNetworkIds.clear();
+    }
+
+    /**
+     * Returns the number of networks tracked by the shard.
+     *
+     * @return the number of networks
+     */
+    public int size() {
+        return Math.max(this.map.size(), this.quantileSketches.size());
+    }
+
+    private RollingStatisticsWindow findWindow(final long networkId) {
+        RollingStatisticsWindow window = this.map.get(networkId);
+        if (window == null) {
+            window = this.store.get(networkId);
+            if (window == null) {
+                window = new RollingStatisticsWindow(WINDOW_SIZE);
+            }
+
+            this.map.put(networkId, window);
+        }
+
+        return window;
+    }
+
+    private QuantileSketch findQuantileSketch(final long networkId) {
+        QuantileSketch quantileSketch = this.quantileSketches.get(networkId);
+        if (quantileSketch == null) {
+            quantileSketch = this.quantileSketchStore.get(networkId);
+            if (quantileSketch == null) {
+                quantileSketch = new QuantileSketch();
+            }
+
+            this.quantileSketches.put(networkId, quantileSketch);
+        }
+
+        return quantileSketch;
+    }
+}
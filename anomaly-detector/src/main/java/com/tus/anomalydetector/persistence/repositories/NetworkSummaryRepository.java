@@ -1,5 +1,6 @@
 package com.tus.anomalydetector.persistence.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -22,4 +23,13 @@ public interface NetworkSummaryRepository extends MongoRepository<NetworkSummary
      * The list will be empty if no matching entries are found.
      */
     List<NetworkSummary> findByNetworkId(final long networkId);
+
+    /**
+     * Retrieves all {@link NetworkSummary} entries of the given networks.
+     *
+     * @param networkIds The IDs of the networks.
+     * @return A {@link List} of {@link NetworkSummary} instances matching any of the network IDs.
+     * The list will be empty if no matching entries are found.
+     */
+    List<NetworkSummary> findByNetworkIdIn(final Collection<Long> networkIds);
 }
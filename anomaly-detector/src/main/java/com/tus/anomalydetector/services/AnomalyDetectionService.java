@@ -1,23 +1,58 @@
 package com.tus.anomalydetector.services;
 
-import java.time.Instant;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.Branched;
+import org.apache.kafka.streams.kstream.Consumed;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Named;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.state.Stores;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
 import org.springframework.stereotype.Service;
 
-import com.tus.anomalydetector.models.NetworkMessage;
-import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
-import com.tus.anomalydetector.persistence.documents.NetworkSummary;
-import com.tus.anomalydetector.persistence.repositories.NetworkAnomalyRepository;
+import com.tus.anomalydetector.detectors.DetectorChain;
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+import com.tus.anomalydetector.metrics.NetworkAnomalyStormMetrics;
+import com.tus.anomalydetector.metrics.NetworkIncidentMetrics;
+import com.tus.anomalydetector.persistence.repositories.NetworkDetectorConfigRepository;
 import com.tus.anomalydetector.persistence.repositories.NetworkStatisticsRepository;
+import com.tus.anomalydetector.streams.LoggingStateRestoreListener;
+import com.tus.anomalydetector.streams.NetworkAnomalyDetectionProcessor;
+import com.tus.anomalydetector.streams.NetworkDetectorConfigProcessor;
+import com.tus.anomalydetector.streams.NetworkMessageTimestampExtractor;
+import com.tus.anomalydetector.streams.NetworkMessageTracing;
+import com.tus.anomalydetector.streams.StreamThreadExceptionHandler;
+import com.tus.anomalydetector.streams.NetworkAnomalyStormProcessor;
+import com.tus.anomalydetector.streams.NetworkAnomalyStormUnionProcessor;
+import com.tus.anomalydetector.streams.TimedDeserializer;
+import com.tus.anomalydetector.utils.AnomalousNetworkSketchSerde;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+import com.tus.anomalydetector.utils.NetworkDetectorConfigSerde;
+import com.tus.anomalydetector.utils.NetworkIncidentSerde;
+import com.tus.anomalydetector.utils.NetworkSummarySerde;
+import com.tus.anomalydetector.utils.NetworkTrafficAggregateSerde;
+import com.tus.anomalydetector.utils.QuantileSketchSerde;
+import com.tus.anomalydetector.utils.RollingStatisticsWindowSerde;
+import com.tus.networkmessage.models.NetworkMessage;
+import com.tus.networkmessage.utils.NetworkMessageDeserializer;
+import com.tus.networkmessage.utils.NetworkMessageSerializer;
 
 /**
  * Service for detecting anomalies by processing incoming network messages
@@ -33,36 +68,160 @@ import com.tus.anomalydetector.persistence.repositories.NetworkStatisticsReposit
 @Service
 public class AnomalyDetectionService {
 
-    private static final String NETWORK_MESSAGES_TOPIC = "network-messages";
+    private static final String UNKEYED_BRANCH = "unkeyed";
 
-    private static final double NETWORK_TRAFFIC_VOLUME_THRESHOLD = 800;
+    private static final String KEYED_BRANCH = "keyed";
 
-    private static final double NETWORK_TRAFFIC_STD_DEV_THRESHOLD = 2.0;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
 
     private final KafkaStreamsConfiguration kafkaStreamsConfiguration;
 
-    private final NetworkSummaryService networkSummaryService;
+    private final NetworkSummaryAggregationService networkSummaryAggregationService;
 
     private final NetworkStatisticsRepository networkStatisticsRepository;
 
-    private final NetworkAnomalyRepository networkAnomalyRepository;
+    private final NetworkDetectorConfigRepository networkDetectorConfigRepository;
+
+    private final NetworkAnomalySinkService networkAnomalySinkService;
+
+    private final NetworkIncidentAggregationService networkIncidentAggregationService;
+
+    private final NetworkEventService networkEventService;
+
+    private final DetectorChain detectorChain;
+
+    private final NetworkAnomalyStormService networkAnomalyStormService;
+
+    private final AnomalyDetectionMetrics anomalyDetectionMetrics;
+
+    private final NetworkIncidentMetrics networkIncidentMetrics;
+
+    private final NetworkAnomalyStormMetrics networkAnomalyStormMetrics;
+
+    private final NetworkMessageTracing networkMessageTracing;
+
+    private final Duration commitInterval;
+
+    private final Duration networkStatisticsCheckpointInterval;
+
+    private final boolean networkQuantilesEnabled;
+
+    @Getter
+    private final Duration trafficWindowSize;
+
+    private final Duration trafficWindowGrace;
+
+    private final Duration trafficWindowRetention;
+
+    private final boolean networkIncidentsEnabled;
+
+    private final Duration incidentQuietPeriod;
+
+    private final Duration incidentCloseInterval;
+
+    private final boolean anomalyStormEnabled;
+
+    private final Duration anomalyStormWindowSize;
+
+    private final Duration anomalyStormGrace;
+
+    private final Duration anomalyStormRetention;
+
+    private final long anomalyStormMinNetworks;
+
+    private final Duration anomalyStormUnionInterval;
+
+    @Getter
+    private KafkaStreams kafkaStreams;
 
     /**
      * Constructs an {@code AnomalyDetectionService} with the required dependencies.
      *
-     * @param kafkaStreamsConfiguration   the configuration for Kafka Streams
-     * @param networkSummaryService       the service to use for network summary operations
-     * @param networkStatisticsRepository the repository to store and retrieve network statistics
-     * @param networkAnomalyRepository    the repository to store detected network anomalies
+     * @param kafkaStreamsConfiguration        the configuration for Kafka Streams
+     * @param networkSummaryAggregationService the service that aggregates and flushes network summaries
+     * @param networkStatisticsRepository      the repository of the per-task network statistics shards
+     * @param networkDetectorConfigRepository  the repository of the per-network detector thresholds
+     * @param networkAnomalySinkService        the sink that writes detected network anomalies
+     * @param networkIncidentAggregationService the service that collects and flushes network incidents
+     * @param networkEventService              the service that pushes summary changes to the network event subscribers
+     * @param detectorChain                    the chain of detectors evaluated for every message
+     * @param networkAnomalyStormService       the service that saves detected anomaly storms
+     * @param anomalyDetectionMetrics          the metrics of the detection pipeline
+     * @param networkIncidentMetrics           the metrics of the network incidents
+     * @param networkAnomalyStormMetrics       the metrics of the anomaly storm correlation
+     * @param networkMessageTracing            the tracing of the network messages
+     * @param commitIntervalMs                 the interval in milliseconds at which the offsets of the stream tasks are committed
+     * @param checkpointIntervalMs             the interval in milliseconds at which network statistics are checkpointed
+     * @param networkQuantilesEnabled          whether the quantile sketches of the networks are maintained for queries
+     * @param trafficWindowSizeMs              the size in milliseconds of the tumbling traffic windows
+     * @param trafficWindowGraceMs             the time in milliseconds a traffic window accepts out-of-order messages after it ends
+     * @param trafficWindowRetentionMs         the time in milliseconds traffic windows are kept for queries
+     * @param networkIncidentsEnabled          whether anomalies are coalesced into incidents instead of being written one by one
+     * @param incidentQuietPeriodMs            the time in milliseconds a network has to be free of anomalies before its incident is closed
+     * @param incidentCloseIntervalMs          the interval in milliseconds at which incidents are checked for their quiet period
+     * @param anomalyStormEnabled              whether anomalies are correlated across networks to detect anomaly storms
+     * @param anomalyStormWindowSizeMs         the size in milliseconds of the windows in which anomalous networks are counted
+     * @param anomalyStormGraceMs              the time in milliseconds an anomaly storm window accepts out-of-order anomalies after it ends
+     * @param anomalyStormRetentionMs          the time in milliseconds the anomalous network counts are kept
+     * @param anomalyStormMinNetworks          the number of anomalous networks in a window that makes an anomaly storm
+     * @param anomalyStormUnionIntervalMs      the interval in milliseconds at which the anomalous networks of all locations are merged
      */
     public AnomalyDetectionService(final KafkaStreamsConfiguration kafkaStreamsConfiguration,
-                                   final NetworkSummaryService networkSummaryService,
+                                   final NetworkSummaryAggregationService networkSummaryAggregationService,
                                    final NetworkStatisticsRepository networkStatisticsRepository,
-                                   final NetworkAnomalyRepository networkAnomalyRepository) {
+                                   final NetworkDetectorConfigRepository networkDetectorConfigRepository,
+                                   final NetworkAnomalySinkService networkAnomalySinkService,
+                                   final NetworkIncidentAggregationService networkIncidentAggregationService,
+                                   final NetworkEventService networkEventService,
+                                   final DetectorChain detectorChain,
+                                   final NetworkAnomalyStormService networkAnomalyStormService,
+                                   final AnomalyDetectionMetrics anomalyDetectionMetrics,
+                                   final NetworkIncidentMetrics networkIncidentMetrics,
+                                   final NetworkAnomalyStormMetrics networkAnomalyStormMetrics,
+                                   final NetworkMessageTracing networkMessageTracing,
+                                   @Value("${spring.kafka.streams.commit-interval-ms}") final long commitIntervalMs,
+                                   @Value("${anomaly-detector.network-statistics.checkpoint-interval-ms}") final long checkpointIntervalMs,
+                                   @Value("${anomaly-detector.network-quantiles.enabled}") final boolean networkQuantilesEnabled,
+                                   @Value("${anomaly-detector.network-traffic.window-size-ms}") final long trafficWindowSizeMs,
+                                   @Value("${anomaly-detector.network-traffic.grace-ms}") final long trafficWindowGraceMs,
+                                   @Value("${anomaly-detector.network-traffic.retention-ms}") final long trafficWindowRetentionMs,
+                                   @Value("${anomaly-detector.network-incidents.enabled}") final boolean networkIncidentsEnabled,
+                                   @Value("${anomaly-detector.network-incidents.quiet-period-ms}") final long incidentQuietPeriodMs,
+                                   @Value("${anomaly-detector.network-incidents.close-interval-ms}") final long incidentCloseIntervalMs,
+                                   @Value("${anomaly-detector.network-anomaly-storm.enabled}") final boolean anomalyStormEnabled,
+                                   @Value("${anomaly-detector.network-anomaly-storm.window-size-ms}") final long anomalyStormWindowSizeMs,
+                                   @Value("${anomaly-detector.network-anomaly-storm.grace-ms}") final long anomalyStormGraceMs,
+                                   @Value("${anomaly-detector.network-anomaly-storm.retention-ms}") final long anomalyStormRetentionMs,
+                                   @Value("${anomaly-detector.network-anomaly-storm.min-networks}") final long anomalyStormMinNetworks,
+                                   @Value("${anomaly-detector.network-anomaly-storm.union-interval-ms}") final long anomalyStormUnionIntervalMs) {
         this.kafkaStreamsConfiguration = kafkaStreamsConfiguration;
-        this.networkSummaryService = networkSummaryService;
+        this.networkSummaryAggregationService = networkSummaryAggregationService;
         this.networkStatisticsRepository = networkStatisticsRepository;
-        this.networkAnomalyRepository = networkAnomalyRepository;
+        this.networkDetectorConfigRepository = networkDetectorConfigRepository;
+        this.networkAnomalySinkService = networkAnomalySinkService;
+        this.networkIncidentAggregationService = networkIncidentAggregationService;
+        this.networkEventService = networkEventService;
+        this.detectorChain = detectorChain;
+        this.networkAnomalyStormService = networkAnomalyStormService;
+        this.anomalyDetectionMetrics = anomalyDetectionMetrics;
+        this.networkIncidentMetrics = networkIncidentMetrics;
+        this.networkAnomalyStormMetrics = networkAnomalyStormMetrics;
+        this.networkMessageTracing = networkMessageTracing;
+        this.commitInterval = Duration.ofMillis(commitIntervalMs);
+        this.networkStatisticsCheckpointInterval = Duration.ofMillis(checkpointIntervalMs);
+        this.networkQuantilesEnabled = networkQuantilesEnabled;
+        this.trafficWindowSize = Duration.ofMillis(trafficWindowSizeMs);
+        this.trafficWindowGrace = Duration.ofMillis(trafficWindowGraceMs);
+        this.trafficWindowRetention = Duration.ofMillis(trafficWindowRetentionMs);
+        this.networkIncidentsEnabled = networkIncidentsEnabled;
+        this.incidentQuietPeriod = Duration.ofMillis(incidentQuietPeriodMs);
+        this.incidentCloseInterval = Duration.ofMillis(incidentCloseIntervalMs);
+        this.anomalyStormEnabled = anomalyStormEnabled;
+        this.anomalyStormWindowSize = Duration.ofMillis(anomalyStormWindowSizeMs);
+        this.anomalyStormGrace = Duration.ofMillis(anomalyStormGraceMs);
+        this.anomalyStormRetention = Duration.ofMillis(anomalyStormRetentionMs);
+        this.anomalyStormMinNetworks = anomalyStormMinNetworks;
+        this.anomalyStormUnionInterval = Duration.ofMillis(anomalyStormUnionIntervalMs);
     }
 
     /**
@@ -70,78 +229,207 @@ public class AnomalyDetectionService {
      *
      * <p>
      * This method is invoked after the bean has been constructed.
-     * It builds the Kafka Streams topology, starts streaming, and registers a shutdown hook
-     * to gracefully close the streams when the application terminates.
+     * It builds the Kafka Streams topology and starts streaming.
      * </p>
      */
     @PostConstruct
     public void init() {
-        final KafkaStreams kafkaStreams = this.buildKStreams();
-        kafkaStreams.start();
-        Runtime.getRuntime().addShutdownHook(new Thread(kafkaStreams::close));
+        this.kafkaStreams = this.buildKStreams();
+        this.kafkaStreams.setGlobalStateRestoreListener(new LoggingStateRestoreListener());
+        this.kafkaStreams.setUncaughtExceptionHandler(new StreamThreadExceptionHandler(this.networkAnomalySinkService));
+        this.kafkaStreams.start();
+    }
+
+    /**
+     * Closes the Kafka Streams application.
+     *
+     * <p>
+     * Spring destroys this service before the sink and the aggregation services it depends on, so the
+     * stream threads make their final commit while the anomaly sink can still write the anomalies the
+     * commit waits for, and nothing is enqueued once the sink drains its queue and stops.
+     * </p>
+     */
+    @PreDestroy
+    public void close() {
+        log.info("close() Closing Kafka Streams.");
+        this.kafkaStreams.close(CLOSE_TIMEOUT);
     }
 
     /**
      * Builds the Kafka Streams topology to process incoming network messages.
      *
      * <p>
-     * This method defines the stream processing logic, including:
-     * <ul>
-     *   <li>Logging received messages</li>
-     *   <li>Saving traffic statistics</li>
-     *   <li>Detecting anomalies based on volume and standard deviation thresholds</li>
-     *   <li>Updating network traffic summaries</li>
-     * </ul>
+     * Every network message is handed to a {@link NetworkAnomalyDetectionProcessor}. Kafka Streams
+     * creates one processor per stream task, and each processor keeps the network statistics of its
+     * partition in its own shard, so the topology scales with the number of stream threads without
+     * sharing mutable state between them. The shards are persisted in the
+     * {@value AnomalyDetectorConstants#NETWORK_STATISTICS_STORE} and
+     * {@value AnomalyDetectorConstants#NETWORK_QUANTILES_STORE} RocksDB state stores, which are backed
+     * by changelog topics. The network summaries served to the REST API are kept in the
+     * {@value AnomalyDetectorConstants#NETWORK_SUMMARIES_STORE} for interactive queries. Per-network traffic is aggregated into tumbling windows in the
+     * {@value AnomalyDetectorConstants#NETWORK_TRAFFIC_STORE} window store, which drops windows once they
+     * are older than the retention period. Detected anomalies are written asynchronously by the
+     * {@link NetworkAnomalySinkService}, and the commit hook of each
+     * task holds back its offset commits until the anomalies it enqueued are durable. In incident mode, anomalies are coalesced per network into
+     * the open incidents kept in the {@value AnomalyDetectorConstants#NETWORK_INCIDENTS_STORE} instead,
+     * and written by the {@link NetworkIncidentAggregationService} once per flush interval. Network messages are read through a deserializer that
+     * records the deserialize stage in the {@link AnomalyDetectionMetrics}.
+     * </p>
+     *
+     * <p>
+     * Network messages are timestamped with the event time in their payload by the
+     * {@link NetworkMessageTimestampExtractor}, and the timestamp is carried through the repartition
+     * topics, so every window, grace period and quiet period of the topology is in event time.
      * </p>
      *
-     * @return a configured {@link KafkaStreams} instance
+     * <p>
+     * The per-network state is only co-located if every network message is keyed by its network ID.
+     * Records without a key, written by producers that predate keying, are re-keyed and sent through
+     * the {@value AnomalyDetectorConstants#NETWORK_MESSAGES_REPARTITION} repartition topic before they
+     * are merged back with the keyed records.
+     * </p>
+     *
+     * <p>
+     * The per-network detector thresholds are read from the compacted
+     * {@value AnomalyDetectorConstants#NETWORK_DETECTOR_CONFIG_TOPIC} topic into the in-memory
+     * {@value AnomalyDetectorConstants#NETWORK_DETECTOR_CONFIG_STORE} global store by a
+     * {@link NetworkDetectorConfigProcessor}, which also keeps the {@link NetworkDetectorConfigRepository}
+     * the detectors read from up to date. Every instance holds every configuration, so no repartitioning
+     * or remote lookup is needed to resolve the thresholds of a record.
+     * </p>
+     *
+     * <p>
+     * If anomaly storm detection is enabled, the anomalies forwarded by the detection processor are
+     * repartitioned by location through the {@value AnomalyDetectorConstants#NETWORK_ANOMALIES_REPARTITION}
+     * topic and counted per location and window by a {@link NetworkAnomalyStormProcessor}. Only anomalies
+     * cross this topic, so it stays small unless many networks are anomalous at once. The counts of the
+     * locations of each task are merged and sent through the single-partition
+     * {@value AnomalyDetectorConstants#NETWORK_ANOMALY_SKETCHES_REPARTITION} topic to a
+     * {@link NetworkAnomalyStormUnionProcessor}, which counts the anomalous networks across all locations.
+     * </p>
+     *
+     * @return the topology of the anomaly detector
      */
-    private KafkaStreams buildKStreams() {
+    public Topology buildTopology() {
         final StreamsBuilder streamsBuilder = new StreamsBuilder();
-        final KStream<String, NetworkMessage> kStream = streamsBuilder.stream(NETWORK_MESSAGES_TOPIC);
-
-        kStream.foreach((key, networkMessage) -> {
-            log.info("buildKStreams() Message received from Kafka topic: {}. Message: {}.",
-                    NETWORK_MESSAGES_TOPIC, networkMessage.toString());
-            this.networkStatisticsRepository.save(networkMessage);
-
-            final NetworkSummary networkSummary = this.networkSummaryService.getNetworkSummariesByNetworkId(networkMessage.getNetworkId())
-                    .stream().findFirst().orElse(NetworkSummary.builder().networkId(networkMessage.getNetworkId())
-                            .trafficSizeInBytes(0).anomalyCount(0).nonAnomalyCount(0).build());
-
-            networkSummary.setTrafficSizeInBytes(networkSummary.getTrafficSizeInBytes() + networkMessage.getSizeInBytes());
-            networkSummary.setLastUpdatedAt(Instant.now());
-
-            if (networkMessage.getSizeInBytes() > NETWORK_TRAFFIC_VOLUME_THRESHOLD) {
-                log.info("buildKStreams() Volume threshold check - Message size: {} bytes exceeds threshold: {} bytes. Message: {}.",
-                        networkMessage.getSizeInBytes(), NETWORK_TRAFFIC_VOLUME_THRESHOLD, networkMessage);
-                this.networkAnomalyRepository.save(
-                        NetworkAnomaly.builder().networkId(networkMessage.getNetworkId()).sizeInBytes(networkMessage.getSizeInBytes()).timestamp(networkMessage.getTimestamp()).build()
-                );
-                networkSummary.setAnomalyCount(networkSummary.getAnomalyCount() + 1);
-                this.networkSummaryService.saveNetworkSummary(networkSummary);
-                return;
-            }
-
-            final double mean = this.networkStatisticsRepository.findMean(networkMessage.getNetworkId());
-            final double standardDeviation = this.networkStatisticsRepository.findStandardDeviation(networkMessage.getNetworkId());
-
-            if (Math.abs(networkMessage.getSizeInBytes() - mean) >
-                    standardDeviation * NETWORK_TRAFFIC_STD_DEV_THRESHOLD) {
-                log.info("buildKStreams() Std dev threshold check - Message size: {} bytes, Mean: {}, Std Dev: {}, Threshold Multiplier: {}, Message: {}.",
-                        networkMessage.getSizeInBytes(), mean, standardDeviation, NETWORK_TRAFFIC_STD_DEV_THRESHOLD, networkMessage);
-                this.networkAnomalyRepository.save(
-                        NetworkAnomaly.builder().networkId(networkMessage.getNetworkId()).sizeInBytes(networkMessage.getSizeInBytes()).timestamp(networkMessage.getTimestamp()).build()
-                );
-                networkSummary.setAnomalyCount(networkSummary.getAnomalyCount() + 1);
-                this.networkSummaryService.saveNetworkSummary(networkSummary);
-                return;
-            }
-
-            networkSummary.setNonAnomalyCount(networkSummary.getNonAnomalyCount() + 1);
-            this.networkSummaryService.saveNetworkSummary(networkSummary);
-        });
-
-        return new KafkaStreams(streamsBuilder.build(), this.kafkaStreamsConfiguration.asProperties());
+        final KStream<String, NetworkMessage> kStream = this.keyByNetworkId(streamsBuilder.stream(AnomalyDetectorConstants.NETWORK_MESSAGES_TOPIC,
+                Consumed.with(Serdes.String(), this.timedNetworkMessageSerde())
+                        .withTimestampExtractor(new NetworkMessageTimestampExtractor(this.anomalyDetectionMetrics))));
+
+        streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(AnomalyDetectorConstants.NETWORK_STATISTICS_STORE),
+                Serdes.Long(), new RollingStatisticsWindowSerde()));
+
+        streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(AnomalyDetectorConstants.NETWORK_QUANTILES_STORE),
+                Serdes.Long(), new QuantileSketchSerde()));
+
+        streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+                        Stores.persistentKeyValueStore(AnomalyDetectorConstants.NETWORK_SUMMARIES_STORE),
+                        Serdes.Long(), new NetworkSummarySerde())
+                .withCachingEnabled());
+
+        streamsBuilder.addStateStore(Stores.windowStoreBuilder(
+                        Stores.persistentWindowStore(AnomalyDetectorConstants.NETWORK_TRAFFIC_STORE,
+                                this.trafficWindowRetention, this.trafficWindowSize, false),
+                        Serdes.Long(), new NetworkTrafficAggregateSerde())
+                .withCachingEnabled());
+
+        streamsBuilder.addGlobalStore(Stores.keyValueStoreBuilder(
+                                Stores.inMemoryKeyValueStore(AnomalyDetectorConstants.NETWORK_DETECTOR_CONFIG_STORE),
+                                Serdes.String(), new NetworkDetectorConfigSerde())
+                        .withLoggingDisabled(),
+                AnomalyDetectorConstants.NETWORK_DETECTOR_CONFIG_TOPIC,
+                Consumed.with(Serdes.String(), new NetworkDetectorConfigSerde()),
+                () -> new NetworkDetectorConfigProcessor(this.networkDetectorConfigRepository));
+
+        final List<String> stateStoreNames = new ArrayList<>(List.of(AnomalyDetectorConstants.NETWORK_STATISTICS_STORE,
+                AnomalyDetectorConstants.NETWORK_QUANTILES_STORE, AnomalyDetectorConstants.NETWORK_SUMMARIES_STORE,
+                AnomalyDetectorConstants.NETWORK_TRAFFIC_STORE));
+        if (this.networkIncidentsEnabled) {
+            streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+                            Stores.persistentKeyValueStore(AnomalyDetectorConstants.NETWORK_INCIDENTS_STORE),
+                            Serdes.Long(), new NetworkIncidentSerde())
+                    .withCachingEnabled());
+            streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+                            Stores.persistentKeyValueStore(AnomalyDetectorConstants.NETWORK_CLOSED_INCIDENTS_STORE),
+                            Serdes.String(), new NetworkIncidentSerde())
+                    .withCachingEnabled());
+            stateStoreNames.add(AnomalyDetectorConstants.NETWORK_INCIDENTS_STORE);
+            stateStoreNames.add(AnomalyDetectorConstants.NETWORK_CLOSED_INCIDENTS_STORE);
+        }
+
+        final KStream<String, NetworkMessage> anomalies = kStream.process(() -> new NetworkAnomalyDetectionProcessor(this.networkSummaryAggregationService,
+                        this.networkStatisticsRepository, this.networkDetectorConfigRepository, this.networkAnomalySinkService,
+                        this.networkIncidentAggregationService, this.networkEventService,
+                        this.detectorChain, this.anomalyDetectionMetrics, this.networkIncidentMetrics, this.networkMessageTracing,
+                        this.commitInterval, this.networkStatisticsCheckpointInterval, this.networkQuantilesEnabled,
+                        this.trafficWindowSize, this.trafficWindowGrace, this.networkIncidentsEnabled, this.incidentQuietPeriod,
+                        this.incidentCloseInterval),
+                stateStoreNames.toArray(String[]::new));
+
+        if (this.anomalyStormEnabled) {
+            this.detectAnomalyStorms(streamsBuilder, anomalies);
+        }
+
+        return streamsBuilder.build();
+    }
+
+    private void detectAnomalyStorms(final StreamsBuilder streamsBuilder, final KStream<String, NetworkMessage> anomalies) {
+        streamsBuilder.addStateStore(Stores.windowStoreBuilder(
+                        Stores.persistentWindowStore(AnomalyDetectorConstants.NETWORK_ANOMALY_STORM_STORE,
+                                this.anomalyStormRetention, this.anomalyStormWindowSize, false),
+                        Serdes.String(), new AnomalousNetworkSketchSerde())
+                .withCachingDisabled());
+        streamsBuilder.addStateStore(Stores.windowStoreBuilder(
+                        Stores.persistentWindowStore(AnomalyDetectorConstants.NETWORK_ANOMALY_STORM_UNION_STORE,
+                                this.anomalyStormRetention, this.anomalyStormWindowSize, false),
+                        Serdes.String(), new AnomalousNetworkSketchSerde())
+                .withCachingEnabled());
+
+        anomalies.repartition(Repartitioned.with(Serdes.String(), this.networkMessageSerde())
+                        .withName(AnomalyDetectorConstants.NETWORK_ANOMALIES_REPARTITION))
+                .process(() -> new NetworkAnomalyStormProcessor(this.networkAnomalyStormService, this.networkAnomalyStormMetrics,
+                                this.anomalyStormWindowSize, this.anomalyStormGrace, this.anomalyStormMinNetworks, this.anomalyStormUnionInterval,
+                                this.commitInterval),
+                        AnomalyDetectorConstants.NETWORK_ANOMALY_STORM_STORE)
+                .repartition(Repartitioned.with(Serdes.String(), new AnomalousNetworkSketchSerde())
+                        .withName(AnomalyDetectorConstants.NETWORK_ANOMALY_SKETCHES_REPARTITION)
+                        .withNumberOfPartitions(1))
+                .process(() -> new NetworkAnomalyStormUnionProcessor(this.networkAnomalyStormService, this.networkAnomalyStormMetrics,
+                                this.anomalyStormWindowSize, this.anomalyStormMinNetworks),
+                        AnomalyDetectorConstants.NETWORK_ANOMALY_STORM_UNION_STORE);
+    }
+
+    private KStream<String, NetworkMessage> keyByNetworkId(final KStream<String, NetworkMessage> kStream) {
+        final Map<String, KStream<String, NetworkMessage>> branches = kStream
+                .split(Named.as(AnomalyDetectorConstants.NETWORK_MESSAGES_TOPIC + "-"))
+                .branch((key, networkMessage) -> key == null, Branched.as(UNKEYED_BRANCH))
+                .defaultBranch(Branched.as(KEYED_BRANCH));
+
+        final KStream<String, NetworkMessage> rekeyed = branches.get(AnomalyDetectorConstants.NETWORK_MESSAGES_TOPIC + "-" + UNKEYED_BRANCH)
+                .peek((key, networkMessage) -> this.anomalyDetectionMetrics.recordUnkeyedRecord())
+                .selectKey((key, networkMessage) -> String.valueOf(networkMessage.getNetworkId()))
+                .repartition(Repartitioned.with(Serdes.String(), this.networkMessageSerde())
+                        .withName(AnomalyDetectorConstants.NETWORK_MESSAGES_REPARTITION));
+
+        return branches.get(AnomalyDetectorConstants.NETWORK_MESSAGES_TOPIC + "-" + KEYED_BRANCH).merge(rekeyed);
+    }
+
+    private Serde<NetworkMessage> networkMessageSerde() {
+        final NetworkMessageDeserializer networkMessageDeserializer = new NetworkMessageDeserializer();
+        networkMessageDeserializer.configure(Map.of(), false);
+        return Serdes.serdeFrom(new NetworkMessageSerializer(), networkMessageDeserializer);
+    }
+
+    private Serde<NetworkMessage> timedNetworkMessageSerde() {
+        final NetworkMessageDeserializer networkMessageDeserializer = new NetworkMessageDeserializer();
+        networkMessageDeserializer.configure(Map.of(), false);
+        return Serdes.serdeFrom(new NetworkMessageSerializer(),
+                new TimedDeserializer<>(networkMessageDeserializer, this.anomalyDetectionMetrics::recordDeserialize));
+    }
+
+    private KafkaStreams buildKStreams() {
+        return new KafkaStreams(this.buildTopology(), this.kafkaStreamsConfiguration.asProperties());
     }
 }
@@ -0,0 +1,165 @@
+package com.tus.anomalydetector.services;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.bson.types.ObjectId;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.exceptions.AnomalyDetectorException;
+import com.tus.anomalydetector.exceptions.enums.AnomalyDetectorError;
+import com.tus.anomalydetector.models.DashboardSnapshot;
+import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
+import com.tus.anomalydetector.persistence.documents.NetworkSummary;
+
+/**
+ * Assembles the dashboard: the network summaries and the latest anomalies of every network, in one response.
+ *
+ * <p>
+ * The summaries are read through the {@link NetworkSummaryQueryService}. The latest anomalies of the
+ * networks are then queried from MongoDB in parallel, one query per network on its own virtual thread.
+ * The number of queries in flight is bounded across all requests, so a large dashboard cannot exhaust
+ * the MongoDB connection pool.
+ * </p>
+ *
+ * <p>
+ * Every snapshot has a version. Passed back as {@code since}, it limits the next snapshot to the networks
+ * whose summary changed and to the anomalies written after it. The version trails the time of the
+ * snapshot by a configured overlap, so anomalies that were still being written are included again in the
+ * next snapshot rather than missed; clients merge anomalies by ID.
+ * </p>
+ */
+@Slf4j
+@Service
+public class DashboardService {
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String NETWORK_ID_FIELD = "networkId";
+
+    private static final String TIMESTAMP_FIELD = "timestamp";
+
+    private final NetworkSummaryQueryService networkSummaryQueryService;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final int maxAnomalyLimit;
+
+    private final long versionOverlapMs;
+
+    private final Semaphore querySemaphore;
+
+    /**
+     * Constructs a new DashboardService with the required dependencies.
+     *
+     * @param networkSummaryQueryService The service that reads the network summaries.
+     * @param mongoTemplate              The template used to query the network anomalies.
+     * @param maxAnomalyLimit            The maximum number of anomalies that can be requested per network.
+     * @param maxConcurrentQueries       The maximum number of anomaly queries in flight across all requests.
+     * @param versionOverlapMs           The time in milliseconds by which the version of a snapshot trails the snapshot.
+     */
+    public DashboardService(final NetworkSummaryQueryService networkSummaryQueryService,
+                            final MongoTemplate mongoTemplate,
+                            @Value("${anomaly-detector.dashboard.max-anomaly-limit}") final int maxAnomalyLimit,
+                            @Value("${anomaly-detector.dashboard.max-concurrent-queries}") final int maxConcurrentQueries,
+                            @Value("${anomaly-detector.dashboard.version-overlap-ms}") final long versionOverlapMs) {
+        this.networkSummaryQueryService = networkSummaryQueryService;
+        this.mongoTemplate = mongoTemplate;
+        this.maxAnomalyLimit = maxAnomalyLimit;
+        this.versionOverlapMs = versionOverlapMs;
+        this.querySemaphore = new Semaphore(maxConcurrentQueries);
+    }
+
+    /**
+     * Retrieves the dashboard snapshot.
+     *
+     * @param anomalyLimit The number of latest anomalies to return per network.
+     * @param since        The version of a previous snapshot, to return only what changed after it, or {@code null} for everything.
+     * @return The dashboard snapshot.
+     */
+    public DashboardSnapshot getDashboard(final int anomalyLimit, final Instant since) {
+        this.validateAnomalyLimit(anomalyLimit);
+        log.info("getDashboard() Retrieving the dashboard. Anomaly limit: {}. Since: {}.", anomalyLimit, since);
+        final Instant version = Instant.now().minusMillis(this.versionOverlapMs);
+
+        List<NetworkSummary> networkSummaries = this.networkSummaryQueryService.getNetworkSummaries();
+        if (since != null) {
+            networkSummaries = networkSummaries.stream()
+                    .filter(networkSummary -> networkSummary.getLastUpdatedAt() == null || !networkSummary.getLastUpdatedAt().isBefore(since))
+                    .toList();
+        }
+
+        final Map<Long, List<NetworkAnomaly>> networkAnomalies = this.getLatestNetworkAnomalies(networkSummaries, anomalyLimit, since);
+        return new DashboardSnapshot(version, networkSummaries, networkAnomalies);
+    }
+
+    private Map<Long, List<NetworkAnomaly>> getLatestNetworkAnomalies(final List<NetworkSummary> networkSummaries,
+                                                                      final int anomalyLimit, final Instant since) {
+        final Map<Long, Future<List<NetworkAnomaly>>> results = new LinkedHashMap<>();
+        final Map<Long, List<NetworkAnomaly>> networkAnomalies = new HashMap<>();
+        try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final NetworkSummary networkSummary : networkSummaries) {
+                final long networkId = networkSummary.getNetworkId();
+                results.put(networkId, executorService.submit(() -> this.findLatestNetworkAnomalies(networkId, anomalyLimit, since)));
+            }
+
+            for (final Map.Entry<Long, Future<List<NetworkAnomaly>>> result : results.entrySet()) {
+                networkAnomalies.put(result.getKey(), result.getValue().get());
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new AnomalyDetectorException(HttpStatus.SERVICE_UNAVAILABLE, AnomalyDetectorError.GET_DASHBOARD_ERROR);
+        } catch (final ExecutionException exception) {
+            log.error("getLatestNetworkAnomalies() An error occurred while getting the latest network anomalies. Exception: {}",
+                    exception.getCause().getMessage(), exception.getCause());
+            throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR, AnomalyDetectorError.GET_DASHBOARD_ERROR);
+        }
+
+        return networkAnomalies;
+    }
+
+    private List<NetworkAnomaly> findLatestNetworkAnomalies(final long networkId, final int anomalyLimit, final Instant since)
+            throws InterruptedException {
+        final Criteria criteria = Criteria.where(NETWORK_ID_FIELD).is(networkId);
+        if (since != null) {
+            // Anomaly IDs are assigned by the sink when it writes them, so they order anomalies by write time.
+            criteria.and(ID_FIELD).gte(ObjectId.getSmallestWithDate(Date.from(since)));
+        }
+
+        final Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, TIMESTAMP_FIELD))
+                .limit(anomalyLimit);
+        this.querySemaphore.acquire();
+        try {
+            return this.mongoTemplate.find(query, NetworkAnomaly.class);
+        } finally {
+            this.querySemaphore.release();
+        }
+    }
+
+    private void validateAnomalyLimit(final int anomalyLimit) {
+        if (anomalyLimit < 1 || anomalyLimit > this.maxAnomalyLimit) {
+            log.error("validateAnomalyLimit() Invalid anomaly limit: {}.", anomalyLimit);
+            final String[] errorDetailArgs = {String.valueOf(this.maxAnomalyLimit), String.valueOf(anomalyLimit)};
+            throw new AnomalyDetectorException(HttpStatus.BAD_REQUEST, AnomalyDetectorError.INVALID_ANOMALY_LIMIT_ERROR, errorDetailArgs);
+        }
+    }
+}
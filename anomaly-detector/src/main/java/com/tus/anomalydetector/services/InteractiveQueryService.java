@@ -0,0 +1,131 @@
+package com.tus.anomalydetector.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.StreamsMetadata;
+import org.apache.kafka.streams.state.HostInfo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Routes Kafka Streams interactive queries of the state stores to the instances of the anomaly detector
+ * that host them.
+ *
+ * <p>
+ * The state stores are keyed by network and partitioned like the network messages, so a query for one
+ * network is answered by the instance that owns the partition of its key, found with
+ * {@link org.apache.kafka.streams.KafkaStreams#queryMetadataForKey}. A query for all networks is fanned out
+ * to every instance hosting the store. Queries of this instance are answered by reading its stores
+ * directly; the other instances are called over HTTP on their
+ * {@value com.tus.anomalydetector.utils.AnomalyDetectorConstants#STATE_STORE_LOCAL_URL} endpoints, which
+ * only read their own stores.
+ * </p>
+ */
+@Slf4j
+@Service
+public class InteractiveQueryService {
+
+    private final AnomalyDetectionService anomalyDetectionService;
+
+    private final RestClient restClient;
+
+    private final HostInfo hostInfo;
+
+    /**
+     * Constructs a new InteractiveQueryService.
+     *
+     * @param anomalyDetectionService the service running the Kafka Streams application
+     * @param restClientBuilder       the builder of the client used to query other instances
+     * @param applicationServer       the host and port at which this instance serves its REST API
+     */
+    public InteractiveQueryService(final AnomalyDetectionService anomalyDetectionService,
+                                   final RestClient.Builder restClientBuilder,
+                                   @Value("${spring.kafka.streams.application-server}") final String applicationServer) {
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.restClient = restClientBuilder.build();
+        this.hostInfo = HostInfo.buildFromEndpoint(applicationServer);
+    }
+
+    /**
+     * Queries a state store for one network on the instance that owns it.
+     *
+     * @param storeName  the name of the state store
+     * @param networkId  the ID of the network
+     * @param localQuery the query of the stores of this instance
+     * @param remoteUri  the URI of the same query on the local endpoint of another instance, relative to its root
+     * @param type       the type of the query result
+     * @param <T>        the type of the query result
+     * @return the query result, or empty if no instance currently owns the network
+     */
+    public <T> Optional<T> queryByNetworkId(final String storeName, final long networkId, final Supplier<T> localQuery,
+                                            final String remoteUri, final ParameterizedTypeReference<T> type) {
+        final KeyQueryMetadata keyQueryMetadata = this.anomalyDetectionService.getKafkaStreams().queryMetadataForKey(
+                storeName, String.valueOf(networkId), Serdes.String().serializer());
+        if (keyQueryMetadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(keyQueryMetadata)) {
+            log.warn("queryByNetworkId() No instance currently owns the network with ID: {} in the store: {}.", networkId, storeName);
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(this.hostInfo.equals(keyQueryMetadata.activeHost())
+                ? localQuery.get()
+                : this.queryRemote(keyQueryMetadata.activeHost(), remoteUri, type));
+    }
+
+    /**
+     * Queries a state store on every instance hosting it, in parallel.
+     *
+     * @param storeName  the name of the state store
+     * @param localQuery the query of the stores of this instance
+     * @param remoteUri  the URI of the same query on the local endpoint of another instance, relative to its root
+     * @param type       the type of the query result
+     * @param <T>        the type of the query result
+     * @return the query result of every instance that answered with one
+     * @throws InterruptedException if interrupted while waiting for the instances
+     * @throws ExecutionException   if an instance could not be queried
+     */
+    public <T> List<T> queryAll(final String storeName, final Supplier<T> localQuery, final String remoteUri,
+                                final ParameterizedTypeReference<T> type) throws InterruptedException, ExecutionException {
+        final Collection<StreamsMetadata> streamsMetadata = this.anomalyDetectionService.getKafkaStreams().streamsMetadataForStore(storeName);
+        final List<T> results = new ArrayList<>(streamsMetadata.size());
+        try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<T>> futures = new ArrayList<>(streamsMetadata.size());
+            for (final StreamsMetadata metadata : streamsMetadata) {
+                futures.add(executorService.submit(() -> this.hostInfo.equals(metadata.hostInfo())
+                        ? localQuery.get()
+                        : this.queryRemote(metadata.hostInfo(), remoteUri, type)));
+            }
+
+            for (final Future<T> future : futures) {
+                final T result = future.get();
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    private <T> T queryRemote(final HostInfo host, final String uri, final ParameterizedTypeReference<T> type) {
+        log.debug("queryRemote() Forwarding the query: {} to: {}:{}.", uri, host.host(), host.port());
+        return this.restClient.get()
+                .uri("http://" + host.host() + ":" + host.port() + uri)
+                .retrieve()
+                .body(type);
+    }
+}
@@ -0,0 +1,116 @@
+package com.tus.anomalydetector.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.bson.Document;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Provides locks shared by every instance of the anomaly detector, so one-off work such as a collection
+ * migration runs on one instance at a time.
+ *
+ * <p>
+ * A lock is a lease document in the {@value AnomalyDetectorConstants#LOCKS_COLLECTION} collection, keyed by
+ * the lock name and holding the owning instance and the time the lease expires. It is acquired with a single
+ * upsert that only matches an expired lease or a lease of this instance; when another instance holds a live
+ * lease, the upsert collides with its document and the lock is not acquired. Holders renew the lease by
+ * acquiring the lock again, and a lock whose holder died is free once its lease expires.
+ * </p>
+ */
+@Slf4j
+@Service
+public class MongoLockService {
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String OWNER_FIELD = "owner";
+
+    private static final String EXPIRES_AT_FIELD = "expiresAt";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final String owner;
+
+    /**
+     * Constructs a new MongoLockService with the required dependencies.
+     *
+     * @param mongoTemplate The template used to read and write the lease documents.
+     */
+    public MongoLockService(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.owner = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Acquires or renews a lock without waiting.
+     *
+     * @param lockName The name of the lock.
+     * @param lease    The time after which the lock is free again unless it is renewed.
+     * @return whether this instance holds the lock.
+     */
+    public boolean tryAcquire(final String lockName, final Duration lease) {
+        final Instant now = Instant.now();
+        final Query query = Query.query(Criteria.where(ID_FIELD).is(lockName)
+                .orOperator(Criteria.where(EXPIRES_AT_FIELD).lt(now), Criteria.where(OWNER_FIELD).is(this.owner)));
+        final Update update = new Update()
+                .set(OWNER_FIELD, this.owner)
+                .set(EXPIRES_AT_FIELD, now.plus(lease));
+        try {
+            this.mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    Document.class, AnomalyDetectorConstants.LOCKS_COLLECTION);
+            return true;
+        } catch (final DuplicateKeyException exception) {
+            log.debug("tryAcquire() The lock: {} is held by another instance.", lockName);
+            return false;
+        }
+    }
+
+    /**
+     * Acquires a lock, waiting while another instance holds it.
+     *
+     * @param lockName     The name of the lock.
+     * @param lease        The time after which the lock is free again unless it is renewed.
+     * @param pollInterval The time to wait between two attempts to acquire the lock.
+     * @param timeout      The maximum time to wait for the lock.
+     * @throws IllegalStateException if the lock is not acquired within the timeout.
+     */
+    public void acquire(final String lockName, final Duration lease, final Duration pollInterval, final Duration timeout) {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        while (!this.tryAcquire(lockName, lease)) {
+            if (System.nanoTime() - deadline >= 0) {
+                throw new IllegalStateException("Timed out after " + timeout + " waiting for the lock: " + lockName + ".");
+            }
+
+            log.info("acquire() Waiting for the lock: {} held by another instance.", lockName);
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the lock: " + lockName + ".", exception);
+            }
+        }
+    }
+
+    /**
+     * Releases a lock if this instance holds it.
+     *
+     * @param lockName The name of the lock.
+     */
+    public void release(final String lockName) {
+        this.mongoTemplate.remove(Query.query(Criteria.where(ID_FIELD).is(lockName).and(OWNER_FIELD).is(this.owner)),
+                AnomalyDetectorConstants.LOCKS_COLLECTION);
+    }
+}
@@ -0,0 +1,385 @@
+package com.tus.anomalydetector.services;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.bson.Document;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.MongoNamespace;
+
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Prepares the network anomalies collection at startup, before any anomaly is written to it.
+ *
+ * <p>
+ * When time-series storage is enabled, the collection is created as a MongoDB time-series collection
+ * with {@code timestamp} as its time field and {@code networkId} as its meta field, so the anomalies of a
+ * network are bucketed together by time. An existing regular collection is migrated: at startup it is
+ * renamed to the legacy collection and the time-series collection is created in its place, so anomalies are
+ * written to the new collection right away. The anomalies of the legacy collection are then moved in batches
+ * by a background task once the application is ready, and are not returned by queries until they are moved.
+ * Each batch is inserted and then deleted from the legacy collection, so a migration interrupted by a restart
+ * resumes where it stopped; at most the batch in flight is copied twice. The legacy collection is dropped
+ * once it is empty. A time-series collection is not migrated back when time-series storage is disabled.
+ * Time-series collections have no unique index on {@code _id}, so the {@link NetworkAnomalySinkService}
+ * checks which anomalies of a failed bulk insert were written before it retries the others.
+ * </p>
+ *
+ * <p>
+ * Several instances may start at once, so the startup preparation holds a lock of the {@link MongoLockService}
+ * and the instances prepare the collection one after another. The batch migration holds a separate lock that
+ * it renews after every batch, so it runs on one instance only. The other instances retry once per lease, and
+ * take the migration over if the instance running it stops.
+ * </p>
+ *
+ * <p>
+ * The indexes of the collection are then reconciled with the ones the {@code NetworkAnomalyService}
+ * queries need, which depend on whether the collection is a time-series collection. Indexes managed by
+ * this service that are no longer needed are dropped, and the others are created if they are missing.
+ * A time-series collection only gets indexes on its time and meta fields, which narrow the buckets a query
+ * reads but do not hold the (timestamp, ID) order of the anomaly pages, so paging a time-series collection
+ * sorts the anomalies of the matching buckets in memory.
+ * </p>
+ *
+ * <p>
+ * When a retention is configured, anomalies older than it expire: through the {@code expireAfterSeconds}
+ * option of a time-series collection, or through a TTL index on {@code timestamp} on a regular collection.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkAnomalyCollectionService {
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String NETWORK_ID_FIELD = "networkId";
+
+    private static final String TIMESTAMP_FIELD = "timestamp";
+
+    private static final String TIME_SERIES_COLLECTION_TYPE = "timeseries";
+
+    private static final String NETWORK_ID_TIMESTAMP_ID_INDEX = "networkId_timestamp_id";
+
+    private static final String TIMESTAMP_ID_INDEX = "timestamp_id";
+
+    private static final String NETWORK_ID_TIMESTAMP_INDEX = "networkId_timestamp";
+
+    private static final String TIMESTAMP_INDEX = "timestamp";
+
+    private static final String TIMESTAMP_TTL_INDEX = "timestamp_ttl";
+
+    private static final String PREPARE_LOCK = "network_anomalies_prepare";
+
+    private static final String MIGRATION_LOCK = "network_anomalies_migration";
+
+    private static final Duration LOCK_LEASE = Duration.ofMinutes(1);
+
+    private static final Duration LOCK_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private static final Duration PREPARE_LOCK_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final Set<String> MANAGED_INDEXES = Set.of(NETWORK_ID_TIMESTAMP_ID_INDEX, TIMESTAMP_ID_INDEX,
+            NETWORK_ID_TIMESTAMP_INDEX, TIMESTAMP_INDEX, TIMESTAMP_TTL_INDEX);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final MongoLockService mongoLockService;
+
+    private final boolean timeSeriesEnabled;
+
+    private final Granularity timeSeriesGranularity;
+
+    private final Duration retention;
+
+    private final String legacyCollectionName;
+
+    private final int migrationBatchSize;
+
+    private final ExecutorService migrationExecutor;
+
+    private volatile boolean timeSeriesCollection;
+
+    /**
+     * Constructs a new NetworkAnomalyCollectionService with the required dependencies.
+     *
+     * @param mongoTemplate         The template used to manage the network anomalies collection.
+     * @param mongoLockService      The service that serializes the preparation and the migration across instances.
+     * @param timeSeriesEnabled     Whether the network anomalies are stored in a time-series collection.
+     * @param timeSeriesGranularity The granularity of the time-series collection.
+     * @param retentionMs           The time in milliseconds after which network anomalies expire, or 0 to keep them.
+     * @param legacyCollectionName  The name the regular collection is renamed to while it is migrated.
+     * @param migrationBatchSize    The number of network anomalies moved to the time-series collection per batch.
+     */
+    public NetworkAnomalyCollectionService(final MongoTemplate mongoTemplate,
+                                           final MongoLockService mongoLockService,
+                                           @Value("${anomaly-detector.network-anomalies.time-series.enabled}") final boolean timeSeriesEnabled,
+                                           @Value("${anomaly-detector.network-anomalies.time-series.granularity}") final Granularity timeSeriesGranularity,
+                                           @Value("${anomaly-detector.network-anomalies.retention-ms}") final long retentionMs,
+                                           @Value("${anomaly-detector.network-anomalies.time-series.legacy-collection}") final String legacyCollectionName,
+                                           @Value("${anomaly-detector.network-anomalies.time-series.migration-batch-size}") final int migrationBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoLockService = mongoLockService;
+        this.timeSeriesEnabled = timeSeriesEnabled;
+        this.timeSeriesGranularity = timeSeriesGranularity;
+        this.retention = Duration.ofMillis(retentionMs);
+        this.legacyCollectionName = legacyCollectionName;
+        this.migrationBatchSize = migrationBatchSize;
+        this.migrationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "network-anomaly-migration");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the network anomalies collection, or renames a regular collection to be migrated, and reconciles
+     * its indexes and retention.
+     */
+    @PostConstruct
+    public void prepareCollection() {
+        final String collectionName = AnomalyDetectorConstants.NETWORK_ANOMALIES_COLLECTION;
+        this.mongoLockService.acquire(PREPARE_LOCK, LOCK_LEASE, LOCK_POLL_INTERVAL, PREPARE_LOCK_TIMEOUT);
+        try {
+            if (this.timeSeriesEnabled) {
+                this.prepareTimeSeriesCollection(collectionName);
+            } else if (this.isTimeSeriesCollection(collectionName)) {
+                log.warn("prepareCollection() Time-series storage is disabled but the collection: {} is a time-series collection. It is kept as is.",
+                        collectionName);
+            }
+
+            this.timeSeriesCollection = this.isTimeSeriesCollection(collectionName);
+            if (this.timeSeriesCollection) {
+                this.reconcileExpiry(collectionName);
+            }
+
+            this.reconcileIndexes(collectionName, this.timeSeriesCollection);
+        } finally {
+            this.mongoLockService.release(PREPARE_LOCK);
+        }
+    }
+
+    /**
+     * Returns whether the network anomalies collection is a time-series collection, which has no unique index
+     * on {@code _id}. It may be one even when time-series storage is disabled, since it is not migrated back.
+     *
+     * @return {@code true} if the prepared collection is a time-series collection
+     */
+    public boolean isTimeSeries() {
+        return this.timeSeriesCollection;
+    }
+
+    /**
+     * Starts moving the anomalies of the legacy collection to the time-series collection in the background,
+     * once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMigration() {
+        if (this.timeSeriesEnabled && this.mongoTemplate.collectionExists(this.legacyCollectionName)) {
+            this.migrationExecutor.execute(this::runMigration);
+        }
+    }
+
+    /**
+     * Stops the migration. A batch in flight is interrupted and moved again by the next migration.
+     */
+    @PreDestroy
+    public void stopMigration() {
+        this.migrationExecutor.shutdownNow();
+    }
+
+    private void prepareTimeSeriesCollection(final String collectionName) {
+        if (this.mongoTemplate.collectionExists(collectionName) && !this.isTimeSeriesCollection(collectionName)) {
+            if (this.mongoTemplate.collectionExists(this.legacyCollectionName)) {
+                throw new IllegalStateException("Cannot migrate the collection: " + collectionName + " to a time-series collection"
+                        + " because the legacy collection: " + this.legacyCollectionName + " already exists.");
+            }
+
+            log.info("prepareTimeSeriesCollection() Renaming the collection: {} to: {} to migrate it to a time-series collection.",
+                    collectionName, this.legacyCollectionName);
+            this.mongoTemplate.getCollection(collectionName)
+                    .renameCollection(new MongoNamespace(this.mongoTemplate.getDb().getName(), this.legacyCollectionName));
+        }
+
+        if (!this.mongoTemplate.collectionExists(collectionName)) {
+            log.info("prepareTimeSeriesCollection() Creating the time-series collection: {}.", collectionName);
+            this.mongoTemplate.createCollection(collectionName, CollectionOptions.timeSeries(TIMESTAMP_FIELD, timeSeriesOptions -> {
+                final CollectionOptions.TimeSeriesOptions bucketedTimeSeriesOptions = timeSeriesOptions
+                        .metaField(NETWORK_ID_FIELD)
+                        .granularity(this.timeSeriesGranularity);
+                return this.retention.isZero() ? bucketedTimeSeriesOptions : bucketedTimeSeriesOptions.expireAfter(this.retention);
+            }));
+        }
+
+    }
+
+    private void runMigration() {
+        while (!this.migrateLegacyCollection()) {
+            try {
+                Thread.sleep(LOCK_LEASE.toMillis());
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Returns whether the legacy collection is gone, so runMigration knows when to stop retrying.
+    private boolean migrateLegacyCollection() {
+        final String collectionName = AnomalyDetectorConstants.NETWORK_ANOMALIES_COLLECTION;
+        try {
+            if (!this.mongoTemplate.collectionExists(this.legacyCollectionName)) {
+                return true;
+            }
+
+            if (!this.mongoLockService.tryAcquire(MIGRATION_LOCK, LOCK_LEASE)) {
+                log.info("migrateLegacyCollection() The collection: {} is being migrated by another instance.", this.legacyCollectionName);
+                return false;
+            }
+
+            log.info("migrateLegacyCollection() Moving the network anomalies of: {} to: {}.", this.legacyCollectionName, collectionName);
+            final Query batchQuery = new Query()
+                    .with(Sort.by(Sort.Direction.ASC, ID_FIELD))
+                    .limit(this.migrationBatchSize);
+            long movedCount = 0;
+            List<Document> batch = this.mongoTemplate.find(batchQuery, Document.class, this.legacyCollectionName);
+            while (!batch.isEmpty()) {
+                if (Thread.currentThread().isInterrupted() || !this.mongoLockService.tryAcquire(MIGRATION_LOCK, LOCK_LEASE)) {
+                    log.warn("migrateLegacyCollection() Stopped migrating the collection: {} after moving {} network anomalies.",
+                            this.legacyCollectionName, movedCount);
+                    return false;
+                }
+
+                this.mongoTemplate.insert(batch, collectionName);
+                final List<Object> ids = batch.stream().map(document -> document.get(ID_FIELD)).toList();
+                this.mongoTemplate.remove(Query.query(Criteria.where(ID_FIELD).in(ids)), this.legacyCollectionName);
+                movedCount += batch.size();
+                log.info("migrateLegacyCollection() Moved {} network anomalies to: {}.", movedCount, collectionName);
+                batch = this.mongoTemplate.find(batchQuery, Document.class, this.legacyCollectionName);
+            }
+
+            this.mongoTemplate.dropCollection(this.legacyCollectionName);
+            log.info("migrateLegacyCollection() Migrated the collection: {} to a time-series collection.", collectionName);
+            return true;
+        } catch (final Exception exception) {
+            log.error("migrateLegacyCollection() An error occurred while migrating the collection: {}. It is retried. Exception: {}",
+                    this.legacyCollectionName, exception.getMessage(), exception);
+            return false;
+        } finally {
+            this.mongoLockService.release(MIGRATION_LOCK);
+        }
+    }
+
+    private void reconcileExpiry(final String collectionName) {
+        final Long expireAfterSeconds = this.getCollectionInfo(collectionName)
+                .map(collectionInfo -> collectionInfo.get("options", Document.class))
+                .map(options -> options.get("expireAfterSeconds"))
+                .map(value -> ((Number) value).longValue())
+                .orElse(null);
+        final Long desiredExpireAfterSeconds = this.retention.isZero() ? null : this.retention.toSeconds();
+        if (Objects.equals(expireAfterSeconds, desiredExpireAfterSeconds)) {
+            return;
+        }
+
+        log.info("reconcileExpiry() Setting the expiry of the collection: {} to: {} seconds.", collectionName, desiredExpireAfterSeconds);
+        this.mongoTemplate.executeCommand(new Document("collMod", collectionName)
+                .append("expireAfterSeconds", desiredExpireAfterSeconds == null ? "off" : desiredExpireAfterSeconds));
+    }
+
+    private void reconcileIndexes(final String collectionName, final boolean timeSeriesCollection) {
+        final Map<String, Index> desiredIndexes = this.getDesiredIndexes(timeSeriesCollection);
+        final IndexOperations indexOperations = this.mongoTemplate.indexOps(collectionName);
+        for (final IndexInfo indexInfo : indexOperations.getIndexInfo()) {
+            final String indexName = indexInfo.getName();
+            if (!MANAGED_INDEXES.contains(indexName)) {
+                continue;
+            }
+
+            final Optional<Duration> desiredExpireAfter = Optional.ofNullable(desiredIndexes.get(indexName))
+                    .map(index -> index.getIndexOptions().get("expireAfterSeconds"))
+                    .map(expireAfterSeconds -> Duration.ofSeconds(((Number) expireAfterSeconds).longValue()));
+            if (!desiredIndexes.containsKey(indexName) || !desiredExpireAfter.equals(indexInfo.getExpireAfter())) {
+                log.info("reconcileIndexes() Dropping the index: {} of the collection: {}.", indexName, collectionName);
+                indexOperations.dropIndex(indexName);
+            }
+        }
+
+        desiredIndexes.forEach((indexName, index) -> {
+            log.info("reconcileIndexes() Ensuring the index: {} of the collection: {}.", indexName, collectionName);
+            indexOperations.ensureIndex(index);
+        });
+    }
+
+    private Map<String, Index> getDesiredIndexes(final boolean timeSeriesCollection) {
+        final Map<String, Index> desiredIndexes = new LinkedHashMap<>();
+        if (timeSeriesCollection) {
+            // Time-series collections are bucketed by network and time, and expire through a collection option.
+            // The ID is a measurement field, so the pages sorted by (timestamp, ID) are sorted in memory after these indexes select the buckets.
+            desiredIndexes.put(NETWORK_ID_TIMESTAMP_INDEX, new Index()
+                    .on(NETWORK_ID_FIELD, Sort.Direction.ASC)
+                    .on(TIMESTAMP_FIELD, Sort.Direction.DESC)
+                    .named(NETWORK_ID_TIMESTAMP_INDEX));
+            desiredIndexes.put(TIMESTAMP_INDEX, new Index()
+                    .on(TIMESTAMP_FIELD, Sort.Direction.DESC)
+                    .named(TIMESTAMP_INDEX));
+            return desiredIndexes;
+        }
+
+        desiredIndexes.put(NETWORK_ID_TIMESTAMP_ID_INDEX, new Index()
+                .on(NETWORK_ID_FIELD, Sort.Direction.ASC)
+                .on(TIMESTAMP_FIELD, Sort.Direction.DESC)
+                .on(ID_FIELD, Sort.Direction.DESC)
+                .named(NETWORK_ID_TIMESTAMP_ID_INDEX));
+        desiredIndexes.put(TIMESTAMP_ID_INDEX, new Index()
+                .on(TIMESTAMP_FIELD, Sort.Direction.DESC)
+                .on(ID_FIELD, Sort.Direction.DESC)
+                .named(TIMESTAMP_ID_INDEX));
+        if (!this.retention.isZero()) {
+            desiredIndexes.put(TIMESTAMP_TTL_INDEX, new Index()
+                    .on(TIMESTAMP_FIELD, Sort.Direction.ASC)
+                    .expire(this.retention)
+                    .named(TIMESTAMP_TTL_INDEX));
+        }
+
+        return desiredIndexes;
+    }
+
+    private boolean isTimeSeriesCollection(final String collectionName) {
+        return this.getCollectionInfo(collectionName)
+                .map(collectionInfo -> TIME_SERIES_COLLECTION_TYPE.equals(collectionInfo.getString("type")))
+                .orElse(false);
+    }
+
+    private Optional<Document> getCollectionInfo(final String collectionName) {
+        return Optional.ofNullable(this.mongoTemplate.getDb()
+                .listCollections()
+                .filter(new Document("name", collectionName))
+                .first());
+    }
+}
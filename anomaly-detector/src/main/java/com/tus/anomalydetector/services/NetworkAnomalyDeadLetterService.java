@@ -0,0 +1,118 @@
+package com.tus.anomalydetector.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.tus.anomalydetector.metrics.DeadLetterMetrics;
+import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Service that sends network anomalies which cannot be written to MongoDB to the
+ * {@value AnomalyDetectorConstants#NETWORK_ANOMALIES_DLQ_TOPIC} topic.
+ *
+ * <p>
+ * Each anomaly is published as JSON keyed by its network ID, with headers that carry the reason it was not
+ * written and the error MongoDB reported. The sends are awaited up to the configured timeout, so an anomaly
+ * is only given up on once Kafka has it. When Kafka cannot take it either, the anomaly is logged as a last
+ * resort.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkAnomalyDeadLetterService {
+
+    public static final String REASON_HEADER = "anomaly-detector-dlq-reason";
+
+    public static final String ERROR_HEADER = "anomaly-detector-dlq-error";
+
+    private final KafkaTemplate<byte[], byte[]> deadLetterKafkaTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final DeadLetterMetrics deadLetterMetrics;
+
+    private final long sendTimeoutMs;
+
+    /**
+     * Constructs a NetworkAnomalyDeadLetterService with the required dependencies.
+     *
+     * @param deadLetterKafkaTemplate the template used to publish the dead-lettered anomalies
+     * @param objectMapper            the mapper used to write the dead-lettered anomalies as JSON
+     * @param deadLetterMetrics       the metrics in which dead-lettered anomalies are counted
+     * @param sendTimeoutMs           the maximum time in milliseconds to wait for Kafka to acknowledge the dead letters
+     */
+    public NetworkAnomalyDeadLetterService(@Qualifier("deadLetterKafkaTemplate") final KafkaTemplate<byte[], byte[]> deadLetterKafkaTemplate,
+                                           final ObjectMapper objectMapper,
+                                           final DeadLetterMetrics deadLetterMetrics,
+                                           @Value("${anomaly-detector.network-anomalies-dlq.send-timeout-ms}") final long sendTimeoutMs) {
+        this.deadLetterKafkaTemplate = deadLetterKafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.deadLetterMetrics = deadLetterMetrics;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Sends network anomalies to the dead-letter topic and waits for Kafka to acknowledge them.
+     *
+     * @param networkAnomalies the network anomalies that could not be written
+     * @param reason           the reason the anomalies were not written
+     * @param error            the error MongoDB reported for the anomalies
+     */
+    public void deadLetter(final List<NetworkAnomaly> networkAnomalies, final String reason, final String error) {
+        log.error("deadLetter() Sending {} network anomalies to {}. Reason: {}, error: {}",
+                networkAnomalies.size(), AnomalyDetectorConstants.NETWORK_ANOMALIES_DLQ_TOPIC, reason, error);
+        this.deadLetterMetrics.recordNetworkAnomalyDeadLetters(reason, networkAnomalies.size());
+
+        final List<CompletableFuture<SendResult<byte[], byte[]>>> sends = new ArrayList<>(networkAnomalies.size());
+        for (final NetworkAnomaly networkAnomaly : networkAnomalies) {
+            try {
+                sends.add(this.deadLetterKafkaTemplate.send(this.toRecord(networkAnomaly, reason, error)));
+            } catch (final Exception exception) {
+                sends.add(CompletableFuture.failedFuture(exception));
+            }
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.sendTimeoutMs);
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                log.error("deadLetter() Interrupted while waiting for {} dead-lettered network anomalies to be acknowledged.", sends.size() - i);
+                return;
+            } catch (final ExecutionException | TimeoutException exception) {
+                log.error("deadLetter() Network anomaly {} was not acknowledged by {}. Exception: {}",
+                        networkAnomalies.get(i), AnomalyDetectorConstants.NETWORK_ANOMALIES_DLQ_TOPIC, exception.getMessage());
+            }
+        }
+    }
+
+    private ProducerRecord<byte[], byte[]> toRecord(final NetworkAnomaly networkAnomaly, final String reason, final String error)
+            throws JsonProcessingException {
+        final ProducerRecord<byte[], byte[]> record = new ProducerRecord<>(AnomalyDetectorConstants.NETWORK_ANOMALIES_DLQ_TOPIC,
+                String.valueOf(networkAnomaly.getNetworkId()).getBytes(StandardCharsets.UTF_8),
+                this.objectMapper.writeValueAsBytes(networkAnomaly));
+        record.headers().add(REASON_HEADER, reason.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(ERROR_HEADER, String.valueOf(error).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
@@ -1,17 +1,39 @@
 package com.tus.anomalydetector.services;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.domain.PageRequest;
+import org.bson.types.ObjectId;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.tus.anomalydetector.exceptions.AnomalyDetectorException;
 import com.tus.anomalydetector.exceptions.enums.AnomalyDetectorError;
+import com.tus.anomalydetector.models.NetworkAnomalyExportFormat;
+import com.tus.anomalydetector.models.NetworkAnomalyFilter;
+import com.tus.anomalydetector.models.NetworkAnomalyPage;
 import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
 import com.tus.anomalydetector.persistence.repositories.NetworkAnomalyRepository;
 
@@ -26,17 +48,52 @@ import com.tus.anomalydetector.persistence.repositories.NetworkAnomalyRepository
 @Service
 public class NetworkAnomalyService {
 
+    private static final String ID_FIELD = "_id";
+
+    private static final String NETWORK_ID_FIELD = "networkId";
+
     private static final String TIMESTAMP_FIELD = "timestamp";
 
+    private static final String SIZE_IN_BYTES_FIELD = "sizeInBytes";
+
+    private static final String PAGE_TOKEN_SEPARATOR = ":";
+
+    private static final String CSV_HEADER = "id,networkId,sizeInBytes,timestamp\n";
+
     private final NetworkAnomalyRepository networkAnomalyRepository;
 
+    private final MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final int maxPageSize;
+
+    private final int exportBatchSize;
+
+    private final int exportBufferSize;
+
     /**
-     * Constructs a new NetworkAnomalyService with the provided network anomaly repository.
+     * Constructs a new NetworkAnomalyService with the required dependencies.
      *
      * @param networkAnomalyRepository The repository for network anomalies.
+     * @param mongoTemplate            The template used to page through and export the network anomalies.
+     * @param objectMapper             The mapper used to write exported network anomalies as JSON.
+     * @param maxPageSize              The maximum number of network anomalies that can be requested per page.
+     * @param exportBatchSize          The number of network anomalies fetched from MongoDB per cursor batch when exporting.
+     * @param exportBufferSize         The number of characters buffered before they are written to an export response.
      */
-    public NetworkAnomalyService(final NetworkAnomalyRepository networkAnomalyRepository) {
+    public NetworkAnomalyService(final NetworkAnomalyRepository networkAnomalyRepository,
+                                 final MongoTemplate mongoTemplate,
+                                 final ObjectMapper objectMapper,
+                                 @Value("${anomaly-detector.network-anomalies.max-page-size}") final int maxPageSize,
+                                 @Value("${anomaly-detector.network-anomalies.export.batch-size}") final int exportBatchSize,
+                                 @Value("${anomaly-detector.network-anomalies.export.buffer-size}") final int exportBufferSize) {
         this.networkAnomalyRepository = networkAnomalyRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.exportBatchSize = exportBatchSize;
+        this.exportBufferSize = exportBufferSize;
     }
 
     /**
@@ -70,41 +127,124 @@ public class NetworkAnomalyService {
     }
 
     /**
-     * Retrieves the 100 most recent network anomalies for a given network ID, sorted by timestamp descending.
+     * Retrieves a page of the network anomalies, newest first.
      *
-     * @param networkId the ID of the network.
-     * @return A list of the latest network anomalies for the specified network.
+     * <p>
+     * Pages are read by keyset rather than by offset: the token of the next page holds the timestamp and
+     * ID of the last anomaly of the page, and the next page starts strictly after them in the
+     * (timestamp, ID) order. Every page is then read from the compound index of the collection, however
+     * deep it is, and anomalies written in between do not shift the pages.
+     * </p>
+     *
+     * <p>
+     * A time-series collection has no index that covers the ID, so the (timestamp, ID) order cannot be read
+     * from an index there. The timestamp index only narrows the buckets to the ones before the page start,
+     * and the anomalies in them are sorted in memory, so a page costs more the more anomalies come after it.
+     * A time range in the filter bounds that cost.
+     * </p>
+     *
+     * <p>
+     * Anomalies written before the timestamp was guaranteed may have none. They sort after every anomaly
+     * with a timestamp, and their page tokens leave the timestamp empty.
+     * </p>
+     *
+     * @param filter    the optional network, time range and minimum size of the anomalies.
+     * @param pageSize  the maximum number of anomalies in the page.
+     * @param pageToken the token of the page to retrieve, or null for the first page.
+     * @return A page of the network anomalies.
      */
-    public List<NetworkAnomaly> getNetworkAnomaliesByNetworkId(long networkId) {
-        log.info("getNetworkAnomaliesByNetworkId() Retrieving network anomalies for the network with ID: {}.", networkId);
+    public NetworkAnomalyPage getNetworkAnomalies(final NetworkAnomalyFilter filter, final int pageSize, final String pageToken) {
+        this.validatePageSize(pageSize);
+        this.validateTimeRange(filter);
+        final PageStart pageStart = pageToken == null ? null : decodePageToken(pageToken);
+        log.info("getNetworkAnomalies() Retrieving network anomalies. Filter: {}. Page size: {}.", filter, pageSize);
+
+        final Criteria criteria = buildCriteria(filter);
+        if (pageStart != null) {
+            addPageStartCriteria(criteria, pageStart);
+        }
+
+        // One anomaly more than the page is read to know whether there is a next page.
+        final Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, TIMESTAMP_FIELD, ID_FIELD))
+                .limit(pageSize + 1);
+        final List<NetworkAnomaly> networkAnomalies;
         try {
-            return this.networkAnomalyRepository.findByNetworkId(
-                    networkId,
-                    PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, TIMESTAMP_FIELD))
-            ).getContent();
+            networkAnomalies = this.mongoTemplate.find(query, NetworkAnomaly.class);
         } catch (final Exception exception) {
-            log.error("getNetworkAnomaliesByNetworkId() An error occurred while getting the network anomalies for the network with ID: {}. Exception: {}", networkId, exception.getMessage(), exception);
+            log.error("getNetworkAnomalies() An error occurred while getting the network anomalies. Exception: {}", exception.getMessage(), exception);
             throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR,
                     AnomalyDetectorError.GET_NETWORK_ANOMALIES_ERROR);
         }
+
+        if (networkAnomalies.size() <= pageSize) {
+            return new NetworkAnomalyPage(networkAnomalies, null);
+        }
+
+        final List<NetworkAnomaly> page = networkAnomalies.subList(0, pageSize);
+        return new NetworkAnomalyPage(List.copyOf(page), encodePageToken(page.getLast()));
     }
 
     /**
-     * Retrieves the 100 most recent network anomalies, sorted by timestamp descending.
+     * Finds the export format with the given name.
      *
-     * @return A list of the latest network anomalies.
+     * @param format The name of the export format, ignoring case.
+     * @return The export format.
      */
-    public List<NetworkAnomaly> getNetworkAnomalies() {
-        log.info("getNetworkAnomalies() Retrieving network anomalies.");
-        try {
-            return this.networkAnomalyRepository.findAll(
-                    PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, TIMESTAMP_FIELD))
-            ).getContent();
-        } catch (final Exception exception) {
-            log.error("getNetworkAnomalies() An error occurred while getting the network anomalies. Exception: {}", exception.getMessage(), exception);
-            throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    AnomalyDetectorError.GET_NETWORK_ANOMALIES_ERROR);
-        }
+    public NetworkAnomalyExportFormat getExportFormat(final String format) {
+        return NetworkAnomalyExportFormat.fromName(format).orElseThrow(() -> {
+            log.error("getExportFormat() Invalid export format: {}.", format);
+            final String supportedFormats = Arrays.stream(NetworkAnomalyExportFormat.values())
+                    .map(NetworkAnomalyExportFormat::getName)
+                    .collect(Collectors.joining(", "));
+            final String[] errorDetailArgs = {supportedFormats, format};
+            return new AnomalyDetectorException(HttpStatus.BAD_REQUEST, AnomalyDetectorError.INVALID_EXPORT_FORMAT_ERROR, errorDetailArgs);
+        });
+    }
+
+    /**
+     * Exports every network anomaly matching the filter, oldest first.
+     *
+     * <p>
+     * The anomalies are read through a server-side MongoDB cursor that fetches them in batches of the
+     * configured size, and each anomaly is written to the response as soon as it is read. Memory use is
+     * therefore bounded by one cursor batch and the write buffer, however many anomalies match.
+     * </p>
+     *
+     * @param filter The optional network, time range and minimum size of the anomalies.
+     * @param format The format in which the anomalies are written.
+     * @return The body that streams the anomalies to the response.
+     */
+    public StreamingResponseBody exportNetworkAnomalies(final NetworkAnomalyFilter filter, final NetworkAnomalyExportFormat format) {
+        this.validateTimeRange(filter);
+        final Query query = Query.query(buildCriteria(filter))
+                .with(Sort.by(Sort.Direction.ASC, TIMESTAMP_FIELD, ID_FIELD))
+                .cursorBatchSize(this.exportBatchSize);
+        return outputStream -> {
+            log.info("exportNetworkAnomalies() Exporting network anomalies as {}. Filter: {}.", format.getName(), filter);
+            long exportedCount = 0;
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), this.exportBufferSize);
+            try (Stream<NetworkAnomaly> networkAnomalies = this.mongoTemplate.stream(query, NetworkAnomaly.class)) {
+                if (format == NetworkAnomalyExportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                }
+
+                final Iterator<NetworkAnomaly> iterator = networkAnomalies.iterator();
+                while (iterator.hasNext()) {
+                    this.writeNetworkAnomaly(writer, iterator.next(), format);
+                    exportedCount++;
+                }
+
+                writer.flush();
+            } catch (final Exception exception) {
+                // The response is already committed, so the client sees a truncated export rather than an error.
+                log.error("exportNetworkAnomalies() An error occurred after exporting {} network anomalies. Exception: {}",
+                        exportedCount, exception.getMessage(), exception);
+                throw exception;
+            }
+
+            log.info("exportNetworkAnomalies() Exported {} network anomalies.", exportedCount);
+        };
     }
 
     /**
@@ -173,4 +313,101 @@ public class NetworkAnomalyService {
                     AnomalyDetectorError.DELETE_NETWORK_ANOMALIES_ERROR);
         }
     }
+
+    private void writeNetworkAnomaly(final Writer writer, final NetworkAnomaly networkAnomaly,
+                                     final NetworkAnomalyExportFormat format) throws IOException {
+        if (format == NetworkAnomalyExportFormat.NDJSON) {
+            writer.write(this.objectMapper.writeValueAsString(networkAnomaly));
+        } else {
+            writer.write(networkAnomaly.getId());
+            writer.write(',');
+            writer.write(String.valueOf(networkAnomaly.getNetworkId()));
+            writer.write(',');
+            writer.write(String.valueOf(networkAnomaly.getSizeInBytes()));
+            writer.write(',');
+            writer.write(String.valueOf(networkAnomaly.getTimestamp()));
+        }
+
+        writer.write('\n');
+    }
+
+    private static Criteria buildCriteria(final NetworkAnomalyFilter filter) {
+        final Criteria criteria = new Criteria();
+        if (filter.networkId() != null) {
+            criteria.and(NETWORK_ID_FIELD).is(filter.networkId());
+        }
+
+        if (filter.from() != null || filter.to() != null) {
+            final Criteria timestampCriteria = criteria.and(TIMESTAMP_FIELD);
+            if (filter.from() != null) {
+                timestampCriteria.gte(filter.from());
+            }
+
+            if (filter.to() != null) {
+                timestampCriteria.lte(filter.to());
+            }
+        }
+
+        if (filter.minSizeInBytes() != null) {
+            criteria.and(SIZE_IN_BYTES_FIELD).gte(filter.minSizeInBytes());
+        }
+
+        return criteria;
+    }
+
+    private static void addPageStartCriteria(final Criteria criteria, final PageStart pageStart) {
+        // A null timestamp sorts below every date, so the anomalies without one come after every anomaly with one.
+        if (pageStart.timestamp() == null) {
+            criteria.andOperator(Criteria.where(TIMESTAMP_FIELD).is(null), Criteria.where(ID_FIELD).lt(pageStart.id()));
+            return;
+        }
+
+        criteria.orOperator(
+                Criteria.where(TIMESTAMP_FIELD).lt(pageStart.timestamp()),
+                Criteria.where(TIMESTAMP_FIELD).is(pageStart.timestamp()).and(ID_FIELD).lt(pageStart.id()),
+                Criteria.where(TIMESTAMP_FIELD).is(null));
+    }
+
+    static String encodePageToken(final NetworkAnomaly networkAnomaly) {
+        final String timestamp = networkAnomaly.getTimestamp() == null ? "" : String.valueOf(networkAnomaly.getTimestamp().toEpochMilli());
+        final String pageStart = timestamp + PAGE_TOKEN_SEPARATOR + networkAnomaly.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(pageStart.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PageStart decodePageToken(final String pageToken) {
+        try {
+            final String pageStart = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            final int separatorIndex = pageStart.indexOf(PAGE_TOKEN_SEPARATOR);
+            final String id = pageStart.substring(separatorIndex + 1);
+            if (separatorIndex < 0 || !ObjectId.isValid(id)) {
+                throw new IllegalArgumentException("Malformed page start: " + pageStart);
+            }
+
+            final String timestamp = pageStart.substring(0, separatorIndex);
+            return new PageStart(timestamp.isEmpty() ? null : Instant.ofEpochMilli(Long.parseLong(timestamp)), id);
+        } catch (final IllegalArgumentException exception) {
+            log.error("decodePageToken() Invalid page token: {}. Exception: {}", pageToken, exception.getMessage());
+            final String[] errorDetailArgs = {pageToken};
+            throw new AnomalyDetectorException(HttpStatus.BAD_REQUEST, AnomalyDetectorError.INVALID_PAGE_TOKEN_ERROR, errorDetailArgs);
+        }
+    }
+
+    private void validatePageSize(final int pageSize) {
+        if (pageSize < 1 || pageSize > this.maxPageSize) {
+            log.error("validatePageSize() Invalid page size: {}.", pageSize);
+            final String[] errorDetailArgs = {String.valueOf(this.maxPageSize), String.valueOf(pageSize)};
+            throw new AnomalyDetectorException(HttpStatus.BAD_REQUEST, AnomalyDetectorError.INVALID_PAGE_SIZE_ERROR, errorDetailArgs);
+        }
+    }
+
+    private void validateTimeRange(final NetworkAnomalyFilter filter) {
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            log.error("validateTimeRange() Invalid time range from: {} to: {}.", filter.from(), filter.to());
+            final String[] errorDetailArgs = {String.valueOf(filter.from()), String.valueOf(filter.to())};
+            throw new AnomalyDetectorException(HttpStatus.BAD_REQUEST, AnomalyDetectorError.INVALID_TIME_RANGE_ERROR, errorDetailArgs);
+        }
+    }
+
+    record PageStart(Instant timestamp, String id) {
+    }
 }
@@ -0,0 +1,486 @@
+package com.tus.anomalydetector.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.bson.types.ObjectId;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.tracing.TraceContext;
+
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
+import com.tus.anomalydetector.streams.NetworkMessageTracing;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Service that writes detected network anomalies to MongoDB asynchronously and in batches.
+ *
+ * <p>
+ * Stream threads enqueue anomalies on a bounded queue and return immediately. A dedicated writer
+ * thread drains the queue and inserts the anomalies with a single unordered bulk insert per batch. A batch
+ * is written once it reaches the configured size or once its linger deadline passes. The linger
+ * deadline follows the observed MongoDB write latency within configured bounds: when MongoDB is
+ * slow the writer waits longer and writes fewer, larger batches, and when it is fast anomalies are
+ * written with little delay.
+ * </p>
+ *
+ * <p>
+ * When the queue is full, {@link #enqueue(NetworkAnomaly, TraceContext, PendingNetworkAnomalies)} blocks,
+ * which applies backpressure to the stream threads instead of buffering without bound. Every stream task
+ * counts the anomalies it enqueued in its own {@link PendingNetworkAnomalies}, and
+ * {@link #awaitDurable(PendingNetworkAnomalies)} lets the task wait for them to be written before it
+ * commits the offsets of the matching records. The wait is bounded, so an unavailable MongoDB delays
+ * commits instead of holding the stream thread past the poll interval of its consumer.
+ * </p>
+ *
+ * <p>
+ * Failed writes are told apart by cause. Network errors, timeouts and primary elections are transient, so the
+ * affected anomalies are retried with an exponential backoff up to the configured number of attempts. Documents
+ * MongoDB rejects individually, for example because they fail validation, are permanent failures and are not
+ * retried. Retries are idempotent: the IDs of the anomalies are assigned before the first attempt, so a regular
+ * collection rejects the ones an earlier attempt wrote as duplicates. A time-series collection has no unique
+ * index on {@code _id}, so before a retry into one the writer looks up which anomalies of the batch were
+ * already written, within the time range of the batch, and only retries the others. Rejected anomalies and anomalies still unwritten after the last attempt are handed to the
+ * {@link NetworkAnomalyDeadLetterService} and count as durable, so a single bad document never holds back the
+ * commits of the stream threads.
+ * </p>
+ *
+ * <p>
+ * Anomalies enqueued with a trace context get a span for the bulk write they were written in, so a
+ * sampled trace shows how long the anomaly waited in the queue and how long MongoDB took to write it.
+ * </p>
+ *
+ * <p>
+ * Written anomalies are pushed to the subscribers of the {@link NetworkEventService}, so clients only see
+ * anomalies they can also read back from MongoDB.
+ * </p>
+ *
+ * <p>
+ * The writer only starts once the {@link NetworkAnomalyCollectionService} has prepared the collection, so
+ * inserts never create it implicitly as a regular collection.
+ * </p>
+ */
+@Slf4j
+@Service
+@DependsOn("networkAnomalyCollectionService")
+public class NetworkAnomalySinkService {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private static final int SHUTDOWN_WRITE_ATTEMPTS = 3;
+
+    private static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    private static final String RETRYABLE_WRITE_ERROR_LABEL = "RetryableWriteError";
+
+    private static final String REJECTED_REASON = "rejected";
+
+    private static final String RETRIES_EXHAUSTED_REASON = "retries-exhausted";
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String TIMESTAMP_FIELD = "timestamp";
+
+    /**
+     * Write error codes of network errors, timeouts and primary elections, for which a retry can succeed.
+     */
+    private static final Set<Integer> TRANSIENT_WRITE_ERROR_CODES = Set.of(6, 7, 50, 89, 91, 189, 262, 9001, 10107, 11600, 11602, 13435, 13436);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final AnomalyDetectionMetrics anomalyDetectionMetrics;
+
+    private final NetworkMessageTracing networkMessageTracing;
+
+    private final NetworkEventService networkEventService;
+
+    private final NetworkAnomalyDeadLetterService networkAnomalyDeadLetterService;
+
+    private final NetworkAnomalyCollectionService networkAnomalyCollectionService;
+
+    private final BlockingQueue<QueuedNetworkAnomaly> queue;
+
+    private final int batchSize;
+
+    private final long minLingerNanos;
+
+    private final long maxLingerNanos;
+
+    private final int maxWriteAttempts;
+
+    private final long retryBackoffMs;
+
+    private final long maxRetryBackoffMs;
+
+    private final long commitTimeoutNanos;
+
+    private final Thread writerThread;
+
+    private volatile boolean running;
+
+    private double averageWriteLatencyNanos;
+
+    /**
+     * Constructs a NetworkAnomalySinkService with the required dependencies.
+     *
+     * @param mongoTemplate                   the template used to insert network anomalies
+     * @param anomalyDetectionMetrics         the metrics in which the bulk insert durations are recorded
+     * @param networkMessageTracing           the tracing in which the bulk inserts of sampled anomalies are recorded
+     * @param networkEventService             the service that pushes written anomalies to the network event subscribers
+     * @param networkAnomalyDeadLetterService the service that dead-letters anomalies which cannot be written
+     * @param networkAnomalyCollectionService the service that prepared the collection and knows whether it is a time-series collection
+     * @param queueCapacity                   the maximum number of anomalies waiting to be written
+     * @param batchSize                       the maximum number of anomalies written in one bulk insert
+     * @param minLingerMs                     the minimum time in milliseconds a batch waits to fill up
+     * @param maxLingerMs                     the maximum time in milliseconds a batch waits to fill up
+     * @param maxWriteAttempts                the maximum number of attempts to write an anomaly before it is dead-lettered
+     * @param retryBackoffMs                  the time in milliseconds to wait before the first retry, doubled on every further retry
+     * @param maxRetryBackoffMs               the maximum time in milliseconds to wait between two retries
+     * @param commitTimeoutMs                 the maximum time in milliseconds a task waits for its anomalies before a commit,
+     *                                        which must stay below the {@code max.poll.interval.ms} of the stream threads
+     */
+    public NetworkAnomalySinkService(final MongoTemplate mongoTemplate,
+                                     final AnomalyDetectionMetrics anomalyDetectionMetrics,
+                                     final NetworkMessageTracing networkMessageTracing,
+                                     final NetworkEventService networkEventService,
+                                     final NetworkAnomalyDeadLetterService networkAnomalyDeadLetterService,
+                                     final NetworkAnomalyCollectionService networkAnomalyCollectionService,
+                                     @Value("${anomaly-detector.network-anomaly-sink.queue-capacity}") final int queueCapacity,
+                                     @Value("${anomaly-detector.network-anomaly-sink.batch-size}") final int batchSize,
+                                     @Value("${anomaly-detector.network-anomaly-sink.min-linger-ms}") final long minLingerMs,
+                                     @Value("${anomaly-detector.network-anomaly-sink.max-linger-ms}") final long maxLingerMs,
+                                     @Value("${anomaly-detector.network-anomaly-sink.max-write-attempts}") final int maxWriteAttempts,
+                                     @Value("${anomaly-detector.network-anomaly-sink.retry-backoff-ms}") final long retryBackoffMs,
+                                     @Value("${anomaly-detector.network-anomaly-sink.max-retry-backoff-ms}") final long maxRetryBackoffMs,
+                                     @Value("${anomaly-detector.network-anomaly-sink.commit-timeout-ms}") final long commitTimeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.anomalyDetectionMetrics = anomalyDetectionMetrics;
+        this.networkMessageTracing = networkMessageTracing;
+        this.networkEventService = networkEventService;
+        this.networkAnomalyDeadLetterService = networkAnomalyDeadLetterService;
+        this.networkAnomalyCollectionService = networkAnomalyCollectionService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.minLingerNanos = TimeUnit.MILLISECONDS.toNanos(minLingerMs);
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMs);
+        this.maxWriteAttempts = maxWriteAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.commitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(commitTimeoutMs);
+        this.writerThread = new Thread(this::run, "network-anomaly-sink");
+        this.writerThread.setDaemon(true);
+        this.averageWriteLatencyNanos = this.minLingerNanos;
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    @PostConstruct
+    public void start() {
+        this.running = true;
+        this.writerThread.start();
+    }
+
+    /**
+     * Enqueues a network anomaly to be written, blocking while the queue is full.
+     *
+     * @param networkAnomaly          the network anomaly to write
+     * @param traceContext            the trace context to record the bulk write under, or {@code null} if the anomaly is not sampled
+     * @param pendingNetworkAnomalies the pending anomalies of the stream task enqueuing the anomaly
+     */
+    public void enqueue(final NetworkAnomaly networkAnomaly, final TraceContext traceContext,
+                        final PendingNetworkAnomalies pendingNetworkAnomalies) {
+        pendingNetworkAnomalies.add();
+        try {
+            this.queue.put(new QueuedNetworkAnomaly(networkAnomaly, traceContext, pendingNetworkAnomalies));
+        } catch (final InterruptedException exception) {
+            pendingNetworkAnomalies.remove();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while enqueuing network anomaly.", exception);
+        }
+    }
+
+    /**
+     * Blocks until the pending anomalies of a stream task have been written to MongoDB or dead-lettered,
+     * or until the commit timeout passes.
+     *
+     * @param pendingNetworkAnomalies the pending anomalies of the stream task
+     * @return {@code true} if the anomalies are durable, {@code false} if the timeout passed first
+     * @throws IllegalStateException if the writer stopped before the anomalies could be written
+     */
+    public boolean awaitDurable(final PendingNetworkAnomalies pendingNetworkAnomalies) {
+        final long deadline = System.nanoTime() + this.commitTimeoutNanos;
+        try {
+            while (!pendingNetworkAnomalies.awaitNone(POLL_TIMEOUT_MS)) {
+                if (!this.writerThread.isAlive()) {
+                    throw new IllegalStateException("Network anomaly sink stopped with " + pendingNetworkAnomalies.count() + " unwritten anomalies.");
+                }
+
+                if (System.nanoTime() - deadline >= 0) {
+                    log.warn("awaitDurable() {} network anomalies still not written after {} ms.", pendingNetworkAnomalies.count(),
+                            TimeUnit.NANOSECONDS.toMillis(this.commitTimeoutNanos));
+                    return false;
+                }
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for network anomalies to be written.", exception);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether the writer thread is still running, so enqueued anomalies can still become durable.
+     *
+     * @return {@code true} if the writer thread is alive
+     */
+    public boolean isWriterAlive() {
+        return this.writerThread.isAlive();
+    }
+
+    /**
+     * Stops the writer thread after the anomalies remaining in the queue have been written.
+     *
+     * <p>
+     * The {@link AnomalyDetectionService} depends on this sink, so Kafka Streams is closed before the
+     * sink stops and no anomalies are enqueued after the queue has been drained.
+     * </p>
+     */
+    @PreDestroy
+    public void stop() {
+        log.info("stop() Stopping network anomaly sink with {} queued anomalies.", this.queue.size());
+        this.running = false;
+        try {
+            this.writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        final List<QueuedNetworkAnomaly> batch = new ArrayList<>(this.batchSize);
+        try {
+            while (this.running || !this.queue.isEmpty()) {
+                final QueuedNetworkAnomaly first = this.queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                this.fillBatch(batch);
+                this.write(batch);
+                batch.clear();
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.info("run() Network anomaly sink stopped.");
+    }
+
+    private void fillBatch(final List<QueuedNetworkAnomaly> batch) throws InterruptedException {
+        final long deadline = System.nanoTime() + this.lingerNanos();
+        while (batch.size() < this.batchSize) {
+            this.queue.drainTo(batch, this.batchSize - batch.size());
+            final long remainingNanos = deadline - System.nanoTime();
+            if (batch.size() >= this.batchSize || remainingNanos <= 0) {
+                return;
+            }
+
+            final QueuedNetworkAnomaly next = this.queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+
+            batch.add(next);
+        }
+    }
+
+    private void write(final List<QueuedNetworkAnomaly> batch) throws InterruptedException {
+        // Assigning IDs up front makes retries idempotent: documents written by a failed attempt are rejected as duplicates.
+        batch.forEach(queuedNetworkAnomaly -> queuedNetworkAnomaly.networkAnomaly().setId(new ObjectId().toHexString()));
+
+        final List<NetworkAnomaly> writtenNetworkAnomalies = new ArrayList<>(batch.size());
+        List<QueuedNetworkAnomaly> pending = batch;
+        int attempts = 0;
+        while (!pending.isEmpty()) {
+            attempts++;
+            final long startMillis = System.currentTimeMillis();
+            final long start = System.nanoTime();
+            try {
+                if (attempts > 1 && this.networkAnomalyCollectionService.isTimeSeries()) {
+                    pending = this.skipWritten(pending, writtenNetworkAnomalies);
+                    if (pending.isEmpty()) {
+                        break;
+                    }
+                }
+
+                final Map<Integer, BulkWriteError> writeErrors = this.insert(pending);
+                final long writeLatencyNanos = System.nanoTime() - start;
+                this.recordBulkWriteSpans(pending, startMillis);
+                this.anomalyDetectionMetrics.recordAnomalyBulkWrite(writeLatencyNanos);
+                this.averageWriteLatencyNanos += LATENCY_SMOOTHING_FACTOR * (writeLatencyNanos - this.averageWriteLatencyNanos);
+                pending = this.collectWriteResults(pending, writeErrors, writtenNetworkAnomalies);
+            } catch (final Exception exception) {
+                if (!isTransientFailure(exception)) {
+                    log.error("write() A permanent error occurred while writing {} network anomalies. Exception: {}",
+                            pending.size(), exception.getMessage(), exception);
+                    this.deadLetter(pending, REJECTED_REASON, exception.getMessage());
+                    break;
+                }
+
+                log.error("write() A transient error occurred while writing {} network anomalies. Attempt: {}. Exception: {}",
+                        pending.size(), attempts, exception.getMessage(), exception);
+            }
+
+            if (!pending.isEmpty()) {
+                if (attempts >= this.maxWriteAttempts || (!this.running && attempts >= SHUTDOWN_WRITE_ATTEMPTS)) {
+                    this.deadLetter(pending, RETRIES_EXHAUSTED_REASON, "Not written after " + attempts + " attempts.");
+                    break;
+                }
+
+                Thread.sleep(this.retryBackoffMs(attempts));
+            }
+        }
+
+        log.debug("write() Network anomalies written. Batch size: {}, written: {}, attempts: {}.",
+                batch.size(), writtenNetworkAnomalies.size(), attempts);
+        batch.forEach(queuedNetworkAnomaly -> queuedNetworkAnomaly.pendingNetworkAnomalies().remove());
+        this.networkEventService.publishNetworkAnomalies(writtenNetworkAnomalies);
+    }
+
+    private List<QueuedNetworkAnomaly> collectWriteResults(final List<QueuedNetworkAnomaly> pending,
+                                                           final Map<Integer, BulkWriteError> writeErrors,
+                                                           final List<NetworkAnomaly> writtenNetworkAnomalies) {
+        final List<QueuedNetworkAnomaly> retryable = new ArrayList<>();
+        for (int index = 0; index < pending.size(); index++) {
+            final QueuedNetworkAnomaly queuedNetworkAnomaly = pending.get(index);
+            final BulkWriteError writeError = writeErrors.get(index);
+            if (writeError == null || writeError.getCode() == DUPLICATE_KEY_ERROR_CODE) {
+                writtenNetworkAnomalies.add(queuedNetworkAnomaly.networkAnomaly());
+            } else if (TRANSIENT_WRITE_ERROR_CODES.contains(writeError.getCode())) {
+                retryable.add(queuedNetworkAnomaly);
+            } else {
+                this.deadLetter(List.of(queuedNetworkAnomaly), REJECTED_REASON, writeError.getMessage());
+            }
+        }
+        return retryable;
+    }
+
+    private List<QueuedNetworkAnomaly> skipWritten(final List<QueuedNetworkAnomaly> pending,
+                                                   final List<NetworkAnomaly> writtenNetworkAnomalies) {
+        final List<NetworkAnomaly> networkAnomalies = pending.stream().map(QueuedNetworkAnomaly::networkAnomaly).toList();
+        final Instant from = networkAnomalies.stream().map(NetworkAnomaly::getTimestamp).min(Comparator.naturalOrder()).orElseThrow();
+        final Instant to = networkAnomalies.stream().map(NetworkAnomaly::getTimestamp).max(Comparator.naturalOrder()).orElseThrow();
+        // The time range lets MongoDB scan only the buckets of the batch, since the time-series collection has no index on _id.
+        final Query query = Query.query(Criteria.where(TIMESTAMP_FIELD).gte(from).lte(to)
+                .and(ID_FIELD).in(networkAnomalies.stream().map(NetworkAnomaly::getId).toList()));
+        query.fields().include(ID_FIELD);
+        final Set<String> writtenIds = this.mongoTemplate.find(query, NetworkAnomaly.class).stream()
+                .map(NetworkAnomaly::getId)
+                .collect(Collectors.toSet());
+
+        final List<QueuedNetworkAnomaly> unwritten = new ArrayList<>(pending.size() - writtenIds.size());
+        for (final QueuedNetworkAnomaly queuedNetworkAnomaly : pending) {
+            if (writtenIds.contains(queuedNetworkAnomaly.networkAnomaly().getId())) {
+                writtenNetworkAnomalies.add(queuedNetworkAnomaly.networkAnomaly());
+            } else {
+                unwritten.add(queuedNetworkAnomaly);
+            }
+        }
+
+        log.info("skipWritten() {} of {} network anomalies to retry were already written.", writtenIds.size(), pending.size());
+        return unwritten;
+    }
+
+    private void deadLetter(final List<QueuedNetworkAnomaly> queuedNetworkAnomalies, final String reason, final String error) {
+        this.networkAnomalyDeadLetterService.deadLetter(
+                queuedNetworkAnomalies.stream().map(QueuedNetworkAnomaly::networkAnomaly).toList(), reason, error);
+    }
+
+    private long retryBackoffMs(final int attempts) {
+        final long backoffMs = this.retryBackoffMs << Math.min(attempts - 1, 20);
+        return Math.min(this.maxRetryBackoffMs, backoffMs);
+    }
+
+    private void recordBulkWriteSpans(final List<QueuedNetworkAnomaly> batch, final long startMillis) {
+        final long endMillis = System.currentTimeMillis();
+        for (final QueuedNetworkAnomaly queuedNetworkAnomaly : batch) {
+            if (queuedNetworkAnomaly.traceContext() != null) {
+                this.networkMessageTracing.recordBulkWriteSpan(queuedNetworkAnomaly.traceContext(),
+                        AnomalyDetectorConstants.NETWORK_ANOMALIES_COLLECTION, batch.size(), startMillis, endMillis);
+            }
+        }
+    }
+
+    private Map<Integer, BulkWriteError> insert(final List<QueuedNetworkAnomaly> batch) {
+        final List<NetworkAnomaly> networkAnomalies = batch.stream().map(QueuedNetworkAnomaly::networkAnomaly).toList();
+        try {
+            this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NetworkAnomaly.class).insert(networkAnomalies).execute();
+            return Map.of();
+        } catch (final BulkOperationException exception) {
+            // Without per-document errors the bulk insert failed as a whole, for example on a write concern error.
+            if (exception.getErrors().isEmpty()) {
+                throw exception;
+            }
+
+            final Map<Integer, BulkWriteError> writeErrors = new HashMap<>();
+            exception.getErrors().forEach(error -> writeErrors.put(error.getIndex(), error));
+            return writeErrors;
+        }
+    }
+
+    private static boolean isTransientFailure(final Exception exception) {
+        if (exception instanceof TransientDataAccessException || exception instanceof DataAccessResourceFailureException
+                || exception instanceof BulkOperationException) {
+            return true;
+        }
+
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && (mongoException.hasErrorLabel(RETRYABLE_WRITE_ERROR_LABEL) || TRANSIENT_WRITE_ERROR_CODES.contains(mongoException.getCode()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long lingerNanos() {
+        return Math.max(this.minLingerNanos, Math.min(this.maxLingerNanos, (long) this.averageWriteLatencyNanos));
+    }
+
+    private record QueuedNetworkAnomaly(NetworkAnomaly networkAnomaly, TraceContext traceContext,
+                                        PendingNetworkAnomalies pendingNetworkAnomalies) {
+    }
+}
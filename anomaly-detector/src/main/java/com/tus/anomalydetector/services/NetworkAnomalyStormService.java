@@ -0,0 +1,100 @@
+package com.tus.anomalydetector.services;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.exceptions.AnomalyDetectorException;
+import com.tus.anomalydetector.exceptions.enums.AnomalyDetectorError;
+import com.tus.anomalydetector.persistence.documents.NetworkAnomalyStorm;
+import com.tus.anomalydetector.persistence.repositories.NetworkAnomalyStormRepository;
+
+/**
+ * Provides network anomaly storm services such as saving and retrieving anomaly storms.
+ *
+ * <p>
+ * This class uses Lombok annotations to generate a logger.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkAnomalyStormService {
+
+    private static final String WINDOW_START_FIELD = "windowStart";
+
+    private final NetworkAnomalyStormRepository networkAnomalyStormRepository;
+
+    /**
+     * Constructs a new NetworkAnomalyStormService with the provided network anomaly storm repository.
+     *
+     * @param networkAnomalyStormRepository The repository for network anomaly storms.
+     */
+    public NetworkAnomalyStormService(final NetworkAnomalyStormRepository networkAnomalyStormRepository) {
+        this.networkAnomalyStormRepository = networkAnomalyStormRepository;
+    }
+
+    /**
+     * Saves a network anomaly storm.
+     *
+     * <p>
+     * Storms are rare, so they are written straight away. The ID of a storm is derived from its location
+     * and window, so saving a storm again after its records are reprocessed replaces it rather than
+     * adding a duplicate. A failure is logged and not rethrown, so that it cannot stop the stream thread.
+     * </p>
+     *
+     * @param networkAnomalyStorm The network anomaly storm to be saved.
+     */
+    public void saveNetworkAnomalyStorm(final NetworkAnomalyStorm networkAnomalyStorm) {
+        log.warn("saveNetworkAnomalyStorm() Anomaly storm detected. Location: {}, window start: {}, anomalous networks: {}.",
+                networkAnomalyStorm.getLocation(), networkAnomalyStorm.getWindowStart(), networkAnomalyStorm.getAnomalousNetworkCount());
+        try {
+            this.networkAnomalyStormRepository.save(networkAnomalyStorm);
+        } catch (final Exception exception) {
+            log.error("saveNetworkAnomalyStorm() An error occurred while saving the network anomaly storm with ID: {}. Exception: {}",
+                    networkAnomalyStorm.getId(), exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Saves the network anomaly storm of a location and window.
+     *
+     * @param location              The location of the anomalous networks, or {@value com.tus.anomalydetector.utils.AnomalyDetectorConstants#ALL_LOCATIONS}.
+     * @param windowStart           The start of the window in epoch milliseconds.
+     * @param windowSizeMs          The size of the window in milliseconds.
+     * @param anomalousNetworkCount The estimated number of distinct anomalous networks in the window.
+     */
+    public void saveNetworkAnomalyStorm(final String location, final long windowStart, final long windowSizeMs, final long anomalousNetworkCount) {
+        this.saveNetworkAnomalyStorm(NetworkAnomalyStorm.builder()
+                .id(location + "-" + windowStart)
+                .location(location)
+                .windowStart(Instant.ofEpochMilli(windowStart))
+                .windowEnd(Instant.ofEpochMilli(windowStart + windowSizeMs))
+                .anomalousNetworkCount(anomalousNetworkCount)
+                .detectedAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * Retrieves the 100 most recent network anomaly storms, sorted by window start descending.
+     *
+     * @return A list of the latest network anomaly storms.
+     */
+    public List<NetworkAnomalyStorm> getNetworkAnomalyStorms() {
+        log.info("getNetworkAnomalyStorms() Retrieving network anomaly storms.");
+        try {
+            return this.networkAnomalyStormRepository.findAll(
+                    PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, WINDOW_START_FIELD))
+            ).getContent();
+        } catch (final Exception exception) {
+            log.error("getNetworkAnomalyStorms() An error occurred while getting the network anomaly storms. Exception: {}", exception.getMessage(), exception);
+            throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    AnomalyDetectorError.GET_NETWORK_ANOMALY_STORMS_ERROR);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.tus.anomalydetector.services;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.exceptions.AnomalyDetectorException;
+import com.tus.anomalydetector.exceptions.enums.AnomalyDetectorError;
+import com.tus.anomalydetector.models.NetworkDetectorConfig;
+import com.tus.anomalydetector.persistence.repositories.NetworkDetectorConfigRepository;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Provides network detector configuration services such as retrieving, saving and deleting the
+ * detector thresholds of a network.
+ *
+ * <p>
+ * Configurations are read from the local {@link NetworkDetectorConfigRepository}, which every instance
+ * keeps up to date from the {@value AnomalyDetectorConstants#NETWORK_DETECTOR_CONFIG_TOPIC} topic.
+ * Changes are written to the topic rather than to the repository, so they reach every instance,
+ * including this one, shortly after the write is acknowledged.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkDetectorConfigService {
+
+    private final NetworkDetectorConfigRepository networkDetectorConfigRepository;
+
+    private final KafkaTemplate<String, NetworkDetectorConfig> networkDetectorConfigKafkaTemplate;
+
+    private final long sendTimeoutMs;
+
+    /**
+     * Constructs a new NetworkDetectorConfigService with the required dependencies.
+     *
+     * @param networkDetectorConfigRepository    The repository of the network detector configurations.
+     * @param networkDetectorConfigKafkaTemplate The template used to publish network detector configurations.
+     * @param sendTimeoutMs                      The time in milliseconds to wait for a configuration to be acknowledged.
+     */
+    public NetworkDetectorConfigService(final NetworkDetectorConfigRepository networkDetectorConfigRepository,
+                                        final KafkaTemplate<String, NetworkDetectorConfig> networkDetectorConfigKafkaTemplate,
+                                        @Value("${anomaly-detector.network-detector-config.send-timeout-ms}") final long sendTimeoutMs) {
+        this.networkDetectorConfigRepository = networkDetectorConfigRepository;
+        this.networkDetectorConfigKafkaTemplate = networkDetectorConfigKafkaTemplate;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Retrieves the detector configurations of all networks that override the defaults.
+     *
+     * @return A list of network detector configurations, sorted by network ID.
+     */
+    public List<NetworkDetectorConfig> getNetworkDetectorConfigs() {
+        log.info("getNetworkDetectorConfigs() Retrieving network detector configurations.");
+        return this.networkDetectorConfigRepository.findAll();
+    }
+
+    /**
+     * Retrieves the detector configuration of a network.
+     *
+     * @param networkId The ID of the network.
+     * @return The detector configuration of the network.
+     */
+    public NetworkDetectorConfig getNetworkDetectorConfigByNetworkId(final long networkId) {
+        log.info("getNetworkDetectorConfigByNetworkId() Retrieving the detector configuration of the network with ID: {}.", networkId);
+        final NetworkDetectorConfig networkDetectorConfig = this.networkDetectorConfigRepository.find(networkId);
+        if (networkDetectorConfig == null) {
+            log.error("getNetworkDetectorConfigByNetworkId() Detector configuration of the network with ID: {} not found.", networkId);
+            final String[] errorDetailArgs = {String.valueOf(networkId)};
+            throw new AnomalyDetectorException(HttpStatus.NOT_FOUND,
+                    AnomalyDetectorError.NETWORK_DETECTOR_CONFIG_NOT_FOUND_ERROR, errorDetailArgs);
+        }
+
+        return networkDetectorConfig;
+    }
+
+    /**
+     * Saves the detector configuration of a network.
+     *
+     * @param networkId             The ID of the network.
+     * @param networkDetectorConfig The detector configuration to save. Thresholds that are not set fall back to the defaults.
+     * @return The saved detector configuration.
+     */
+    public NetworkDetectorConfig saveNetworkDetectorConfig(final long networkId, final NetworkDetectorConfig networkDetectorConfig) {
+        validatePositive("volumeThresholdBytes", networkDetectorConfig.getVolumeThresholdBytes());
+        validatePositive("stdDevMultiplier", networkDetectorConfig.getStdDevMultiplier());
+        networkDetectorConfig.setNetworkId(networkId);
+
+        log.info("saveNetworkDetectorConfig() Saving the detector configuration of the network with ID: {}. Configuration: {}.",
+                networkId, networkDetectorConfig);
+        this.send(networkId, networkDetectorConfig, AnomalyDetectorError.SAVE_NETWORK_DETECTOR_CONFIG_ERROR);
+        return networkDetectorConfig;
+    }
+
+    /**
+     * Deletes the detector configuration of a network, so that the network falls back to the defaults.
+     *
+     * @param networkId The ID of the network.
+     */
+    public void deleteNetworkDetectorConfigByNetworkId(final long networkId) {
+        this.getNetworkDetectorConfigByNetworkId(networkId);
+
+        log.info("deleteNetworkDetectorConfigByNetworkId() Deleting the detector configuration of the network with ID: {}.", networkId);
+        this.send(networkId, null, AnomalyDetectorError.DELETE_NETWORK_DETECTOR_CONFIG_ERROR);
+    }
+
+    private void send(final long networkId, final NetworkDetectorConfig networkDetectorConfig, final AnomalyDetectorError error) {
+        final String[] errorDetailArgs = {String.valueOf(networkId)};
+        try {
+            this.networkDetectorConfigKafkaTemplate.send(AnomalyDetectorConstants.NETWORK_DETECTOR_CONFIG_TOPIC,
+                    String.valueOf(networkId), networkDetectorConfig).get(this.sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new AnomalyDetectorException(HttpStatus.SERVICE_UNAVAILABLE, error, errorDetailArgs);
+        } catch (final Exception exception) {
+            log.error("send() An error occurred while publishing the detector configuration of the network with ID: {}. Exception: {}",
+                    networkId, exception.getMessage(), exception);
+            throw new AnomalyDetectorException(HttpStatus.SERVICE_UNAVAILABLE, error, errorDetailArgs);
+        }
+    }
+
+    private static void validatePositive(final String name, final Double value) {
+        if (value != null && !(value > 0)) {
+            log.error("validatePositive() Invalid detector configuration. {} must be positive, was: {}.", name, value);
+            final String[] errorDetailArgs = {name, String.valueOf(value)};
+            throw new AnomalyDetectorException(HttpStatus.BAD_REQUEST,
+                    AnomalyDetectorError.INVALID_NETWORK_DETECTOR_CONFIG_ERROR, errorDetailArgs);
+        }
+    }
+}
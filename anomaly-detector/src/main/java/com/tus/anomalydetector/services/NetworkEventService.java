@@ -0,0 +1,373 @@
+package com.tus.anomalydetector.services;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tus.anomalydetector.metrics.NetworkEventMetrics;
+import com.tus.anomalydetector.models.NetworkEvent;
+import com.tus.anomalydetector.models.NetworkEventType;
+import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
+import com.tus.anomalydetector.persistence.documents.NetworkSummary;
+
+/**
+ * Service that pushes network anomalies and network summary changes to subscribers as Server-Sent Events.
+ *
+ * <p>
+ * Anomalies are published by the anomaly sink once they are written to MongoDB. Summary changes are
+ * recorded by the stream threads and coalesced per network: only the latest summary of each network is
+ * published on a fixed interval, so the event rate does not grow with the message rate. A summary event
+ * carries the totals of its network, so a later summary event always supersedes an earlier one.
+ * </p>
+ *
+ * <p>
+ * Every subscriber has its own bounded buffer, drained by its own virtual thread. Publishing never blocks:
+ * when a subscriber falls behind, the oldest events in its buffer are dropped and the subscriber is sent a
+ * {@link NetworkEventType#DROPPED} event before the events that follow.
+ * </p>
+ *
+ * <p>
+ * The latest events are kept in a bounded replay buffer. The ID of each event is a resume token: a
+ * subscriber that reconnects with the ID of the last event it received is sent the events it missed. If
+ * they are no longer in the replay buffer, or the token is from an earlier run of the detector, the
+ * subscriber is sent a {@link NetworkEventType#RESET} event instead and has to reload the current state.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkEventService {
+
+    private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final NetworkEventMetrics networkEventMetrics;
+
+    private final int bufferCapacity;
+
+    private final int replayCapacity;
+
+    private final long heartbeatIntervalNanos;
+
+    private final long emitterTimeoutMs;
+
+    private final String streamId;
+
+    private final ArrayDeque<NetworkEvent> replayBuffer;
+
+    private final Set<NetworkEventSubscriber> subscribers;
+
+    private final Map<Long, NetworkSummary> pendingNetworkSummaries;
+
+    private long sequence;
+
+    /**
+     * Constructs a NetworkEventService with the required dependencies.
+     *
+     * @param networkEventMetrics the metrics in which the subscribers and the dropped events are recorded
+     * @param bufferCapacity      the maximum number of events buffered for a subscriber
+     * @param replayCapacity      the maximum number of events kept for subscribers that reconnect
+     * @param heartbeatIntervalMs the interval in milliseconds at which idle subscribers are sent a heartbeat
+     * @param emitterTimeoutMs    the time in milliseconds after which a subscription ends and the client reconnects
+     */
+    public NetworkEventService(final NetworkEventMetrics networkEventMetrics,
+                               @Value("${anomaly-detector.network-events.buffer-capacity}") final int bufferCapacity,
+                               @Value("${anomaly-detector.network-events.replay-capacity}") final int replayCapacity,
+                               @Value("${anomaly-detector.network-events.heartbeat-interval-ms}") final long heartbeatIntervalMs,
+                               @Value("${anomaly-detector.network-events.emitter-timeout-ms}") final long emitterTimeoutMs) {
+        this.networkEventMetrics = networkEventMetrics;
+        this.bufferCapacity = bufferCapacity;
+        this.replayCapacity = replayCapacity;
+        this.heartbeatIntervalNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatIntervalMs);
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.streamId = UUID.randomUUID().toString();
+        this.replayBuffer = new ArrayDeque<>(replayCapacity);
+        this.subscribers = ConcurrentHashMap.newKeySet();
+        this.pendingNetworkSummaries = new ConcurrentHashMap<>();
+        networkEventMetrics.registerNetworkEventSubscribersGauge(this.subscribers::size);
+    }
+
+    /**
+     * Subscribes to the events of the given networks.
+     *
+     * @param networkIds  the IDs of the networks to subscribe to, or an empty set for every network
+     * @param lastEventId the ID of the last event received before reconnecting, or {@code null} for a new subscription
+     * @return the emitter the events are sent to
+     */
+    public SseEmitter subscribe(final Set<Long> networkIds, final String lastEventId) {
+        final SseEmitter emitter = new SseEmitter(this.emitterTimeoutMs);
+        final NetworkEventSubscriber subscriber = new NetworkEventSubscriber(emitter, Set.copyOf(networkIds), this.bufferCapacity);
+        emitter.onCompletion(() -> this.unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(exception -> this.unsubscribe(subscriber));
+
+        synchronized (this.replayBuffer) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                this.replay(subscriber, lastEventId);
+            }
+
+            this.subscribers.add(subscriber);
+        }
+
+        log.info("subscribe() Subscriber added. Networks: {}. Last event ID: {}. Subscribers: {}.",
+                networkIds.isEmpty() ? "all" : networkIds, lastEventId, this.subscribers.size());
+        Thread.ofVirtual().name("network-events-subscriber").start(() -> this.send(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Publishes network anomalies that were written to MongoDB.
+     *
+     * @param networkAnomalies the written network anomalies
+     */
+    public void publishNetworkAnomalies(final List<NetworkAnomaly> networkAnomalies) {
+        synchronized (this.replayBuffer) {
+            networkAnomalies.forEach(networkAnomaly ->
+                    this.publish(NetworkEventType.NETWORK_ANOMALY, networkAnomaly.getNetworkId(), networkAnomaly));
+        }
+    }
+
+    /**
+     * Records the latest summary of a network, to be published on the next summary interval.
+     *
+     * @param networkSummary the latest summary of the network
+     */
+    public void recordNetworkSummary(final NetworkSummary networkSummary) {
+        this.pendingNetworkSummaries.put(networkSummary.getNetworkId(), networkSummary);
+    }
+
+    /**
+     * Publishes the latest summary of every network whose summary changed since the last interval.
+     */
+    @Scheduled(fixedDelayString = "${anomaly-detector.network-events.summary-interval-ms}")
+    public void publishNetworkSummaries() {
+        final List<NetworkSummary> networkSummaries = new ArrayList<>(this.pendingNetworkSummaries.size());
+        for (final Long networkId : this.pendingNetworkSummaries.keySet()) {
+            final NetworkSummary networkSummary = this.pendingNetworkSummaries.remove(networkId);
+            if (networkSummary != null) {
+                networkSummaries.add(networkSummary);
+            }
+        }
+
+        if (networkSummaries.isEmpty()) {
+            return;
+        }
+
+        synchronized (this.replayBuffer) {
+            networkSummaries.forEach(networkSummary ->
+                    this.publish(NetworkEventType.NETWORK_SUMMARY, networkSummary.getNetworkId(), networkSummary));
+        }
+    }
+
+    /**
+     * Completes every subscription before the application shuts down, so that clients reconnect to another instance.
+     */
+    @PreDestroy
+    public void close() {
+        log.info("close() Completing {} network event subscriptions before shutdown.", this.subscribers.size());
+        List.copyOf(this.subscribers).forEach(subscriber -> {
+            subscriber.close();
+            subscriber.emitter.complete();
+        });
+    }
+
+    private void publish(final NetworkEventType type, final Long networkId, final Object data) {
+        final NetworkEvent networkEvent = this.nextEvent(type, networkId, data);
+        if (this.replayCapacity > 0) {
+            if (this.replayBuffer.size() == this.replayCapacity) {
+                this.replayBuffer.removeFirst();
+            }
+
+            this.replayBuffer.addLast(networkEvent);
+        }
+
+        for (final NetworkEventSubscriber subscriber : this.subscribers) {
+            if (networkEvent.isFor(subscriber.networkIds)) {
+                subscriber.offer(networkEvent);
+            }
+        }
+    }
+
+    private void replay(final NetworkEventSubscriber subscriber, final String lastEventId) {
+        final long lastSequence = this.parseSequence(lastEventId);
+        final NetworkEvent oldest = this.replayBuffer.peekFirst();
+        final long oldestSequence = oldest == null ? this.sequence + 1 : oldest.sequence();
+        if (lastSequence < 0 || lastSequence > this.sequence || lastSequence + 1 < oldestSequence) {
+            log.info("replay() Events after: {} are no longer available, resetting subscriber.", lastEventId);
+            subscriber.offer(new NetworkEvent(this.streamId + "-" + this.sequence, this.sequence, NetworkEventType.RESET, null, Map.of()));
+            return;
+        }
+
+        for (final NetworkEvent networkEvent : this.replayBuffer) {
+            if (networkEvent.sequence() > lastSequence && networkEvent.isFor(subscriber.networkIds)) {
+                subscriber.offer(networkEvent);
+            }
+        }
+    }
+
+    private long parseSequence(final String eventId) {
+        final String prefix = this.streamId + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (final NumberFormatException exception) {
+            return -1;
+        }
+    }
+
+    private NetworkEvent nextEvent(final NetworkEventType type, final Long networkId, final Object data) {
+        this.sequence++;
+        return new NetworkEvent(this.streamId + "-" + this.sequence, this.sequence, type, networkId, data);
+    }
+
+    private void send(final NetworkEventSubscriber subscriber) {
+        final List<NetworkEvent> networkEvents = new ArrayList<>(this.bufferCapacity);
+        try {
+            while (true) {
+                final int dropped = subscriber.take(networkEvents, this.heartbeatIntervalNanos);
+                if (dropped < 0) {
+                    return;
+                }
+
+                if (dropped > 0) {
+                    this.networkEventMetrics.recordDroppedNetworkEvents(dropped);
+                    subscriber.emitter.send(SseEmitter.event().name(NetworkEventType.DROPPED.getEventName())
+                            .data(dropped, MediaType.APPLICATION_JSON));
+                }
+
+                if (networkEvents.isEmpty()) {
+                    subscriber.emitter.send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+                }
+
+                for (final NetworkEvent networkEvent : networkEvents) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(networkEvent.id())
+                            .name(networkEvent.type().getEventName())
+                            .data(networkEvent.data(), MediaType.APPLICATION_JSON));
+                }
+
+                networkEvents.clear();
+            }
+        } catch (final IOException | IllegalStateException exception) {
+            log.info("send() Subscriber disconnected. Exception: {}", exception.getMessage());
+            this.unsubscribe(subscriber);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            this.unsubscribe(subscriber);
+        }
+    }
+
+    private void unsubscribe(final NetworkEventSubscriber subscriber) {
+        subscriber.close();
+        if (this.subscribers.remove(subscriber)) {
+            log.info("unsubscribe() Subscriber removed. Subscribers: {}.", this.subscribers.size());
+        }
+    }
+
+    /**
+     * A subscriber of the network events, with its bounded drop-oldest buffer.
+     */
+    private static final class NetworkEventSubscriber {
+
+        private final SseEmitter emitter;
+
+        private final Set<Long> networkIds;
+
+        private final int capacity;
+
+        private final ArrayDeque<NetworkEvent> buffer;
+
+        private final ReentrantLock lock;
+
+        private final Condition notEmpty;
+
+        private int dropped;
+
+        private boolean closed;
+
+        private NetworkEventSubscriber(final SseEmitter emitter, final Set<Long> networkIds, final int capacity) {
+            this.emitter = emitter;
+            this.networkIds = networkIds;
+            this.capacity = capacity;
+            this.buffer = new ArrayDeque<>(capacity);
+            this.lock = new ReentrantLock();
+            this.notEmpty = this.lock.newCondition();
+        }
+
+        private void offer(final NetworkEvent networkEvent) {
+            this.lock.lock();
+            try {
+                if (this.closed) {
+                    return;
+                }
+
+                if (this.buffer.size() == this.capacity) {
+                    this.buffer.removeFirst();
+                    this.dropped++;
+                }
+
+                this.buffer.addLast(networkEvent);
+                this.notEmpty.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Moves the buffered events to the given list, waiting up to the given time for an event.
+         *
+         * @return the number of events dropped since the last call, or {@code -1} if the subscriber is closed
+         */
+        private int take(final List<NetworkEvent> networkEvents, final long timeoutNanos) throws InterruptedException {
+            this.lock.lock();
+            try {
+                long remainingNanos = timeoutNanos;
+                while (this.buffer.isEmpty() && !this.closed && remainingNanos > 0) {
+                    remainingNanos = this.notEmpty.awaitNanos(remainingNanos);
+                }
+
+                if (this.closed) {
+                    return -1;
+                }
+
+                networkEvents.addAll(this.buffer);
+                this.buffer.clear();
+                final int droppedEvents = this.dropped;
+                this.dropped = 0;
+                return droppedEvents;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void close() {
+            this.lock.lock();
+            try {
+                this.closed = true;
+                this.buffer.clear();
+                this.notEmpty.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.tus.anomalydetector.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.metrics.NetworkIncidentMetrics;
+import com.tus.anomalydetector.models.NetworkIncidentStatus;
+import com.tus.anomalydetector.persistence.documents.NetworkIncident;
+
+/**
+ * Service for collecting changes to network incidents in memory and flushing them to MongoDB in bulk.
+ *
+ * <p>
+ * The stream threads record the latest state of an incident every time it changes. Only the latest
+ * state of each incident is kept until the next flush, so an incident that gains an anomaly on every
+ * message is written once per flush interval instead of once per message.
+ * </p>
+ *
+ * <p>
+ * A closed incident is written by a flush at some point after it was closed, and the stream threads keep
+ * it in a state store until then, so a close is not lost if the instance dies in between. Every closed
+ * incident that a flush has written is therefore acknowledged until the stream thread that closed it
+ * removes it from its store.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkIncidentAggregationService {
+
+    private final NetworkIncidentService networkIncidentService;
+
+    private final NetworkIncidentMetrics networkIncidentMetrics;
+
+    private final Map<String, NetworkIncident> networkIncidents;
+
+    private final Set<String> acknowledgedClosedIncidentIds;
+
+    private final ReentrantLock flushLock;
+
+    /**
+     * Constructs a NetworkIncidentAggregationService with the required dependencies.
+     *
+     * @param networkIncidentService the service to use for network incident operations
+     * @param networkIncidentMetrics the metrics in which the bulk write durations are recorded
+     */
+    public NetworkIncidentAggregationService(final NetworkIncidentService networkIncidentService,
+                                             final NetworkIncidentMetrics networkIncidentMetrics) {
+        this.networkIncidentService = networkIncidentService;
+        this.networkIncidentMetrics = networkIncidentMetrics;
+        this.networkIncidents = new ConcurrentHashMap<>();
+        this.acknowledgedClosedIncidentIds = ConcurrentHashMap.newKeySet();
+        this.flushLock = new ReentrantLock();
+    }
+
+    /**
+     * Records the latest state of a network incident, replacing any state recorded since the last flush.
+     *
+     * <p>The incident must not be modified after it has been recorded.</p>
+     *
+     * @param networkIncident the network incident to record
+     */
+    public void record(final NetworkIncident networkIncident) {
+        this.networkIncidents.put(networkIncident.getId(), networkIncident);
+    }
+
+    /**
+     * Takes the acknowledgement of a closed network incident, if a flush has written it since it was recorded.
+     *
+     * @param networkIncidentId the ID of the closed network incident
+     * @return whether the closed network incident has been written to MongoDB
+     */
+    public boolean acknowledge(final String networkIncidentId) {
+        return this.acknowledgedClosedIncidentIds.remove(networkIncidentId);
+    }
+
+    /**
+     * Flushes the recorded network incidents to MongoDB.
+     *
+     * <p>
+     * Each incident is removed from the in-memory table atomically before being written, so changes
+     * recorded during the flush are kept for the next one. If the bulk write fails, the incidents are
+     * put back unless a newer state has been recorded in the meantime. The closed incidents written are
+     * acknowledged.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${anomaly-detector.network-incidents.flush-interval-ms}")
+    public void flush() {
+        if (!this.flushLock.tryLock()) {
+            return;
+        }
+
+        try {
+            final List<NetworkIncident> incidents = new ArrayList<>(this.networkIncidents.size());
+            for (final String id : this.networkIncidents.keySet()) {
+                final NetworkIncident networkIncident = this.networkIncidents.remove(id);
+                if (networkIncident != null) {
+                    incidents.add(networkIncident);
+                }
+            }
+
+            if (incidents.isEmpty()) {
+                return;
+            }
+
+            try {
+                final long start = System.nanoTime();
+                this.networkIncidentService.saveNetworkIncidents(incidents);
+                this.networkIncidentMetrics.recordIncidentBulkWrite(System.nanoTime() - start);
+                incidents.stream()
+                        .filter(networkIncident -> networkIncident.getStatus() == NetworkIncidentStatus.CLOSED)
+                        .forEach(networkIncident -> this.acknowledgedClosedIncidentIds.add(networkIncident.getId()));
+            } catch (final Exception exception) {
+                log.warn("flush() Failed to flush {} network incidents, they will be retried on the next flush.", incidents.size());
+                incidents.forEach(networkIncident -> this.networkIncidents.putIfAbsent(networkIncident.getId(), networkIncident));
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes any remaining network incidents before the application shuts down.
+     */
+    @PreDestroy
+    public void close() {
+        log.info("close() Flushing network incidents before shutdown.");
+        this.flush();
+    }
+}
@@ -0,0 +1,158 @@
+package com.tus.anomalydetector.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.bulk.BulkWriteResult;
+
+import com.tus.anomalydetector.exceptions.AnomalyDetectorException;
+import com.tus.anomalydetector.exceptions.enums.AnomalyDetectorError;
+import com.tus.anomalydetector.models.NetworkIncidentStatus;
+import com.tus.anomalydetector.persistence.documents.NetworkIncident;
+import com.tus.anomalydetector.persistence.repositories.NetworkIncidentRepository;
+
+/**
+ * Provides network incident services such as saving and retrieving network incidents.
+ *
+ * <p>
+ * This class uses Lombok annotations to generate a logger.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkIncidentService {
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String START_TIME_FIELD = "startTime";
+
+    private final NetworkIncidentRepository networkIncidentRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs a new NetworkIncidentService with the provided network incident repository and MongoDB template.
+     *
+     * @param networkIncidentRepository The repository for network incidents.
+     * @param mongoTemplate             The template used to write network incidents in bulk.
+     */
+    public NetworkIncidentService(final NetworkIncidentRepository networkIncidentRepository,
+                                  final MongoTemplate mongoTemplate) {
+        this.networkIncidentRepository = networkIncidentRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Retrieves a network incident by its ID.
+     *
+     * @param id The ID of the network incident to retrieve.
+     * @return The network incident with the provided ID.
+     */
+    public NetworkIncident getNetworkIncidentById(final String id) {
+        final Optional<NetworkIncident> networkIncidentOptional;
+        try {
+            networkIncidentOptional = this.networkIncidentRepository.findById(id);
+        } catch (final Exception exception) {
+            log.error("getNetworkIncidentById() An error occurred while getting the network incident with ID: {}. Exception: {}",
+                    id, exception.getMessage(), exception);
+            final String[] errorDetailArgs = {id};
+            throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    AnomalyDetectorError.GET_NETWORK_INCIDENT_ERROR, errorDetailArgs);
+        }
+
+        if (networkIncidentOptional.isEmpty()) {
+            log.error("getNetworkIncidentById() Network incident with ID: {} not found.", id);
+            final String[] errorDetailArgs = {id};
+            throw new AnomalyDetectorException(HttpStatus.NOT_FOUND,
+                    AnomalyDetectorError.NETWORK_INCIDENT_NOT_FOUND_ERROR, errorDetailArgs);
+        }
+
+        return networkIncidentOptional.get();
+    }
+
+    /**
+     * Retrieves the 100 most recent network incidents for a given network ID, sorted by start time descending.
+     *
+     * @param networkId the ID of the network.
+     * @return A list of the latest network incidents for the specified network.
+     */
+    public List<NetworkIncident> getNetworkIncidentsByNetworkId(final long networkId) {
+        log.info("getNetworkIncidentsByNetworkId() Retrieving network incidents for the network with ID: {}.", networkId);
+        try {
+            return this.networkIncidentRepository.findByNetworkId(networkId, latest()).getContent();
+        } catch (final Exception exception) {
+            log.error("getNetworkIncidentsByNetworkId() An error occurred while getting the network incidents for the network with ID: {}. Exception: {}",
+                    networkId, exception.getMessage(), exception);
+            throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    AnomalyDetectorError.GET_NETWORK_INCIDENTS_ERROR);
+        }
+    }
+
+    /**
+     * Retrieves the 100 most recent network incidents, optionally only those with a given status, sorted by start time descending.
+     *
+     * @param status the status of the incidents to retrieve, or {@code null} for incidents of any status.
+     * @return A list of the latest network incidents.
+     */
+    public List<NetworkIncident> getNetworkIncidents(final NetworkIncidentStatus status) {
+        log.info("getNetworkIncidents() Retrieving network incidents. Status: {}.", status);
+        try {
+            return status == null
+                    ? this.networkIncidentRepository.findAll(latest()).getContent()
+                    : this.networkIncidentRepository.findByStatus(status, latest()).getContent();
+        } catch (final Exception exception) {
+            log.error("getNetworkIncidents() An error occurred while getting the network incidents. Exception: {}", exception.getMessage(), exception);
+            throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    AnomalyDetectorError.GET_NETWORK_INCIDENTS_ERROR);
+        }
+    }
+
+    /**
+     * Saves the latest state of the given network incidents in a single unordered bulk write.
+     *
+     * <p>
+     * Each incident replaces its document, which is inserted if it does not exist yet, so writing the
+     * same state twice has no further effect.
+     * </p>
+     *
+     * @param networkIncidents the network incidents to save
+     */
+    public void saveNetworkIncidents(final Collection<NetworkIncident> networkIncidents) {
+        if (networkIncidents.isEmpty()) {
+            return;
+        }
+
+        try {
+            final BulkOperations bulkOperations = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NetworkIncident.class);
+            networkIncidents.forEach(networkIncident -> bulkOperations.replaceOne(
+                    new Query(Criteria.where(ID_FIELD).is(networkIncident.getId())),
+                    networkIncident,
+                    FindAndReplaceOptions.options().upsert()));
+            final BulkWriteResult bulkWriteResult = bulkOperations.execute();
+            log.debug("saveNetworkIncidents() Network incidents saved: {}. Matched: {}, upserted: {}.",
+                    networkIncidents.size(), bulkWriteResult.getMatchedCount(), bulkWriteResult.getUpserts().size());
+        } catch (final Exception exception) {
+            log.error("saveNetworkIncidents() An error occurred while saving the network incidents. Exception: {}", exception.getMessage(), exception);
+            throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    AnomalyDetectorError.SAVE_NETWORK_INCIDENTS_ERROR);
+        }
+    }
+
+    private static Pageable latest() {
+        return PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, START_TIME_FIELD));
+    }
+}
@@ -0,0 +1,172 @@
+package com.tus.anomalydetector.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.exceptions.AnomalyDetectorException;
+import com.tus.anomalydetector.exceptions.enums.AnomalyDetectorError;
+import com.tus.anomalydetector.models.NetworkQuantiles;
+import com.tus.anomalydetector.models.QuantileSketch;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Provides the percentiles of the message sizes of the networks.
+ *
+ * <p>
+ * The percentiles are computed from the quantile sketches in the
+ * {@value AnomalyDetectorConstants#NETWORK_QUANTILES_STORE} state store, queried through Kafka Streams
+ * interactive queries, so they are as fresh as the last statistics checkpoint. A lookup for one network
+ * is answered by the instance that owns the partition of its key, and a request for all networks is fanned
+ * out to every instance hosting the store, both through the {@link InteractiveQueryService}. Other
+ * instances return their sketches serialized, and a network may have a sketch on more than one partition,
+ * for example while its records are being repartitioned, so the sketches of a network are merged before
+ * the percentiles are computed.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkQuantileService {
+
+    private static final ParameterizedTypeReference<Map<Long, byte[]>> QUANTILE_SKETCHES_TYPE = new ParameterizedTypeReference<>() {
+    };
+
+    private final AnomalyDetectionService anomalyDetectionService;
+
+    private final InteractiveQueryService interactiveQueryService;
+
+    /**
+     * Constructs a new NetworkQuantileService.
+     *
+     * @param anomalyDetectionService the service running the Kafka Streams application
+     * @param interactiveQueryService the service routing the queries to the instances hosting the state store
+     */
+    public NetworkQuantileService(final AnomalyDetectionService anomalyDetectionService,
+                                  final InteractiveQueryService interactiveQueryService) {
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.interactiveQueryService = interactiveQueryService;
+    }
+
+    /**
+     * Retrieves the percentiles of the message sizes of a network.
+     *
+     * @param networkId the ID of the network
+     * @return the percentiles of the network
+     */
+    public NetworkQuantiles getNetworkQuantilesByNetworkId(final long networkId) {
+        log.info("getNetworkQuantilesByNetworkId() Retrieving network quantiles for the network with ID: {}.", networkId);
+        final Map<Long, QuantileSketch> quantileSketches = new HashMap<>();
+        try {
+            final Optional<Map<Long, byte[]>> serializedSketches = this.interactiveQueryService.queryByNetworkId(
+                    AnomalyDetectorConstants.NETWORK_QUANTILES_STORE, networkId,
+                    () -> this.getLocalQuantileSketchesByNetworkId(networkId),
+                    AnomalyDetectorConstants.NETWORK_QUANTILE_CONTROLLER_URL + AnomalyDetectorConstants.STATE_STORE_LOCAL_URL + "/network/" + networkId,
+                    QUANTILE_SKETCHES_TYPE);
+            if (serializedSketches.isEmpty()) {
+                throw new IllegalStateException("No instance currently owns the network with ID: " + networkId + ".");
+            }
+
+            mergeQuantileSketches(quantileSketches, serializedSketches.get());
+        } catch (final Exception exception) {
+            log.error("getNetworkQuantilesByNetworkId() An error occurred while reading the network quantile sketches. Exception: {}",
+                    exception.getMessage(), exception);
+            throw new AnomalyDetectorException(HttpStatus.SERVICE_UNAVAILABLE,
+                    AnomalyDetectorError.GET_NETWORK_QUANTILES_ERROR);
+        }
+
+        final QuantileSketch quantileSketch = quantileSketches.get(networkId);
+        if (quantileSketch == null) {
+            log.error("getNetworkQuantilesByNetworkId() Network quantiles for the network with ID: {} not found.", networkId);
+            final String[] errorDetailArgs = {String.valueOf(networkId)};
+            throw new AnomalyDetectorException(HttpStatus.NOT_FOUND,
+                    AnomalyDetectorError.NETWORK_QUANTILES_NOT_FOUND_ERROR, errorDetailArgs);
+        }
+
+        return NetworkQuantiles.of(networkId, quantileSketch);
+    }
+
+    /**
+     * Retrieves the percentiles of the message sizes of all networks.
+     *
+     * @return the percentiles of the networks
+     */
+    public List<NetworkQuantiles> getNetworkQuantiles() {
+        log.info("getNetworkQuantiles() Retrieving network quantiles.");
+        final Map<Long, QuantileSketch> quantileSketches = new HashMap<>();
+        try {
+            this.interactiveQueryService.queryAll(AnomalyDetectorConstants.NETWORK_QUANTILES_STORE, this::getLocalQuantileSketches,
+                            AnomalyDetectorConstants.NETWORK_QUANTILE_CONTROLLER_URL + AnomalyDetectorConstants.STATE_STORE_LOCAL_URL,
+                            QUANTILE_SKETCHES_TYPE)
+                    .forEach(serializedSketches -> mergeQuantileSketches(quantileSketches, serializedSketches));
+        } catch (final Exception exception) {
+            log.error("getNetworkQuantiles() An error occurred while reading the network quantile sketches. Exception: {}", exception.getMessage(), exception);
+            throw new AnomalyDetectorException(HttpStatus.SERVICE_UNAVAILABLE,
+                    AnomalyDetectorError.GET_NETWORK_QUANTILES_ERROR);
+        }
+
+        final List<NetworkQuantiles> networkQuantiles = new ArrayList<>(quantileSketches.size());
+        quantileSketches.forEach((networkId, quantileSketch) -> networkQuantiles.add(NetworkQuantiles.of(networkId, quantileSketch)));
+        return networkQuantiles;
+    }
+
+    /**
+     * Retrieves the serialized quantile sketches of a network from the partitions hosted by this instance.
+     *
+     * @param networkId the ID of the network
+     * @return the serialized quantile sketch of the network keyed by its ID, empty if this instance has none
+     */
+    public Map<Long, byte[]> getLocalQuantileSketchesByNetworkId(final long networkId) {
+        log.debug("getLocalQuantileSketchesByNetworkId() Reading the local quantile sketch for the network with ID: {}.", networkId);
+        return this.readLocalQuantileSketches(networkId, networkId);
+    }
+
+    /**
+     * Retrieves the serialized quantile sketches of all networks from the partitions hosted by this instance.
+     *
+     * @return the serialized quantile sketches keyed by network ID
+     */
+    public Map<Long, byte[]> getLocalQuantileSketches() {
+        log.debug("getLocalQuantileSketches() Reading the local quantile sketches.");
+        return this.readLocalQuantileSketches(null, null);
+    }
+
+    private Map<Long, byte[]> readLocalQuantileSketches(final Long from, final Long to) {
+        final ReadOnlyKeyValueStore<Long, QuantileSketch> store = this.anomalyDetectionService.getKafkaStreams().store(StoreQueryParameters.fromNameAndType(
+                AnomalyDetectorConstants.NETWORK_QUANTILES_STORE, QueryableStoreTypes.keyValueStore()));
+        final Map<Long, QuantileSketch> quantileSketches = new HashMap<>();
+        try (KeyValueIterator<Long, QuantileSketch> iterator = from == null ? store.all() : store.range(from, to)) {
+            while (iterator.hasNext()) {
+                final KeyValue<Long, QuantileSketch> entry = iterator.next();
+                quantileSketches.merge(entry.key, entry.value, (current, other) -> {
+                    current.merge(other);
+                    return current;
+                });
+            }
+        }
+
+        final Map<Long, byte[]> serializedSketches = new HashMap<>();
+        quantileSketches.forEach((networkId, quantileSketch) -> serializedSketches.put(networkId, quantileSketch.toByteArray()));
+        return serializedSketches;
+    }
+
+    private static void mergeQuantileSketches(final Map<Long, QuantileSketch> quantileSketches, final Map<Long, byte[]> serializedSketches) {
+        serializedSketches.forEach((networkId, bytes) -> quantileSketches.merge(networkId, QuantileSketch.fromByteArray(bytes), (current, other) -> {
+            current.merge(other);
+            return current;
+        }));
+    }
+}
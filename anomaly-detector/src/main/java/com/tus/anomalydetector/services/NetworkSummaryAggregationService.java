@@ -0,0 +1,228 @@
+package com.tus.anomalydetector.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+import com.tus.anomalydetector.persistence.documents.NetworkSummary;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Service for persisting the network summaries of the stream threads to MongoDB in bulk.
+ *
+ * <p>
+ * The {@value AnomalyDetectorConstants#NETWORK_SUMMARIES_STORE} state store is the source of truth of the
+ * network summaries. The stream threads update the summary of a network in the store and record the updated
+ * summary here. A network the store has no summary of yet starts from zero, and its persisted totals are
+ * loaded in bulk with {@link #loadNetworkSummaries(Collection)} on a loader thread and added to the store
+ * afterwards, so the stream threads never read from MongoDB either. Only the latest summary of each network is kept, and the summaries are flushed as a single unordered
+ * bulk upsert by a dedicated flusher thread, either on a fixed interval or as soon as the number of recorded
+ * messages reaches the configured threshold. Reaching the threshold only wakes the flusher, so the stream
+ * threads never wait for MongoDB.
+ * </p>
+ *
+ * <p>
+ * The totals of a network only grow, so they are written with {@code $max}. A flush that is retried, or that
+ * arrives after a newer one, for example from the previous owner of a partition, never lowers them.
+ * </p>
+ *
+ * <p>
+ * The flusher only starts once the {@link NetworkSummaryCollectionService} has merged duplicate summaries
+ * and created the unique index on {@code networkId}, so upserts never store a second summary of a network.
+ * </p>
+ */
+@Slf4j
+@Service
+@DependsOn("networkSummaryCollectionService")
+public class NetworkSummaryAggregationService {
+
+    private final NetworkSummaryService networkSummaryService;
+
+    private final AnomalyDetectionMetrics anomalyDetectionMetrics;
+
+    private final int flushThreshold;
+
+    private final long flushIntervalMs;
+
+    private final Map<Long, NetworkSummary> pendingNetworkSummaries;
+
+    private final AtomicInteger dirtyCount;
+
+    private final ReentrantLock flushLock;
+
+    private final Object flushSignal;
+
+    private final Thread flusherThread;
+
+    private final ExecutorService loaderExecutor;
+
+    private volatile boolean running;
+
+    /**
+     * Constructs a NetworkSummaryAggregationService with the required dependencies.
+     *
+     * @param networkSummaryService   the service to use for network summary operations
+     * @param anomalyDetectionMetrics the metrics in which the bulk write durations are recorded
+     * @param flushThreshold          the number of recorded messages that triggers a flush
+     * @param flushIntervalMs         the interval in milliseconds at which the summaries are flushed
+     */
+    public NetworkSummaryAggregationService(final NetworkSummaryService networkSummaryService,
+                                            final AnomalyDetectionMetrics anomalyDetectionMetrics,
+                                            @Value("${anomaly-detector.network-summary.flush-threshold}") final int flushThreshold,
+                                            @Value("${anomaly-detector.network-summary.flush-interval-ms}") final long flushIntervalMs) {
+        this.networkSummaryService = networkSummaryService;
+        this.anomalyDetectionMetrics = anomalyDetectionMetrics;
+        this.pendingNetworkSummaries = new ConcurrentHashMap<>();
+        this.dirtyCount = new AtomicInteger();
+        this.flushThreshold = flushThreshold;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushLock = new ReentrantLock();
+        this.flushSignal = new Object();
+        this.flusherThread = new Thread(this::run, "network-summary-flusher");
+        this.flusherThread.setDaemon(true);
+        this.loaderExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("network-summary-loader").daemon().factory());
+    }
+
+    /**
+     * Starts the flusher thread.
+     */
+    @PostConstruct
+    public void start() {
+        this.running = true;
+        this.flusherThread.start();
+    }
+
+    /**
+     * Loads the persisted summaries of networks that had no summary in the state store, on the loader thread.
+     *
+     * @param networkIds the IDs of the networks
+     * @return a future of the persisted summaries by network ID, without the networks that have none
+     */
+    public CompletableFuture<Map<Long, NetworkSummary>> loadNetworkSummaries(final Collection<Long> networkIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            final Map<Long, NetworkSummary> networkSummaries = new HashMap<>();
+            for (final NetworkSummary networkSummary : this.networkSummaryService.getNetworkSummariesByNetworkIds(networkIds)) {
+                networkSummaries.put(networkSummary.getNetworkId(), networkSummary);
+            }
+
+            return networkSummaries;
+        }, this.loaderExecutor);
+    }
+
+    /**
+     * Records the latest summary of a network, to be written on the next flush.
+     *
+     * <p>If the number of recorded messages reaches the flush threshold, the flusher thread is woken up.</p>
+     *
+     * @param networkSummary the latest summary of the network, which must not be modified afterwards
+     */
+    public void record(final NetworkSummary networkSummary) {
+        this.pendingNetworkSummaries.put(networkSummary.getNetworkId(), networkSummary);
+
+        if (this.dirtyCount.incrementAndGet() == this.flushThreshold) {
+            synchronized (this.flushSignal) {
+                this.flushSignal.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Flushes the recorded network summaries to MongoDB.
+     *
+     * <p>
+     * Each summary is removed from the in-memory table atomically before being written, so summaries
+     * recorded during the flush are kept for the next one. If the bulk write fails, the summaries are
+     * put back unless a newer summary of the same network was recorded in the meantime.
+     * </p>
+     */
+    public void flush() {
+        if (!this.flushLock.tryLock()) {
+            return;
+        }
+
+        try {
+            this.dirtyCount.set(0);
+            final List<NetworkSummary> networkSummaries = new ArrayList<>(this.pendingNetworkSummaries.size());
+            for (final Long networkId : this.pendingNetworkSummaries.keySet()) {
+                final NetworkSummary networkSummary = this.pendingNetworkSummaries.remove(networkId);
+                if (networkSummary != null) {
+                    networkSummaries.add(networkSummary);
+                }
+            }
+
+            if (networkSummaries.isEmpty()) {
+                return;
+            }
+
+            try {
+                final long start = System.nanoTime();
+                this.networkSummaryService.saveNetworkSummaries(networkSummaries);
+                this.anomalyDetectionMetrics.recordSummaryBulkWrite(System.nanoTime() - start);
+            } catch (final Exception exception) {
+                log.warn("flush() Failed to flush {} network summaries, they will be retried on the next flush.", networkSummaries.size());
+                networkSummaries.forEach(networkSummary -> this.pendingNetworkSummaries.putIfAbsent(networkSummary.getNetworkId(), networkSummary));
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the flusher thread and flushes any remaining network summaries before the application shuts down.
+     */
+    @PreDestroy
+    public void close() {
+        log.info("close() Flushing network summaries before shutdown.");
+        this.running = false;
+        this.loaderExecutor.shutdownNow();
+        synchronized (this.flushSignal) {
+            this.flushSignal.notifyAll();
+        }
+
+        try {
+            this.flusherThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.flush();
+    }
+
+    private void run() {
+        try {
+            while (this.running) {
+                synchronized (this.flushSignal) {
+                    // Checked under the signal, so a threshold reached while the previous flush was running is not missed.
+                    if (this.running && this.dirtyCount.get() < this.flushThreshold) {
+                        this.flushSignal.wait(this.flushIntervalMs);
+                    }
+                }
+
+                this.flush();
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.info("run() Network summary flusher stopped.");
+    }
+}
@@ -0,0 +1,155 @@
+package com.tus.anomalydetector.services;
+
+import java.time.Duration;
+import java.util.List;
+
+import jakarta.annotation.PostConstruct;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.bson.Document;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Prepares the network summaries collection at startup, before any network summary is written to it.
+ *
+ * <p>
+ * Every network has one summary, enforced by a unique index on {@code networkId}. Summaries used to be
+ * upserted without that index, so concurrent upserts may have stored several summaries for one network,
+ * each holding part of its counts, and the index could not be created over them. The duplicate summaries
+ * of a network are therefore merged first: the counts of each duplicate are added to the oldest summary of
+ * the network, which keeps the latest {@code lastUpdatedAt}, and the duplicate is deleted. The unique index
+ * is then created if it is missing.
+ * </p>
+ *
+ * <p>
+ * Several instances may start at once, so the preparation holds a lock of the {@link MongoLockService}
+ * and the instances prepare the collection one after another.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkSummaryCollectionService {
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String IDS_FIELD = "ids";
+
+    private static final String COUNT_FIELD = "count";
+
+    private static final String MERGED_IDS_FIELD = "mergedIds";
+
+    private static final String NETWORK_ID_FIELD = "networkId";
+
+    private static final String TRAFFIC_SIZE_IN_BYTES_FIELD = "trafficSizeInBytes";
+
+    private static final String ANOMALY_COUNT_FIELD = "anomalyCount";
+
+    private static final String NON_ANOMALY_COUNT_FIELD = "nonAnomalyCount";
+
+    private static final String LAST_UPDATED_AT_FIELD = "lastUpdatedAt";
+
+    private static final String NETWORK_ID_INDEX = "networkId";
+
+    private static final String PREPARE_LOCK = "network_summaries_prepare";
+
+    private static final Duration LOCK_LEASE = Duration.ofMinutes(1);
+
+    private static final Duration LOCK_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private static final Duration PREPARE_LOCK_TIMEOUT = Duration.ofMinutes(2);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final MongoLockService mongoLockService;
+
+    /**
+     * Constructs a new NetworkSummaryCollectionService with the required dependencies.
+     *
+     * @param mongoTemplate    The template used to manage the network summaries collection.
+     * @param mongoLockService The service that serializes the preparation across instances.
+     */
+    public NetworkSummaryCollectionService(final MongoTemplate mongoTemplate,
+                                           final MongoLockService mongoLockService) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoLockService = mongoLockService;
+    }
+
+    /**
+     * Merges the duplicate summaries of every network and ensures the unique index on {@code networkId}.
+     */
+    @PostConstruct
+    public void prepareCollection() {
+        final String collectionName = AnomalyDetectorConstants.NETWORK_SUMMARIES_COLLECTION;
+        this.mongoLockService.acquire(PREPARE_LOCK, LOCK_LEASE, LOCK_POLL_INTERVAL, PREPARE_LOCK_TIMEOUT);
+        try {
+            this.mergeDuplicateSummaries(collectionName);
+            log.info("prepareCollection() Ensuring the index: {} of the collection: {}.", NETWORK_ID_INDEX, collectionName);
+            this.mongoTemplate.indexOps(collectionName).ensureIndex(new Index()
+                    .on(NETWORK_ID_FIELD, Sort.Direction.ASC)
+                    .unique()
+                    .named(NETWORK_ID_INDEX));
+        } finally {
+            this.mongoLockService.release(PREPARE_LOCK);
+        }
+    }
+
+    private void mergeDuplicateSummaries(final String collectionName) {
+        final Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.sort(Sort.Direction.ASC, ID_FIELD),
+                Aggregation.group(NETWORK_ID_FIELD)
+                        .push(ID_FIELD).as(IDS_FIELD)
+                        .count().as(COUNT_FIELD),
+                Aggregation.match(Criteria.where(COUNT_FIELD).gt(1)));
+        final List<Document> duplicates = this.mongoTemplate.aggregate(aggregation, collectionName, Document.class).getMappedResults();
+        for (final Document duplicate : duplicates) {
+            final List<Object> ids = duplicate.getList(IDS_FIELD, Object.class);
+            log.info("mergeDuplicateSummaries() Merging {} summaries of the network with ID: {}.", ids.size(), duplicate.get(ID_FIELD));
+            final Object keptId = ids.getFirst();
+            for (final Object duplicateId : ids.subList(1, ids.size())) {
+                this.mergeDuplicateSummary(collectionName, keptId, duplicateId);
+            }
+
+            this.mongoTemplate.updateFirst(Query.query(Criteria.where(ID_FIELD).is(keptId)), new Update().unset(MERGED_IDS_FIELD), collectionName);
+        }
+
+        if (!duplicates.isEmpty()) {
+            log.info("mergeDuplicateSummaries() Merged the duplicate summaries of {} networks.", duplicates.size());
+        }
+    }
+
+    private void mergeDuplicateSummary(final String collectionName, final Object keptId, final Object duplicateId) {
+        final Document duplicateSummary = this.mongoTemplate.findById(duplicateId, Document.class, collectionName);
+        if (duplicateSummary == null) {
+            return;
+        }
+
+        // The merged IDs make the merge idempotent: a merge interrupted between the update and the delete adds the counts only once when it is repeated.
+        final Update update = new Update()
+                .inc(TRAFFIC_SIZE_IN_BYTES_FIELD, getNumber(duplicateSummary, TRAFFIC_SIZE_IN_BYTES_FIELD))
+                .inc(ANOMALY_COUNT_FIELD, getNumber(duplicateSummary, ANOMALY_COUNT_FIELD))
+                .inc(NON_ANOMALY_COUNT_FIELD, getNumber(duplicateSummary, NON_ANOMALY_COUNT_FIELD))
+                .addToSet(MERGED_IDS_FIELD, duplicateId);
+        if (duplicateSummary.get(LAST_UPDATED_AT_FIELD) != null) {
+            update.max(LAST_UPDATED_AT_FIELD, duplicateSummary.get(LAST_UPDATED_AT_FIELD));
+        }
+
+        this.mongoTemplate.updateFirst(Query.query(Criteria.where(ID_FIELD).is(keptId).and(MERGED_IDS_FIELD).ne(duplicateId)), update, collectionName);
+        this.mongoTemplate.remove(Query.query(Criteria.where(ID_FIELD).is(duplicateId)), collectionName);
+    }
+
+    private static Number getNumber(final Document document, final String field) {
+        final Object value = document.get(field);
+        return value instanceof Number number ? number : 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.tus.anomalydetector.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.persistence.documents.NetworkSummary;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Serves network summaries from the {@value AnomalyDetectorConstants#NETWORK_SUMMARIES_STORE} state store
+ * through Kafka Streams interactive queries.
+ *
+ * <p>
+ * A lookup for one network is answered by the instance that owns the partition of its key, and a request
+ * for all networks is fanned out to every instance hosting the store, both through the
+ * {@link InteractiveQueryService}. A network is only updated on the partition that owns it, so summaries
+ * of the same network found on more than one partition, for example stale entries left behind on the old
+ * partition of the network by a change of the partition count of the input topic, are never added together:
+ * the most recently updated one is kept.
+ * </p>
+ *
+ * <p>
+ * The state store is the source of truth: a network is seeded with its MongoDB totals the first time it is
+ * seen, and MongoDB trails the store by at most one flush. Networks that have no summary in the store yet,
+ * for example because no message of theirs was processed since the store was created, are read from MongoDB
+ * through the {@link NetworkSummaryService}, and are merged into the list of all networks. While the state
+ * store cannot be queried, for example during a rebalance, every summary is read from MongoDB.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkSummaryQueryService {
+
+    private static final ParameterizedTypeReference<List<NetworkSummary>> NETWORK_SUMMARIES_TYPE = new ParameterizedTypeReference<>() {
+    };
+
+    private final AnomalyDetectionService anomalyDetectionService;
+
+    private final NetworkSummaryService networkSummaryService;
+
+    private final InteractiveQueryService interactiveQueryService;
+
+    /**
+     * Constructs a new NetworkSummaryQueryService.
+     *
+     * @param anomalyDetectionService the service running the Kafka Streams application
+     * @param networkSummaryService   the service reading network summaries from MongoDB
+     * @param interactiveQueryService the service routing the queries to the instances hosting the state store
+     */
+    public NetworkSummaryQueryService(final AnomalyDetectionService anomalyDetectionService,
+                                      final NetworkSummaryService networkSummaryService,
+                                      final InteractiveQueryService interactiveQueryService) {
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.networkSummaryService = networkSummaryService;
+        this.interactiveQueryService = interactiveQueryService;
+    }
+
+    /**
+     * Retrieves the network summaries for a given network ID from the instance that owns it.
+     *
+     * @param networkId the ID of the network
+     * @return a list containing the network summary of the specified network, empty if it has none
+     */
+    public List<NetworkSummary> getNetworkSummariesByNetworkId(final long networkId) {
+        log.info("getNetworkSummariesByNetworkId() Retrieving network summaries for the network with ID: {}.", networkId);
+        final List<NetworkSummary> networkSummaries;
+        try {
+            networkSummaries = this.interactiveQueryService.queryByNetworkId(AnomalyDetectorConstants.NETWORK_SUMMARIES_STORE, networkId,
+                    () -> this.getLocalNetworkSummariesByNetworkId(networkId),
+                    AnomalyDetectorConstants.NETWORK_SUMMARY_CONTROLLER_URL + AnomalyDetectorConstants.STATE_STORE_LOCAL_URL + "/network/" + networkId,
+                    NETWORK_SUMMARIES_TYPE).orElse(List.of());
+        } catch (final Exception exception) {
+            log.warn("getNetworkSummariesByNetworkId() Failed to query the network summary for the network with ID: {}, reading from MongoDB. Exception: {}",
+                    networkId, exception.getMessage());
+            return this.networkSummaryService.getNetworkSummariesByNetworkId(networkId);
+        }
+
+        return networkSummaries.isEmpty() ? this.networkSummaryService.getNetworkSummariesByNetworkId(networkId) : networkSummaries;
+    }
+
+    /**
+     * Retrieves the network summaries of all networks from every instance hosting the state store, and from
+     * MongoDB for the networks that are not in the store.
+     *
+     * @return a list of network summaries
+     */
+    public List<NetworkSummary> getNetworkSummaries() {
+        log.info("getNetworkSummaries() Retrieving network summaries.");
+        try {
+            final Map<Long, NetworkSummary> networkSummaries = new HashMap<>();
+            this.interactiveQueryService.queryAll(AnomalyDetectorConstants.NETWORK_SUMMARIES_STORE, this::getLocalNetworkSummaries,
+                            AnomalyDetectorConstants.NETWORK_SUMMARY_CONTROLLER_URL + AnomalyDetectorConstants.STATE_STORE_LOCAL_URL, NETWORK_SUMMARIES_TYPE)
+                    .forEach(instanceSummaries -> instanceSummaries.forEach(networkSummary ->
+                            networkSummaries.merge(networkSummary.getNetworkId(), networkSummary, NetworkSummaryQueryService::latest)));
+
+            this.networkSummaryService.getNetworkSummaries().forEach(networkSummary ->
+                    networkSummaries.putIfAbsent(networkSummary.getNetworkId(), networkSummary));
+            return new ArrayList<>(networkSummaries.values());
+        } catch (final Exception exception) {
+            log.warn("getNetworkSummaries() Failed to query the network summaries, reading from MongoDB. Exception: {}", exception.getMessage());
+            return this.networkSummaryService.getNetworkSummaries();
+        }
+    }
+
+    /**
+     * Retrieves the network summaries for a given network ID from the partitions hosted by this instance.
+     *
+     * @param networkId the ID of the network
+     * @return a list containing the network summary of the specified network, empty if this instance has none
+     */
+    public List<NetworkSummary> getLocalNetworkSummariesByNetworkId(final long networkId) {
+        log.debug("getLocalNetworkSummariesByNetworkId() Reading the local network summary for the network with ID: {}.", networkId);
+        return this.readLocalNetworkSummaries(networkId, networkId);
+    }
+
+    /**
+     * Retrieves the network summaries of all networks from the partitions hosted by this instance.
+     *
+     * @return a list of network summaries
+     */
+    public List<NetworkSummary> getLocalNetworkSummaries() {
+        log.debug("getLocalNetworkSummaries() Reading the local network summaries.");
+        return this.readLocalNetworkSummaries(null, null);
+    }
+
+    private List<NetworkSummary> readLocalNetworkSummaries(final Long from, final Long to) {
+        final ReadOnlyKeyValueStore<Long, NetworkSummary> store = this.anomalyDetectionService.getKafkaStreams().store(
+                StoreQueryParameters.fromNameAndType(AnomalyDetectorConstants.NETWORK_SUMMARIES_STORE, QueryableStoreTypes.keyValueStore()));
+        final Map<Long, NetworkSummary> networkSummaries = new HashMap<>();
+        try (KeyValueIterator<Long, NetworkSummary> iterator = from == null ? store.all() : store.range(from, to)) {
+            while (iterator.hasNext()) {
+                final KeyValue<Long, NetworkSummary> entry = iterator.next();
+                networkSummaries.merge(entry.key, entry.value, NetworkSummaryQueryService::latest);
+            }
+        }
+
+        return new ArrayList<>(networkSummaries.values());
+    }
+
+    private static NetworkSummary latest(final NetworkSummary current, final NetworkSummary other) {
+        if (current.getLastUpdatedAt() == null
+                || (other.getLastUpdatedAt() != null && other.getLastUpdatedAt().isAfter(current.getLastUpdatedAt()))) {
+            return other;
+        }
+
+        return current;
+    }
+}
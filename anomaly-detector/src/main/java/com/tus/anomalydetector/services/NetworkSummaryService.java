@@ -1,12 +1,20 @@
 package com.tus.anomalydetector.services;
 
+import java.util.Collection;
 import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.mongodb.bulk.BulkWriteResult;
+
 import com.tus.anomalydetector.exceptions.AnomalyDetectorException;
 import com.tus.anomalydetector.exceptions.enums.AnomalyDetectorError;
 import com.tus.anomalydetector.persistence.documents.NetworkSummary;
@@ -23,15 +31,30 @@ import com.tus.anomalydetector.persistence.repositories.NetworkSummaryRepository
 @Service
 public class NetworkSummaryService {
 
+    private static final String NETWORK_ID_FIELD = "networkId";
+
+    private static final String TRAFFIC_SIZE_IN_BYTES_FIELD = "trafficSizeInBytes";
+
+    private static final String ANOMALY_COUNT_FIELD = "anomalyCount";
+
+    private static final String NON_ANOMALY_COUNT_FIELD = "nonAnomalyCount";
+
+    private static final String LAST_UPDATED_AT_FIELD = "lastUpdatedAt";
+
     private final NetworkSummaryRepository networkSummaryRepository;
 
+    private final MongoTemplate mongoTemplate;
+
     /**
      * Constructs a new NetworkSummaryService with the provided network summary repository.
      *
      * @param networkSummaryRepository The repository for network summaries.
+     * @param mongoTemplate            The template used for bulk network summary updates.
      */
-    public NetworkSummaryService(final NetworkSummaryRepository networkSummaryRepository) {
+    public NetworkSummaryService(final NetworkSummaryRepository networkSummaryRepository,
+                                 final MongoTemplate mongoTemplate) {
         this.networkSummaryRepository = networkSummaryRepository;
+        this.mongoTemplate = mongoTemplate;
     }
 
     /**
@@ -51,6 +74,23 @@ public class NetworkSummaryService {
         }
     }
 
+    /**
+     * Retrieves the network summaries of the given networks.
+     *
+     * @param networkIds the IDs of the networks.
+     * @return A list of the network summaries of the specified networks.
+     */
+    public List<NetworkSummary> getNetworkSummariesByNetworkIds(final Collection<Long> networkIds) {
+        log.info("getNetworkSummariesByNetworkIds() Retrieving network summaries for {} networks.", networkIds.size());
+        try {
+            return this.networkSummaryRepository.findByNetworkIdIn(networkIds);
+        } catch (final Exception exception) {
+            log.error("getNetworkSummariesByNetworkIds() An error occurred while getting the network summaries for {} networks. Exception: {}", networkIds.size(), exception.getMessage(), exception);
+            throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    AnomalyDetectorError.GET_NETWORK_SUMMARIES_ERROR);
+        }
+    }
+
     /**
      * Retrieves the network summaries.
      *
@@ -68,17 +108,34 @@ public class NetworkSummaryService {
     }
 
     /**
-     * Saves a network summary.
+     * Saves the totals of network summaries as a single unordered bulk write.
+     *
+     * <p>
+     * Each summary becomes one upsert keyed by network ID that raises the persisted totals with
+     * {@code $max}, so writing an older summary after a newer one never lowers them.
+     * </p>
      *
-     * @param networkSummary The network summary to be saved.
+     * @param networkSummaries The network summaries to be saved.
      */
-    public void saveNetworkSummary(final NetworkSummary networkSummary) {
+    public void saveNetworkSummaries(final Collection<NetworkSummary> networkSummaries) {
+        if (networkSummaries.isEmpty()) {
+            return;
+        }
+
         try {
-            final NetworkSummary savedNetworkSummary = this.networkSummaryRepository.save(networkSummary);
-            log.debug("saveNetworkSummary() Network summary saved with ID: {}, network ID: {}, traffic size: {} bytes, anomaly count: {}, non-anomaly count: {}. ", networkSummary.getId(),
-                    networkSummary.getNetworkId(), networkSummary.getTrafficSizeInBytes(), networkSummary.getAnomalyCount(), networkSummary.getNonAnomalyCount());
+            final BulkOperations bulkOperations = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NetworkSummary.class);
+            networkSummaries.forEach(networkSummary -> bulkOperations.upsert(
+                    new Query(Criteria.where(NETWORK_ID_FIELD).is(networkSummary.getNetworkId())),
+                    new Update()
+                            .max(TRAFFIC_SIZE_IN_BYTES_FIELD, networkSummary.getTrafficSizeInBytes())
+                            .max(ANOMALY_COUNT_FIELD, networkSummary.getAnomalyCount())
+                            .max(NON_ANOMALY_COUNT_FIELD, networkSummary.getNonAnomalyCount())
+                            .max(LAST_UPDATED_AT_FIELD, networkSummary.getLastUpdatedAt())));
+            final BulkWriteResult bulkWriteResult = bulkOperations.execute();
+            log.debug("saveNetworkSummaries() Network summaries saved for {} networks. Matched: {}, upserted: {}.",
+                    networkSummaries.size(), bulkWriteResult.getMatchedCount(), bulkWriteResult.getUpserts().size());
         } catch (final Exception exception) {
-            log.error("saveNetworkSummary() An error occurred while saving the network summary. Exception: {}", exception.getMessage(), exception);
+            log.error("saveNetworkSummaries() An error occurred while saving the network summaries. Exception: {}", exception.getMessage(), exception);
             throw new AnomalyDetectorException(HttpStatus.INTERNAL_SERVER_ERROR,
                     AnomalyDetectorError.SAVE_NETWORK_SUMMARY_ERROR);
         }
@@ -0,0 +1,147 @@
+package com.tus.anomalydetector.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.tus.anomalydetector.exceptions.AnomalyDetectorException;
+import com.tus.anomalydetector.exceptions.enums.AnomalyDetectorError;
+import com.tus.anomalydetector.models.NetworkTrafficAggregate;
+import com.tus.anomalydetector.models.NetworkTrafficWindow;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Provides the traffic of the networks aggregated into tumbling time windows.
+ *
+ * <p>
+ * The windows are read from the {@value AnomalyDetectorConstants#NETWORK_TRAFFIC_STORE} window store
+ * through Kafka Streams interactive queries, on the instance that owns the partition of the network, found
+ * through the {@link InteractiveQueryService}. A network may have windows on more than one partition,
+ * for example while its records are being repartitioned, so windows with the same start are merged
+ * before they are returned.
+ * </p>
+ */
+@Slf4j
+@Service
+public class NetworkTrafficService {
+
+    private static final Duration DEFAULT_TIME_RANGE = Duration.ofHours(1);
+
+    private static final ParameterizedTypeReference<Map<Long, NetworkTrafficAggregate>> TRAFFIC_AGGREGATES_TYPE = new ParameterizedTypeReference<>() {
+    };
+
+    private final AnomalyDetectionService anomalyDetectionService;
+
+    private final InteractiveQueryService interactiveQueryService;
+
+    /**
+     * Constructs a new NetworkTrafficService.
+     *
+     * @param anomalyDetectionService the service running the Kafka Streams application
+     * @param interactiveQueryService the service routing the queries to the instance hosting the window store
+     */
+    public NetworkTrafficService(final AnomalyDetectionService anomalyDetectionService,
+                                 final InteractiveQueryService interactiveQueryService) {
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.interactiveQueryService = interactiveQueryService;
+    }
+
+    /**
+     * Retrieves the traffic windows of a network that start within a time range, ordered by their start.
+     *
+     * <p>If the end of the range is not given it defaults to now, and if its start is not given it
+     * defaults to one hour before its end.</p>
+     *
+     * @param networkId the ID of the network
+     * @param from      the inclusive start of the time range, may be null
+     * @param to        the inclusive end of the time range, may be null
+     * @return the traffic windows of the network
+     */
+    public List<NetworkTrafficWindow> getNetworkTrafficByNetworkId(final long networkId, final Instant from, final Instant to) {
+        final Instant timeRangeEnd = to == null ? Instant.now() : to;
+        final Instant timeRangeStart = from == null ? timeRangeEnd.minus(DEFAULT_TIME_RANGE) : from;
+        log.info("getNetworkTrafficByNetworkId() Retrieving network traffic for the network with ID: {} from: {} to: {}.",
+                networkId, timeRangeStart, timeRangeEnd);
+        if (timeRangeStart.isAfter(timeRangeEnd)) {
+            log.error("getNetworkTrafficByNetworkId() Invalid time range from: {} to: {}.", timeRangeStart, timeRangeEnd);
+            final String[] errorDetailArgs = {String.valueOf(timeRangeStart), String.valueOf(timeRangeEnd)};
+            throw new AnomalyDetectorException(HttpStatus.BAD_REQUEST,
+                    AnomalyDetectorError.INVALID_TIME_RANGE_ERROR, errorDetailArgs);
+        }
+
+        final long windowSize = this.anomalyDetectionService.getTrafficWindowSize().toMillis();
+        final Map<Long, NetworkTrafficAggregate> aggregates = this.readTrafficAggregates(networkId, timeRangeStart, timeRangeEnd);
+        final List<NetworkTrafficWindow> networkTrafficWindows = new ArrayList<>(aggregates.size());
+        aggregates.forEach((windowStart, aggregate) -> networkTrafficWindows.add(NetworkTrafficWindow.of(windowStart, windowSize, aggregate)));
+        return networkTrafficWindows;
+    }
+
+    /**
+     * Retrieves the traffic aggregates of a network that start within a time range from the partitions
+     * hosted by this instance.
+     *
+     * @param networkId the ID of the network
+     * @param from      the inclusive start of the time range
+     * @param to        the inclusive end of the time range
+     * @return the traffic aggregates of the network keyed by the start of their window, ordered by it
+     */
+    public Map<Long, NetworkTrafficAggregate> getLocalTrafficAggregatesByNetworkId(final long networkId, final Instant from, final Instant to) {
+        log.debug("getLocalTrafficAggregatesByNetworkId() Reading the local traffic aggregates for the network with ID: {} from: {} to: {}.",
+                networkId, from, to);
+        final ReadOnlyWindowStore<Long, NetworkTrafficAggregate> store = this.anomalyDetectionService.getKafkaStreams().store(StoreQueryParameters.fromNameAndType(
+                AnomalyDetectorConstants.NETWORK_TRAFFIC_STORE, QueryableStoreTypes.windowStore()));
+        final Map<Long, NetworkTrafficAggregate> aggregates = new TreeMap<>();
+        try (WindowStoreIterator<NetworkTrafficAggregate> iterator = store.fetch(networkId, from, to)) {
+            while (iterator.hasNext()) {
+                final KeyValue<Long, NetworkTrafficAggregate> entry = iterator.next();
+                aggregates.merge(entry.key, entry.value, (current, other) -> {
+                    current.merge(other);
+                    return current;
+                });
+            }
+        }
+
+        return aggregates;
+    }
+
+    private Map<Long, NetworkTrafficAggregate> readTrafficAggregates(final long networkId, final Instant from, final Instant to) {
+        try {
+            final String remoteUri = UriComponentsBuilder.fromPath(AnomalyDetectorConstants.NETWORK_TRAFFIC_CONTROLLER_URL)
+                    .path(AnomalyDetectorConstants.STATE_STORE_LOCAL_URL + "/network/{networkId}")
+                    .queryParam("from", from)
+                    .queryParam("to", to)
+                    .buildAndExpand(networkId)
+                    .toUriString();
+            final Optional<Map<Long, NetworkTrafficAggregate>> aggregates = this.interactiveQueryService.queryByNetworkId(
+                    AnomalyDetectorConstants.NETWORK_TRAFFIC_STORE, networkId,
+                    () -> this.getLocalTrafficAggregatesByNetworkId(networkId, from, to), remoteUri, TRAFFIC_AGGREGATES_TYPE);
+            if (aggregates.isEmpty()) {
+                throw new IllegalStateException("No instance currently owns the network with ID: " + networkId + ".");
+            }
+
+            return new TreeMap<>(aggregates.get());
+        } catch (final Exception exception) {
+            log.error("readTrafficAggregates() An error occurred while reading the network traffic windows. Exception: {}", exception.getMessage(), exception);
+            final String[] errorDetailArgs = {String.valueOf(networkId)};
+            throw new AnomalyDetectorException(HttpStatus.SERVICE_UNAVAILABLE,
+                    AnomalyDetectorError.GET_NETWORK_TRAFFIC_ERROR, errorDetailArgs);
+        }
+    }
+}
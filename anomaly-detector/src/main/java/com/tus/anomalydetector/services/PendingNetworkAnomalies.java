@@ -0,0 +1,43 @@
+package com.tus.anomalydetector.services;
+
+/**
+ * Counts the network anomalies a stream task has enqueued on the {@link NetworkAnomalySinkService} that
+ * are not durable yet.
+ *
+ * <p>
+ * Each task has its own count, so a task waiting before its commit only waits for its own anomalies,
+ * not for the ones other tasks and stream threads enqueued after them.
+ * </p>
+ */
+public class PendingNetworkAnomalies {
+
+    private long count;
+
+    /**
+     * Returns the number of enqueued anomalies that are not durable yet.
+     *
+     * @return the number of pending anomalies
+     */
+    public synchronized long count() {
+        return this.count;
+    }
+
+    synchronized void add() {
+        this.count++;
+    }
+
+    synchronized void remove() {
+        this.count--;
+        if (this.count == 0) {
+            this.notifyAll();
+        }
+    }
+
+    synchronized boolean awaitNone(final long timeoutMs) throws InterruptedException {
+        if (this.count > 0) {
+            this.wait(timeoutMs);
+        }
+
+        return this.count == 0;
+    }
+}
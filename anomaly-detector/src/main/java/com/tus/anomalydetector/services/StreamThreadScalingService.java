@@ -0,0 +1,254 @@
+package com.tus.anomalydetector.services;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.streams.KafkaStreams;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.tus.anomalydetector.metrics.StreamThreadScalingMetrics;
+
+/**
+ * Adds and removes Kafka Streams threads of the anomaly detector as its consumer lag grows and shrinks.
+ *
+ * <p>
+ * On every evaluation the total consumer lag of the stream threads and their combined process rate are
+ * read from the Kafka Streams metrics. A thread is added when the lag is above the scale-up threshold and
+ * would take longer than the maximum drain time to work off at the current rate, and a thread is removed
+ * when the lag is below the scale-down threshold. The gap between the two thresholds, the number of
+ * consecutive evaluations a condition must hold for, and the cooldown after every change keep the thread
+ * count from flapping on bursty traffic. The thread count always stays within the configured bounds.
+ * </p>
+ *
+ * <p>
+ * Threads beyond the number of input partitions stay idle, so the maximum should not exceed the partition
+ * count of the network messages topic.
+ * </p>
+ *
+ * <p>
+ * Removing a thread waits for it to shut down, so the evaluations run on a dedicated thread rather than the
+ * shared scheduling pool, whose other tasks would otherwise be held up for up to the remove timeout.
+ * </p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "anomaly-detector.stream-thread-scaling.enabled", havingValue = "true")
+public class StreamThreadScalingService {
+
+    private static final String CONSUMER_FETCH_MANAGER_METRICS_GROUP = "consumer-fetch-manager-metrics";
+
+    private static final String RECORDS_LAG_METRIC = "records-lag";
+
+    private static final String STREAM_THREAD_METRICS_GROUP = "stream-thread-metrics";
+
+    private static final String PROCESS_RATE_METRIC = "process-rate";
+
+    private static final String RESTORE_CONSUMER_CLIENT_ID_SUFFIX = "-restore-consumer";
+
+    private static final String SCALE_UP = "up";
+
+    private static final String SCALE_DOWN = "down";
+
+    private final AnomalyDetectionService anomalyDetectionService;
+
+    private final StreamThreadScalingMetrics streamThreadScalingMetrics;
+
+    private final int minThreads;
+
+    private final int maxThreads;
+
+    private final long scaleUpLag;
+
+    private final long scaleDownLag;
+
+    private final Duration maxDrainTime;
+
+    private final int stableEvaluations;
+
+    private final Duration cooldown;
+
+    private final Duration removeTimeout;
+
+    private final long intervalMs;
+
+    private final ScheduledExecutorService scalingExecutor;
+
+    private volatile long consumerLag;
+
+    private volatile double processRate;
+
+    private volatile int streamThreads;
+
+    private int scaleUpEvaluations;
+
+    private int scaleDownEvaluations;
+
+    private long lastScaledAt;
+
+    /**
+     * Constructs a StreamThreadScalingService.
+     *
+     * @param anomalyDetectionService    the service running the Kafka Streams application
+     * @param streamThreadScalingMetrics the metrics in which the lag, rate, thread count and decisions are recorded
+     * @param minThreads                 the minimum number of stream threads
+     * @param maxThreads                 the maximum number of stream threads
+     * @param scaleUpLag                 the consumer lag in records above which a thread may be added
+     * @param scaleDownLag               the consumer lag in records below which a thread may be removed
+     * @param maxDrainTimeMs             the time in milliseconds the lag may take to work off before a thread is added
+     * @param stableEvaluations          the number of consecutive evaluations a condition must hold before acting on it
+     * @param cooldownMs                 the time in milliseconds after a change during which no other change is made
+     * @param removeTimeoutMs            the time in milliseconds to wait for a removed thread to shut down
+     * @param intervalMs                 the time in milliseconds between two evaluations
+     */
+    public StreamThreadScalingService(final AnomalyDetectionService anomalyDetectionService,
+                                      final StreamThreadScalingMetrics streamThreadScalingMetrics,
+                                      @Value("${anomaly-detector.stream-thread-scaling.min-threads}") final int minThreads,
+                                      @Value("${anomaly-detector.stream-thread-scaling.max-threads}") final int maxThreads,
+                                      @Value("${anomaly-detector.stream-thread-scaling.scale-up-lag}") final long scaleUpLag,
+                                      @Value("${anomaly-detector.stream-thread-scaling.scale-down-lag}") final long scaleDownLag,
+                                      @Value("${anomaly-detector.stream-thread-scaling.max-drain-time-ms}") final long maxDrainTimeMs,
+                                      @Value("${anomaly-detector.stream-thread-scaling.stable-evaluations}") final int stableEvaluations,
+                                      @Value("${anomaly-detector.stream-thread-scaling.cooldown-ms}") final long cooldownMs,
+                                      @Value("${anomaly-detector.stream-thread-scaling.remove-timeout-ms}") final long removeTimeoutMs,
+                                      @Value("${anomaly-detector.stream-thread-scaling.interval-ms}") final long intervalMs) {
+        if (minThreads < 1 || maxThreads < minThreads) {
+            throw new IllegalArgumentException("Stream thread bounds must satisfy 1 <= min <= max but were min: "
+                    + minThreads + ", max: " + maxThreads + ".");
+        }
+
+        if (scaleDownLag >= scaleUpLag) {
+            throw new IllegalArgumentException("The scale-down lag: " + scaleDownLag + " must be below the scale-up lag: " + scaleUpLag + ".");
+        }
+
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.streamThreadScalingMetrics = streamThreadScalingMetrics;
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+        this.scaleUpLag = scaleUpLag;
+        this.scaleDownLag = scaleDownLag;
+        this.maxDrainTime = Duration.ofMillis(maxDrainTimeMs);
+        this.stableEvaluations = stableEvaluations;
+        this.cooldown = Duration.ofMillis(cooldownMs);
+        this.removeTimeout = Duration.ofMillis(removeTimeoutMs);
+        this.intervalMs = intervalMs;
+        this.scalingExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "stream-thread-scaling");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.streamThreadScalingMetrics.registerStreamThreadScalingGauges(() -> this.consumerLag, () -> this.processRate, () -> this.streamThreads);
+    }
+
+    /**
+     * Starts evaluating the stream threads on the scaling thread.
+     */
+    @PostConstruct
+    public void start() {
+        this.scalingExecutor.scheduleWithFixedDelay(this::runEvaluation, this.intervalMs, this.intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the evaluations. A thread removal in flight is interrupted.
+     */
+    @PreDestroy
+    public void stop() {
+        this.scalingExecutor.shutdownNow();
+    }
+
+    /**
+     * Reads the consumer lag and process rate of the stream threads and adds or removes a thread if needed.
+     *
+     * <p>Nothing is changed unless Kafka Streams is running, so threads are never added or removed during a rebalance.</p>
+     */
+    public void evaluate() {
+        final KafkaStreams kafkaStreams = this.anomalyDetectionService.getKafkaStreams();
+        if (kafkaStreams == null || kafkaStreams.state() != KafkaStreams.State.RUNNING) {
+            return;
+        }
+
+        this.readMetrics(kafkaStreams.metrics());
+        this.streamThreads = kafkaStreams.metadataForLocalThreads().size();
+
+        final boolean lagging = this.consumerLag > this.scaleUpLag && this.drainTime().compareTo(this.maxDrainTime) > 0;
+        this.scaleUpEvaluations = lagging ? this.scaleUpEvaluations + 1 : 0;
+        this.scaleDownEvaluations = this.consumerLag < this.scaleDownLag ? this.scaleDownEvaluations + 1 : 0;
+
+        if (System.currentTimeMillis() - this.lastScaledAt < this.cooldown.toMillis()) {
+            return;
+        }
+
+        if (this.scaleUpEvaluations >= this.stableEvaluations && this.streamThreads < this.maxThreads) {
+            final Optional<String> added = kafkaStreams.addStreamThread();
+            added.ifPresent(threadName -> this.scaled(SCALE_UP, threadName));
+        } else if (this.scaleDownEvaluations >= this.stableEvaluations && this.streamThreads > this.minThreads) {
+            final Optional<String> removed = kafkaStreams.removeStreamThread(this.removeTimeout);
+            removed.ifPresent(threadName -> this.scaled(SCALE_DOWN, threadName));
+        }
+    }
+
+    private void runEvaluation() {
+        // A failed evaluation must not cancel the following ones.
+        try {
+            this.evaluate();
+        } catch (final RuntimeException exception) {
+            log.error("runEvaluation() Failed to evaluate the stream threads. Exception: {}", exception.getMessage(), exception);
+        }
+    }
+
+    private void readMetrics(final Map<MetricName, ? extends Metric> metrics) {
+        long lag = 0;
+        double rate = 0;
+        for (final Map.Entry<MetricName, ? extends Metric> metric : metrics.entrySet()) {
+            final MetricName metricName = metric.getKey();
+            if (CONSUMER_FETCH_MANAGER_METRICS_GROUP.equals(metricName.group()) && RECORDS_LAG_METRIC.equals(metricName.name())
+                    && metricName.tags().containsKey("partition")
+                    && !metricName.tags().getOrDefault("client-id", "").endsWith(RESTORE_CONSUMER_CLIENT_ID_SUFFIX)) {
+                lag += (long) toDouble(metric.getValue().metricValue());
+            } else if (STREAM_THREAD_METRICS_GROUP.equals(metricName.group()) && PROCESS_RATE_METRIC.equals(metricName.name())) {
+                rate += toDouble(metric.getValue().metricValue());
+            }
+        }
+
+        this.consumerLag = lag;
+        this.processRate = rate;
+    }
+
+    private Duration drainTime() {
+        if (this.processRate <= 0) {
+            return Duration.ofMillis(Long.MAX_VALUE);
+        }
+
+        return Duration.ofMillis((long) (this.consumerLag / this.processRate * 1000));
+    }
+
+    private void scaled(final String direction, final String threadName) {
+        this.lastScaledAt = System.currentTimeMillis();
+        this.scaleUpEvaluations = 0;
+        this.scaleDownEvaluations = 0;
+        this.streamThreadScalingMetrics.recordStreamThreadScaling(direction);
+        log.info("scaled() Scaled stream threads {} with thread: {}. Consumer lag: {}, process rate: {}/s, threads before: {}.",
+                direction, threadName, this.consumerLag, this.processRate, this.streamThreads);
+    }
+
+    private static double toDouble(final Object metricValue) {
+        if (metricValue instanceof Number number && !Double.isNaN(number.doubleValue())) {
+            return number.doubleValue();
+        }
+
+        return 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.tus.anomalydetector.streams;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+
+/**
+ * Runs a callback of a processor right before the offsets of its task are committed.
+ *
+ * <p>
+ * The hook is a wall-clock punctuation scheduled at the commit interval of the application. A stream
+ * thread runs its due punctuations after processing a batch of records and before it checks whether to
+ * commit, so when the callback agrees, the hook requests a commit with {@link ProcessorContext#commit()}
+ * and the commit that follows covers exactly the records the callback has seen. Only the public
+ * Processor API is used.
+ * </p>
+ *
+ * <p>
+ * The interval commits of Kafka Streams are not aligned with the hook, so an interval commit may still
+ * cover the records processed since the hook last ran. Processors therefore also run their callback when
+ * they are closed, which Kafka Streams does before the final commit of a task that is revoked or shut down.
+ * </p>
+ */
+public final class CommitHook {
+
+    private CommitHook() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Schedules a callback to run before the commits of the task of a processor.
+     *
+     * @param context  the context of the processor
+     * @param interval the commit interval of the application
+     * @param callback the callback that prepares the state of the processor for a commit and returns whether the task may commit
+     */
+    public static void schedule(final ProcessorContext<?, ?> context, final Duration interval, final BooleanSupplier callback) {
+        context.schedule(interval, PunctuationType.WALL_CLOCK_TIME, timestamp -> {
+            if (callback.getAsBoolean()) {
+                context.commit();
+            }
+        });
+    }
+}
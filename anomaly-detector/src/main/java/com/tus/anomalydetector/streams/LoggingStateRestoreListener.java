@@ -0,0 +1,38 @@
+package com.tus.anomalydetector.streams;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.streams.processor.StateRestoreListener;
+
+/**
+ * State restore listener that logs the progress of state store restoration.
+ *
+ * <p>
+ * Restoration from a changelog only happens when a task's local state is missing or out of date,
+ * for example after it moved to another instance. The logs make it visible how long a restore takes.
+ * </p>
+ */
+@Slf4j
+public class LoggingStateRestoreListener implements StateRestoreListener {
+
+    @Override
+    public void onRestoreStart(final TopicPartition topicPartition, final String storeName,
+                               final long startingOffset, final long endingOffset) {
+        log.info("onRestoreStart() Restoring state store: {} from changelog partition: {}. Records to restore: {}.",
+                storeName, topicPartition, endingOffset - startingOffset);
+    }
+
+    @Override
+    public void onBatchRestored(final TopicPartition topicPartition, final String storeName,
+                                final long batchEndOffset, final long numRestored) {
+        log.debug("onBatchRestored() Restored batch of {} records for state store: {} from changelog partition: {}.",
+                numRestored, storeName, topicPartition);
+    }
+
+    @Override
+    public void onRestoreEnd(final TopicPartition topicPartition, final String storeName, final long totalRestored) {
+        log.info("onRestoreEnd() Restored state store: {} from changelog partition: {}. Records restored: {}.",
+                storeName, topicPartition, totalRestored);
+    }
+}
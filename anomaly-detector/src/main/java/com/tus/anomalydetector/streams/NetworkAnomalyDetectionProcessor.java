@@ -0,0 +1,567 @@
+package com.tus.anomalydetector.streams;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.TaskId;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+
+import org.bson.types.ObjectId;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+import com.tus.anomalydetector.detectors.DetectionContext;
+import com.tus.anomalydetector.detectors.DetectorChain;
+import com.tus.anomalydetector.detectors.DetectorState;
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+import com.tus.anomalydetector.metrics.NetworkIncidentMetrics;
+import com.tus.anomalydetector.models.NetworkIncidentStatus;
+import com.tus.anomalydetector.models.NetworkTrafficAggregate;
+import com.tus.anomalydetector.models.QuantileSketch;
+import com.tus.anomalydetector.models.RollingStatisticsWindow;
+import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
+import com.tus.anomalydetector.persistence.documents.NetworkIncident;
+import com.tus.anomalydetector.persistence.documents.NetworkSummary;
+import com.tus.anomalydetector.persistence.repositories.NetworkDetectorConfigRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkStatisticsRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkStatisticsShard;
+import com.tus.anomalydetector.services.NetworkAnomalySinkService;
+import com.tus.anomalydetector.services.NetworkEventService;
+import com.tus.anomalydetector.services.NetworkIncidentAggregationService;
+import com.tus.anomalydetector.services.NetworkSummaryAggregationService;
+import com.tus.anomalydetector.services.PendingNetworkAnomalies;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Kafka Streams processor that detects anomalies in network messages.
+ *
+ * <p>
+ * One processor instance runs per stream task. On initialization it opens the network statistics
+ * shard of its task and closes it again when the task is closed, so the statistics of a partition
+ * are only ever touched by the stream thread that currently owns the partition.
+ * </p>
+ *
+ * <p>
+ * Whether a message is an anomaly is decided by the {@link DetectorChain}, so detectors are added
+ * or disabled without changing the processor or the topology.
+ * </p>
+ *
+ * <p>
+ * The shard is checkpointed into the {@value AnomalyDetectorConstants#NETWORK_STATISTICS_STORE} and
+ * {@value AnomalyDetectorConstants#NETWORK_QUANTILES_STORE} state stores by a {@link CommitHook} before
+ * the task commits, so the committed offsets do not run ahead of the checkpointed statistics, and the statistics are restored from the store
+ * or its changelog after a restart or rebalance instead of starting from zero. The shard is also
+ * checkpointed on a wall-clock interval, which bounds the staleness of the statistics served to
+ * interactive queries, and when the processor is closed.
+ * </p>
+ *
+ * <p>
+ * Detected anomalies are written asynchronously by the {@link NetworkAnomalySinkService}. The anomalies
+ * the task enqueued are counted in its own {@link PendingNetworkAnomalies}, and the commit hook only
+ * requests a commit once they are durable, so the offsets of their records are not committed before
+ * the anomalies are written. If they are not durable within the commit timeout of the sink, the hook
+ * skips the commit and waits again at the next commit interval. The processor also waits for them when
+ * it is closed, before the final commit of the task.
+ * </p>
+ *
+ * <p>
+ * The network summaries of the task are kept in the {@value AnomalyDetectorConstants#NETWORK_SUMMARIES_STORE}.
+ * A network without a summary in the store, because it is new or its partition moved, starts from zero
+ * rather than reading MongoDB on the stream thread. Its persisted totals are loaded in bulk with the other
+ * new networks of the task by the {@link NetworkSummaryAggregationService}, and added to its summary on a
+ * wall-clock punctuation once they arrive. A closing task waits for the totals still missing, so they are in
+ * the store before its final commit.
+ * </p>
+ *
+ * <p>
+ * Every message is also added to the tumbling traffic window of its network in the
+ * {@value AnomalyDetectorConstants#NETWORK_TRAFFIC_STORE} window store. A window accepts messages until
+ * the stream time passes its end by the grace period; later messages are counted and left out.
+ * </p>
+ *
+ * <p>
+ * In incident mode, consecutive anomalies of a network are coalesced into one {@link NetworkIncident}
+ * instead of being written one by one. The open incident of each network is kept in the
+ * {@value AnomalyDetectorConstants#NETWORK_INCIDENTS_STORE} state store and updated in place, and it is
+ * closed once the stream time passes its latest anomaly by the quiet period. A closed incident moves to
+ * the {@value AnomalyDetectorConstants#NETWORK_CLOSED_INCIDENTS_STORE} state store, where it stays until
+ * the {@link NetworkIncidentAggregationService} acknowledges that it has been written, and the closed
+ * incidents still in that store are recorded again when a task is restored on this or another instance.
+ * </p>
+ *
+ * <p>
+ * Anomalous messages are forwarded downstream keyed by the location of their network, or by
+ * {@value AnomalyDetectorConstants#UNKNOWN_LOCATION} if it has none, so that anomalies can be correlated
+ * across networks.
+ * </p>
+ *
+ * <p>
+ * Each record is processed in a span that continues the trace propagated in its headers. For sampled
+ * records, the detector chain and the persistence of an anomaly get child spans, and the sink records
+ * the MongoDB bulk write of the anomaly under the persist span.
+ * </p>
+ */
+@Slf4j
+public class NetworkAnomalyDetectionProcessor implements Processor<String, NetworkMessage, String, NetworkMessage> {
+
+    private static final long SEED_CLOSE_TIMEOUT_MS = 10_000;
+
+    private final NetworkSummaryAggregationService networkSummaryAggregationService;
+
+    private final NetworkStatisticsRepository networkStatisticsRepository;
+
+    private final NetworkDetectorConfigRepository networkDetectorConfigRepository;
+
+    private final NetworkAnomalySinkService networkAnomalySinkService;
+
+    private final NetworkIncidentAggregationService networkIncidentAggregationService;
+
+    private final NetworkEventService networkEventService;
+
+    private final DetectorChain detectorChain;
+
+    private final AnomalyDetectionMetrics anomalyDetectionMetrics;
+
+    private final NetworkIncidentMetrics networkIncidentMetrics;
+
+    private final NetworkMessageTracing networkMessageTracing;
+
+    private final Duration commitInterval;
+
+    private final Duration checkpointInterval;
+
+    private final boolean networkQuantilesEnabled;
+
+    private final long trafficWindowSizeMs;
+
+    private final long trafficWindowGraceMs;
+
+    private final boolean networkIncidentsEnabled;
+
+    private final long incidentQuietPeriodMs;
+
+    private final Duration incidentCloseInterval;
+
+    private ProcessorContext<String, NetworkMessage> context;
+
+    private TaskId taskId;
+
+    private NetworkStatisticsShard networkStatisticsShard;
+
+    private DetectionContext detectionContext;
+
+    private PendingNetworkAnomalies pendingNetworkAnomalies;
+
+    private boolean maintainNetworkStatistics;
+
+    private boolean maintainNetworkQuantiles;
+
+    private KeyValueStore<Long, NetworkSummary> networkSummaryStore;
+
+    private Set<Long> unseededNetworkIds;
+
+    private Set<Long> seedingNetworkIds;
+
+    private CompletableFuture<Map<Long, NetworkSummary>> networkSummarySeeds;
+
+    private WindowStore<Long, NetworkTrafficAggregate> trafficStore;
+
+    private KeyValueStore<Long, NetworkIncident> incidentStore;
+
+    private KeyValueStore<String, NetworkIncident> closedIncidentStore;
+
+    /**
+     * Constructs a {@code NetworkAnomalyDetectionProcessor} with the required dependencies.
+     *
+     * @param networkSummaryAggregationService the service that aggregates and flushes network summaries
+     * @param networkStatisticsRepository      the repository of the network statistics shards
+     * @param networkDetectorConfigRepository  the repository of the per-network detector thresholds
+     * @param networkAnomalySinkService        the sink that writes detected network anomalies
+     * @param networkIncidentAggregationService the service that collects and flushes network incidents
+     * @param networkEventService              the service that pushes summary changes to the network event subscribers
+     * @param detectorChain                    the chain of detectors evaluated for every message
+     * @param anomalyDetectionMetrics          the metrics of the detection pipeline
+     * @param networkIncidentMetrics           the metrics in which opened and closed incidents are counted
+     * @param networkMessageTracing            the tracing of the network messages
+     * @param commitInterval                   the interval at which the offsets of the task are committed
+     * @param checkpointInterval               the interval at which the statistics are written to the state store
+     * @param networkQuantilesEnabled          whether the quantile sketches are maintained even if no detector requires them
+     * @param trafficWindowSize                the size of the tumbling traffic windows
+     * @param trafficWindowGrace               how long a traffic window accepts out-of-order messages after it ends
+     * @param networkIncidentsEnabled          whether anomalies are coalesced into incidents instead of being written one by one
+     * @param incidentQuietPeriod              how long a network has to be free of anomalies before its incident is closed
+     * @param incidentCloseInterval            the interval at which incidents are checked for their quiet period
+     */
+    public NetworkAnomalyDetectionProcessor(final NetworkSummaryAggregationService networkSummaryAggregationService,
+                                            final NetworkStatisticsRepository networkStatisticsRepository,
+                                            final NetworkDetectorConfigRepository networkDetectorConfigRepository,
+                                            final NetworkAnomalySinkService networkAnomalySinkService,
+                                            final NetworkIncidentAggregationService networkIncidentAggregationService,
+                                            final NetworkEventService networkEventService,
+                                            final DetectorChain detectorChain,
+                                            final AnomalyDetectionMetrics anomalyDetectionMetrics,
+                                            final NetworkIncidentMetrics networkIncidentMetrics,
+                                            final NetworkMessageTracing networkMessageTracing,
+                                            final Duration commitInterval,
+                                            final Duration checkpointInterval,
+                                            final boolean networkQuantilesEnabled,
+                                            final Duration trafficWindowSize,
+                                            final Duration trafficWindowGrace,
+                                            final boolean networkIncidentsEnabled,
+                                            final Duration incidentQuietPeriod,
+                                            final Duration incidentCloseInterval) {
+        this.networkSummaryAggregationService = networkSummaryAggregationService;
+        this.networkStatisticsRepository = networkStatisticsRepository;
+        this.networkDetectorConfigRepository = networkDetectorConfigRepository;
+        this.networkAnomalySinkService = networkAnomalySinkService;
+        this.networkIncidentAggregationService = networkIncidentAggregationService;
+        this.networkEventService = networkEventService;
+        this.detectorChain = detectorChain;
+        this.anomalyDetectionMetrics = anomalyDetectionMetrics;
+        this.networkIncidentMetrics = networkIncidentMetrics;
+        this.networkMessageTracing = networkMessageTracing;
+        this.commitInterval = commitInterval;
+        this.checkpointInterval = checkpointInterval;
+        this.networkQuantilesEnabled = networkQuantilesEnabled;
+        this.trafficWindowSizeMs = trafficWindowSize.toMillis();
+        this.trafficWindowGraceMs = trafficWindowGrace.toMillis();
+        this.networkIncidentsEnabled = networkIncidentsEnabled;
+        this.incidentQuietPeriodMs = incidentQuietPeriod.toMillis();
+        this.incidentCloseInterval = incidentCloseInterval;
+    }
+
+    /**
+     * Opens the network statistics shard of the task this processor runs in and schedules its checkpoints and
+     * the commit hook of the task.
+     *
+     * @param context the processor context
+     */
+    @Override
+    public void init(final ProcessorContext<String, NetworkMessage> context) {
+        this.context = context;
+        this.taskId = context.taskId();
+        final KeyValueStore<Long, RollingStatisticsWindow> store = context.getStateStore(AnomalyDetectorConstants.NETWORK_STATISTICS_STORE);
+        final KeyValueStore<Long, QuantileSketch> quantileSketchStore = context.getStateStore(AnomalyDetectorConstants.NETWORK_QUANTILES_STORE);
+        this.networkStatisticsShard = this.networkStatisticsRepository.openShard(this.taskId, store, quantileSketchStore);
+        this.networkSummaryStore = context.getStateStore(AnomalyDetectorConstants.NETWORK_SUMMARIES_STORE);
+        this.unseededNetworkIds = new HashSet<>();
+        this.trafficStore = context.getStateStore(AnomalyDetectorConstants.NETWORK_TRAFFIC_STORE);
+        this.detectionContext = new DetectionContext(this.networkStatisticsShard, this.networkDetectorConfigRepository);
+        this.maintainNetworkStatistics = this.detectorChain.requires(DetectorState.NETWORK_STATISTICS);
+        this.maintainNetworkQuantiles = this.networkQuantilesEnabled || this.detectorChain.requires(DetectorState.NETWORK_QUANTILES);
+        context.schedule(this.checkpointInterval, PunctuationType.WALL_CLOCK_TIME, timestamp -> this.networkStatisticsShard.checkpoint());
+        context.schedule(this.checkpointInterval, PunctuationType.WALL_CLOCK_TIME, timestamp -> this.seedNetworkSummaries());
+        this.pendingNetworkAnomalies = new PendingNetworkAnomalies();
+        CommitHook.schedule(context, this.commitInterval, this::prepareCommit);
+        if (this.networkIncidentsEnabled) {
+            this.incidentStore = context.getStateStore(AnomalyDetectorConstants.NETWORK_INCIDENTS_STORE);
+            this.closedIncidentStore = context.getStateStore(AnomalyDetectorConstants.NETWORK_CLOSED_INCIDENTS_STORE);
+            this.recordClosedIncidents();
+            context.schedule(this.incidentCloseInterval, PunctuationType.WALL_CLOCK_TIME, timestamp -> this.closeQuietIncidents());
+        }
+    }
+
+    /**
+     * Processes a network message.
+     *
+     * <p>
+     * This method saves the traffic statistics and quantile sketches if they are required, evaluates the
+     * {@link DetectorChain}, records the message in the network traffic summaries, both the ones flushed
+     * to MongoDB and the queryable ones in the {@value AnomalyDetectorConstants#NETWORK_SUMMARIES_STORE},
+     * and adds it to its traffic window. Anomalous messages are forwarded for correlation. The time spent
+     * in each of these stages is recorded in the {@link AnomalyDetectionMetrics}, and in spans if the
+     * record is sampled.
+     * </p>
+     *
+     * @param networkMessageRecord the record containing the network message
+     */
+    @Override
+    public void process(final Record<String, NetworkMessage> networkMessageRecord) {
+        final Span span = this.networkMessageTracing.startProcessSpan(networkMessageRecord.headers());
+        try (Tracer.SpanInScope ignored = this.networkMessageTracing.withSpan(span)) {
+            this.process(networkMessageRecord, span);
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Checkpoints and closes the network statistics shard of the task this processor runs in, after waiting
+     * for the anomalies of the task to be written and the persisted totals of its new networks to be loaded.
+     */
+    @Override
+    public void close() {
+        this.awaitNetworkSummarySeeds();
+        if (!this.prepareCommit()) {
+            log.warn("close() Closing task: {} with {} network anomalies not yet written.", this.taskId, this.pendingNetworkAnomalies.count());
+        }
+
+        this.networkStatisticsRepository.closeShard(this.taskId);
+    }
+
+    private boolean prepareCommit() {
+        this.networkStatisticsShard.checkpoint();
+        return this.networkAnomalySinkService.awaitDurable(this.pendingNetworkAnomalies);
+    }
+
+    private void process(final Record<String, NetworkMessage> networkMessageRecord, final Span span) {
+        final NetworkMessage networkMessage = networkMessageRecord.value();
+        log.debug("process() Message received. Task: {}. Message: {}.", this.taskId, networkMessage);
+
+        final long start = System.nanoTime();
+        if (this.maintainNetworkStatistics) {
+            this.networkStatisticsShard.save(networkMessage);
+        }
+
+        if (this.maintainNetworkQuantiles) {
+            this.networkStatisticsShard.saveQuantiles(networkMessage);
+        }
+
+        final long statisticsUpdated = System.nanoTime();
+        this.anomalyDetectionMetrics.recordStatisticsUpdate(statisticsUpdated - start);
+
+        final Span detectSpan = this.networkMessageTracing.startChildSpan(span, AnomalyDetectorConstants.DETECT_SPAN);
+        this.detectionContext.reset(networkMessage);
+        final boolean isAnomaly = this.detectorChain.detect(this.detectionContext) != null;
+        detectSpan.tag("anomaly", isAnomaly);
+        detectSpan.end();
+        long stageEnd = System.nanoTime();
+        this.anomalyDetectionMetrics.recordThresholdEvaluation(stageEnd - statisticsUpdated);
+        this.anomalyDetectionMetrics.recordEndToEndLatency(networkMessage.getTimestamp());
+
+        if (isAnomaly) {
+            final long anomalyPersistStart = stageEnd;
+            final Span persistSpan = this.networkMessageTracing.startChildSpan(span, AnomalyDetectorConstants.PERSIST_SPAN);
+            if (this.networkIncidentsEnabled) {
+                this.recordIncident(networkMessageRecord.timestamp(), networkMessage);
+            } else {
+                this.saveNetworkAnomaly(networkMessageRecord.timestamp(), networkMessage, persistSpan);
+            }
+
+            persistSpan.end();
+            stageEnd = System.nanoTime();
+            this.anomalyDetectionMetrics.recordAnomalyPersist(stageEnd - anomalyPersistStart);
+            this.forwardAnomaly(networkMessageRecord);
+        }
+
+        this.updateNetworkSummary(networkMessage, isAnomaly);
+        final long summaryPersisted = System.nanoTime();
+        this.anomalyDetectionMetrics.recordSummaryPersist(summaryPersisted - stageEnd);
+
+        this.aggregateTraffic(networkMessageRecord.timestamp(), networkMessage, isAnomaly);
+        this.anomalyDetectionMetrics.recordTrafficAggregate(System.nanoTime() - summaryPersisted);
+    }
+
+    private void updateNetworkSummary(final NetworkMessage networkMessage, final boolean isAnomaly) {
+        NetworkSummary networkSummary = this.networkSummaryStore.get(networkMessage.getNetworkId());
+        if (networkSummary == null) {
+            networkSummary = NetworkSummary.builder().networkId(networkMessage.getNetworkId()).build();
+            this.unseededNetworkIds.add(networkMessage.getNetworkId());
+        }
+
+        networkSummary.setTrafficSizeInBytes(networkSummary.getTrafficSizeInBytes() + networkMessage.getSizeInBytes());
+        if (isAnomaly) {
+            networkSummary.setAnomalyCount(networkSummary.getAnomalyCount() + 1);
+        } else {
+            networkSummary.setNonAnomalyCount(networkSummary.getNonAnomalyCount() + 1);
+        }
+
+        networkSummary.setLastUpdatedAt(Instant.now());
+        this.networkSummaryStore.put(networkMessage.getNetworkId(), networkSummary);
+        this.networkSummaryAggregationService.record(networkSummary);
+        this.networkEventService.recordNetworkSummary(networkSummary);
+    }
+
+    private void seedNetworkSummaries() {
+        if (this.networkSummarySeeds != null) {
+            if (!this.networkSummarySeeds.isDone()) {
+                return;
+            }
+
+            this.applyNetworkSummarySeeds();
+        }
+
+        if (!this.unseededNetworkIds.isEmpty()) {
+            this.seedingNetworkIds = Set.copyOf(this.unseededNetworkIds);
+            this.networkSummarySeeds = this.networkSummaryAggregationService.loadNetworkSummaries(this.seedingNetworkIds);
+        }
+    }
+
+    private void applyNetworkSummarySeeds() {
+        final Map<Long, NetworkSummary> seeds;
+        try {
+            seeds = this.networkSummarySeeds.join();
+        } catch (final RuntimeException exception) {
+            log.warn("applyNetworkSummarySeeds() Failed to load the persisted summaries of {} networks of task: {}, retrying. Exception: {}",
+                    this.seedingNetworkIds.size(), this.taskId, exception.getMessage());
+            return;
+        } finally {
+            this.networkSummarySeeds = null;
+        }
+
+        this.unseededNetworkIds.removeAll(this.seedingNetworkIds);
+        seeds.forEach((networkId, seed) -> {
+            final NetworkSummary networkSummary = this.networkSummaryStore.get(networkId);
+            if (networkSummary == null) {
+                return;
+            }
+
+            networkSummary.setTrafficSizeInBytes(networkSummary.getTrafficSizeInBytes() + seed.getTrafficSizeInBytes());
+            networkSummary.setAnomalyCount(networkSummary.getAnomalyCount() + seed.getAnomalyCount());
+            networkSummary.setNonAnomalyCount(networkSummary.getNonAnomalyCount() + seed.getNonAnomalyCount());
+            this.networkSummaryStore.put(networkId, networkSummary);
+            this.networkSummaryAggregationService.record(networkSummary);
+            this.networkEventService.recordNetworkSummary(networkSummary);
+        });
+    }
+
+    private void awaitNetworkSummarySeeds() {
+        if (this.unseededNetworkIds.isEmpty()) {
+            return;
+        }
+
+        // Totals requested earlier may miss the networks seen since, so all networks still unseeded are loaded again.
+        this.seedingNetworkIds = Set.copyOf(this.unseededNetworkIds);
+        this.networkSummarySeeds = this.networkSummaryAggregationService.loadNetworkSummaries(this.seedingNetworkIds);
+        try {
+            this.networkSummarySeeds.get(SEED_CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException | TimeoutException exception) {
+            log.warn("awaitNetworkSummarySeeds() Closing task: {} without the persisted summaries of {} networks. Exception: {}",
+                    this.taskId, this.seedingNetworkIds.size(), exception.getMessage());
+            return;
+        }
+
+        this.applyNetworkSummarySeeds();
+    }
+
+    private void aggregateTraffic(final long timestamp, final NetworkMessage networkMessage, final boolean isAnomaly) {
+        final long windowStart = timestamp - Math.floorMod(timestamp, this.trafficWindowSizeMs);
+        if (windowStart + this.trafficWindowSizeMs + this.trafficWindowGraceMs <= this.context.currentStreamTimeMs()) {
+            log.debug("aggregateTraffic() Traffic window starting at: {} already closed. Message: {}.", windowStart, networkMessage);
+            this.anomalyDetectionMetrics.recordLateTrafficRecord();
+            return;
+        }
+
+        NetworkTrafficAggregate aggregate = this.trafficStore.fetch(networkMessage.getNetworkId(), windowStart);
+        if (aggregate == null) {
+            aggregate = new NetworkTrafficAggregate();
+        }
+
+        aggregate.add(networkMessage.getSizeInBytes(), isAnomaly);
+        this.trafficStore.put(networkMessage.getNetworkId(), aggregate, windowStart);
+    }
+
+    private void recordIncident(final long timestamp, final NetworkMessage networkMessage) {
+        NetworkIncident networkIncident = this.incidentStore.get(networkMessage.getNetworkId());
+        if (networkIncident != null && timestamp - networkIncident.getEndTime().toEpochMilli() > this.incidentQuietPeriodMs) {
+            this.closeIncident(networkIncident);
+            networkIncident = null;
+        }
+
+        if (networkIncident == null) {
+            networkIncident = NetworkIncident.builder()
+                    .id(new ObjectId().toHexString())
+                    .networkId(networkMessage.getNetworkId())
+                    .status(NetworkIncidentStatus.OPEN)
+                    .build();
+            this.networkIncidentMetrics.recordNetworkIncident(NetworkIncidentStatus.OPEN);
+        }
+
+        networkIncident.add(networkMessage.getSizeInBytes(), Instant.ofEpochMilli(timestamp));
+        this.incidentStore.put(networkMessage.getNetworkId(), networkIncident);
+        this.networkIncidentAggregationService.record(networkIncident);
+    }
+
+    private void recordClosedIncidents() {
+        // Closes that were not acknowledged before the task was closed or its instance died are written again.
+        int closedIncidents = 0;
+        try (KeyValueIterator<String, NetworkIncident> iterator = this.closedIncidentStore.all()) {
+            while (iterator.hasNext()) {
+                this.networkIncidentAggregationService.record(iterator.next().value);
+                closedIncidents++;
+            }
+        }
+
+        if (closedIncidents > 0) {
+            log.info("recordClosedIncidents() Recorded {} closed incidents of task: {} that were not acknowledged.", closedIncidents, this.taskId);
+        }
+    }
+
+    private void closeQuietIncidents() {
+        this.removeAcknowledgedIncidents();
+        final long quietSince = this.context.currentStreamTimeMs() - this.incidentQuietPeriodMs;
+        final List<NetworkIncident> quietIncidents = new ArrayList<>();
+        try (KeyValueIterator<Long, NetworkIncident> iterator = this.incidentStore.all()) {
+            while (iterator.hasNext()) {
+                final KeyValue<Long, NetworkIncident> entry = iterator.next();
+                if (entry.value.getEndTime().toEpochMilli() < quietSince) {
+                    quietIncidents.add(entry.value);
+                }
+            }
+        }
+
+        quietIncidents.forEach(this::closeIncident);
+    }
+
+    private void removeAcknowledgedIncidents() {
+        final List<String> acknowledgedIds = new ArrayList<>();
+        try (KeyValueIterator<String, NetworkIncident> iterator = this.closedIncidentStore.all()) {
+            while (iterator.hasNext()) {
+                final String networkIncidentId = iterator.next().key;
+                if (this.networkIncidentAggregationService.acknowledge(networkIncidentId)) {
+                    acknowledgedIds.add(networkIncidentId);
+                }
+            }
+        }
+
+        acknowledgedIds.forEach(this.closedIncidentStore::delete);
+    }
+
+    private void closeIncident(final NetworkIncident networkIncident) {
+        log.info("closeIncident() Closing incident: {} of network: {} after {} anomalies.", networkIncident.getId(),
+                networkIncident.getNetworkId(), networkIncident.getAnomalyCount());
+        this.incidentStore.delete(networkIncident.getNetworkId());
+        networkIncident.setStatus(NetworkIncidentStatus.CLOSED);
+        networkIncident.setClosedAt(Instant.now());
+        this.closedIncidentStore.put(networkIncident.getId(), networkIncident);
+        this.networkIncidentAggregationService.record(networkIncident);
+        this.networkIncidentMetrics.recordNetworkIncident(NetworkIncidentStatus.CLOSED);
+    }
+
+    private void forwardAnomaly(final Record<String, NetworkMessage> networkMessageRecord) {
+        final String location = networkMessageRecord.value().getLocation();
+        this.context.forward(networkMessageRecord.withKey(location == null ? AnomalyDetectorConstants.UNKNOWN_LOCATION : location));
+    }
+
+    private void saveNetworkAnomaly(final long timestamp, final NetworkMessage networkMessage, final Span persistSpan) {
+        // The time field of the time-series collection is required, so messages without a timestamp fall back to the record time.
+        final Instant anomalyTimestamp = networkMessage.getTimestamp() != null ? networkMessage.getTimestamp() : Instant.ofEpochMilli(timestamp);
+        this.networkAnomalySinkService.enqueue(
+                NetworkAnomaly.builder().networkId(networkMessage.getNetworkId()).sizeInBytes(networkMessage.getSizeInBytes()).timestamp(anomalyTimestamp).build(),
+                persistSpan.isNoop() ? null : persistSpan.context(),
+                this.pendingNetworkAnomalies
+        );
+    }
+}
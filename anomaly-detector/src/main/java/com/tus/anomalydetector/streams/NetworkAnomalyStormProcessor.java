@@ -0,0 +1,230 @@
+package com.tus.anomalydetector.streams;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.WindowStore;
+
+import com.tus.anomalydetector.metrics.NetworkAnomalyStormMetrics;
+import com.tus.anomalydetector.models.AnomalousNetworkSketch;
+import com.tus.anomalydetector.persistence.documents.NetworkAnomalyStorm;
+import com.tus.anomalydetector.services.NetworkAnomalyStormService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Kafka Streams processor that correlates anomalies across the networks of each location.
+ *
+ * <p>
+ * It receives every anomalous network message keyed by the location of its network. The distinct
+ * anomalous networks of each location are counted per tumbling window in an {@link AnomalousNetworkSketch},
+ * so the memory used per window is bounded however many networks are anomalous. When the count of a
+ * window reaches the configured minimum, a single {@link NetworkAnomalyStorm} is saved for it. Anomalies
+ * of networks without a location are counted under {@value AnomalyDetectorConstants#UNKNOWN_LOCATION},
+ * which never reports a storm of its own. Windows are in event time and accept anomalies until the stream
+ * time passes their end by the grace period; later anomalies are counted and left out.
+ * </p>
+ *
+ * <p>
+ * The sketches of the open windows are updated on the heap. Only the sketches that changed are written to
+ * the {@value AnomalyDetectorConstants#NETWORK_ANOMALY_STORM_STORE} window store by a {@link CommitHook}
+ * before the task commits, and when the processor is closed, so a sketch is serialized once per commit
+ * rather than once per anomaly.
+ * </p>
+ *
+ * <p>
+ * The processor also keeps the union of the sketches of all locations of its task for each window. On a
+ * wall-clock interval, the unions that changed are forwarded keyed by
+ * {@value AnomalyDetectorConstants#ALL_LOCATIONS} to the {@link NetworkAnomalyStormUnionProcessor}, which
+ * merges the unions of all tasks into the count of anomalous networks across all locations. When a task
+ * is initialised, its unions are rebuilt from the store and forwarded again, so an interval cut short by a
+ * restart is not lost. A union can be forwarded any number of times, because merging it again does not
+ * change the count.
+ * </p>
+ */
+@Slf4j
+public class NetworkAnomalyStormProcessor implements Processor<String, NetworkMessage, String, AnomalousNetworkSketch> {
+
+    private final NetworkAnomalyStormService networkAnomalyStormService;
+
+    private final NetworkAnomalyStormMetrics networkAnomalyStormMetrics;
+
+    private final long windowSizeMs;
+
+    private final long graceMs;
+
+    private final long minNetworks;
+
+    private final Duration unionInterval;
+
+    private final Duration commitInterval;
+
+    private final Map<Long, Map<String, AnomalousNetworkSketch>> sketches;
+
+    private final Map<Long, Set<String>> dirtyLocations;
+
+    private final Map<Long, AnomalousNetworkSketch> unions;
+
+    private final Set<Long> dirtyUnions;
+
+    private ProcessorContext<String, AnomalousNetworkSketch> context;
+
+    private WindowStore<String, AnomalousNetworkSketch> stormStore;
+
+    /**
+     * Constructs a {@code NetworkAnomalyStormProcessor} with the required dependencies.
+     *
+     * @param networkAnomalyStormService the service that saves detected anomaly storms
+     * @param networkAnomalyStormMetrics the metrics of the anomaly storm correlation
+     * @param windowSize                 the size of the tumbling windows in which anomalous networks are counted
+     * @param grace                      how long a window accepts out-of-order anomalies after it ends
+     * @param minNetworks                the number of anomalous networks in a window that makes a storm
+     * @param unionInterval              the interval at which the unions of the locations of the task are forwarded
+     * @param commitInterval             the interval at which the offsets of the task are committed
+     */
+    public NetworkAnomalyStormProcessor(final NetworkAnomalyStormService networkAnomalyStormService,
+                                        final NetworkAnomalyStormMetrics networkAnomalyStormMetrics,
+                                        final Duration windowSize,
+                                        final Duration grace,
+                                        final long minNetworks,
+                                        final Duration unionInterval,
+                                        final Duration commitInterval) {
+        this.networkAnomalyStormService = networkAnomalyStormService;
+        this.networkAnomalyStormMetrics = networkAnomalyStormMetrics;
+        this.windowSizeMs = windowSize.toMillis();
+        this.graceMs = grace.toMillis();
+        this.minNetworks = minNetworks;
+        this.unionInterval = unionInterval;
+        this.commitInterval = commitInterval;
+        this.sketches = new HashMap<>();
+        this.dirtyLocations = new HashMap<>();
+        this.unions = new HashMap<>();
+        this.dirtyUnions = new HashSet<>();
+    }
+
+    /**
+     * Opens the anomaly storm window store, rebuilds the unions of the task from it and schedules their forwarding
+     * and the checkpoints of the sketches.
+     *
+     * @param context the processor context
+     */
+    @Override
+    public void init(final ProcessorContext<String, AnomalousNetworkSketch> context) {
+        this.context = context;
+        this.stormStore = context.getStateStore(AnomalyDetectorConstants.NETWORK_ANOMALY_STORM_STORE);
+        CommitHook.schedule(context, this.commitInterval, () -> {
+            this.checkpoint();
+            return true;
+        });
+        this.rebuildUnions();
+        context.schedule(this.unionInterval, PunctuationType.WALL_CLOCK_TIME, timestamp -> this.forwardUnions());
+    }
+
+    /**
+     * Counts an anomalous network message in the window of its location and in the union of its task, and
+     * saves a storm the first time the count of the location reaches the minimum.
+     *
+     * @param anomalyRecord the record containing the anomalous network message, keyed by location
+     */
+    @Override
+    public void process(final Record<String, NetworkMessage> anomalyRecord) {
+        final String location = anomalyRecord.key();
+        final long timestamp = anomalyRecord.timestamp();
+        final long windowStart = timestamp - Math.floorMod(timestamp, this.windowSizeMs);
+        if (this.isClosed(windowStart)) {
+            log.debug("process() Anomaly storm window of location: {} starting at: {} already closed.", location, windowStart);
+            this.networkAnomalyStormMetrics.recordLateAnomalyStormRecord();
+            return;
+        }
+
+        final long networkId = anomalyRecord.value().getNetworkId();
+        final AnomalousNetworkSketch sketch = this.findSketch(location, windowStart);
+        sketch.update(networkId);
+        this.dirtyLocations.computeIfAbsent(windowStart, start -> new HashSet<>()).add(location);
+        if (!AnomalyDetectorConstants.UNKNOWN_LOCATION.equals(location) && !sketch.isStormReported() && sketch.count() >= this.minNetworks) {
+            sketch.markStormReported();
+            this.networkAnomalyStormService.saveNetworkAnomalyStorm(location, windowStart, this.windowSizeMs, sketch.count());
+            this.networkAnomalyStormMetrics.recordAnomalyStorm();
+        }
+
+        this.unions.computeIfAbsent(windowStart, start -> new AnomalousNetworkSketch()).update(networkId);
+        this.dirtyUnions.add(windowStart);
+    }
+
+    /**
+     * Writes the sketches that changed to the anomaly storm window store.
+     */
+    @Override
+    public void close() {
+        this.checkpoint();
+    }
+
+    private AnomalousNetworkSketch findSketch(final String location, final long windowStart) {
+        final Map<String, AnomalousNetworkSketch> windowSketches = this.sketches.computeIfAbsent(windowStart, start -> new HashMap<>());
+        AnomalousNetworkSketch sketch = windowSketches.get(location);
+        if (sketch == null) {
+            sketch = this.stormStore.fetch(location, windowStart);
+            if (sketch == null) {
+                sketch = new AnomalousNetworkSketch();
+            }
+
+            windowSketches.put(location, sketch);
+        }
+
+        return sketch;
+    }
+
+    private void checkpoint() {
+        this.dirtyLocations.forEach((windowStart, locations) -> {
+            final Map<String, AnomalousNetworkSketch> windowSketches = this.sketches.get(windowStart);
+            locations.forEach(location -> this.stormStore.put(location, windowSketches.get(location), windowStart));
+        });
+        this.dirtyLocations.clear();
+    }
+
+    private void rebuildUnions() {
+        try (KeyValueIterator<Windowed<String>, AnomalousNetworkSketch> iterator = this.stormStore.all()) {
+            while (iterator.hasNext()) {
+                final KeyValue<Windowed<String>, AnomalousNetworkSketch> entry = iterator.next();
+                final long windowStart = entry.key.window().start();
+                this.unions.computeIfAbsent(windowStart, start -> new AnomalousNetworkSketch()).merge(entry.value);
+                this.dirtyUnions.add(windowStart);
+            }
+        }
+    }
+
+    private void forwardUnions() {
+        for (final Long windowStart : this.dirtyUnions) {
+            this.context.forward(new Record<>(AnomalyDetectorConstants.ALL_LOCATIONS, this.unions.get(windowStart), windowStart));
+        }
+
+        this.dirtyUnions.clear();
+
+        // Closed windows no longer change, so their sketches are dropped once they have been written and forwarded.
+        this.unions.keySet().removeIf(this::isClosed);
+        final Iterator<Long> windowStarts = this.sketches.keySet().iterator();
+        while (windowStarts.hasNext()) {
+            final long windowStart = windowStarts.next();
+            if (this.isClosed(windowStart) && !this.dirtyLocations.containsKey(windowStart)) {
+                windowStarts.remove();
+            }
+        }
+    }
+
+    private boolean isClosed(final long windowStart) {
+        return windowStart + this.windowSizeMs + this.graceMs <= this.context.currentStreamTimeMs();
+    }
+}
@@ -0,0 +1,93 @@
+package com.tus.anomalydetector.streams;
+
+import java.time.Duration;
+
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.WindowStore;
+
+import com.tus.anomalydetector.metrics.NetworkAnomalyStormMetrics;
+import com.tus.anomalydetector.models.AnomalousNetworkSketch;
+import com.tus.anomalydetector.persistence.documents.NetworkAnomalyStorm;
+import com.tus.anomalydetector.services.NetworkAnomalyStormService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Kafka Streams processor that correlates anomalies across the networks of all locations.
+ *
+ * <p>
+ * It receives the unions of the anomalous network sketches of the locations of every
+ * {@link NetworkAnomalyStormProcessor} task, keyed by {@value AnomalyDetectorConstants#ALL_LOCATIONS} and
+ * timestamped with the start of their window, and merges them into one sketch per window in the
+ * {@value AnomalyDetectorConstants#NETWORK_ANOMALY_STORM_UNION_STORE} window store. A union arrives once
+ * per task and forwarding interval rather than once per anomaly, so the single key of this processor
+ * stays cold however many networks are anomalous. When the count of a window reaches the configured
+ * minimum, a single {@link NetworkAnomalyStorm} is saved for it.
+ * </p>
+ */
+public class NetworkAnomalyStormUnionProcessor implements Processor<String, AnomalousNetworkSketch, Void, Void> {
+
+    private final NetworkAnomalyStormService networkAnomalyStormService;
+
+    private final NetworkAnomalyStormMetrics networkAnomalyStormMetrics;
+
+    private final long windowSizeMs;
+
+    private final long minNetworks;
+
+    private WindowStore<String, AnomalousNetworkSketch> unionStore;
+
+    /**
+     * Constructs a {@code NetworkAnomalyStormUnionProcessor} with the required dependencies.
+     *
+     * @param networkAnomalyStormService the service that saves detected anomaly storms
+     * @param networkAnomalyStormMetrics the metrics of the anomaly storm correlation
+     * @param windowSize                 the size of the tumbling windows in which anomalous networks are counted
+     * @param minNetworks                the number of anomalous networks in a window that makes a storm
+     */
+    public NetworkAnomalyStormUnionProcessor(final NetworkAnomalyStormService networkAnomalyStormService,
+                                             final NetworkAnomalyStormMetrics networkAnomalyStormMetrics,
+                                             final Duration windowSize,
+                                             final long minNetworks) {
+        this.networkAnomalyStormService = networkAnomalyStormService;
+        this.networkAnomalyStormMetrics = networkAnomalyStormMetrics;
+        this.windowSizeMs = windowSize.toMillis();
+        this.minNetworks = minNetworks;
+    }
+
+    /**
+     * Opens the anomaly storm union window store.
+     *
+     * @param context the processor context
+     */
+    @Override
+    public void init(final ProcessorContext<Void, Void> context) {
+        this.unionStore = context.getStateStore(AnomalyDetectorConstants.NETWORK_ANOMALY_STORM_UNION_STORE);
+    }
+
+    /**
+     * Merges the union of a task into the sketch of its window and saves a storm the first time the count
+     * of the window reaches the minimum.
+     *
+     * @param unionRecord the record containing the union of a task, timestamped with the start of its window
+     */
+    @Override
+    public void process(final Record<String, AnomalousNetworkSketch> unionRecord) {
+        final long windowStart = unionRecord.timestamp();
+        AnomalousNetworkSketch sketch = this.unionStore.fetch(AnomalyDetectorConstants.ALL_LOCATIONS, windowStart);
+        if (sketch == null) {
+            sketch = new AnomalousNetworkSketch();
+        }
+
+        sketch.merge(unionRecord.value());
+        if (!sketch.isStormReported() && sketch.count() >= this.minNetworks) {
+            sketch.markStormReported();
+            this.networkAnomalyStormService.saveNetworkAnomalyStorm(AnomalyDetectorConstants.ALL_LOCATIONS, windowStart,
+                    this.windowSizeMs, sketch.count());
+            this.networkAnomalyStormMetrics.recordAnomalyStorm();
+        }
+
+        this.unionStore.put(AnomalyDetectorConstants.ALL_LOCATIONS, sketch, windowStart);
+    }
+}
@@ -0,0 +1,91 @@
+package com.tus.anomalydetector.streams;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import com.tus.anomalydetector.models.NetworkDetectorConfig;
+import com.tus.anomalydetector.persistence.repositories.NetworkDetectorConfigRepository;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Kafka Streams global processor that applies the per-network detector configurations.
+ *
+ * <p>
+ * It runs on the global stream thread of every instance and reads the whole
+ * {@value AnomalyDetectorConstants#NETWORK_DETECTOR_CONFIG_TOPIC} topic. Each configuration is kept in
+ * the {@value AnomalyDetectorConstants#NETWORK_DETECTOR_CONFIG_STORE} global store and in the
+ * {@link NetworkDetectorConfigRepository} the detectors read from, so a change applies to the next
+ * record without a restart. A record without a value removes the configuration of its network.
+ * </p>
+ */
+@Slf4j
+public class NetworkDetectorConfigProcessor implements Processor<String, NetworkDetectorConfig, Void, Void> {
+
+    private final NetworkDetectorConfigRepository networkDetectorConfigRepository;
+
+    private KeyValueStore<String, NetworkDetectorConfig> networkDetectorConfigStore;
+
+    /**
+     * Constructs a {@code NetworkDetectorConfigProcessor}.
+     *
+     * @param networkDetectorConfigRepository the repository the detectors read the configurations from
+     */
+    public NetworkDetectorConfigProcessor(final NetworkDetectorConfigRepository networkDetectorConfigRepository) {
+        this.networkDetectorConfigRepository = networkDetectorConfigRepository;
+    }
+
+    /**
+     * Loads the configurations restored into the global store into the repository.
+     *
+     * @param context the processor context
+     */
+    @Override
+    public void init(final ProcessorContext<Void, Void> context) {
+        this.networkDetectorConfigStore = context.getStateStore(AnomalyDetectorConstants.NETWORK_DETECTOR_CONFIG_STORE);
+        try (KeyValueIterator<String, NetworkDetectorConfig> iterator = this.networkDetectorConfigStore.all()) {
+            while (iterator.hasNext()) {
+                final KeyValue<String, NetworkDetectorConfig> entry = iterator.next();
+                this.apply(entry.key, entry.value);
+            }
+        }
+    }
+
+    /**
+     * Applies a detector configuration record.
+     *
+     * @param configRecord the record keyed by network ID, with the configuration or no value
+     */
+    @Override
+    public void process(final Record<String, NetworkDetectorConfig> configRecord) {
+        if (this.apply(configRecord.key(), configRecord.value())) {
+            if (configRecord.value() == null) {
+                this.networkDetectorConfigStore.delete(configRecord.key());
+            } else {
+                this.networkDetectorConfigStore.put(configRecord.key(), configRecord.value());
+            }
+        }
+    }
+
+    private boolean apply(final String key, final NetworkDetectorConfig networkDetectorConfig) {
+        final long networkId;
+        try {
+            networkId = Long.parseLong(key);
+        } catch (final NumberFormatException exception) {
+            log.warn("apply() Skipping detector configuration with invalid network ID: {}.", key);
+            return false;
+        }
+
+        if (networkDetectorConfig != null) {
+            networkDetectorConfig.setNetworkId(networkId);
+        }
+
+        this.networkDetectorConfigRepository.save(networkId, networkDetectorConfig);
+        return true;
+    }
+}
@@ -0,0 +1,107 @@
+package com.tus.anomalydetector.streams;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Component;
+
+import com.tus.anomalydetector.metrics.DeadLetterMetrics;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Sends network messages that cannot be deserialized to the
+ * {@value AnomalyDetectorConstants#NETWORK_MESSAGES_DLQ_TOPIC} topic.
+ *
+ * <p>
+ * The record is published with its original key and value bytes, and a {@link DeadLetterPublishingRecoverer}
+ * adds headers with the source topic, partition and offset and with the class and message of the exception.
+ * The stack trace header is left out and the send is not awaited, so a burst of malformed records costs the
+ * stream thread little more than handing the bytes to the producer.
+ * </p>
+ *
+ * <p>
+ * Every dead letter is counted in the {@link DeadLetterMetrics}. At most one dead letter is logged per
+ * log interval, together with the number of dead letters since the last one logged.
+ * </p>
+ *
+ * <p>
+ * Kafka Streams uses one deserialization exception handler for all its sources, so this recoverer also
+ * sees the records of the {@value AnomalyDetectorConstants#NETWORK_DETECTOR_CONFIG_TOPIC} topic. Those are
+ * not network messages, so they are logged, counted as skipped detector configurations and left out of
+ * the dead-letter topic; the previous configuration of the network stays in effect.
+ * </p>
+ */
+@Slf4j
+@Component
+public class NetworkMessageDeadLetterRecoverer implements ConsumerRecordRecoverer {
+
+    private final DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+
+    private final DeadLetterMetrics deadLetterMetrics;
+
+    private final long logIntervalMs;
+
+    private final AtomicLong lastLoggedAt;
+
+    private final AtomicLong unloggedCount;
+
+    /**
+     * Constructs a NetworkMessageDeadLetterRecoverer.
+     *
+     * @param deadLetterKafkaTemplate the template used to publish the original record bytes
+     * @param deadLetterMetrics       the metrics in which dead letters are counted
+     * @param logIntervalMs           the minimum interval in milliseconds between two logged dead letters
+     */
+    public NetworkMessageDeadLetterRecoverer(@Qualifier("deadLetterKafkaTemplate") final KafkaTemplate<byte[], byte[]> deadLetterKafkaTemplate,
+                                             final DeadLetterMetrics deadLetterMetrics,
+                                             @Value("${anomaly-detector.network-messages-dlq.log-interval-ms}") final long logIntervalMs) {
+        this.deadLetterPublishingRecoverer = new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate,
+                (record, exception) -> new TopicPartition(AnomalyDetectorConstants.NETWORK_MESSAGES_DLQ_TOPIC, -1));
+        this.deadLetterPublishingRecoverer.excludeHeader(DeadLetterPublishingRecoverer.HeaderNames.HeadersToAdd.EX_STACKTRACE);
+        this.deadLetterPublishingRecoverer.setFailIfSendResultIsError(false);
+        this.deadLetterMetrics = deadLetterMetrics;
+        this.logIntervalMs = logIntervalMs;
+        this.lastLoggedAt = new AtomicLong(Long.MIN_VALUE);
+        this.unloggedCount = new AtomicLong();
+    }
+
+    /**
+     * Publishes a record that failed deserialization to the dead-letter topic.
+     *
+     * @param record    the record with its original key and value bytes
+     * @param exception the exception thrown by the deserializer
+     */
+    @Override
+    public void accept(final ConsumerRecord<?, ?> record, final Exception exception) {
+        final String exceptionName = exception.getClass().getSimpleName();
+        if (AnomalyDetectorConstants.NETWORK_DETECTOR_CONFIG_TOPIC.equals(record.topic())) {
+            log.warn("accept() Skipping detector configuration from topic: {}, partition: {}, offset: {}. Exception: {}: {}.",
+                    record.topic(), record.partition(), record.offset(), exceptionName, exception.getMessage());
+            this.deadLetterMetrics.recordSkippedDetectorConfig(exceptionName);
+            return;
+        }
+
+        this.deadLetterMetrics.recordDeadLetter(exceptionName);
+
+        final long now = System.currentTimeMillis();
+        final long lastLogged = this.lastLoggedAt.get();
+        if (now - lastLogged >= this.logIntervalMs && this.lastLoggedAt.compareAndSet(lastLogged, now)) {
+            log.warn("accept() Sending record from topic: {}, partition: {}, offset: {} to {}. Exception: {}: {}. Dead letters not logged since the last one: {}.",
+                    record.topic(), record.partition(), record.offset(), AnomalyDetectorConstants.NETWORK_MESSAGES_DLQ_TOPIC,
+                    exceptionName, exception.getMessage(), this.unloggedCount.getAndSet(0));
+        } else {
+            this.unloggedCount.incrementAndGet();
+        }
+
+        this.deadLetterPublishingRecoverer.accept(record, exception);
+    }
+}
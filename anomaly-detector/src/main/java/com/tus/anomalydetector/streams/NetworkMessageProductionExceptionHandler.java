@@ -0,0 +1,62 @@
+package com.tus.anomalydetector.streams;
+
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.streams.errors.ProductionExceptionHandler;
+
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Decides whether a record the stream failed to produce stops the stream thread.
+ *
+ * <p>
+ * A record that is too large for the broker can never be produced, so it is counted, logged and skipped
+ * rather than killing the stream thread and moving its tasks to another thread that fails the same way.
+ * Every other exception fails the thread, because skipping a repartition or changelog record silently
+ * loses state. The {@link AnomalyDetectionMetrics} are passed in through the
+ * {@value AnomalyDetectorConstants#ANOMALY_DETECTION_METRICS_CONFIG} streams config.
+ * </p>
+ */
+@Slf4j
+public class NetworkMessageProductionExceptionHandler implements ProductionExceptionHandler {
+
+    private AnomalyDetectionMetrics anomalyDetectionMetrics;
+
+    /**
+     * Handles an exception thrown while producing a record.
+     *
+     * @param record    the record that failed to be produced
+     * @param exception the exception thrown
+     * @return {@code CONTINUE} if the record is too large, {@code FAIL} otherwise
+     */
+    @Override
+    public ProductionExceptionHandlerResponse handle(final ProducerRecord<byte[], byte[]> record, final Exception exception) {
+        final String exceptionName = exception.getClass().getSimpleName();
+        if (this.anomalyDetectionMetrics != null) {
+            this.anomalyDetectionMetrics.recordProductionError(exceptionName);
+        }
+
+        if (exception instanceof RecordTooLargeException) {
+            log.error("handle() Skipping a record too large to be produced to topic: {}. Exception: {}", record.topic(), exception.getMessage());
+            return ProductionExceptionHandlerResponse.CONTINUE;
+        }
+
+        log.error("handle() Failed to produce a record to topic: {}. Exception: {}", record.topic(), exception.getMessage(), exception);
+        return ProductionExceptionHandlerResponse.FAIL;
+    }
+
+    /**
+     * Reads the metrics from the streams config.
+     *
+     * @param configs the streams config
+     */
+    @Override
+    public void configure(final Map<String, ?> configs) {
+        this.anomalyDetectionMetrics = (AnomalyDetectionMetrics) configs.get(AnomalyDetectorConstants.ANOMALY_DETECTION_METRICS_CONFIG);
+    }
+}
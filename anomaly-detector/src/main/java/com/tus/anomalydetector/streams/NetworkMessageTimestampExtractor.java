@@ -0,0 +1,61 @@
+package com.tus.anomalydetector.streams;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Timestamp extractor that assigns network messages the event time carried in their payload.
+ *
+ * <p>
+ * Kafka Streams deserializes a record before it extracts its timestamp, so reading the timestamp of the
+ * message costs a field access. Records without a message timestamp keep their Kafka record timestamp,
+ * and records without either are assigned the current event time of their partition, so they are never
+ * dropped for an invalid timestamp.
+ * </p>
+ *
+ * <p>
+ * Windows, grace periods and incident quiet periods downstream all follow the extracted timestamp, so
+ * producer batching and linger only change when a message arrives, not which window it lands in. The
+ * difference between the record timestamp and the event time, and how far out-of-order messages are
+ * behind their partition, are recorded in the {@link AnomalyDetectionMetrics}.
+ * </p>
+ */
+public class NetworkMessageTimestampExtractor implements TimestampExtractor {
+
+    private final AnomalyDetectionMetrics anomalyDetectionMetrics;
+
+    /**
+     * Constructs a NetworkMessageTimestampExtractor.
+     *
+     * @param anomalyDetectionMetrics the metrics in which out-of-order messages and timestamp skew are recorded
+     */
+    public NetworkMessageTimestampExtractor(final AnomalyDetectionMetrics anomalyDetectionMetrics) {
+        this.anomalyDetectionMetrics = anomalyDetectionMetrics;
+    }
+
+    @Override
+    public long extract(final ConsumerRecord<Object, Object> consumerRecord, final long partitionTime) {
+        long timestamp = consumerRecord.timestamp();
+        if (consumerRecord.value() instanceof final NetworkMessage networkMessage && networkMessage.getTimestamp() != null) {
+            final long eventTime = networkMessage.getTimestamp().toEpochMilli();
+            if (timestamp >= 0) {
+                this.anomalyDetectionMetrics.recordTimestampSkew(Math.abs(timestamp - eventTime));
+            }
+
+            timestamp = eventTime;
+        }
+
+        if (timestamp < 0) {
+            return Math.max(partitionTime, 0);
+        }
+
+        if (timestamp < partitionTime) {
+            this.anomalyDetectionMetrics.recordOutOfOrderRecord(partitionTime - timestamp);
+        }
+
+        return timestamp;
+    }
+}
@@ -0,0 +1,125 @@
+package com.tus.anomalydetector.streams;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+
+/**
+ * Creates the spans that follow a network message through the detector.
+ *
+ * <p>
+ * The trace context written into the record headers by the producer is extracted for every record, so
+ * the process span of a message continues the trace started by the traffic simulator and inherits its
+ * sampling decision. Child spans are only created for sampled messages: for the others
+ * {@link #startChildSpan(Span, String)} returns {@link Span#NOOP}, so unsampled messages cost one header
+ * lookup and a non-recording span.
+ * </p>
+ *
+ * <p>
+ * When tracing is disabled, the {@link Tracer#NOOP} and {@link Propagator#NOOP} are used and every span
+ * is a no-op.
+ * </p>
+ */
+public class NetworkMessageTracing {
+
+    private static final Propagator.Getter<Headers> HEADERS_GETTER = (headers, key) -> {
+        final Header header = headers.lastHeader(key);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    };
+
+    private final Tracer tracer;
+
+    private final Propagator propagator;
+
+    /**
+     * Constructs a NetworkMessageTracing.
+     *
+     * @param tracer     the tracer that creates the spans
+     * @param propagator the propagator that extracts the trace context from the record headers
+     */
+    public NetworkMessageTracing(final Tracer tracer, final Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * Returns a NetworkMessageTracing that creates no spans.
+     *
+     * @return a NetworkMessageTracing backed by the no-op tracer and propagator
+     */
+    public static NetworkMessageTracing noop() {
+        return new NetworkMessageTracing(Tracer.NOOP, Propagator.NOOP);
+    }
+
+    /**
+     * Starts the consumer span of a network message record, continuing the trace in its headers.
+     *
+     * @param headers the headers of the record
+     * @return the started span, which is a no-op if the record is not sampled
+     */
+    public Span startProcessSpan(final Headers headers) {
+        return this.propagator.extract(headers, HEADERS_GETTER)
+                .name(AnomalyDetectorConstants.PROCESS_SPAN)
+                .kind(Span.Kind.CONSUMER)
+                .tag(AnomalyDetectorConstants.MESSAGING_SYSTEM_TAG, "kafka")
+                .tag(AnomalyDetectorConstants.MESSAGING_DESTINATION_TAG, AnomalyDetectorConstants.NETWORK_MESSAGES_TOPIC)
+                .start();
+    }
+
+    /**
+     * Starts a child span of the given span if the given span is sampled.
+     *
+     * @param parent the parent span
+     * @param name   the name of the child span
+     * @return the started child span, or {@link Span#NOOP} if the parent is not sampled
+     */
+    public Span startChildSpan(final Span parent, final String name) {
+        if (parent.isNoop()) {
+            return Span.NOOP;
+        }
+
+        return this.tracer.nextSpan(parent).name(name).start();
+    }
+
+    /**
+     * Records the bulk write of a network anomaly as a span that already ended, as a child of the given trace context.
+     *
+     * @param parent          the trace context of the span the anomaly was detected in
+     * @param collection      the collection the anomaly was written to
+     * @param batchSize       the number of anomalies written in the same bulk write
+     * @param startEpochMilli the time the bulk write started, in milliseconds since the epoch
+     * @param endEpochMilli   the time the bulk write ended, in milliseconds since the epoch
+     */
+    public void recordBulkWriteSpan(final TraceContext parent, final String collection, final int batchSize,
+                                    final long startEpochMilli, final long endEpochMilli) {
+        final Span span = this.tracer.spanBuilder()
+                .setParent(parent)
+                .name(AnomalyDetectorConstants.BULK_WRITE_SPAN)
+                .kind(Span.Kind.CLIENT)
+                .tag(AnomalyDetectorConstants.DB_SYSTEM_TAG, "mongodb")
+                .tag(AnomalyDetectorConstants.DB_COLLECTION_TAG, collection)
+                .tag(AnomalyDetectorConstants.BATCH_SIZE_TAG, batchSize)
+                .startTimestamp(startEpochMilli, TimeUnit.MILLISECONDS)
+                .start();
+        span.end(endEpochMilli, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Puts the given span in scope on the calling thread.
+     *
+     * @param span the span to put in scope
+     * @return the scope, which must be closed on the same thread
+     */
+    public Tracer.SpanInScope withSpan(final Span span) {
+        return this.tracer.withSpan(span);
+    }
+}
@@ -0,0 +1,50 @@
+package com.tus.anomalydetector.streams;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+
+import com.tus.anomalydetector.services.NetworkAnomalySinkService;
+
+/**
+ * Decides how Kafka Streams responds to an exception that kills a stream thread.
+ *
+ * <p>
+ * The failed thread is replaced, so its tasks are reassigned and resume from their last committed
+ * offsets instead of the whole client shutting down. If the writer of the {@link NetworkAnomalySinkService}
+ * has stopped, every replacement thread would fail on its first commit the same way, so the client is
+ * shut down instead and the readiness probe reports the instance as down.
+ * </p>
+ */
+@Slf4j
+public class StreamThreadExceptionHandler implements StreamsUncaughtExceptionHandler {
+
+    private final NetworkAnomalySinkService networkAnomalySinkService;
+
+    /**
+     * Constructs a new StreamThreadExceptionHandler.
+     *
+     * @param networkAnomalySinkService the sink the stream threads wait for before they commit
+     */
+    public StreamThreadExceptionHandler(final NetworkAnomalySinkService networkAnomalySinkService) {
+        this.networkAnomalySinkService = networkAnomalySinkService;
+    }
+
+    /**
+     * Handles an exception that killed a stream thread.
+     *
+     * @param exception the exception thrown
+     * @return {@code SHUTDOWN_CLIENT} if the anomaly sink has stopped, {@code REPLACE_THREAD} otherwise
+     */
+    @Override
+    public StreamThreadExceptionResponse handle(final Throwable exception) {
+        if (!this.networkAnomalySinkService.isWriterAlive()) {
+            log.error("handle() Stream thread failed after the network anomaly sink stopped, shutting down. Exception: {}",
+                    exception.getMessage(), exception);
+            return StreamThreadExceptionResponse.SHUTDOWN_CLIENT;
+        }
+
+        log.error("handle() Stream thread failed, replacing it. Exception: {}", exception.getMessage(), exception);
+        return StreamThreadExceptionResponse.REPLACE_THREAD;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tus.anomalydetector.streams;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializer that times another deserializer.
+ *
+ * <p>
+ * Kafka Streams deserializes records before they reach the processors, so the deserialize stage of the
+ * pipeline can only be measured by wrapping the deserializer of the source topic.
+ * </p>
+ *
+ * @param <T> the type of the deserialized value
+ */
+public class TimedDeserializer<T> implements Deserializer<T> {
+
+    private final Deserializer<T> delegate;
+
+    private final LongConsumer recorder;
+
+    /**
+     * Constructs a TimedDeserializer.
+     *
+     * @param delegate the deserializer to time
+     * @param recorder the consumer of the time spent deserializing each record, in nanoseconds
+     */
+    public TimedDeserializer(final Deserializer<T> delegate, final LongConsumer recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+        this.delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(final String topic, final byte[] data) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.deserialize(topic, data);
+        } finally {
+            this.recorder.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public T deserialize(final String topic, final Headers headers, final byte[] data) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.deserialize(topic, headers, data);
+        } finally {
+            this.recorder.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public T deserialize(final String topic, final Headers headers, final ByteBuffer data) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.deserialize(topic, headers, data);
+        } finally {
+            this.recorder.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.delegate.close();
+    }
+}
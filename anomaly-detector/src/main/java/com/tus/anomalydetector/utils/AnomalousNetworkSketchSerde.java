@@ -0,0 +1,41 @@
+package com.tus.anomalydetector.utils;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.tus.anomalydetector.models.AnomalousNetworkSketch;
+
+/**
+ * A custom SerDe (Serializer/Deserializer) for {@link AnomalousNetworkSketch} objects.
+ * <p>
+ * A sketch is written as its storm reported flag followed by the compact serialized form of its
+ * underlying HLL sketch. It is used to persist the anomalous network counts of each location and time
+ * window in a Kafka Streams window store and its changelog.
+ * </p>
+ */
+public class AnomalousNetworkSketchSerde extends Serdes.WrapperSerde<AnomalousNetworkSketch> {
+
+    /**
+     * Constructs a new {@link AnomalousNetworkSketchSerde}.
+     */
+    public AnomalousNetworkSketchSerde() {
+        super(new AnomalousNetworkSketchSerializer(), new AnomalousNetworkSketchDeserializer());
+    }
+
+    private static final class AnomalousNetworkSketchSerializer implements Serializer<AnomalousNetworkSketch> {
+
+        @Override
+        public byte[] serialize(final String topic, final AnomalousNetworkSketch data) {
+            return data == null ? null : data.toByteArray();
+        }
+    }
+
+    private static final class AnomalousNetworkSketchDeserializer implements Deserializer<AnomalousNetworkSketch> {
+
+        @Override
+        public AnomalousNetworkSketch deserialize(final String topic, final byte[] data) {
+            return data == null ? null : AnomalousNetworkSketch.fromByteArray(data);
+        }
+    }
+}
@@ -13,7 +13,85 @@ public class AnomalyDetectorConstants {
 
     public static final String NETWORK_SUMMARY_CONTROLLER_URL = "/v1/network-summaries";
 
+    public static final String STATE_STORE_LOCAL_URL = "/local";
+
+    public static final String NETWORK_QUANTILE_CONTROLLER_URL = "/v1/network-quantiles";
+
+    public static final String NETWORK_TRAFFIC_CONTROLLER_URL = "/v1/network-traffic";
+
+    public static final String NETWORK_ANOMALY_STORM_CONTROLLER_URL = "/v1/network-anomaly-storms";
+
+    public static final String NETWORK_INCIDENT_CONTROLLER_URL = "/v1/network-incidents";
+
+    public static final String NETWORK_DETECTOR_CONFIG_CONTROLLER_URL = "/v1/network-detector-configs";
+
+    public static final String NETWORK_EVENT_CONTROLLER_URL = "/v1/network-events";
+
+    public static final String DASHBOARD_CONTROLLER_URL = "/v1/dashboard";
+
     public static final String NETWORK_SUMMARIES_COLLECTION = "network_summaries";
 
     public static final String NETWORK_ANOMALIES_COLLECTION = "network_anomalies";
+
+    public static final String NETWORK_ANOMALY_STORMS_COLLECTION = "network_anomaly_storms";
+
+    public static final String NETWORK_INCIDENTS_COLLECTION = "network_incidents";
+
+    public static final String LOCKS_COLLECTION = "locks";
+
+    public static final String NETWORK_MESSAGES_TOPIC = "network-messages";
+
+    public static final String NETWORK_MESSAGES_DLQ_TOPIC = "network-messages-dlq";
+
+    public static final String NETWORK_ANOMALIES_DLQ_TOPIC = "network-anomalies-dlq";
+
+    public static final String NETWORK_DETECTOR_CONFIG_TOPIC = "network-detector-config";
+
+    public static final String ANOMALY_DETECTION_METRICS_CONFIG = "anomaly-detector.metrics";
+
+    public static final String NETWORK_MESSAGES_REPARTITION = "network-messages-by-network-id";
+
+    public static final String NETWORK_ANOMALIES_REPARTITION = "network-anomalies-by-location";
+
+    public static final String NETWORK_ANOMALY_SKETCHES_REPARTITION = "network-anomaly-sketches";
+
+    public static final String ALL_LOCATIONS = "*";
+
+    public static final String UNKNOWN_LOCATION = "";
+
+    public static final String NETWORK_STATISTICS_STORE = "network-statistics-store";
+
+    public static final String NETWORK_SUMMARIES_STORE = "network-summaries-store";
+
+    public static final String NETWORK_QUANTILES_STORE = "network-quantiles-store";
+
+    public static final String NETWORK_TRAFFIC_STORE = "network-traffic-store";
+
+    public static final String NETWORK_INCIDENTS_STORE = "network-incidents-store";
+
+    public static final String NETWORK_CLOSED_INCIDENTS_STORE = "network-closed-incidents-store";
+
+    public static final String NETWORK_ANOMALY_STORM_STORE = "network-anomaly-storm-store";
+
+    public static final String NETWORK_ANOMALY_STORM_UNION_STORE = "network-anomaly-storm-union-store";
+
+    public static final String NETWORK_DETECTOR_CONFIG_STORE = "network-detector-config-store";
+
+    public static final String PROCESS_SPAN = "network-messages process";
+
+    public static final String DETECT_SPAN = "detect";
+
+    public static final String PERSIST_SPAN = "persist";
+
+    public static final String BULK_WRITE_SPAN = "bulk write";
+
+    public static final String MESSAGING_SYSTEM_TAG = "messaging.system";
+
+    public static final String MESSAGING_DESTINATION_TAG = "messaging.destination.name";
+
+    public static final String DB_SYSTEM_TAG = "db.system";
+
+    public static final String DB_COLLECTION_TAG = "db.collection.name";
+
+    public static final String BATCH_SIZE_TAG = "db.operation.batch.size";
 }
@@ -0,0 +1,68 @@
+package com.tus.anomalydetector.utils;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.tus.anomalydetector.models.NetworkDetectorConfig;
+
+/**
+ * A custom SerDe (Serializer/Deserializer) for {@link NetworkDetectorConfig} objects.
+ * <p>
+ * Detector configurations are written as JSON, so the records of the
+ * {@value AnomalyDetectorConstants#NETWORK_DETECTOR_CONFIG_TOPIC} topic can be read and written with
+ * the standard Kafka tools. Unknown properties are ignored when reading, so fields can be added
+ * without breaking older instances.
+ * </p>
+ */
+public class NetworkDetectorConfigSerde extends Serdes.WrapperSerde<NetworkDetectorConfig> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Constructs a new {@link NetworkDetectorConfigSerde}.
+     */
+    public NetworkDetectorConfigSerde() {
+        super(new NetworkDetectorConfigSerializer(), new NetworkDetectorConfigDeserializer());
+    }
+
+    /**
+     * Serializer for {@link NetworkDetectorConfig} objects.
+     */
+    public static final class NetworkDetectorConfigSerializer implements Serializer<NetworkDetectorConfig> {
+
+        @Override
+        public byte[] serialize(final String topic, final NetworkDetectorConfig data) {
+            if (data == null) {
+                return null;
+            }
+
+            try {
+                return OBJECT_MAPPER.writeValueAsBytes(data);
+            } catch (final Exception exception) {
+                throw new SerializationException("Failed to serialize the detector configuration of network: " + data.getNetworkId() + ".", exception);
+            }
+        }
+    }
+
+    private static final class NetworkDetectorConfigDeserializer implements Deserializer<NetworkDetectorConfig> {
+
+        @Override
+        public NetworkDetectorConfig deserialize(final String topic, final byte[] data) {
+            if (data == null) {
+                return null;
+            }
+
+            try {
+                return OBJECT_MAPPER.readValue(data, NetworkDetectorConfig.class);
+            } catch (final Exception exception) {
+                throw new SerializationException("Failed to deserialize a network detector configuration.", exception);
+            }
+        }
+    }
+}
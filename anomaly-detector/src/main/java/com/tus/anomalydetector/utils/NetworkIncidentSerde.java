@@ -0,0 +1,84 @@
+package com.tus.anomalydetector.utils;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import org.bson.types.ObjectId;
+
+import com.tus.anomalydetector.models.NetworkIncidentStatus;
+import com.tus.anomalydetector.persistence.documents.NetworkIncident;
+
+/**
+ * A custom SerDe (Serializer/Deserializer) for {@link NetworkIncident} objects.
+ * <p>
+ * An incident is written as its ID, network ID, status, start and end times, anomaly count and
+ * minimum and maximum sizes in fixed-width binary form. The ID must be an {@link ObjectId}, and the
+ * closing time is not part of it, because only open incidents are kept in the state store.
+ * </p>
+ */
+public class NetworkIncidentSerde extends Serdes.WrapperSerde<NetworkIncident> {
+
+    private static final int OBJECT_ID_BYTES = 12;
+
+    private static final int SIZE = OBJECT_ID_BYTES + Long.BYTES + Byte.BYTES + 2 * (Long.BYTES + Integer.BYTES) + Long.BYTES + 2 * Double.BYTES;
+
+    private static final NetworkIncidentStatus[] STATUSES = NetworkIncidentStatus.values();
+
+    /**
+     * Constructs a new {@link NetworkIncidentSerde}.
+     */
+    public NetworkIncidentSerde() {
+        super(new NetworkIncidentSerializer(), new NetworkIncidentDeserializer());
+    }
+
+    private static final class NetworkIncidentSerializer implements Serializer<NetworkIncident> {
+
+        @Override
+        public byte[] serialize(final String topic, final NetworkIncident data) {
+            if (data == null) {
+                return null;
+            }
+
+            return ByteBuffer.allocate(SIZE)
+                    .put(new ObjectId(data.getId()).toByteArray())
+                    .putLong(data.getNetworkId())
+                    .put((byte) data.getStatus().ordinal())
+                    .putLong(data.getStartTime().getEpochSecond())
+                    .putInt(data.getStartTime().getNano())
+                    .putLong(data.getEndTime().getEpochSecond())
+                    .putInt(data.getEndTime().getNano())
+                    .putLong(data.getAnomalyCount())
+                    .putDouble(data.getMinSizeInBytes())
+                    .putDouble(data.getMaxSizeInBytes())
+                    .array();
+        }
+    }
+
+    private static final class NetworkIncidentDeserializer implements Deserializer<NetworkIncident> {
+
+        @Override
+        public NetworkIncident deserialize(final String topic, final byte[] data) {
+            if (data == null) {
+                return null;
+            }
+
+            final ByteBuffer byteBuffer = ByteBuffer.wrap(data);
+            final byte[] id = new byte[OBJECT_ID_BYTES];
+            byteBuffer.get(id);
+            return NetworkIncident.builder()
+                    .id(new ObjectId(id).toHexString())
+                    .networkId(byteBuffer.getLong())
+                    .status(STATUSES[byteBuffer.get()])
+                    .startTime(Instant.ofEpochSecond(byteBuffer.getLong(), byteBuffer.getInt()))
+                    .endTime(Instant.ofEpochSecond(byteBuffer.getLong(), byteBuffer.getInt()))
+                    .anomalyCount(byteBuffer.getLong())
+                    .minSizeInBytes(byteBuffer.getDouble())
+                    .maxSizeInBytes(byteBuffer.getDouble())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.tus.anomalydetector.utils;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.tus.anomalydetector.persistence.documents.NetworkSummary;
+
+/**
+ * A custom SerDe (Serializer/Deserializer) for {@link NetworkSummary} objects.
+ * <p>
+ * A summary is written as its network ID, counts and last update time in fixed-width binary form;
+ * the MongoDB ID is not part of it. It is used to persist the network summaries in a Kafka Streams
+ * state store and its changelog, from which they are served through interactive queries.
+ * </p>
+ */
+public class NetworkSummarySerde extends Serdes.WrapperSerde<NetworkSummary> {
+
+    private static final int SIZE = 4 * Long.BYTES + Double.BYTES + Integer.BYTES;
+
+    /**
+     * Constructs a new {@link NetworkSummarySerde}.
+     */
+    public NetworkSummarySerde() {
+        super(new NetworkSummarySerializer(), new NetworkSummaryDeserializer());
+    }
+
+    private static final class NetworkSummarySerializer implements Serializer<NetworkSummary> {
+
+        @Override
+        public byte[] serialize(final String topic, final NetworkSummary data) {
+            if (data == null) {
+                return null;
+            }
+
+            final Instant lastUpdatedAt = data.getLastUpdatedAt() == null ? Instant.EPOCH : data.getLastUpdatedAt();
+            return ByteBuffer.allocate(SIZE)
+                    .putLong(data.getNetworkId())
+                    .putDouble(data.getTrafficSizeInBytes())
+                    .putLong(data.getAnomalyCount())
+                    .putLong(data.getNonAnomalyCount())
+                    .putLong(lastUpdatedAt.getEpochSecond())
+                    .putInt(lastUpdatedAt.getNano())
+                    .array();
+        }
+    }
+
+    private static final class NetworkSummaryDeserializer implements Deserializer<NetworkSummary> {
+
+        @Override
+        public NetworkSummary deserialize(final String topic, final byte[] data) {
+            if (data == null) {
+                return null;
+            }
+
+            final ByteBuffer byteBuffer = ByteBuffer.wrap(data);
+            return NetworkSummary.builder()
+                    .networkId(byteBuffer.getLong())
+                    .trafficSizeInBytes(byteBuffer.getDouble())
+                    .anomalyCount(byteBuffer.getLong())
+                    .nonAnomalyCount(byteBuffer.getLong())
+                    .lastUpdatedAt(Instant.ofEpochSecond(byteBuffer.getLong(), byteBuffer.getInt()))
+                    .build();
+        }
+    }
+}
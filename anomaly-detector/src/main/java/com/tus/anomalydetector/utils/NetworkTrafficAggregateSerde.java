@@ -0,0 +1,60 @@
+package com.tus.anomalydetector.utils;
+
+import java.nio.ByteBuffer;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.tus.anomalydetector.models.NetworkTrafficAggregate;
+
+/**
+ * A custom SerDe (Serializer/Deserializer) for {@link NetworkTrafficAggregate} objects.
+ * <p>
+ * An aggregate is written as its five fields in fixed-width binary form. It is used to persist the
+ * windowed traffic aggregates of each network in a Kafka Streams window store and its changelog.
+ * </p>
+ */
+public class NetworkTrafficAggregateSerde extends Serdes.WrapperSerde<NetworkTrafficAggregate> {
+
+    private static final int SIZE = 3 * Double.BYTES + 2 * Long.BYTES;
+
+    /**
+     * Constructs a new {@link NetworkTrafficAggregateSerde}.
+     */
+    public NetworkTrafficAggregateSerde() {
+        super(new NetworkTrafficAggregateSerializer(), new NetworkTrafficAggregateDeserializer());
+    }
+
+    private static final class NetworkTrafficAggregateSerializer implements Serializer<NetworkTrafficAggregate> {
+
+        @Override
+        public byte[] serialize(final String topic, final NetworkTrafficAggregate data) {
+            if (data == null) {
+                return null;
+            }
+
+            return ByteBuffer.allocate(SIZE)
+                    .putDouble(data.getTrafficSizeInBytes())
+                    .putLong(data.getMessageCount())
+                    .putLong(data.getAnomalyCount())
+                    .putDouble(data.getMinSizeInBytes())
+                    .putDouble(data.getMaxSizeInBytes())
+                    .array();
+        }
+    }
+
+    private static final class NetworkTrafficAggregateDeserializer implements Deserializer<NetworkTrafficAggregate> {
+
+        @Override
+        public NetworkTrafficAggregate deserialize(final String topic, final byte[] data) {
+            if (data == null) {
+                return null;
+            }
+
+            final ByteBuffer byteBuffer = ByteBuffer.wrap(data);
+            return new NetworkTrafficAggregate(byteBuffer.getDouble(), byteBuffer.getLong(), byteBuffer.getLong(),
+                    byteBuffer.getDouble(), byteBuffer.getDouble());
+        }
+    }
+}
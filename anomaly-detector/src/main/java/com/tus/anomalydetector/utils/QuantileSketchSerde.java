@@ -0,0 +1,40 @@
+package com.tus.anomalydetector.utils;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.tus.anomalydetector.models.QuantileSketch;
+
+/**
+ * A custom SerDe (Serializer/Deserializer) for {@link QuantileSketch} objects.
+ * <p>
+ * A sketch is written in the compact serialized form of its underlying KLL sketch. It is used to
+ * persist the message size sketch of each network in a Kafka Streams state store and its changelog.
+ * </p>
+ */
+public class QuantileSketchSerde extends Serdes.WrapperSerde<QuantileSketch> {
+
+    /**
+     * Constructs a new {@link QuantileSketchSerde}.
+     */
+    public QuantileSketchSerde() {
+        super(new QuantileSketchSerializer(), new QuantileSketchDeserializer());
+    }
+
+    private static final class QuantileSketchSerializer implements Serializer<QuantileSketch> {
+
+        @Override
+        public byte[] serialize(final String topic, final QuantileSketch data) {
+            return data == null ? null : data.toByteArray();
+        }
+    }
+
+    private static final class QuantileSketchDeserializer implements Deserializer<QuantileSketch> {
+
+        @Override
+        public QuantileSketch deserialize(final String topic, final byte[] data) {
+            return data == null ? null : QuantileSketch.fromByteArray(data);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.tus.anomalydetector.utils;
+
+import java.nio.ByteBuffer;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.tus.anomalydetector.models.RollingStatisticsWindow;
+
+/**
+ * A custom SerDe (Serializer/Deserializer) for {@link RollingStatisticsWindow} objects.
+ * <p>
+ * A window is written as its capacity and size followed by its samples from oldest to newest,
+ * all in fixed-width binary form. It is used to persist the rolling statistics of each network
+ * in a Kafka Streams state store and its changelog.
+ * </p>
+ */
+public class RollingStatisticsWindowSerde extends Serdes.WrapperSerde<RollingStatisticsWindow> {
+
+    /**
+     * Constructs a new {@link RollingStatisticsWindowSerde}.
+     */
+    public RollingStatisticsWindowSerde() {
+        super(new RollingStatisticsWindowSerializer(), new RollingStatisticsWindowDeserializer());
+    }
+
+    private static final class RollingStatisticsWindowSerializer implements Serializer<RollingStatisticsWindow> {
+
+        @Override
+        public byte[] serialize(final String topic, final RollingStatisticsWindow data) {
+            if (data == null) {
+                return null;
+            }
+
+            final double[] samples = data.toArray();
+            final ByteBuffer byteBuffer = ByteBuffer.allocate(2 * Integer.BYTES + samples.length * Double.BYTES);
+            byteBuffer.putInt(data.capacity());
+            byteBuffer.putInt(samples.length);
+            byteBuffer.asDoubleBuffer().put(samples);
+            return byteBuffer.array();
+        }
+    }
+
+    private static final class RollingStatisticsWindowDeserializer implements Deserializer<RollingStatisticsWindow> {
+
+        @Override
+        public RollingStatisticsWindow deserialize(final String topic, final byte[] data) {
+            if (data == null) {
+                return null;
+            }
+
+            final ByteBuffer byteBuffer = ByteBuffer.wrap(data);
+            final RollingStatisticsWindow window = new RollingStatisticsWindow(byteBuffer.getInt());
+            final int size = byteBuffer.getInt();
+            for (int i = 0; i < size; i++) {
+                window.push(byteBuffer.getDouble());
+            }
+
+            return window;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.tus.anomalydetector.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RollingStatisticsWindowTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new RollingStatisticsWindow(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RollingStatisticsWindow(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyWindowHasZeroStatistics() {
+        final RollingStatisticsWindow window = new RollingStatisticsWindow(3);
+
+        assertThat(window.size()).isZero();
+        assertThat(window.capacity()).isEqualTo(3);
+        assertThat(window.toArray()).isEmpty();
+        assertThat(window.mean()).isZero();
+        assertThat(window.variance()).isZero();
+        assertThat(window.statistics()).isEqualTo(new NetworkStatistics(0, 0));
+    }
+
+    @Test
+    void computesPopulationStatisticsOfPartialWindow() {
+        final RollingStatisticsWindow window = new RollingStatisticsWindow(5);
+        window.push(2);
+        window.push(4);
+        window.push(6);
+
+        assertThat(window.size()).isEqualTo(3);
+        assertThat(window.toArray()).containsExactly(2, 4, 6);
+        assertThat(window.mean()).isCloseTo(4, within(TOLERANCE));
+        assertThat(window.variance()).isCloseTo(8.0 / 3, within(TOLERANCE));
+        assertThat(window.standardDeviation()).isCloseTo(Math.sqrt(8.0 / 3), within(TOLERANCE));
+    }
+
+    @Test
+    void evictsOldestSampleWhenFull() {
+        final RollingStatisticsWindow window = new RollingStatisticsWindow(3);
+        for (int sample = 1; sample <= 5; sample++) {
+            window.push(sample);
+        }
+
+        assertThat(window.size()).isEqualTo(3);
+        assertThat(window.toArray()).containsExactly(3, 4, 5);
+        assertThat(window.mean()).isCloseTo(4, within(TOLERANCE));
+        assertThat(window.variance()).isCloseTo(2.0 / 3, within(TOLERANCE));
+    }
+
+    @Test
+    void keepsStatisticsExactOverManyWraps() {
+        final int capacity = 16;
+        final RollingStatisticsWindow window = new RollingStatisticsWindow(capacity);
+        final Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            window.push(1e9 + random.nextGaussian() * 1000);
+        }
+
+        final double[] samples = window.toArray();
+        final double mean = Arrays.stream(samples).average().orElseThrow();
+        final double variance = Arrays.stream(samples).map(sample -> (sample - mean) * (sample - mean)).sum() / capacity;
+
+        assertThat(samples).hasSize(capacity);
+        assertThat(window.mean()).isCloseTo(mean, within(1e-6));
+        assertThat(window.variance()).isCloseTo(variance, within(variance * 1e-6));
+        assertThat(window.statistics().standardDeviation()).isCloseTo(Math.sqrt(variance), within(1e-6));
+    }
+}
@@ -0,0 +1,79 @@
+package com.tus.anomalydetector.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+
+import com.tus.anomalydetector.exceptions.AnomalyDetectorException;
+import com.tus.anomalydetector.exceptions.enums.AnomalyDetectorError;
+import com.tus.anomalydetector.persistence.documents.NetworkAnomaly;
+
+class NetworkAnomalyServicePageTokenTest {
+
+    private static final String ID = new ObjectId().toHexString();
+
+    @Test
+    void decodesEncodedPageToken() {
+        final Instant timestamp = Instant.ofEpochMilli(1_700_000_000_123L);
+        final NetworkAnomaly networkAnomaly = NetworkAnomaly.builder().id(ID).timestamp(timestamp).build();
+
+        final String pageToken = NetworkAnomalyService.encodePageToken(networkAnomaly);
+        final NetworkAnomalyService.PageStart pageStart = NetworkAnomalyService.decodePageToken(pageToken);
+
+        assertThat(pageToken).doesNotContain("=", "+", "/");
+        assertThat(pageStart.timestamp()).isEqualTo(timestamp);
+        assertThat(pageStart.id()).isEqualTo(ID);
+    }
+
+    @Test
+    void decodesEncodedPageTokenWithoutTimestamp() {
+        final NetworkAnomaly networkAnomaly = NetworkAnomaly.builder().id(ID).build();
+
+        final NetworkAnomalyService.PageStart pageStart = NetworkAnomalyService.decodePageToken(
+                NetworkAnomalyService.encodePageToken(networkAnomaly));
+
+        assertThat(pageStart.timestamp()).isNull();
+        assertThat(pageStart.id()).isEqualTo(ID);
+    }
+
+    @Test
+    void rejectsTokenThatIsNotBase64() {
+        assertInvalid("not a token!");
+    }
+
+    @Test
+    void rejectsTokenWithoutSeparator() {
+        assertInvalid(encode(ID));
+    }
+
+    @Test
+    void rejectsTokenWithInvalidId() {
+        assertInvalid(encode("1700000000123:not-an-object-id"));
+    }
+
+    @Test
+    void rejectsTokenWithInvalidTimestamp() {
+        assertInvalid(encode("yesterday:" + ID));
+    }
+
+    private static String encode(final String pageStart) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(pageStart.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertInvalid(final String pageToken) {
+        assertThatThrownBy(() -> NetworkAnomalyService.decodePageToken(pageToken))
+                .isInstanceOfSatisfying(AnomalyDetectorException.class, exception -> {
+                    assertThat(exception.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(exception.getAnomalyDetectorError()).isEqualTo(AnomalyDetectorError.INVALID_PAGE_TOKEN_ERROR);
+                    assertThat(exception.getErrorDetailArgs()).containsExactly(pageToken);
+                });
+    }
+}
@@ -0,0 +1,228 @@
+package com.tus.anomalydetector.streams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.test.TestRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+import com.tus.anomalydetector.detectors.DetectorChain;
+import com.tus.anomalydetector.detectors.VolumeThresholdDetector;
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+import com.tus.anomalydetector.metrics.NetworkAnomalyStormMetrics;
+import com.tus.anomalydetector.metrics.NetworkEventMetrics;
+import com.tus.anomalydetector.metrics.NetworkIncidentMetrics;
+import com.tus.anomalydetector.persistence.repositories.NetworkAnomalyStormRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkDetectorConfigRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkIncidentRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkStatisticsRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkSummaryRepository;
+import com.tus.anomalydetector.services.AnomalyDetectionService;
+import com.tus.anomalydetector.services.NetworkAnomalyCollectionService;
+import com.tus.anomalydetector.services.NetworkAnomalyDeadLetterService;
+import com.tus.anomalydetector.services.NetworkAnomalySinkService;
+import com.tus.anomalydetector.services.NetworkAnomalyStormService;
+import com.tus.anomalydetector.services.NetworkEventService;
+import com.tus.anomalydetector.services.NetworkIncidentAggregationService;
+import com.tus.anomalydetector.services.NetworkIncidentService;
+import com.tus.anomalydetector.services.NetworkSummaryAggregationService;
+import com.tus.anomalydetector.services.NetworkSummaryService;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+import com.tus.networkmessage.models.NetworkMessage;
+import com.tus.networkmessage.utils.NetworkMessageSerde;
+import com.tus.networkmessage.utils.NetworkMessageSerializer;
+
+class NetworkMessageTracingTest {
+
+    private static final long COMMIT_INTERVAL_MS = 30_000;
+
+    private static final long CHECKPOINT_INTERVAL_MS = 1000;
+
+    private static final long SINK_COMMIT_TIMEOUT_MS = 10_000;
+
+    private static final double VOLUME_THRESHOLD_BYTES = 800;
+
+    private static final String UNSAMPLED_TRACEPARENT = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00";
+
+    @TempDir
+    private Path stateDir;
+
+    private InMemorySpanExporter spanExporter;
+
+    private SdkTracerProvider tracerProvider;
+
+    private OtelTracer tracer;
+
+    private OtelPropagator propagator;
+
+    private NetworkAnomalySinkService networkAnomalySinkService;
+
+    private NetworkSummaryAggregationService networkSummaryAggregationService;
+
+    private NetworkIncidentAggregationService networkIncidentAggregationService;
+
+    private TopologyTestDriver topologyTestDriver;
+
+    private TestInputTopic<String, NetworkMessage> inputTopic;
+
+    @BeforeEach
+    void setUp() {
+        this.spanExporter = InMemorySpanExporter.create();
+        this.tracerProvider = SdkTracerProvider.builder()
+                .setSampler(Sampler.parentBased(Sampler.alwaysOn()))
+                .addSpanProcessor(SimpleSpanProcessor.create(this.spanExporter))
+                .build();
+        final io.opentelemetry.api.trace.Tracer otelTracer = this.tracerProvider.get("network-message-tracing-test");
+        this.tracer = new OtelTracer(otelTracer, new OtelCurrentTraceContext(), event -> {
+            // Span events are not published.
+        });
+        this.propagator = new OtelPropagator(ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer);
+        final NetworkMessageTracing networkMessageTracing = new NetworkMessageTracing(this.tracer, this.propagator);
+
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final MongoTemplate mongoTemplate = mock(MongoTemplate.class, RETURNS_DEEP_STUBS);
+        final AnomalyDetectionMetrics anomalyDetectionMetrics = new AnomalyDetectionMetrics(meterRegistry);
+        final NetworkIncidentMetrics networkIncidentMetrics = new NetworkIncidentMetrics(meterRegistry);
+        final NetworkEventService networkEventService = new NetworkEventService(new NetworkEventMetrics(meterRegistry), 1024, 10000, 15_000, 1_800_000);
+        this.networkAnomalySinkService = new NetworkAnomalySinkService(mongoTemplate, anomalyDetectionMetrics, networkMessageTracing,
+                networkEventService, mock(NetworkAnomalyDeadLetterService.class), mock(NetworkAnomalyCollectionService.class), 10000, 500, 0, 0, 1, 0, 0, SINK_COMMIT_TIMEOUT_MS);
+        this.networkAnomalySinkService.start();
+        this.networkSummaryAggregationService = new NetworkSummaryAggregationService(
+                new NetworkSummaryService(mock(NetworkSummaryRepository.class), mongoTemplate), anomalyDetectionMetrics, 1000, 1000);
+        this.networkIncidentAggregationService = new NetworkIncidentAggregationService(
+                new NetworkIncidentService(mock(NetworkIncidentRepository.class), mongoTemplate), networkIncidentMetrics);
+
+        final AnomalyDetectionService anomalyDetectionService = new AnomalyDetectionService(new KafkaStreamsConfiguration(Map.of()),
+                this.networkSummaryAggregationService, new NetworkStatisticsRepository(), new NetworkDetectorConfigRepository(),
+                this.networkAnomalySinkService, this.networkIncidentAggregationService, networkEventService,
+                new DetectorChain(List.of(new VolumeThresholdDetector(VOLUME_THRESHOLD_BYTES)), anomalyDetectionMetrics),
+                new NetworkAnomalyStormService(mock(NetworkAnomalyStormRepository.class)),
+                anomalyDetectionMetrics, networkIncidentMetrics, new NetworkAnomalyStormMetrics(meterRegistry),
+                networkMessageTracing, COMMIT_INTERVAL_MS, CHECKPOINT_INTERVAL_MS, false,
+                60_000, 30_000, 86_400_000, false, 60_000, 10_000, false, 60_000, 30_000, 600_000, 50, 1000);
+
+        final Properties properties = new Properties();
+        properties.put(StreamsConfig.APPLICATION_ID_CONFIG, "network-message-tracing-test");
+        properties.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        properties.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        properties.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, NetworkMessageSerde.class);
+        properties.put(StreamsConfig.STATE_DIR_CONFIG, this.stateDir.toString());
+        this.topologyTestDriver = new TopologyTestDriver(anomalyDetectionService.buildTopology(), properties);
+        this.inputTopic = this.topologyTestDriver.createInputTopic(AnomalyDetectorConstants.NETWORK_MESSAGES_TOPIC,
+                new StringSerializer(), new NetworkMessageSerializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.topologyTestDriver.close();
+        this.networkSummaryAggregationService.close();
+        this.networkIncidentAggregationService.close();
+        this.networkAnomalySinkService.stop();
+        this.tracerProvider.close();
+    }
+
+    @Test
+    void continuesTraceFromRecordHeadersAndNestsDetectorSpans() {
+        final Span sendSpan = this.tracer.spanBuilder().name("network-messages send").kind(Span.Kind.PRODUCER).start();
+        final Headers headers = new RecordHeaders();
+        this.propagator.inject(sendSpan.context(), headers,
+                (carrier, key, value) -> carrier.add(key, value.getBytes(StandardCharsets.UTF_8)));
+        sendSpan.end();
+
+        this.pipe(networkMessage(VOLUME_THRESHOLD_BYTES * 10), headers);
+
+        final SpanData processSpan = this.span(AnomalyDetectorConstants.PROCESS_SPAN);
+        assertThat(processSpan.getTraceId()).isEqualTo(sendSpan.context().traceId());
+        assertThat(processSpan.getParentSpanId()).isEqualTo(sendSpan.context().spanId());
+        assertThat(processSpan.getKind()).isEqualTo(io.opentelemetry.api.trace.SpanKind.CONSUMER);
+
+        final SpanData detectSpan = this.span(AnomalyDetectorConstants.DETECT_SPAN);
+        final SpanData persistSpan = this.span(AnomalyDetectorConstants.PERSIST_SPAN);
+        assertThat(List.of(detectSpan, persistSpan)).allSatisfy(span -> {
+            assertThat(span.getTraceId()).isEqualTo(processSpan.getTraceId());
+            assertThat(span.getParentSpanId()).isEqualTo(processSpan.getSpanId());
+        });
+
+        final SpanData bulkWriteSpan = this.span(AnomalyDetectorConstants.BULK_WRITE_SPAN);
+        assertThat(bulkWriteSpan.getTraceId()).isEqualTo(processSpan.getTraceId());
+        assertThat(bulkWriteSpan.getParentSpanId()).isEqualTo(persistSpan.getSpanId());
+    }
+
+    @Test
+    void createsNoChildSpansOfNormalMessages() {
+        this.pipe(networkMessage(VOLUME_THRESHOLD_BYTES / 10), new RecordHeaders());
+
+        assertThat(this.spanExporter.getFinishedSpanItems()).extracting(SpanData::getName)
+                .containsExactlyInAnyOrder(AnomalyDetectorConstants.PROCESS_SPAN, AnomalyDetectorConstants.DETECT_SPAN);
+        assertThat(this.span(AnomalyDetectorConstants.PROCESS_SPAN).getParentSpanContext().isValid()).isFalse();
+    }
+
+    @Test
+    void recordsNoSpansOfUnsampledRecords() {
+        final Headers headers = new RecordHeaders();
+        headers.add("traceparent", UNSAMPLED_TRACEPARENT.getBytes(StandardCharsets.UTF_8));
+
+        this.pipe(networkMessage(VOLUME_THRESHOLD_BYTES * 10), headers);
+
+        assertThat(this.spanExporter.getFinishedSpanItems()).isEmpty();
+    }
+
+    private static NetworkMessage networkMessage(final double sizeInBytes) {
+        return NetworkMessage.builder()
+                .id(UUID.randomUUID())
+                .networkId(1)
+                .sizeInBytes(sizeInBytes)
+                .timestamp(Instant.parse("2025-01-01T00:00:00Z"))
+                .build();
+    }
+
+    private void pipe(final NetworkMessage networkMessage, final Headers headers) {
+        this.inputTopic.pipeInput(new TestRecord<>(String.valueOf(networkMessage.getNetworkId()), networkMessage, headers,
+                networkMessage.getTimestamp()));
+        // Runs the commit hook of the task, which waits for the sink to write the anomalies of the task.
+        this.topologyTestDriver.advanceWallClockTime(Duration.ofMillis(COMMIT_INTERVAL_MS));
+    }
+
+    private SpanData span(final String name) {
+        return this.spanExporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No finished span named: " + name));
+    }
+}
@@ -0,0 +1,312 @@
+package com.tus.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Utils;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+import com.tus.anomalydetector.detectors.DetectorChain;
+import com.tus.anomalydetector.detectors.StdDevThresholdDetector;
+import com.tus.anomalydetector.detectors.VolumeThresholdDetector;
+import com.tus.anomalydetector.metrics.AnomalyDetectionMetrics;
+import com.tus.anomalydetector.metrics.NetworkAnomalyStormMetrics;
+import com.tus.anomalydetector.metrics.NetworkEventMetrics;
+import com.tus.anomalydetector.metrics.NetworkIncidentMetrics;
+import com.tus.anomalydetector.persistence.repositories.NetworkDetectorConfigRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkStatisticsRepository;
+import com.tus.anomalydetector.services.AnomalyDetectionService;
+import com.tus.anomalydetector.services.NetworkAnomalyCollectionService;
+import com.tus.anomalydetector.services.NetworkAnomalyDeadLetterService;
+import com.tus.anomalydetector.services.NetworkAnomalySinkService;
+import com.tus.anomalydetector.services.NetworkAnomalyStormService;
+import com.tus.anomalydetector.services.NetworkEventService;
+import com.tus.anomalydetector.services.NetworkIncidentAggregationService;
+import com.tus.anomalydetector.services.NetworkIncidentService;
+import com.tus.anomalydetector.services.NetworkSummaryAggregationService;
+import com.tus.anomalydetector.services.NetworkSummaryService;
+import com.tus.anomalydetector.streams.NetworkMessageTracing;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+import com.tus.networkmessage.models.NetworkMessage;
+import com.tus.networkmessage.utils.NetworkMessageSerde;
+import com.tus.networkmessage.utils.NetworkMessageSerializer;
+
+/**
+ * Benchmarks the full per-record path of the anomaly detector.
+ *
+ * <p>
+ * The topology built by {@link AnomalyDetectionService} is driven through a {@link TopologyTestDriver},
+ * with MongoDB replaced by {@link MongoStubs}, so each operation covers deserialization, the statistics
+ * update, threshold evaluation, the anomaly sink, the summary aggregation, the traffic windows and the
+ * anomaly storm correlation, including their metrics. With {@code incidents} set, anomalies are
+ * coalesced into incidents instead of being handed to the anomaly sink. The wall clock advances by
+ * one millisecond per record, so the statistics checkpoint punctuation runs at its configured interval.
+ * </p>
+ *
+ * <p>
+ * With {@code tracing} set to {@code OTEL}, messages are traced by an OpenTelemetry SDK tracer configured
+ * like the detector's default: a parent-based sampler over a {@value #TRACING_SAMPLING_PROBABILITY} trace ID
+ * ratio, W3C trace context propagation and a batch span processor. The benchmark messages carry no trace
+ * context, so every process span is a root span and the ratio decides its sampling, as the traffic simulator
+ * does upstream. Sampled spans are exported to an exporter that discards them, so the result covers the cost
+ * of tracing in the detector without the OTLP network export.
+ * </p>
+ *
+ * <p>
+ * The commit hooks of the tasks run at the commit interval of the wall clock, so one operation in
+ * {@value #COMMIT_INTERVAL_MS} waits for the anomalies of the task to be written, as a stream thread does
+ * once per commit interval. Compare results between releases, not against production throughput.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AnomalyDetectionTopologyBenchmark {
+
+    private static final int MESSAGE_COUNT = 1 << 14;
+
+    private static final Duration RECORD_INTERVAL = Duration.ofMillis(1);
+
+    private static final long COMMIT_INTERVAL_MS = 30_000;
+
+    private static final long CHECKPOINT_INTERVAL_MS = 1000;
+
+    private static final long TRAFFIC_WINDOW_SIZE_MS = 60_000;
+
+    private static final long TRAFFIC_WINDOW_GRACE_MS = 30_000;
+
+    private static final long TRAFFIC_WINDOW_RETENTION_MS = 86_400_000;
+
+    private static final long INCIDENT_QUIET_PERIOD_MS = 60_000;
+
+    private static final long INCIDENT_CLOSE_INTERVAL_MS = 10_000;
+
+    private static final long ANOMALY_STORM_WINDOW_SIZE_MS = 60_000;
+
+    private static final long ANOMALY_STORM_GRACE_MS = 30_000;
+
+    private static final long ANOMALY_STORM_RETENTION_MS = 600_000;
+
+    private static final long ANOMALY_STORM_MIN_NETWORKS = 50;
+
+    private static final long ANOMALY_STORM_UNION_INTERVAL_MS = 1000;
+
+    private static final int SUMMARY_FLUSH_THRESHOLD = 1000;
+
+    private static final long SUMMARY_FLUSH_INTERVAL_MS = 1000;
+
+    private static final int SINK_QUEUE_CAPACITY = 10000;
+
+    private static final int SINK_BATCH_SIZE = 500;
+
+    private static final int SINK_MAX_WRITE_ATTEMPTS = 1;
+
+    private static final long SINK_COMMIT_TIMEOUT_MS = 120_000;
+
+    private static final int EVENT_BUFFER_CAPACITY = 1024;
+
+    private static final int EVENT_REPLAY_CAPACITY = 10000;
+
+    private static final long EVENT_HEARTBEAT_INTERVAL_MS = 15_000;
+
+    private static final long EVENT_EMITTER_TIMEOUT_MS = 1_800_000;
+
+    private static final double VOLUME_THRESHOLD_BYTES = 800;
+
+    private static final double STD_DEV_MULTIPLIER = 2.0;
+
+    private static final double TRACING_SAMPLING_PROBABILITY = 0.01;
+
+    @Param({"1", "1000"})
+    private int networkCount;
+
+    @Param({"BINARY", "JSON"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean incidents;
+
+    @Param({"NOOP", "OTEL"})
+    private String tracing;
+
+    private Path stateDir;
+
+    private SdkTracerProvider tracerProvider;
+
+    private NetworkAnomalySinkService networkAnomalySinkService;
+
+    private NetworkSummaryAggregationService networkSummaryAggregationService;
+
+    private NetworkIncidentAggregationService networkIncidentAggregationService;
+
+    private TopologyTestDriver topologyTestDriver;
+
+    private TestInputTopic<String, NetworkMessage> inputTopic;
+
+    private NetworkMessage[] networkMessages;
+
+    private int next;
+
+    /**
+     * Wires the detector services against stubbed MongoDB dependencies and starts a test driver on its topology.
+     *
+     * @throws IOException if the state directory cannot be created
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.stateDir = Files.createTempDirectory("anomaly-detector-benchmark");
+
+        final Properties properties = new Properties();
+        properties.put(StreamsConfig.APPLICATION_ID_CONFIG, "anomaly-detector-benchmark");
+        properties.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        properties.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        properties.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, NetworkMessageSerde.class);
+        properties.put(StreamsConfig.STATE_DIR_CONFIG, this.stateDir.toString());
+
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final NetworkMessageTracing networkMessageTracing = this.createNetworkMessageTracing();
+        final AnomalyDetectionMetrics anomalyDetectionMetrics = new AnomalyDetectionMetrics(meterRegistry);
+        final NetworkIncidentMetrics networkIncidentMetrics = new NetworkIncidentMetrics(meterRegistry);
+        final NetworkEventService networkEventService = new NetworkEventService(new NetworkEventMetrics(meterRegistry), EVENT_BUFFER_CAPACITY,
+                EVENT_REPLAY_CAPACITY, EVENT_HEARTBEAT_INTERVAL_MS, EVENT_EMITTER_TIMEOUT_MS);
+        this.networkAnomalySinkService = new NetworkAnomalySinkService(MongoStubs.mongoTemplate(), anomalyDetectionMetrics, networkMessageTracing,
+                networkEventService, mock(NetworkAnomalyDeadLetterService.class, withSettings().stubOnly()),
+                mock(NetworkAnomalyCollectionService.class, withSettings().stubOnly()), SINK_QUEUE_CAPACITY, SINK_BATCH_SIZE, 0, 0, SINK_MAX_WRITE_ATTEMPTS, 0, 0, SINK_COMMIT_TIMEOUT_MS);
+        this.networkAnomalySinkService.start();
+        this.networkSummaryAggregationService = new NetworkSummaryAggregationService(
+                new NetworkSummaryService(MongoStubs.networkSummaryRepository(), MongoStubs.mongoTemplate()), anomalyDetectionMetrics, SUMMARY_FLUSH_THRESHOLD,
+                SUMMARY_FLUSH_INTERVAL_MS);
+        this.networkSummaryAggregationService.start();
+        this.networkIncidentAggregationService = new NetworkIncidentAggregationService(
+                new NetworkIncidentService(MongoStubs.networkIncidentRepository(), MongoStubs.mongoTemplate()), networkIncidentMetrics);
+
+        final AnomalyDetectionService anomalyDetectionService = new AnomalyDetectionService(new KafkaStreamsConfiguration(Map.of()),
+                this.networkSummaryAggregationService, new NetworkStatisticsRepository(), new NetworkDetectorConfigRepository(),
+                this.networkAnomalySinkService,
+                this.networkIncidentAggregationService, networkEventService,
+                new DetectorChain(List.of(new VolumeThresholdDetector(VOLUME_THRESHOLD_BYTES), new StdDevThresholdDetector(STD_DEV_MULTIPLIER)),
+                        anomalyDetectionMetrics),
+                new NetworkAnomalyStormService(MongoStubs.networkAnomalyStormRepository()),
+                anomalyDetectionMetrics, networkIncidentMetrics, new NetworkAnomalyStormMetrics(meterRegistry),
+                networkMessageTracing, COMMIT_INTERVAL_MS, CHECKPOINT_INTERVAL_MS, true,
+                TRAFFIC_WINDOW_SIZE_MS, TRAFFIC_WINDOW_GRACE_MS, TRAFFIC_WINDOW_RETENTION_MS,
+                this.incidents, INCIDENT_QUIET_PERIOD_MS, INCIDENT_CLOSE_INTERVAL_MS,
+                true, ANOMALY_STORM_WINDOW_SIZE_MS, ANOMALY_STORM_GRACE_MS, ANOMALY_STORM_RETENTION_MS, ANOMALY_STORM_MIN_NETWORKS,
+                ANOMALY_STORM_UNION_INTERVAL_MS);
+        this.topologyTestDriver = new TopologyTestDriver(anomalyDetectionService.buildTopology(), properties);
+
+        final NetworkMessageSerializer serializer = new NetworkMessageSerializer();
+        serializer.configure(Map.of(NetworkMessageSerializer.FORMAT_CONFIG, this.format), false);
+        this.inputTopic = this.topologyTestDriver.createInputTopic(AnomalyDetectorConstants.NETWORK_MESSAGES_TOPIC,
+                new StringSerializer(), serializer);
+        this.networkMessages = BenchmarkMessages.generate(MESSAGE_COUNT, this.networkCount);
+    }
+
+    /**
+     * Closes the test driver and the services and deletes the state directory.
+     *
+     * @throws IOException if the state directory cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        this.topologyTestDriver.close();
+        this.networkSummaryAggregationService.close();
+        this.networkIncidentAggregationService.close();
+        this.networkAnomalySinkService.stop();
+        if (this.tracerProvider != null) {
+            this.tracerProvider.close();
+        }
+
+        Utils.delete(this.stateDir.toFile());
+    }
+
+    /**
+     * Pipes one network message, keyed by its network ID, through the topology.
+     */
+    @Benchmark
+    public void process() {
+        final NetworkMessage networkMessage = this.networkMessages[this.next];
+        this.next = (this.next + 1) & (MESSAGE_COUNT - 1);
+        this.inputTopic.pipeInput(String.valueOf(networkMessage.getNetworkId()), networkMessage, networkMessage.getTimestamp());
+        this.topologyTestDriver.advanceWallClockTime(RECORD_INTERVAL);
+    }
+
+    private NetworkMessageTracing createNetworkMessageTracing() {
+        if (!"OTEL".equals(this.tracing)) {
+            return NetworkMessageTracing.noop();
+        }
+
+        this.tracerProvider = SdkTracerProvider.builder()
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(TRACING_SAMPLING_PROBABILITY)))
+                .addSpanProcessor(BatchSpanProcessor.builder(new DiscardingSpanExporter()).build())
+                .build();
+        final Tracer tracer = this.tracerProvider.get("anomaly-detector-benchmark");
+        final ContextPropagators contextPropagators = ContextPropagators.create(W3CTraceContextPropagator.getInstance());
+        return new NetworkMessageTracing(new OtelTracer(tracer, new OtelCurrentTraceContext(), event -> {
+            // Span events are not published.
+        }), new OtelPropagator(contextPropagators, tracer));
+    }
+
+    private static final class DiscardingSpanExporter implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(final Collection<SpanData> spans) {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
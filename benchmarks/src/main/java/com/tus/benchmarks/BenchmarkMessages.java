@@ -0,0 +1,61 @@
+package com.tus.benchmarks;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Generates network messages shaped like the ones sent by the traffic simulator.
+ */
+public class BenchmarkMessages {
+
+    private static final int MIN_BYTES = 100;
+
+    private static final int MAX_BYTES = 1000;
+
+    private static final int SIZE_BUFFER = 300;
+
+    private static final String[] LOCATIONS = {"Athlone", "Limerick", "Dublin", "Galway"};
+
+    private BenchmarkMessages() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Generates a message size, occasionally inflated as the simulator does for unhealthy networks.
+     *
+     * @param random the source of randomness
+     * @return the size of the message in bytes
+     */
+    public static double sizeInBytes(final SplittableRandom random) {
+        final double sizeInBytes = random.nextInt(MIN_BYTES, MAX_BYTES + 1);
+        return random.nextInt(10) == 0 ? sizeInBytes + SIZE_BUFFER : sizeInBytes;
+    }
+
+    /**
+     * Generates messages spread round-robin over the given number of networks, each network in one of a few locations.
+     *
+     * @param count        the number of messages to generate
+     * @param networkCount the number of distinct networks
+     * @return the generated messages
+     */
+    public static NetworkMessage[] generate(final int count, final int networkCount) {
+        final SplittableRandom random = new SplittableRandom(42);
+        final Instant start = Instant.parse("2025-01-01T00:00:00Z");
+        final NetworkMessage[] networkMessages = new NetworkMessage[count];
+        for (int i = 0; i < count; i++) {
+            final int network = i % networkCount;
+            networkMessages[i] = NetworkMessage.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .networkId(network + 1)
+                    .location(LOCATIONS[network % LOCATIONS.length])
+                    .sizeInBytes(sizeInBytes(random))
+                    .timestamp(start.plusMillis(i))
+                    .build();
+        }
+
+        return networkMessages;
+    }
+}
@@ -0,0 +1,88 @@
+package com.tus.benchmarks;
+
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.List;
+
+import org.mockito.invocation.InvocationOnMock;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.bulk.BulkWriteResult;
+
+import com.tus.anomalydetector.persistence.repositories.NetworkAnomalyStormRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkIncidentRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkSummaryRepository;
+
+/**
+ * In-memory stand-ins for the MongoDB dependencies of the anomaly detector.
+ *
+ * <p>
+ * Writes are accepted and discarded without leaving the JVM, so the benchmarks measure the detector
+ * itself rather than the database. The stubs do not record their invocations, so they do not grow
+ * with the number of benchmark operations.
+ * </p>
+ */
+public class MongoStubs {
+
+    private static final BulkWriteResult BULK_WRITE_RESULT = BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of());
+
+    private MongoStubs() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Creates a {@link MongoTemplate} whose bulk operations succeed without writing anything.
+     *
+     * @return the stubbed template
+     */
+    public static MongoTemplate mongoTemplate() {
+        final BulkOperations bulkOperations = mock(BulkOperations.class,
+                withSettings().stubOnly().defaultAnswer(MongoStubs::answerBulkOperation));
+        return mock(MongoTemplate.class, withSettings().stubOnly().defaultAnswer(invocation ->
+                invocation.getMethod().getReturnType() == BulkOperations.class ? bulkOperations : RETURNS_DEFAULTS.answer(invocation)));
+    }
+
+    /**
+     * Creates a {@link NetworkSummaryRepository} that holds no network summaries.
+     *
+     * @return the stubbed repository
+     */
+    public static NetworkSummaryRepository networkSummaryRepository() {
+        return mock(NetworkSummaryRepository.class, withSettings().stubOnly());
+    }
+
+    /**
+     * Creates a {@link NetworkAnomalyStormRepository} that discards the anomaly storms saved to it.
+     *
+     * @return the stubbed repository
+     */
+    public static NetworkAnomalyStormRepository networkAnomalyStormRepository() {
+        return mock(NetworkAnomalyStormRepository.class, withSettings().stubOnly());
+    }
+
+    /**
+     * Creates a {@link NetworkIncidentRepository} that holds no network incidents.
+     *
+     * @return the stubbed repository
+     */
+    public static NetworkIncidentRepository networkIncidentRepository() {
+        return mock(NetworkIncidentRepository.class, withSettings().stubOnly());
+    }
+
+    private static Object answerBulkOperation(final InvocationOnMock invocation) throws Throwable {
+        final Class<?> returnType = invocation.getMethod().getReturnType();
+        if (returnType == BulkOperations.class) {
+            return invocation.getMock();
+        }
+
+        if (returnType == BulkWriteResult.class) {
+            return BULK_WRITE_RESULT;
+        }
+
+        return RETURNS_DEFAULTS.answer(invocation);
+    }
+}
@@ -0,0 +1,85 @@
+package com.tus.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tus.networkmessage.models.NetworkMessage;
+import com.tus.networkmessage.utils.NetworkMessageDeserializer;
+import com.tus.networkmessage.utils.NetworkMessageFormat;
+import com.tus.networkmessage.utils.NetworkMessageSerializer;
+
+/**
+ * Benchmarks the {@link NetworkMessageSerializer} and {@link NetworkMessageDeserializer} in both wire formats.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkMessageSerializationBenchmark {
+
+    private static final String TOPIC = "network-messages";
+
+    @Param({"BINARY", "JSON"})
+    private NetworkMessageFormat format;
+
+    private NetworkMessageSerializer serializer;
+
+    private NetworkMessageDeserializer deserializer;
+
+    private NetworkMessage networkMessage;
+
+    private byte[] serializedNetworkMessage;
+
+    private Headers headers;
+
+    /**
+     * Configures the serializer and deserializer and serializes the message that is deserialized during the measurement.
+     */
+    @Setup
+    public void setUp() {
+        this.serializer = new NetworkMessageSerializer();
+        this.serializer.configure(Map.of(NetworkMessageSerializer.FORMAT_CONFIG, this.format.name()), false);
+        this.deserializer = new NetworkMessageDeserializer();
+        this.deserializer.configure(Map.of(), false);
+
+        this.networkMessage = BenchmarkMessages.generate(1, 1)[0];
+        this.headers = new RecordHeaders();
+        this.serializedNetworkMessage = this.serializer.serialize(TOPIC, this.headers, this.networkMessage);
+    }
+
+    /**
+     * Serializes a message, including its format header.
+     *
+     * @return the serialized message
+     */
+    @Benchmark
+    public byte[] serialize() {
+        return this.serializer.serialize(TOPIC, new RecordHeaders(), this.networkMessage);
+    }
+
+    /**
+     * Deserializes a message, selecting the codec from its format header.
+     *
+     * @return the deserialized message
+     */
+    @Benchmark
+    public NetworkMessage deserialize() {
+        return this.deserializer.deserialize(TOPIC, this.headers, this.serializedNetworkMessage);
+    }
+}
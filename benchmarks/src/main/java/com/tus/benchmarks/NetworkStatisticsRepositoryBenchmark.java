@@ -0,0 +1,158 @@
+package com.tus.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.processor.StateStoreContext;
+import org.apache.kafka.streams.processor.TaskId;
+import org.apache.kafka.streams.processor.api.MockProcessorContext;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tus.anomalydetector.models.NetworkStatistics;
+import com.tus.anomalydetector.models.QuantileSketch;
+import com.tus.anomalydetector.models.RollingStatisticsWindow;
+import com.tus.anomalydetector.persistence.repositories.NetworkStatisticsRepository;
+import com.tus.anomalydetector.persistence.repositories.NetworkStatisticsShard;
+import com.tus.anomalydetector.utils.AnomalyDetectorConstants;
+import com.tus.anomalydetector.utils.QuantileSketchSerde;
+import com.tus.anomalydetector.utils.RollingStatisticsWindowSerde;
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Benchmarks saving messages into, and reading statistics from, a network statistics shard, including
+ * its quantile sketches.
+ *
+ * <p>
+ * The shard is opened through the {@link NetworkStatisticsRepository} on in-memory state stores and
+ * every network is seen once before measuring, so the benchmark covers the heap-resident hot path at
+ * 1, 1k and 100k networks per shard. Messages are spread round-robin over the networks, which makes
+ * the larger sizes representative of the cache misses a busy partition sees.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NetworkStatisticsRepositoryBenchmark {
+
+    private static final int MIN_MESSAGE_COUNT = 1 << 12;
+
+    @Param({"1", "1000", "100000"})
+    private int networkCount;
+
+    private NetworkStatisticsRepository networkStatisticsRepository;
+
+    private TaskId taskId;
+
+    private NetworkStatisticsShard shard;
+
+    private NetworkMessage[] networkMessages;
+
+    private int next;
+
+    /**
+     * Opens a shard on an in-memory store and records one message for every network.
+     */
+    @Setup
+    public void setUp() {
+        final StateStoreContext stateStoreContext = new MockProcessorContext<>().getStateStoreContext();
+        final KeyValueStore<Long, RollingStatisticsWindow> store = Stores.keyValueStoreBuilder(
+                        Stores.inMemoryKeyValueStore(AnomalyDetectorConstants.NETWORK_STATISTICS_STORE),
+                        Serdes.Long(), new RollingStatisticsWindowSerde())
+                .withLoggingDisabled()
+                .withCachingDisabled()
+                .build();
+        store.init(stateStoreContext, store);
+        final KeyValueStore<Long, QuantileSketch> quantileSketchStore = Stores.keyValueStoreBuilder(
+                        Stores.inMemoryKeyValueStore(AnomalyDetectorConstants.NETWORK_QUANTILES_STORE),
+                        Serdes.Long(), new QuantileSketchSerde())
+                .withLoggingDisabled()
+                .withCachingDisabled()
+                .build();
+        quantileSketchStore.init(stateStoreContext, quantileSketchStore);
+
+        this.networkStatisticsRepository = new NetworkStatisticsRepository();
+        this.taskId = new TaskId(0, 0);
+        this.shard = this.networkStatisticsRepository.openShard(this.taskId, store, quantileSketchStore);
+
+        this.networkMessages = BenchmarkMessages.generate(Math.max(MIN_MESSAGE_COUNT, this.networkCount), this.networkCount);
+        for (final NetworkMessage networkMessage : this.networkMessages) {
+            this.shard.save(networkMessage);
+        }
+
+        this.shard.checkpoint();
+    }
+
+    /**
+     * Closes the shard.
+     */
+    @TearDown
+    public void tearDown() {
+        this.networkStatisticsRepository.closeShard(this.taskId);
+    }
+
+    /**
+     * Saves a message into the rolling window of its network.
+     *
+     * @return the shard, to keep the save from being eliminated
+     */
+    @Benchmark
+    public NetworkStatisticsShard save() {
+        this.shard.save(this.nextMessage());
+        return this.shard;
+    }
+
+    /**
+     * Reads the mean and standard deviation of a network.
+     *
+     * @return the statistics of the network
+     */
+    @Benchmark
+    public NetworkStatistics findStatistics() {
+        return this.shard.findStatistics(this.nextMessage().getNetworkId());
+    }
+
+    /**
+     * Saves a message and reads the statistics of its network, as the detector does for every message.
+     *
+     * @return the statistics of the network
+     */
+    @Benchmark
+    public NetworkStatistics saveAndFindStatistics() {
+        final NetworkMessage networkMessage = this.nextMessage();
+        this.shard.save(networkMessage);
+        return this.shard.findStatistics(networkMessage.getNetworkId());
+    }
+
+    /**
+     * Saves a message into the quantile sketch of its network.
+     *
+     * @return the shard, to keep the save from being eliminated
+     */
+    @Benchmark
+    public NetworkStatisticsShard saveQuantiles() {
+        this.shard.saveQuantiles(this.nextMessage());
+        return this.shard;
+    }
+
+    private NetworkMessage nextMessage() {
+        final NetworkMessage networkMessage = this.networkMessages[this.next];
+        this.next = this.next + 1 == this.networkMessages.length ? 0 : this.next + 1;
+        return networkMessage;
+    }
+}
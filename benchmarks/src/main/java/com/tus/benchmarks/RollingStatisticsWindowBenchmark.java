@@ -0,0 +1,102 @@
+package com.tus.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tus.anomalydetector.models.NetworkStatistics;
+import com.tus.anomalydetector.models.RollingStatisticsWindow;
+
+/**
+ * Benchmarks the rolling statistics window that replaced {@code FixedSizeDeque}.
+ *
+ * <p>
+ * The window is filled before measuring, so every push evicts the oldest sample, which is the
+ * steady state of a network that has been sending traffic for a while.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RollingStatisticsWindowBenchmark {
+
+    private static final int SAMPLE_COUNT = 4096;
+
+    @Param({"500"})
+    private int capacity;
+
+    private RollingStatisticsWindow window;
+
+    private double[] samples;
+
+    private int next;
+
+    /**
+     * Fills the window and prepares the samples pushed during the measurement.
+     */
+    @Setup
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(42);
+        this.samples = new double[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            this.samples[i] = BenchmarkMessages.sizeInBytes(random);
+        }
+
+        this.window = new RollingStatisticsWindow(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            this.window.push(this.samples[i % SAMPLE_COUNT]);
+        }
+    }
+
+    /**
+     * Pushes a sample into a full window.
+     *
+     * @return the window, to keep the push from being eliminated
+     */
+    @Benchmark
+    public RollingStatisticsWindow push() {
+        this.window.push(this.nextSample());
+        return this.window;
+    }
+
+    /**
+     * Reads the mean and standard deviation of the window.
+     *
+     * @return the statistics of the window
+     */
+    @Benchmark
+    public NetworkStatistics statistics() {
+        return this.window.statistics();
+    }
+
+    /**
+     * Pushes a sample and reads the statistics, as the detector does for every message.
+     *
+     * @return the statistics of the window
+     */
+    @Benchmark
+    public NetworkStatistics pushAndStatistics() {
+        this.window.push(this.nextSample());
+        return this.window.statistics();
+    }
+
+    private double nextSample() {
+        final double sample = this.samples[this.next];
+        this.next = (this.next + 1) & (SAMPLE_COUNT - 1);
+        return sample;
+    }
+}
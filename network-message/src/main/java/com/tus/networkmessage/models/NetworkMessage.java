@@ -1,4 +1,4 @@
-package com.tus.trafficsimulator.models;
+package com.tus.networkmessage.models;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -11,7 +11,7 @@ import lombok.Setter;
 
 /**
  * Represents a network message entity with an ID, network ID, size in bytes,
- * timestamp, and anomaly status.
+ * timestamp and network location.
  *
  * <p>
  * This class uses Lombok annotations to generate boilerplate code such as
@@ -27,6 +27,7 @@ import lombok.Setter;
  * <li>{@code networkId} - Unique identifier for the network.</li>
  * <li>{@code sizeInBytes} - Size of the network message in bytes.</li>
  * <li>{@code timestamp} - Timestamp of the network message.</li>
+ * <li>{@code location} - Location of the network, may be null.</li>
  * </ul>
  */
 @Getter
@@ -44,6 +45,8 @@ public class NetworkMessage {
 
     private Instant timestamp;
 
+    private String location;
+
     /**
      * Returns a string representation of the network message.
      *
@@ -51,7 +54,7 @@ public class NetworkMessage {
      */
     @Override
     public String toString() {
-        return String.format("NetworkMessage{id=%s, networkId=%d, sizeInBytes=%.2f, timestamp=%s}", this.id,
-                this.networkId, this.sizeInBytes, this.timestamp);
+        return String.format("NetworkMessage{id=%s, networkId=%d, sizeInBytes=%.2f, timestamp=%s, location=%s}", this.id,
+                this.networkId, this.sizeInBytes, this.timestamp, this.location);
     }
 }
@@ -0,0 +1,212 @@
+package com.tus.networkmessage.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Versioned, fixed-layout binary codec for {@link NetworkMessage} objects.
+ *
+ * <p>
+ * Version 1 encodes a message in {@value #VERSION_1_SIZE} big-endian bytes:
+ * </p>
+ * <ul>
+ * <li>1 byte - format version.</li>
+ * <li>1 byte - flags marking which nullable fields are present.</li>
+ * <li>16 bytes - {@code id}, as the most and least significant bits of the UUID.</li>
+ * <li>8 bytes - {@code networkId}.</li>
+ * <li>8 bytes - {@code sizeInBytes}, as an IEEE 754 double.</li>
+ * <li>12 bytes - {@code timestamp}, as epoch seconds and nanosecond adjustment.</li>
+ * </ul>
+ *
+ * <p>
+ * Version 2 appends the {@code location} of the network to the version 1 layout:
+ * </p>
+ * <ul>
+ * <li>2 bytes - length of the location, as an unsigned short.</li>
+ * <li>n bytes - location, as UTF-8.</li>
+ * </ul>
+ *
+ * <p>
+ * Messages without a location are still encoded as version 1, so consumers that only understand
+ * version 1 keep working until producers start sending locations.
+ * </p>
+ *
+ * <p>
+ * Decoding reads the fields straight from the buffer without any intermediate copies.
+ * </p>
+ */
+public final class NetworkMessageBinaryCodec {
+
+    public static final byte VERSION_1 = 1;
+
+    public static final int VERSION_1_SIZE = 46;
+
+    public static final byte VERSION_2 = 2;
+
+    public static final int MAX_LOCATION_LENGTH = 0xFFFF;
+
+    private static final byte ID_PRESENT = 1;
+
+    private static final byte TIMESTAMP_PRESENT = 1 << 1;
+
+    private static final byte LOCATION_PRESENT = 1 << 2;
+
+    private static final byte[] NO_LOCATION = new byte[0];
+
+    private NetworkMessageBinaryCodec() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Encodes a network message into a new byte array.
+     *
+     * @param networkMessage the network message to encode
+     * @return the encoded network message
+     */
+    public static byte[] encode(final NetworkMessage networkMessage) {
+        final byte[] location = locationBytes(networkMessage);
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(encodedSize(location));
+        encode(networkMessage, location, byteBuffer);
+        return byteBuffer.array();
+    }
+
+    /**
+     * Encodes a network message into a buffer, starting at its current position.
+     *
+     * @param networkMessage the network message to encode
+     * @param byteBuffer     the buffer to write to, with at least {@link #encodedSize(NetworkMessage)} bytes remaining
+     */
+    public static void encode(final NetworkMessage networkMessage, final ByteBuffer byteBuffer) {
+        encode(networkMessage, locationBytes(networkMessage), byteBuffer);
+    }
+
+    /**
+     * Returns the number of bytes a network message is encoded in.
+     *
+     * @param networkMessage the network message
+     * @return {@value #VERSION_1_SIZE} if the message has no location, more otherwise
+     */
+    public static int encodedSize(final NetworkMessage networkMessage) {
+        return encodedSize(locationBytes(networkMessage));
+    }
+
+    private static void encode(final NetworkMessage networkMessage, final byte[] location, final ByteBuffer byteBuffer) {
+        final UUID id = networkMessage.getId();
+        final Instant timestamp = networkMessage.getTimestamp();
+        byte flags = 0;
+        if (id != null) {
+            flags |= ID_PRESENT;
+        }
+        if (timestamp != null) {
+            flags |= TIMESTAMP_PRESENT;
+        }
+        if (networkMessage.getLocation() != null) {
+            flags |= LOCATION_PRESENT;
+        }
+
+        byteBuffer.put((flags & LOCATION_PRESENT) != 0 ? VERSION_2 : VERSION_1);
+        byteBuffer.put(flags);
+        byteBuffer.putLong(id == null ? 0 : id.getMostSignificantBits());
+        byteBuffer.putLong(id == null ? 0 : id.getLeastSignificantBits());
+        byteBuffer.putLong(networkMessage.getNetworkId());
+        byteBuffer.putDouble(networkMessage.getSizeInBytes());
+        byteBuffer.putLong(timestamp == null ? 0 : timestamp.getEpochSecond());
+        byteBuffer.putInt(timestamp == null ? 0 : timestamp.getNano());
+        if ((flags & LOCATION_PRESENT) != 0) {
+            byteBuffer.putShort((short) location.length);
+            byteBuffer.put(location);
+        }
+    }
+
+    /**
+     * Decodes a network message from a buffer, starting at its current position.
+     *
+     * @param byteBuffer the buffer to read from
+     * @return the decoded network message
+     * @throws IllegalArgumentException if the buffer holds an unsupported version or too few bytes
+     */
+    public static NetworkMessage decode(final ByteBuffer byteBuffer) {
+        if (byteBuffer.remaining() < VERSION_1_SIZE) {
+            throw new IllegalArgumentException("Binary network message must have " + VERSION_1_SIZE
+                    + " bytes but has " + byteBuffer.remaining() + ".");
+        }
+
+        final byte version = byteBuffer.get();
+        if (!isBinary(version)) {
+            throw new IllegalArgumentException("Unsupported binary network message version: " + version + ".");
+        }
+
+        final byte flags = byteBuffer.get();
+        final long mostSignificantBits = byteBuffer.getLong();
+        final long leastSignificantBits = byteBuffer.getLong();
+        final long networkId = byteBuffer.getLong();
+        final double sizeInBytes = byteBuffer.getDouble();
+        final long epochSecond = byteBuffer.getLong();
+        final int nanos = byteBuffer.getInt();
+        final String location = version == VERSION_2 && (flags & LOCATION_PRESENT) != 0 ? decodeLocation(byteBuffer) : null;
+
+        return NetworkMessage.builder()
+                .id((flags & ID_PRESENT) != 0 ? new UUID(mostSignificantBits, leastSignificantBits) : null)
+                .networkId(networkId)
+                .sizeInBytes(sizeInBytes)
+                .timestamp((flags & TIMESTAMP_PRESENT) != 0 ? Instant.ofEpochSecond(epochSecond, nanos) : null)
+                .location(location)
+                .build();
+    }
+
+    /**
+     * Returns whether the data starts like a binary encoded network message rather than a JSON document.
+     *
+     * @param firstByte the first byte of the data
+     * @return {@code true} if the data looks like a binary encoded network message
+     */
+    public static boolean isBinary(final byte firstByte) {
+        return firstByte == VERSION_1 || firstByte == VERSION_2;
+    }
+
+    private static byte[] locationBytes(final NetworkMessage networkMessage) {
+        if (networkMessage.getLocation() == null) {
+            return NO_LOCATION;
+        }
+
+        final byte[] location = networkMessage.getLocation().getBytes(StandardCharsets.UTF_8);
+        if (location.length > MAX_LOCATION_LENGTH) {
+            throw new IllegalArgumentException("Network message location must have at most " + MAX_LOCATION_LENGTH
+                    + " bytes but has " + location.length + ".");
+        }
+
+        return location;
+    }
+
+    private static int encodedSize(final byte[] location) {
+        return location == NO_LOCATION ? VERSION_1_SIZE : VERSION_1_SIZE + Short.BYTES + location.length;
+    }
+
+    private static String decodeLocation(final ByteBuffer byteBuffer) {
+        if (byteBuffer.remaining() < Short.BYTES) {
+            throw new IllegalArgumentException("Binary network message is missing the length of its location.");
+        }
+
+        final int length = Short.toUnsignedInt(byteBuffer.getShort());
+        if (byteBuffer.remaining() < length) {
+            throw new IllegalArgumentException("Binary network message location must have " + length
+                    + " bytes but has " + byteBuffer.remaining() + ".");
+        }
+
+        final String location;
+        if (byteBuffer.hasArray()) {
+            location = new String(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), length, StandardCharsets.UTF_8);
+            byteBuffer.position(byteBuffer.position() + length);
+        } else {
+            final byte[] bytes = new byte[length];
+            byteBuffer.get(bytes);
+            location = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return location;
+    }
+}
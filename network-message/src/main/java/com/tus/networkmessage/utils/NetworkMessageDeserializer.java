@@ -0,0 +1,137 @@
+package com.tus.networkmessage.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Custom deserializer for Kafka that converts byte arrays into {@link NetworkMessage} objects.
+ * <p>
+ * The codec is selected by the {@value NetworkMessageFormat#HEADER} record header. Records without
+ * the header, such as those written by producers that predate it, are recognised by their first byte.
+ * Binary records are decoded straight from the record bytes by the {@link NetworkMessageBinaryCodec}.
+ * JSON records are deserialized with Jackson's ObjectMapper, with the {@link JavaTimeModule} registered
+ * for Java 8 date-time types and unknown properties ignored.
+ * </p>
+ */
+@Slf4j
+public class NetworkMessageDeserializer implements Deserializer<NetworkMessage> {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Configures the deserializer with the provided settings.
+     * <p>
+     * This method registers the {@link JavaTimeModule} with the ObjectMapper to handle Java 8 date-time
+     * types during JSON deserialization.
+     * </p>
+     *
+     * @param configs A map of configurations for the deserializer.
+     * @param isKey   A boolean indicating whether the deserialization is for a key or value.
+     */
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+        Deserializer.super.configure(configs, isKey);
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Deserializes a byte array into a {@link NetworkMessage} object, detecting its format from its first byte.
+     *
+     * @param topic The Kafka topic from which the message was consumed.
+     * @param data  The byte array representing the serialized message.
+     * @return The deserialized {@link NetworkMessage} object.
+     */
+    @Override
+    public NetworkMessage deserialize(final String topic, final byte[] data) {
+        return this.deserialize(topic, null, data);
+    }
+
+    /**
+     * Deserializes a byte array into a {@link NetworkMessage} object using the codec selected by the
+     * {@value NetworkMessageFormat#HEADER} record header.
+     *
+     * @param topic   The Kafka topic from which the message was consumed.
+     * @param headers The headers of the record.
+     * @param data    The byte array representing the serialized message.
+     * @return The deserialized {@link NetworkMessage} object.
+     */
+    @Override
+    public NetworkMessage deserialize(final String topic, final Headers headers, final byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        return this.deserialize(topic, headers, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Deserializes a buffer into a {@link NetworkMessage} object using the codec selected by the
+     * {@value NetworkMessageFormat#HEADER} record header.
+     *
+     * @param topic   The Kafka topic from which the message was consumed.
+     * @param headers The headers of the record.
+     * @param data    The buffer holding the serialized message.
+     * @return The deserialized {@link NetworkMessage} object.
+     */
+    @Override
+    public NetworkMessage deserialize(final String topic, final Headers headers, final ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+
+        try {
+            if (this.formatOf(headers, data) == NetworkMessageFormat.BINARY) {
+                return NetworkMessageBinaryCodec.decode(data);
+            }
+
+            if (data.hasArray()) {
+                return this.objectMapper.readValue(data.array(), data.arrayOffset() + data.position(), data.remaining(), NetworkMessage.class);
+            }
+
+            final byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            return this.objectMapper.readValue(bytes, NetworkMessage.class);
+        } catch (final Exception exception) {
+            throw new SerializationException("An error occurred while deserializing message from topic: " + topic + ".", exception);
+        }
+    }
+
+    /**
+     * Closes the deserializer.
+     * <p>
+     * This method is a no-op in this implementation, as no specific cleanup is required.
+     * </p>
+     */
+    @Override
+    public void close() {
+        Deserializer.super.close();
+    }
+
+    private NetworkMessageFormat formatOf(final Headers headers, final ByteBuffer data) {
+        final Header header = headers == null ? null : headers.lastHeader(NetworkMessageFormat.HEADER);
+        if (header != null) {
+            final NetworkMessageFormat format = NetworkMessageFormat.fromHeaderValue(header.value());
+            if (format != null) {
+                return format;
+            }
+        }
+
+        return data.hasRemaining() && NetworkMessageBinaryCodec.isBinary(data.get(data.position()))
+                ? NetworkMessageFormat.BINARY
+                : NetworkMessageFormat.JSON;
+    }
+}
@@ -0,0 +1,51 @@
+package com.tus.networkmessage.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Enum that represents the wire formats of a {@link com.tus.networkmessage.models.NetworkMessage}.
+ *
+ * <p>
+ * Producers write the format of every record to the {@value #HEADER} record header, so consumers can
+ * select the matching codec and JSON and binary producers can coexist on the same topic.
+ * </p>
+ */
+public enum NetworkMessageFormat {
+
+    JSON("json"),
+    BINARY("binary");
+
+    public static final String HEADER = "network-message-format";
+
+    private final byte[] headerValue;
+
+    NetworkMessageFormat(final String headerValue) {
+        this.headerValue = headerValue.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the value written to the {@value #HEADER} record header for this format.
+     *
+     * @return the UTF-8 encoded header value
+     */
+    public byte[] headerValue() {
+        return this.headerValue.clone();
+    }
+
+    /**
+     * Returns the format matching a {@value #HEADER} record header value.
+     *
+     * @param headerValue the UTF-8 encoded header value
+     * @return the matching format, or {@code null} if the header value is not recognised
+     */
+    public static NetworkMessageFormat fromHeaderValue(final byte[] headerValue) {
+        for (final NetworkMessageFormat format : values()) {
+            if (Arrays.equals(format.headerValue, headerValue)) {
+                return format;
+            }
+        }
+
+        return null;
+    }
+}
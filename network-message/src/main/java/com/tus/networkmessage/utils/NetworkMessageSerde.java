@@ -1,8 +1,8 @@
-package com.tus.anomalydetector.utils;
+package com.tus.networkmessage.utils;
 
 import org.apache.kafka.common.serialization.Serdes;
 
-import com.tus.anomalydetector.models.NetworkMessage;
+import com.tus.networkmessage.models.NetworkMessage;
 
 /**
  * A custom SerDe (Serializer/Deserializer) for {@link NetworkMessage} objects.
@@ -10,6 +10,8 @@ import com.tus.anomalydetector.models.NetworkMessage;
  * This class provides a wrapper for the Kafka Serdes functionality by combining
  * the custom {@link NetworkMessageSerializer} and {@link NetworkMessageDeserializer}
  * for serializing and deserializing {@link NetworkMessage} objects to and from byte arrays.
+ * Values are written in the format configured by {@link NetworkMessageSerializer#FORMAT_CONFIG}
+ * and read in whichever format the record header declares.
  * </p>
  */
 public class NetworkMessageSerde extends Serdes.WrapperSerde<NetworkMessage> {
@@ -0,0 +1,109 @@
+package com.tus.networkmessage.utils;
+
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import com.tus.networkmessage.models.NetworkMessage;
+
+/**
+ * Custom serializer for Kafka that converts {@link NetworkMessage} objects to byte arrays.
+ * <p>
+ * The serializer writes either the compact {@link NetworkMessageBinaryCodec binary format} or JSON,
+ * as selected by the {@value #FORMAT_CONFIG} configuration (binary by default). The format is recorded
+ * in the {@value NetworkMessageFormat#HEADER} record header so that consumers can select the matching
+ * codec. JSON is produced with Jackson's ObjectMapper, with the {@link JavaTimeModule} registered for
+ * Java 8 date-time types.
+ * </p>
+ */
+@Slf4j
+public class NetworkMessageSerializer implements Serializer<NetworkMessage> {
+
+    public static final String FORMAT_CONFIG = "network.message.format";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private NetworkMessageFormat format = NetworkMessageFormat.BINARY;
+
+    /**
+     * Configures the serializer with the provided settings.
+     * <p>
+     * This method reads the wire format from the {@value #FORMAT_CONFIG} configuration and registers
+     * the {@link JavaTimeModule} with the ObjectMapper to handle Java 8 date-time types during JSON
+     * serialization.
+     * </p>
+     *
+     * @param configs A map of configurations for the serializer.
+     * @param isKey   A boolean indicating whether the serialization is for a key or value.
+     */
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+        Serializer.super.configure(configs, isKey);
+        this.objectMapper.registerModule(new JavaTimeModule());
+
+        final Object format = configs.get(FORMAT_CONFIG);
+        if (format != null) {
+            this.format = NetworkMessageFormat.valueOf(String.valueOf(format).toUpperCase());
+        }
+    }
+
+    /**
+     * Serializes a {@link NetworkMessage} object into a byte array in the configured format.
+     *
+     * @param topic The Kafka topic to which the message is being serialized.
+     * @param data  The {@link NetworkMessage} object to serialize.
+     * @return The byte array representing the serialized message.
+     */
+    @Override
+    public byte[] serialize(final String topic, final NetworkMessage data) {
+        try {
+            if (data == null) {
+                return null;
+            }
+
+            return this.format == NetworkMessageFormat.BINARY
+                    ? NetworkMessageBinaryCodec.encode(data)
+                    : this.objectMapper.writeValueAsBytes(data);
+        } catch (final Exception exception) {
+            log.error("serialize() An error occurred while serializing message from topic: {}. Exception: {}", topic, exception.getMessage(), exception);
+            throw new SerializationException(exception);
+        }
+    }
+
+    /**
+     * Serializes a {@link NetworkMessage} object into a byte array in the configured format and
+     * records the format in the {@value NetworkMessageFormat#HEADER} record header.
+     *
+     * @param topic   The Kafka topic to which the message is being serialized.
+     * @param headers The headers of the record.
+     * @param data    The {@link NetworkMessage} object to serialize.
+     * @return The byte array representing the serialized message.
+     */
+    @Override
+    public byte[] serialize(final String topic, final Headers headers, final NetworkMessage data) {
+        if (data != null && headers != null) {
+            headers.remove(NetworkMessageFormat.HEADER);
+            headers.add(NetworkMessageFormat.HEADER, this.format.headerValue());
+        }
+
+        return this.serialize(topic, data);
+    }
+
+    /**
+     * Closes the serializer.
+     * <p>
+     * This method is a no-op in this implementation, as no specific cleanup is required.
+     * </p>
+     */
+    @Override
+    public void close() {
+        Serializer.super.close();
+    }
+}
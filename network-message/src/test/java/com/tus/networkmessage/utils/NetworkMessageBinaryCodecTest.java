@@ -0,0 +1,166 @@
+package com.tus.networkmessage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.tus.networkmessage.models.NetworkMessage;
+
+class NetworkMessageBinaryCodecTest {
+
+    private static final UUID ID = UUID.fromString("3f2b1c4d-5e6f-4a7b-8c9d-0e1f2a3b4c5d");
+
+    private static final Instant TIMESTAMP = Instant.ofEpochSecond(1_700_000_000L, 123_456_789);
+
+    @Test
+    void encodesMessageWithoutLocationAsVersion1() {
+        final NetworkMessage networkMessage = message(null);
+
+        final byte[] encoded = NetworkMessageBinaryCodec.encode(networkMessage);
+
+        assertThat(encoded).hasSize(NetworkMessageBinaryCodec.VERSION_1_SIZE);
+        assertThat(encoded[0]).isEqualTo(NetworkMessageBinaryCodec.VERSION_1);
+        assertThat(NetworkMessageBinaryCodec.encodedSize(networkMessage)).isEqualTo(NetworkMessageBinaryCodec.VERSION_1_SIZE);
+        assertDecodesTo(encoded, networkMessage);
+    }
+
+    @Test
+    void encodesMessageWithLocationAsVersion2() {
+        final NetworkMessage networkMessage = message("Athlone – Dublin Road");
+
+        final byte[] encoded = NetworkMessageBinaryCodec.encode(networkMessage);
+
+        assertThat(encoded[0]).isEqualTo(NetworkMessageBinaryCodec.VERSION_2);
+        assertThat(encoded).hasSize(NetworkMessageBinaryCodec.encodedSize(networkMessage));
+        assertDecodesTo(encoded, networkMessage);
+    }
+
+    @Test
+    void encodesEmptyLocationAsVersion2() {
+        final NetworkMessage networkMessage = message("");
+
+        final byte[] encoded = NetworkMessageBinaryCodec.encode(networkMessage);
+
+        assertThat(encoded[0]).isEqualTo(NetworkMessageBinaryCodec.VERSION_2);
+        assertDecodesTo(encoded, networkMessage);
+    }
+
+    @Test
+    void decodesVersion1MessageWithLocationFlagWithoutLocation() {
+        final byte[] encoded = NetworkMessageBinaryCodec.encode(message("Athlone"));
+        final byte[] version1 = Arrays.copyOf(encoded, NetworkMessageBinaryCodec.VERSION_1_SIZE);
+        version1[0] = NetworkMessageBinaryCodec.VERSION_1;
+
+        final NetworkMessage decoded = NetworkMessageBinaryCodec.decode(ByteBuffer.wrap(version1));
+
+        assertThat(decoded.getLocation()).isNull();
+        assertThat(decoded.getId()).isEqualTo(ID);
+    }
+
+    @Test
+    void encodesNullIdAndTimestamp() {
+        final NetworkMessage networkMessage = NetworkMessage.builder()
+                .networkId(7L)
+                .sizeInBytes(512.5)
+                .build();
+
+        final NetworkMessage decoded = NetworkMessageBinaryCodec.decode(ByteBuffer.wrap(NetworkMessageBinaryCodec.encode(networkMessage)));
+
+        assertThat(decoded.getId()).isNull();
+        assertThat(decoded.getTimestamp()).isNull();
+        assertThat(decoded.getLocation()).isNull();
+        assertThat(decoded.getNetworkId()).isEqualTo(7L);
+        assertThat(decoded.getSizeInBytes()).isEqualTo(512.5);
+    }
+
+    @Test
+    void encodesIntoBufferAtItsPosition() {
+        final NetworkMessage first = message(null);
+        final NetworkMessage second = message("Galway");
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(NetworkMessageBinaryCodec.encodedSize(first) + NetworkMessageBinaryCodec.encodedSize(second));
+
+        NetworkMessageBinaryCodec.encode(first, byteBuffer);
+        NetworkMessageBinaryCodec.encode(second, byteBuffer);
+        byteBuffer.flip();
+
+        assertThat(NetworkMessageBinaryCodec.decode(byteBuffer)).usingRecursiveComparison().isEqualTo(first);
+        assertThat(NetworkMessageBinaryCodec.decode(byteBuffer)).usingRecursiveComparison().isEqualTo(second);
+        assertThat(byteBuffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void rejectsTooLongLocation() {
+        final NetworkMessage networkMessage = message("a".repeat(NetworkMessageBinaryCodec.MAX_LOCATION_LENGTH + 1));
+
+        assertThatThrownBy(() -> NetworkMessageBinaryCodec.encode(networkMessage))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTruncatedMessage() {
+        final byte[] encoded = NetworkMessageBinaryCodec.encode(message(null));
+        final ByteBuffer truncated = ByteBuffer.wrap(encoded, 0, NetworkMessageBinaryCodec.VERSION_1_SIZE - 1);
+
+        assertThatThrownBy(() -> NetworkMessageBinaryCodec.decode(truncated))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsMissingLocationLength() {
+        final byte[] encoded = NetworkMessageBinaryCodec.encode(message("Galway"));
+        final ByteBuffer truncated = ByteBuffer.wrap(encoded, 0, NetworkMessageBinaryCodec.VERSION_1_SIZE + 1);
+
+        assertThatThrownBy(() -> NetworkMessageBinaryCodec.decode(truncated))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTruncatedLocation() {
+        final byte[] encoded = NetworkMessageBinaryCodec.encode(message("Galway"));
+        final ByteBuffer truncated = ByteBuffer.wrap(encoded, 0, encoded.length - 1);
+
+        assertThatThrownBy(() -> NetworkMessageBinaryCodec.decode(truncated))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        final byte[] encoded = NetworkMessageBinaryCodec.encode(message(null));
+        encoded[0] = 3;
+
+        assertThat(NetworkMessageBinaryCodec.isBinary(encoded[0])).isFalse();
+        assertThatThrownBy(() -> NetworkMessageBinaryCodec.decode(ByteBuffer.wrap(encoded)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void doesNotTakeJsonForBinary() {
+        assertThat(NetworkMessageBinaryCodec.isBinary((byte) '{')).isFalse();
+        assertThat(NetworkMessageBinaryCodec.isBinary(NetworkMessageBinaryCodec.VERSION_1)).isTrue();
+        assertThat(NetworkMessageBinaryCodec.isBinary(NetworkMessageBinaryCodec.VERSION_2)).isTrue();
+    }
+
+    private static NetworkMessage message(final String location) {
+        return NetworkMessage.builder()
+                .id(ID)
+                .networkId(42L)
+                .sizeInBytes(1024.25)
+                .timestamp(TIMESTAMP)
+                .location(location)
+                .build();
+    }
+
+    private static void assertDecodesTo(final byte[] encoded, final NetworkMessage expected) {
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(encoded);
+        final NetworkMessage decoded = NetworkMessageBinaryCodec.decode(byteBuffer);
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(byteBuffer.hasRemaining()).isFalse();
+    }
+}
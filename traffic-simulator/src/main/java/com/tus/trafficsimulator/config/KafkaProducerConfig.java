@@ -12,15 +12,20 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
-import com.tus.trafficsimulator.models.NetworkMessage;
+import com.tus.networkmessage.models.NetworkMessage;
+import com.tus.networkmessage.utils.NetworkMessageSerializer;
 
 /**
  * Configures Kafka producer.
  * <p>
- * Reads the Kafka bootstrap servers address from application properties
- * and uses it to configure the producer factory.
+ * Reads the Kafka bootstrap servers address, the network message wire format and the
+ * batching settings from application properties and uses them to configure the producer factory.
+ * The anomaly detector takes the event time of a message from its payload, so lingering to fill
+ * larger batches does not shift messages between time windows.
+ * <p>
+ * Sends are observed, so every sampled message gets a produce span and its trace context is
+ * propagated to the anomaly detector in the record headers.
  */
 @Configuration
 public class KafkaProducerConfig {
@@ -28,28 +33,42 @@ public class KafkaProducerConfig {
     @Value(value = "${spring.kafka.bootstrap-servers:}")
     private String bootstrapAddress;
 
+    @Value(value = "${traffic-simulator.kafka.network-message-format:binary}")
+    private String networkMessageFormat;
+
+    @Value(value = "${traffic-simulator.kafka.producer.linger-ms}")
+    private int lingerMs;
+
+    @Value(value = "${traffic-simulator.kafka.producer.batch-size}")
+    private int batchSize;
+
     /**
      * Configures a producer factory.
      *
      * @return a DefaultKafkaProducerFactory instance configured with the bootstrap
-     * servers address.
+     * servers address, the network message wire format and the batching settings.
      */
     @Bean
     ProducerFactory<String, NetworkMessage> producerFactory() {
         final Map<String, Object> configs = new HashMap<>();
         configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
         configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, NetworkMessageSerializer.class);
+        configs.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configs.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configs.put(NetworkMessageSerializer.FORMAT_CONFIG, networkMessageFormat);
         return new DefaultKafkaProducerFactory<>(configs);
     }
 
     /**
      * Configures a Kafka template.
      *
-     * @return a KafkaTemplate instance configured with the producer factory.
+     * @return a KafkaTemplate instance configured with the producer factory and observation enabled.
      */
     @Bean
     KafkaTemplate<String, NetworkMessage> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+        final KafkaTemplate<String, NetworkMessage> kafkaTemplate = new KafkaTemplate<>(producerFactory());
+        kafkaTemplate.setObservationEnabled(true);
+        return kafkaTemplate;
     }
 }
@@ -1,10 +1,16 @@
 package com.tus.trafficsimulator.config;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -19,35 +25,74 @@ import com.tus.trafficsimulator.utils.TrafficSimulatorConstants;
  * Reads the Kafka bootstrap servers address from application properties
  * and uses it to configure the KafkaAdmin bean.
  * <p>
- * Defines a Kafka topic named "network-messages" with a single partition
- * and a replication factor of 1.
+ * Defines a Kafka topic named "network-messages" with a configurable number
+ * of partitions and a replication factor of 1. Messages are keyed by network ID,
+ * so the partition count bounds how many anomaly detector stream tasks can share
+ * the load. The topic is only created when it does not exist yet: adding partitions
+ * to an existing topic moves some networks to a new partition while their state
+ * stays behind on the old one, so a different partition count of an existing topic
+ * is logged and left as is. Changing it requires the reset procedure described in
+ * the README.
  */
+@Slf4j
 @Configuration
 public class KafkaTopicConfig {
 
+    private static final long DESCRIBE_TIMEOUT_SECONDS = 30;
+
     @Value(value = "${spring.kafka.bootstrap-servers:}")
     private String bootstrapAddress;
 
+    @Value(value = "${traffic-simulator.kafka.network-messages.partitions}")
+    private int networkMessagesPartitions;
+
     /**
      * Configures KafkaAdmin bean.
      *
-     * @return a KafkaAdmin instance configured with the bootstrap servers address.
+     * @return a KafkaAdmin instance configured with the bootstrap servers address,
+     * that only creates topics which do not exist yet.
      */
     @Bean
     KafkaAdmin kafkaAdmin() {
         final Map<String, Object> configs = new HashMap<>();
         configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
-        return new KafkaAdmin(configs);
+        final KafkaAdmin kafkaAdmin = new KafkaAdmin(configs);
+        kafkaAdmin.setCreateOrModifyTopic(newTopic -> this.isMissing(configs, newTopic));
+        return kafkaAdmin;
     }
 
     /**
      * Defines a Kafka topic named "network-messages".
      *
-     * @return a NewTopic instance with a single partition and a replication factor
-     * of 1.
+     * @return a NewTopic instance with the configured number of partitions and a
+     * replication factor of 1.
      */
     @Bean
     NewTopic networkMessagesTopic() {
-        return new NewTopic(TrafficSimulatorConstants.NETWORK_MESSAGES_TOPIC, 1, (short) 1);
+        return new NewTopic(TrafficSimulatorConstants.NETWORK_MESSAGES_TOPIC, networkMessagesPartitions, (short) 1);
+    }
+
+    private boolean isMissing(final Map<String, Object> configs, final NewTopic newTopic) {
+        try (Admin admin = Admin.create(configs)) {
+            if (!admin.listTopics().names().get(DESCRIBE_TIMEOUT_SECONDS, TimeUnit.SECONDS).contains(newTopic.name())) {
+                return true;
+            }
+
+            final TopicDescription topicDescription = admin.describeTopics(List.of(newTopic.name())).allTopicNames()
+                    .get(DESCRIBE_TIMEOUT_SECONDS, TimeUnit.SECONDS).get(newTopic.name());
+            if (topicDescription.partitions().size() != newTopic.numPartitions()) {
+                log.warn("isMissing() Topic: {} has {} partitions instead of the configured {}, keeping them. Follow the reset procedure in the README to change them.",
+                        newTopic.name(), topicDescription.partitions().size(), newTopic.numPartitions());
+            }
+
+            return false;
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (final Exception exception) {
+            // Without knowing whether the topic exists it is left alone rather than risk adding partitions to it.
+            log.error("isMissing() Failed to check whether topic: {} exists. Exception: {}", newTopic.name(), exception.getMessage(), exception);
+            return false;
+        }
     }
 }
@@ -10,6 +10,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.stereotype.Repository;
 
+import io.micrometer.observation.ObservationRegistry;
+
 import com.tus.trafficsimulator.persistence.entities.Network;
 import com.tus.trafficsimulator.services.KafkaProducerService;
 import com.tus.trafficsimulator.simulation.NetworkSimulation;
@@ -25,6 +27,8 @@ public class NetworkSimulationRepository {
 
     private final KafkaProducerService kafkaProducerService;
 
+    private final ObservationRegistry observationRegistry;
+
     private final Map<Long, NetworkSimulation> networkSimulations;
 
     /**
@@ -32,11 +36,14 @@ public class NetworkSimulationRepository {
      *
      * @param networkRepository    The network repository.
      * @param kafkaProducerService The Kafka producer service.
+     * @param observationRegistry  The registry in which the generated network messages are observed.
      */
     public NetworkSimulationRepository(final NetworkRepository networkRepository,
-                                       final KafkaProducerService kafkaProducerService) {
+                                       final KafkaProducerService kafkaProducerService,
+                                       final ObservationRegistry observationRegistry) {
         this.networkRepository = networkRepository;
         this.kafkaProducerService = kafkaProducerService;
+        this.observationRegistry = observationRegistry;
         this.networkSimulations = new ConcurrentHashMap<>();
     }
 
@@ -69,7 +76,7 @@ public class NetworkSimulationRepository {
         }
 
         log.info("save() Saving network simulation with network ID: {}.", network.getId());
-        final NetworkSimulation networkSimulation = new NetworkSimulation(network, this.kafkaProducerService);
+        final NetworkSimulation networkSimulation = new NetworkSimulation(network, this.kafkaProducerService, this.observationRegistry);
         networkSimulation.start();
         this.networkSimulations.put(network.getId(), networkSimulation);
     }
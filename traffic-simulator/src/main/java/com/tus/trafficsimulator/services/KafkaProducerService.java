@@ -8,7 +8,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
-import com.tus.trafficsimulator.models.NetworkMessage;
+import com.tus.networkmessage.models.NetworkMessage;
 import com.tus.trafficsimulator.utils.TrafficSimulatorConstants;
 
 /**
@@ -30,13 +30,14 @@ public class KafkaProducerService {
     }
 
     /**
-     * Sends a message to a Kafka topic.
+     * Sends a message to a Kafka topic, keyed by its network ID so that all messages
+     * of a network land on the same partition.
      *
      * @param message the message to send.
      */
     public void sendMessage(final NetworkMessage message) {
         final CompletableFuture<SendResult<String, NetworkMessage>> future = kafkaTemplate
-                .send(TrafficSimulatorConstants.NETWORK_MESSAGES_TOPIC, message);
+                .send(TrafficSimulatorConstants.NETWORK_MESSAGES_TOPIC, String.valueOf(message.getNetworkId()), message);
         future.whenComplete((result, exception) -> {
             if (exception == null) {
                 log.info("sendMessage() Message sent to Kafka topic: {}. Message: {}. Offset: {}.",
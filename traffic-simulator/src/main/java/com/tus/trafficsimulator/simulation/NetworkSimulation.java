@@ -10,17 +10,26 @@ import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import com.tus.trafficsimulator.models.NetworkMessage;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import com.tus.networkmessage.models.NetworkMessage;
 import com.tus.trafficsimulator.persistence.entities.Network;
 import com.tus.trafficsimulator.persistence.enums.NetworkStatus;
 import com.tus.trafficsimulator.services.KafkaProducerService;
 import com.tus.trafficsimulator.simulation.enums.HealthStatus;
+import com.tus.trafficsimulator.utils.TrafficSimulatorConstants;
 
 /**
  * Represents a network simulation entity that generates network messages for a
  * network.
  *
  * <p>
+ * Generating and sending a message is observed, so a sampled message starts a trace
+ * whose context the Kafka producer propagates in the record headers.
+ * </p>
+ *
+ * <p>
  * This class uses Lombok annotations to generate a logger instance.
  * </p>
  */
@@ -46,6 +55,8 @@ public class NetworkSimulation {
 
     private final KafkaProducerService kafkaProducerService;
 
+    private final ObservationRegistry observationRegistry;
+
     private final ScheduledExecutorService scheduledExecutorService;
 
     private final HealthStatus healthStatus;
@@ -57,10 +68,14 @@ public class NetworkSimulation {
      *                             being created.
      * @param kafkaProducerService the Kafka producer service used to send network
      *                             messages.
+     * @param observationRegistry  the registry in which generating and sending
+     *                             network messages is observed.
      */
-    public NetworkSimulation(final Network network, final KafkaProducerService kafkaProducerService) {
+    public NetworkSimulation(final Network network, final KafkaProducerService kafkaProducerService,
+                             final ObservationRegistry observationRegistry) {
         this.network = network;
         this.kafkaProducerService = kafkaProducerService;
+        this.observationRegistry = observationRegistry;
         this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
         this.healthStatus = RANDOM.nextInt(10) + 1 < 5 ? HealthStatus.UNHEALTHY : HealthStatus.HEALTHY;
     }
@@ -71,10 +86,14 @@ public class NetworkSimulation {
     public void start() {
         this.scheduledExecutorService.scheduleAtFixedRate(() -> {
             if (this.network.getStatus() == NetworkStatus.ACTIVATED) {
-                final NetworkMessage networkMessage = this.generateNetworkMessage();
-                log.info("start() Network with ID: {} generated network message: {}", this.network.getId(),
-                        networkMessage);
-                this.kafkaProducerService.sendMessage(networkMessage);
+                Observation.createNotStarted(TrafficSimulatorConstants.NETWORK_MESSAGE_GENERATE_OBSERVATION, this.observationRegistry)
+                        .highCardinalityKeyValue(TrafficSimulatorConstants.NETWORK_ID_KEY, String.valueOf(this.network.getId()))
+                        .observe(() -> {
+                            final NetworkMessage networkMessage = this.generateNetworkMessage();
+                            log.info("start() Network with ID: {} generated network message: {}", this.network.getId(),
+                                    networkMessage);
+                            this.kafkaProducerService.sendMessage(networkMessage);
+                        });
             }
         }, INITIAL_DELAY, RANDOM.nextInt(MIN_PERIOD, MAX_PERIOD + 1), TimeUnit.SECONDS);
     }
@@ -100,6 +119,7 @@ public class NetworkSimulation {
                 .networkId(this.network.getId())
                 .sizeInBytes(sizeInBytes)
                 .timestamp(Instant.now())
+                .location(this.network.getLocation())
                 .build();
     }
 }
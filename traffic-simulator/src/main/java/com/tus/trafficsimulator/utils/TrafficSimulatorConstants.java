@@ -16,4 +16,8 @@ public class TrafficSimulatorConstants {
     public static final String NETWORKS_TABLE = "networks";
 
     public static final String NETWORK_MESSAGES_TOPIC = "network-messages";
+
+    public static final String NETWORK_MESSAGE_GENERATE_OBSERVATION = "network.message.generate";
+
+    public static final String NETWORK_ID_KEY = "network.id";
 }
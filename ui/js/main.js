@@ -10,6 +10,10 @@ $(document).ready(function () {
 
     const networkSummariesURL = "http://localhost:8081/v1/network-summaries";
 
+    const networkEventsURL = "http://localhost:8081/v1/network-events";
+
+    const dashboardURL = "http://localhost:8081/v1/dashboard";
+
 // Initialize animations -----------------------------------------------------------------------------------------------
 
     const initAnimations = function () {
@@ -118,8 +122,8 @@ $(document).ready(function () {
             url: `${networkAnomaliesURL}`,
             dataType: "json",
             success: function (data, status, jqXHR) {
-                if (Array.isArray(data) && data.length > 0) {
-                    renderNetworkAnomaliesTable(data);
+                if (Array.isArray(data.networkAnomalies) && data.networkAnomalies.length > 0) {
+                    renderNetworkAnomaliesTable(data.networkAnomalies);
                 } else {
                     $("#modal-title").text("Network Anomalies Data Error");
                     $("#modal-contents").html(`<h5>No network anomalies found.</h5>`);
@@ -270,8 +274,13 @@ $(document).ready(function () {
 
 // Line charts ---------------------------------------------------------------------------------------------------------
 
+    const maxAnomalyPoints = 100;
+
     let globalLineChart = null;
     const networkLineCharts = {};
+    const networkAnomaliesByNetworkId = new Map();
+    const dirtyNetworkIds = new Set();
+    let globalLineChartDirty = false;
 
     const createLineChart = function (chartElement, trafficVolumeSummary) {
         return new Chart(chartElement, {
@@ -361,50 +370,33 @@ $(document).ready(function () {
         networkSummaries.forEach(networkSummary => {
             const chartId = `line-chart-${networkSummary.networkId}`;
             updatedChartIds.add(chartId);
+            const networkAnomalies = networkAnomaliesByNetworkId.get(networkSummary.networkId) || [];
+            const trafficVolumeSummary = {
+                title: `Network ${networkSummary.networkId}`,
+                timestamps: networkAnomalies.map(networkAnomaly => networkAnomaly.timestamp),
+                volumes: networkAnomalies.map(networkAnomaly => networkAnomaly.sizeInBytes)
+            };
 
             if (!networkLineCharts[chartId]) {
                 const canvas = $(
                     `<div class="col-md-6 col-sm-12"><canvas id="${chartId}" width="400" height="400"></canvas></div>`
                 );
                 $("#trends .row").append(canvas);
+                const chartElement = document.getElementById(chartId);
+                networkLineCharts[chartId] = createLineChart(chartElement, trafficVolumeSummary);
+                return;
             }
 
-            const chartElement = document.getElementById(chartId);
-
-            $.ajax({
-                type: "GET",
-                url: `${networkAnomaliesURL}/network/${networkSummary.networkId}`,
-                dataType: "json",
-                success: function (data, status, jqXHR) {
-                    const timestamps = data.map(networkAnomaly => networkAnomaly.timestamp);
-                    const volumes = data.map(networkAnomaly => networkAnomaly.sizeInBytes);
-
-                    const trafficVolumeSummary = {
-                        title: `Network ${networkSummary.networkId}`,
-                        timestamps: timestamps,
-                        volumes: volumes
-                    };
-
-                    if (!networkLineCharts[chartId]) {
-                        networkLineCharts[chartId] = createLineChart(chartElement, trafficVolumeSummary);
-                        return;
-                    }
+            if (!dirtyNetworkIds.has(networkSummary.networkId)) {
+                return;
+            }
 
-                    const networkLineChart = networkLineCharts[chartId];
-                    networkLineChart.data.labels = trafficVolumeSummary.timestamps;
-                    networkLineChart.data.datasets[0].data = trafficVolumeSummary.volumes;
-                    networkLineChart.options.plugins.title.text = trafficVolumeSummary.title;
-                    networkLineChart.update();
-                },
-                error: function (jqXHR, status, error) {
-                    console.error(`[ERROR] Failed to fetch anomalies for network ID: ${networkSummary.networkId}`, {
-                        status: status,
-                        error: error,
-                        responseText: jqXHR.responseText
-                    });
-                }
-            });
+            const networkLineChart = networkLineCharts[chartId];
+            networkLineChart.data.labels = trafficVolumeSummary.timestamps;
+            networkLineChart.data.datasets[0].data = trafficVolumeSummary.volumes;
+            networkLineChart.update("none");
         });
+        dirtyNetworkIds.clear();
 
         const existingChartIds = Object.keys(networkLineCharts);
         existingChartIds.forEach(chartId => {
@@ -416,6 +408,33 @@ $(document).ready(function () {
         });
     };
 
+    // Anomalies are kept newest first, as returned by the API, and merged by ID because snapshots overlap.
+    const mergeNetworkAnomalies = function (networkId, networkAnomalies) {
+        const merged = new Map();
+        networkAnomalies.concat(networkAnomaliesByNetworkId.get(networkId) || [])
+            .forEach(networkAnomaly => merged.set(networkAnomaly.id, networkAnomaly));
+        const latest = Array.from(merged.values())
+            .sort((a, b) => new Date(b.timestamp) - new Date(a.timestamp))
+            .slice(0, maxAnomalyPoints);
+        networkAnomaliesByNetworkId.set(networkId, latest);
+        dirtyNetworkIds.add(networkId);
+    };
+
+    const appendNetworkAnomaly = function (networkAnomaly) {
+        mergeNetworkAnomalies(networkAnomaly.networkId, [networkAnomaly]);
+
+        if (globalLineChart) {
+            globalLineChart.data.labels.unshift(networkAnomaly.timestamp);
+            globalLineChart.data.datasets[0].data.unshift(networkAnomaly.sizeInBytes);
+            if (globalLineChart.data.labels.length > maxAnomalyPoints) {
+                globalLineChart.data.labels.pop();
+                globalLineChart.data.datasets[0].data.pop();
+            }
+
+            globalLineChartDirty = true;
+        }
+    };
+
 // Bar chart -----------------------------------------------------------------------------------------------------------
 
     let globalBarChart = null;
@@ -507,16 +526,54 @@ $(document).ready(function () {
 
 // Update charts -------------------------------------------------------------------------------------------------------
 
-    const getNetworkSummariesAndUpdateCharts = function () {
+    const networkSummaries = new Map();
+    let dashboardVersion = null;
+    let renderTimeout = null;
+
+    const renderCharts = function () {
+        const data = Array.from(networkSummaries.values());
+        updateGlobalPieChart(data);
+        updateGlobalBarChart(data);
+        updateNetworkPieCharts(data);
+        updateNetworkLineCharts(data);
+        if (globalLineChartDirty) {
+            globalLineChart.update("none");
+            globalLineChartDirty = false;
+        }
+    };
+
+    // Events arrive in bursts, so the charts are redrawn at most a few times per second.
+    const scheduleRenderCharts = function () {
+        if (renderTimeout) {
+            return;
+        }
+
+        renderTimeout = setTimeout(function () {
+            renderTimeout = null;
+            renderCharts();
+        }, 250);
+    };
+
+    // Loads the summaries and the latest anomalies of every network in one request. With a version, only
+    // the networks that changed after it are returned and merged into what is already shown.
+    const getDashboardAndUpdateCharts = function (since) {
+        const sinceParameter = since ? `&since=${encodeURIComponent(since)}` : "";
         $.ajax({
             type: "GET",
-            url: `${networkSummariesURL}`,
+            url: `${dashboardURL}?anomalyLimit=${maxAnomalyPoints}${sinceParameter}`,
             dataType: "json",
             success: function (data, status, jqXHR) {
-                updateGlobalPieChart(data);
-                updateGlobalBarChart(data);
-                updateNetworkPieCharts(data);
-                updateNetworkLineCharts(data);
+                if (!since) {
+                    networkSummaries.forEach((networkSummary, networkId) => dirtyNetworkIds.add(networkId));
+                    networkSummaries.clear();
+                    networkAnomaliesByNetworkId.clear();
+                }
+
+                dashboardVersion = data.version;
+                data.networkSummaries.forEach(networkSummary => networkSummaries.set(networkSummary.networkId, networkSummary));
+                Object.entries(data.networkAnomalies).forEach(([networkId, networkAnomalies]) =>
+                    mergeNetworkAnomalies(Number(networkId), networkAnomalies));
+                renderCharts();
             },
             error: function (jqXHR, status, error) {
                 $("#modal-title").text("GET Error");
@@ -526,19 +583,13 @@ $(document).ready(function () {
         });
     };
 
-    getNetworkSummariesAndUpdateCharts();
-    setInterval(function () {
-        console.info("Polling for network summaries.");
-        getNetworkSummariesAndUpdateCharts();
-    }, 3000);
-
     const getNetworkAnomaliesAndUpdateCharts = function () {
         $.ajax({
             type: "GET",
             url: `${networkAnomaliesURL}`,
             dataType: "json",
             success: function (data, status, jqXHR) {
-                updateGlobalLineChart(data);
+                updateGlobalLineChart(data.networkAnomalies);
             },
             error: function (jqXHR, status, error) {
                 $("#modal-title").text("GET Error");
@@ -546,13 +597,43 @@ $(document).ready(function () {
                 $("#modal").modal("show");
             }
         });
-    }
+    };
+
+    // The browser reconnects on its own and sends the ID of the last event it received, so no events are missed.
+    const subscribeToNetworkEvents = function () {
+        const networkEvents = new EventSource(networkEventsURL);
+
+        networkEvents.addEventListener("network-summary", function (event) {
+            const networkSummary = JSON.parse(event.data);
+            networkSummaries.set(networkSummary.networkId, networkSummary);
+            scheduleRenderCharts();
+        });
+
+        networkEvents.addEventListener("network-anomaly", function (event) {
+            appendNetworkAnomaly(JSON.parse(event.data));
+            scheduleRenderCharts();
+        });
+
+        networkEvents.addEventListener("dropped", function (event) {
+            console.warn(`${event.data} network events were dropped, catching up.`);
+            getDashboardAndUpdateCharts(dashboardVersion);
+            getNetworkAnomaliesAndUpdateCharts();
+        });
+
+        networkEvents.addEventListener("reset", function () {
+            console.info("Network events could not be resumed, reloading charts.");
+            getDashboardAndUpdateCharts(null);
+            getNetworkAnomaliesAndUpdateCharts();
+        });
+
+        networkEvents.onerror = function () {
+            console.warn("Network events connection lost, reconnecting.");
+        };
+    };
 
+    subscribeToNetworkEvents();
+    getDashboardAndUpdateCharts(null);
     getNetworkAnomaliesAndUpdateCharts();
-    setInterval(function () {
-        console.info("Polling for network anomalies.");
-        getNetworkAnomaliesAndUpdateCharts();
-    }, 3000);
 
 // Networks table ------------------------------------------------------------------------------------------------------
 